@@ -0,0 +1,63 @@
+package org.gargiolang.benchmarks;
+
+import org.gargiolang.compilation.Compiler;
+import org.gargiolang.compilation.parser.Parser;
+import org.gargiolang.compilation.structures.trees.SyntaxTree;
+import org.gargiolang.compilation.threeaddresscode.ThreeAddressCode;
+import org.gargiolang.environment.Environment;
+import org.gargiolang.exception.GargioniException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.tokenizer.StatementSource;
+import org.gargiolang.tokenizer.tokens.TokenLine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time the compiler takes to parse a generated program and to generate its three address code.
+ * The program is tokenized, and the symbols of the previous program are forgotten, before every invocation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompilerBenchmark {
+
+    @Param({"100", "1000"})
+    int size;
+
+    private List<String> statements;
+
+    private Runtime runtime;
+    private LinkedList<TokenLine> tokens;
+
+
+    @Setup(Level.Trial)
+    public void generate() {
+        statements = ScriptGenerator.compiler(size);
+    }
+
+    @Setup(Level.Invocation)
+    public void tokenize() throws GargioniException, IOException {
+        Compiler.symbolTable().clear();
+        runtime = new Runtime(new Environment());
+        tokens = runtime.tokenize(StatementSource.of(statements));
+    }
+
+
+    @Benchmark
+    public SyntaxTree parse() throws GargioniException {
+        return Parser.parse(tokens, runtime.getLabelTable());
+    }
+
+    @Benchmark
+    public ThreeAddressCode threeAddressCode() throws GargioniException {
+        return new ThreeAddressCode(Parser.parse(tokens, runtime.getLabelTable()));
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.gargiolang.benchmarks;
+
+import org.gargiolang.environment.Environment;
+import org.gargiolang.exception.GargioniException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.tokenizer.StatementSource;
+import org.gargiolang.tokenizer.tokens.TokenLine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time the Interpreter takes to run the loop, function call and string workloads.
+ * The script is tokenized by a new Runtime before every invocation, so only its execution is measured
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpreterBenchmark {
+
+    @Param({"loop", "calls", "strings"})
+    String workload;
+
+    // iterations of the loop of the workload
+    @Param({"10000"})
+    int size;
+
+    private List<String> statements;
+
+    private Runtime runtime;
+    private LinkedList<TokenLine> tokens;
+
+
+    @Setup(Level.Trial)
+    public void generate() {
+        statements = switch (workload) {
+            case "loop" -> ScriptGenerator.loop(size);
+            case "calls" -> ScriptGenerator.calls(size);
+            case "strings" -> ScriptGenerator.strings(size);
+            default -> throw new IllegalArgumentException("Unknown workload: " + workload);
+        };
+    }
+
+    @Setup(Level.Invocation)
+    public void tokenize() throws GargioniException, IOException {
+        runtime = new Runtime(new Environment());
+        tokens = runtime.tokenize(StatementSource.of(statements));
+    }
+
+
+    @Benchmark
+    public Runtime execute() throws GargioniException, ReflectiveOperationException {
+        runtime.run(tokens);
+        return runtime;
+    }
+
+}
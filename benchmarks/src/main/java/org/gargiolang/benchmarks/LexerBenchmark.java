@@ -0,0 +1,53 @@
+package org.gargiolang.benchmarks;
+
+import org.gargiolang.environment.Environment;
+import org.gargiolang.exception.GargioniException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.tokenizer.Lexer;
+import org.gargiolang.tokenizer.StatementSource;
+import org.gargiolang.tokenizer.tokens.TokenLine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time the Lexer takes to tokenize a generated script of the given number of statements,
+ * sequentially and on the common ForkJoinPool (its size can be set with -Djava.util.concurrent.ForkJoinPool.common.parallelism=N)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+
+    @Param({"100", "10000", "200000"})
+    int size;
+
+    private List<String> statements;
+    private Runtime runtime;
+
+
+    @Setup
+    public void setup() {
+        statements = ScriptGenerator.lexer(size);
+        runtime = new Runtime(new Environment());
+    }
+
+
+    @Benchmark
+    public LinkedList<TokenLine> tokenize() throws GargioniException, IOException {
+        return new Lexer(StatementSource.of(statements), runtime).tokenize();
+    }
+
+    @Benchmark
+    public LinkedList<TokenLine> tokenizeParallel() throws GargioniException, IOException {
+        return new Lexer(StatementSource.of(statements), runtime).tokenize(ForkJoinPool.commonPool());
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.gargiolang.benchmarks;
+
+import org.gargiolang.environment.Environment;
+import org.gargiolang.exception.GargioniException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.tokenizer.StatementSource;
+import org.gargiolang.tokenizer.tokens.TokenLine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time the Interpreter takes to evaluate every arithmetic and logical operator in a while loop.
+ * The ASSIGN operations only assign a variable: their time is the cost of the loop, to be subtracted
+ * from the operations with the same operand types
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorBenchmark {
+
+    @Param({
+            "ASSIGN_int", "ADD_int", "SUB_int", "MUL_int", "DIV_int", "MOD_int", "POW_int", "INV_int", "INC_int", "DEC_int",
+            "GR_int", "LS_int", "GRE_int", "LSE_int", "EQ_int", "NE_int",
+            "ASSIGN_float", "ADD_float", "SUB_float", "MUL_float", "DIV_float", "MOD_float", "POW_float", "ADD_mixed",
+            "GR_float", "EQ_float",
+            "ASSIGN_boolean", "AND_boolean", "OR_boolean", "EQ_boolean", "NE_boolean", "NOT_boolean"
+    })
+    String operation;
+
+    // iterations of the loop, the operator is evaluated ScriptGenerator.OPERATOR_UNROLL times per iteration
+    @Param({"10000"})
+    int size;
+
+    private Runtime runtime;
+    private LinkedList<TokenLine> tokens;
+
+
+    @Setup(Level.Invocation)
+    public void tokenize() throws GargioniException, IOException {
+        runtime = new Runtime(new Environment());
+        tokens = runtime.tokenize(StatementSource.of(ScriptGenerator.operator(operation, size)));
+    }
+
+
+    @Benchmark
+    public Runtime execute() throws GargioniException, ReflectiveOperationException {
+        runtime.run(tokens);
+        return runtime;
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.gargiolang.benchmarks;
+
+import org.gargiolang.environment.Environment;
+import org.gargiolang.exception.GargioniException;
+import org.gargiolang.preprocessing.Preprocessor;
+import org.gargiolang.tokenizer.StatementSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time the Preprocessor takes to go through a generated script with directives and conditionals
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreprocessorBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    private List<String> statements;
+
+    // the conditionals look the names up in the environment
+    private Environment environment;
+
+
+    @Setup
+    public void setup() {
+        statements = ScriptGenerator.preprocessor(size);
+        environment = new Environment();
+    }
+
+
+    @Benchmark
+    public void process(Blackhole blackhole) throws GargioniException, IOException {
+        Preprocessor preprocessor = new Preprocessor(StatementSource.of(statements), environment);
+        for (String statement = preprocessor.next(); statement != null; statement = preprocessor.next()) {
+            blackhole.consume(statement);
+        }
+    }
+
+}
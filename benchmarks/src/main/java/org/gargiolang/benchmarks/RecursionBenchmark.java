@@ -0,0 +1,54 @@
+package org.gargiolang.benchmarks;
+
+import org.gargiolang.environment.Environment;
+import org.gargiolang.exception.GargioniException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.tokenizer.StatementSource;
+import org.gargiolang.tokenizer.tokens.TokenLine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time the Interpreter takes to compute the n-th Fibonacci number recursively, dominated by the cost of function calls.
+ * The script is tokenized by a new Runtime before every invocation, so only its execution is measured
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecursionBenchmark {
+
+    @Param({"15", "20"})
+    int n;
+
+    private List<String> statements;
+
+    private Runtime runtime;
+    private LinkedList<TokenLine> tokens;
+
+
+    @Setup(Level.Trial)
+    public void generate() {
+        statements = ScriptGenerator.fibonacci(n);
+    }
+
+    @Setup(Level.Invocation)
+    public void tokenize() throws GargioniException, IOException {
+        runtime = new Runtime(new Environment());
+        tokens = runtime.tokenize(StatementSource.of(statements));
+    }
+
+
+    @Benchmark
+    public Runtime fib() throws GargioniException, ReflectiveOperationException {
+        runtime.run(tokens);
+        return runtime;
+    }
+
+}
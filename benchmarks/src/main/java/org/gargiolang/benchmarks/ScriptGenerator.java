@@ -0,0 +1,234 @@
+package org.gargiolang.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates synthetic scripts of a given size for the benchmarks.
+ * Scripts are deterministic, so that results can be compared between runs
+ */
+public final class ScriptGenerator {
+
+    // statements that cover every state of the Lexer
+    private static final String[] lexerTemplates = {
+            "int variable%d = %d * (counter + 42) - other / 7",
+            "float ratio%d = %d.5 ** 2 + ratio %% 3",
+            "string text%d = \"line %d with \\\"escapes\\\"\\n\"",
+            "if (index%d >= %d && flag || !done) { total += index }",
+            "while (remaining%d != %d) { remaining-- }",
+            "def int function%d(int a, int b) { return a + b * %d }",
+            "result = function(variable%d, %d) // a comment at the end",
+            "boolean check%d = true == (limit <= %d)"
+    };
+
+    /** number of times the operator of an operator loop is evaluated per iteration */
+    public static final int OPERATOR_UNROLL = 10;
+
+    private static final String INTS = "int a = 7; int b = 3; int r = 0";
+    private static final String FLOATS = "float a = 7.5; float b = 3.5; float r = 0.0";
+    private static final String BOOLEANS = "boolean a = true; boolean b = false; boolean r = false";
+
+    // declarations and the statement that evaluates the operator, expressions are wrapped in parentheses
+    // since && and || have the same priority as the assignment
+    private static final Map<String, String[]> operations = Map.ofEntries(
+            Map.entry("ASSIGN_int", new String[] {INTS, "r = (a)"}),
+            Map.entry("ADD_int", new String[] {INTS, "r = (a + b)"}),
+            Map.entry("SUB_int", new String[] {INTS, "r = (a - b)"}),
+            Map.entry("MUL_int", new String[] {INTS, "r = (a * b)"}),
+            Map.entry("DIV_int", new String[] {INTS, "r = (a / b)"}),
+            Map.entry("MOD_int", new String[] {INTS, "r = (a % b)"}),
+            Map.entry("POW_int", new String[] {INTS, "r = (a ** b)"}),
+            Map.entry("INV_int", new String[] {INTS, "r = (-a)"}),
+            Map.entry("INC_int", new String[] {INTS, "a++"}),
+            Map.entry("DEC_int", new String[] {INTS, "a--"}),
+            Map.entry("GR_int", new String[] {"int a = 7; int b = 3; boolean r = false", "r = (a > b)"}),
+            Map.entry("LS_int", new String[] {"int a = 7; int b = 3; boolean r = false", "r = (a < b)"}),
+            Map.entry("GRE_int", new String[] {"int a = 7; int b = 3; boolean r = false", "r = (a >= b)"}),
+            Map.entry("LSE_int", new String[] {"int a = 7; int b = 3; boolean r = false", "r = (a <= b)"}),
+            Map.entry("EQ_int", new String[] {"int a = 7; int b = 3; boolean r = false", "r = (a == b)"}),
+            Map.entry("NE_int", new String[] {"int a = 7; int b = 3; boolean r = false", "r = (a != b)"}),
+
+            Map.entry("ASSIGN_float", new String[] {FLOATS, "r = (a)"}),
+            Map.entry("ADD_float", new String[] {FLOATS, "r = (a + b)"}),
+            Map.entry("SUB_float", new String[] {FLOATS, "r = (a - b)"}),
+            Map.entry("MUL_float", new String[] {FLOATS, "r = (a * b)"}),
+            Map.entry("DIV_float", new String[] {FLOATS, "r = (a / b)"}),
+            Map.entry("MOD_float", new String[] {FLOATS, "r = (a % b)"}),
+            Map.entry("POW_float", new String[] {FLOATS, "r = (a ** b)"}),
+            Map.entry("ADD_mixed", new String[] {"float a = 7.5; int b = 3; float r = 0.0", "r = (a + b)"}),
+            Map.entry("GR_float", new String[] {"float a = 7.5; float b = 3.5; boolean r = false", "r = (a > b)"}),
+            Map.entry("EQ_float", new String[] {"float a = 7.5; float b = 3.5; boolean r = false", "r = (a == b)"}),
+
+            Map.entry("ASSIGN_boolean", new String[] {BOOLEANS, "r = (a)"}),
+            Map.entry("AND_boolean", new String[] {BOOLEANS, "r = (a && b)"}),
+            Map.entry("OR_boolean", new String[] {BOOLEANS, "r = (a || b)"}),
+            Map.entry("EQ_boolean", new String[] {BOOLEANS, "r = (a == b)"}),
+            Map.entry("NE_boolean", new String[] {BOOLEANS, "r = (a != b)"}),
+            Map.entry("NOT_boolean", new String[] {BOOLEANS, "r = (!a)"})
+    );
+
+
+    private ScriptGenerator() {
+
+    }
+
+
+    /**
+     * Splits a script into its statements, like the StatementReader does
+     */
+    public static List<String> statements(String script) {
+        return Arrays.asList(script.split(";"));
+    }
+
+
+    /**
+     * A script of the given number of statements for the Lexer, it's not meant to be run
+     */
+    public static List<String> lexer(int size) {
+        ArrayList<String> statements = new ArrayList<>(size);
+        for (int index = 0; index != size; index++) {
+            statements.add(String.format(lexerTemplates[index % lexerTemplates.length], index, index));
+        }
+        return statements;
+    }
+
+
+    /**
+     * A script of at least the given number of statements, about half of which are preprocessor directives.
+     * Conditionals test names that are not defined, so both excluded and kept code is generated
+     */
+    public static List<String> preprocessor(int size) {
+        ArrayList<String> statements = new ArrayList<>(size);
+        for (int index = 0; statements.size() < size; index++) {
+            String statement = String.format(lexerTemplates[index % lexerTemplates.length], index, index);
+
+            statements.add("#define CONSTANT" + index + " " + index);
+            // excluded, with a nested conditional
+            statements.add("#ifdef UNDEFINED" + index);
+            statements.add(statement);
+            statements.add("#ifndef UNDEFINED" + index);
+            statements.add(statement);
+            statements.add("#endif");
+            statements.add("#endif");
+            // kept
+            statements.add("#ifndef UNDEFINED" + index);
+            statements.add(statement);
+            statements.add("#endif");
+            statements.add(statement);
+        }
+        return statements;
+    }
+
+
+    /**
+     * A while loop of the given number of iterations that does integer and floating point arithmetic
+     */
+    public static List<String> loop(int iterations) {
+        return statements("""
+                int i = 0;
+                int total = 0;
+                float x = 0.0;
+                while (i < %d) {
+                    total = total + (i %% 7) * 3 - 1;
+                    x = x + 0.5;
+                    i++;
+                }
+                """.formatted(iterations));
+    }
+
+
+    /**
+     * A while loop that calls a function the given number of times
+     */
+    public static List<String> calls(int calls) {
+        return statements("""
+                int total = 0;
+                def int add(int a, int b) {
+                    total = total + a + b;
+                    return a + b;
+                }
+                int i = 0;
+                while (i < %d) {
+                    add(i, 2);
+                    i++;
+                }
+                """.formatted(calls));
+    }
+
+
+    /**
+     * Computes the n-th Fibonacci number recursively, which makes about 1.6^n nested calls
+     */
+    public static List<String> fibonacci(int n) {
+        return statements("""
+                def int fib(int n) {
+                    if (n < 2) {
+                        return n;
+                    }
+                    return fib(n - 1) + fib(n - 2);
+                }
+                int r = fib(%d);
+                """.formatted(n));
+    }
+
+
+    /**
+     * A while loop of the given number of iterations that evaluates the given operation OPERATOR_UNROLL times,
+     * see OperatorBenchmark for the names of the operations
+     */
+    public static List<String> operator(String operation, int iterations) {
+        String[] code = operations.get(operation);
+        if (code == null)
+            throw new IllegalArgumentException("Unknown operation: " + operation);
+        return statements(code[0] + "; int i = 0; while (i < " + iterations + ") { " + (code[1] + "; ").repeat(OPERATOR_UNROLL) + "i++; }");
+    }
+
+
+    /**
+     * A while loop that concatenates and compares strings the given number of times
+     */
+    public static List<String> strings(int iterations) {
+        return statements("""
+                string s = "";
+                int hits = 0;
+                int i = 0;
+                while (i < %d) {
+                    s = s + "ab";
+                    if (s == "abababab") {
+                        hits++;
+                        s = "";
+                    }
+                    i++;
+                }
+                """.formatted(iterations));
+    }
+
+
+    /**
+     * A program of the given number of statements made only of what the compiler supports:
+     * int and boolean declarations, arithmetic, comparisons, logical operators and if statements
+     */
+    public static List<String> compiler(int size) {
+        ArrayList<String> statements = new ArrayList<>(size);
+        statements.add("int v0 = 3");
+        for (int index = 1; statements.size() < size; index++) {
+            int previous = index - 1;
+            switch (index % 4) {
+                case 0 -> statements.add("int v" + index + " = v" + previous + " + " + index + " * 2");
+                case 1 -> statements.add("int v" + index + " = (v" + previous + " - " + index + ") * (v0 + 2)");
+                case 2 -> statements.add("int v" + index + " = v" + previous + " ** 2 - v0");
+                default -> {
+                    statements.add("int v" + index + " = v" + previous);
+                    if (statements.size() < size)
+                        statements.add("boolean c" + index + " = (v" + index + " > " + index + ") && !(v0 == v" + previous + ")");
+                    if (statements.size() < size)
+                        statements.add("if (c" + index + ") { v" + index + " = v" + index + " - 1 }");
+                }
+            }
+        }
+        return statements;
+    }
+
+}
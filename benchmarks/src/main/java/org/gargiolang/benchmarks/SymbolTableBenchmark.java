@@ -0,0 +1,108 @@
+package org.gargiolang.benchmarks;
+
+import org.gargiolang.exception.evaluation.VariableRedeclarationException;
+import org.gargiolang.runtime.variable.Accessibility;
+import org.gargiolang.runtime.variable.SymbolTable;
+import org.gargiolang.runtime.variable.Variable;
+import org.gargiolang.tokenizer.NamePool;
+import org.gargiolang.tokenizer.tokens.Token;
+import org.gargiolang.tokenizer.tokens.TokenType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time the SymbolTable takes to push the given number of scopes, declare variables in each of them,
+ * look every variable up from the innermost scope and pop the scopes.
+ * Lookups are also measured on their own, by name and through tokens bound by the Resolver
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymbolTableBenchmark {
+
+    @Param({"1", "4", "8"})
+    int depth;
+
+    // variables declared in every scope
+    @Param({"4", "8", "16"})
+    int variables;
+
+    private SymbolTable symbolTable;
+
+    private String[][] names;
+    private Variable variable;
+
+    // table with every scope pushed and every variable declared, for the lookups
+    private SymbolTable filled;
+    // a token bound to every variable of the filled table, as the Resolver binds them
+    private Token[] tokens;
+
+
+    @Setup
+    public void setup() throws VariableRedeclarationException {
+        symbolTable = new SymbolTable();
+        variable = new Variable(0, Variable.Type.INT, Accessibility.PUBLIC);
+
+        names = new String[depth][variables];
+        for (int scope = 0; scope != depth; scope++) {
+            for (int index = 0; index != variables; index++) {
+                names[scope][index] = NamePool.intern("variable" + scope + "_" + index);
+            }
+        }
+
+        filled = new SymbolTable();
+        tokens = new Token[depth * variables];
+        for (int scope = 0; scope != depth; scope++) {
+            filled.pushScope();
+            for (int index = 0; index != variables; index++) {
+                filled.addVariable(names[scope][index], variable);
+                Token token = new Token(TokenType.TXT, names[scope][index]);
+                // the depth of a binding is counted from the innermost scope
+                token.bind(depth - 1 - scope, index);
+                tokens[scope * variables + index] = token;
+            }
+        }
+    }
+
+
+    @Benchmark
+    public void pushLookupPop(Blackhole blackhole) throws VariableRedeclarationException {
+        for (String[] scope : names) {
+            symbolTable.pushScope();
+            for (String name : scope) {
+                symbolTable.addVariable(name, variable);
+            }
+        }
+
+        for (String[] scope : names) {
+            for (String name : scope) {
+                blackhole.consume(symbolTable.getVariable(name));
+            }
+        }
+
+        symbolTable.popScopes(depth);
+    }
+
+
+    @Benchmark
+    public void lookupByName(Blackhole blackhole) {
+        for (String[] scope : names) {
+            for (String name : scope) {
+                blackhole.consume(filled.getVariable(name));
+            }
+        }
+    }
+
+    @Benchmark
+    public void lookupBound(Blackhole blackhole) {
+        for (Token token : tokens) {
+            blackhole.consume(filled.getVariable(token));
+        }
+    }
+
+}
@@ -2,9 +2,16 @@ package org.gargiolang;
 
 import org.gargiolang.compilation.Compiler;
 import org.gargiolang.environment.Environment;
+import org.gargiolang.runtime.BatchExecutor;
+import org.gargiolang.runtime.Profiler;
 import org.gargiolang.runtime.Runtime;
-import org.gargiolang.tokenizer.Lexer;
+import org.gargiolang.runtime.RuntimePool;
+import org.gargiolang.runtime.ScriptCache;
+import org.gargiolang.runtime.lib.OutputSink;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -21,13 +28,32 @@ public class GargioLang {
 
         // parse arguments
         List<String> arguments = Arrays.asList(args);
+        // whether every line is written as soon as it's printed, even if the input is redirected
+        runtime.setOut(OutputSink.stdout(arguments.contains("-line-buffered")));
         int varIndex = arguments.indexOf("-var"); // variables to be passed (-var var1=value1,var2=value2)
         if (varIndex != -1) {
             String[] vars = args[varIndex+1].split(",");
             environment.loadVariables(vars);
         }
 
-        boolean doCompile = arguments.contains("-c"); // whether to interpret or to compile the program
+        int cacheIndex = arguments.indexOf("-cache"); // directory of the cached tokens of the scripts (-cache directory)
+        if (cacheIndex != -1)
+            runtime.setCache(new ScriptCache(Path.of(args[cacheIndex+1])));
+
+        int depthIndex = arguments.indexOf("-max-depth"); // maximum number of nested function calls (-max-depth depth)
+        if (depthIndex != -1)
+            runtime.getCallStack().setMaxDepth(Integer.parseInt(args[depthIndex+1]));
+
+        int profileIndex = arguments.indexOf("-profile"); // file to write the collapsed stacks of the profile to (-profile file)
+        Profiler profiler = profileIndex == -1 ? null : new Profiler();
+        runtime.setProfiler(profiler);
+
+        boolean doCompile = arguments.contains("-c") || arguments.contains("-jvm"); // whether to interpret or to compile the program
+        runtime.setTreeMode(arguments.contains("-t")); // whether to evaluate lines as syntax trees instead of rewriting their tokens
+        runtime.setDumpTokens(arguments.contains("-tokens")); // whether to print the tokens before running the program
+        runtime.setParallelLexing(arguments.contains("-parallel")); // whether to tokenize the statements on every core
+
+        int batchIndex = arguments.indexOf("-batch"); // file listing the scripts to run at the same time, one per line (-batch file)
 
         // if no file is specified --> launch interactive shell
         if (args.length == 0) {
@@ -47,19 +73,52 @@ public class GargioLang {
             }
 
         }
+        // if a list of scripts is specified --> execute them on every core
+        else if (batchIndex != -1) {
+            runBatch(environment, Path.of(args[batchIndex+1]), arguments.contains("-t"));
+        }
         // if a file is specified --> execute it
         else {
 
             runtime.loadScript(args[0]);
 
             if (doCompile) {
-                Compiler.compile(new Lexer(runtime.getStatements(), runtime).tokenize(), runtime.getLabelTable());
+                Compiler.compile(runtime.loadTokens(false), runtime.getLabelTable(), arguments);
 
             } else {
                 // normal interpreter
                 runtime.run();
+
+                if (profiler != null) {
+                    profiler.report(System.err);
+                    profiler.writeCollapsedStacks(Path.of(args[profileIndex+1]));
+                }
             }
         }
 
     }
+
+
+    /**
+     * Runs the scripts listed in the given file and prints their output in the order they are listed.
+     * The errors are printed after the output of their script
+     */
+    private static void runBatch(Environment environment, Path list, boolean treeMode) throws Exception {
+        ArrayList<Path> scripts = new ArrayList<>();
+        for (String line : Files.readAllLines(list)) {
+            if (!line.isBlank())
+                scripts.add(Path.of(line.strip()));
+        }
+
+        int threads = java.lang.Runtime.getRuntime().availableProcessors();
+        RuntimePool pool = new RuntimePool(environment, threads, runtime -> runtime.setTreeMode(treeMode));
+
+        try (BatchExecutor batch = new BatchExecutor(pool, threads)) {
+            for (BatchExecutor.Result result : batch.execute(scripts)) {
+                System.out.print(result.getOutput());
+                if (!result.isSuccessful())
+                    System.err.println(result.getScript() + ": " + result.getError());
+            }
+        }
+    }
 }
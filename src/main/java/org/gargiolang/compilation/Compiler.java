@@ -1,16 +1,32 @@
 package org.gargiolang.compilation;
 
+import org.gargiolang.compilation.allocator.Allocation;
+import org.gargiolang.compilation.allocator.RegisterAllocator;
+import org.gargiolang.compilation.assembler.Assembler;
+import org.gargiolang.compilation.assembler.Bytecode;
+import org.gargiolang.compilation.cfg.ControlFlowGraph;
+import org.gargiolang.compilation.cfg.DominatorTree;
+import org.gargiolang.compilation.cfg.StaticSingleAssignment;
+import org.gargiolang.compilation.jvm.ClassGenerator;
+import org.gargiolang.compilation.jvm.GeneratedClassLoader;
+import org.gargiolang.compilation.optimizer.PassManager;
 import org.gargiolang.compilation.parser.Parser;
 import org.gargiolang.compilation.structures.symboltable.SymbolTable;
 import org.gargiolang.compilation.structures.trees.SyntaxTree;
 import org.gargiolang.compilation.threeaddresscode.ThreeAddressCode;
+import org.gargiolang.compilation.vm.VirtualMachine;
+import org.gargiolang.exception.evaluation.IndexOutOfBoundsException;
 import org.gargiolang.exception.evaluation.UndeclaredVariableException;
 import org.gargiolang.exception.evaluation.UnrecognizedTypeException;
 import org.gargiolang.exception.parsing.ParsingException;
 import org.gargiolang.tokenizer.LabelTable;
 import org.gargiolang.tokenizer.tokens.TokenLine;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.LinkedList;
+import java.util.List;
 
 public class Compiler {
 
@@ -19,14 +35,64 @@ public class Compiler {
         return symbolTable;
     }
 
-    public static void compile(LinkedList<TokenLine> tokens, LabelTable labelTable) throws ParsingException, UnrecognizedTypeException, UndeclaredVariableException {
+    /**
+     * Compiles the program and runs it on the VirtualMachine.
+     * Besides the -no-[pass name] options of the PassManager, the arguments may contain
+     * -ssa to go through the SSA form, -cfg to show the control flow graph and its dominator tree
+     * and -jvm to compile to a class file next to the script and run it on the JVM instead
+     */
+    public static void compile(LinkedList<TokenLine> tokens, LabelTable labelTable, List<String> arguments) throws ParsingException, UnrecognizedTypeException, UndeclaredVariableException, IndexOutOfBoundsException, IOException {
 
         SyntaxTree syntaxTree = Parser.parse(tokens, labelTable);
 
         ThreeAddressCode threeAddressCode = new ThreeAddressCode(syntaxTree);
 
+        PassManager passManager = PassManager.fromArguments(arguments);
+        passManager.optimize(threeAddressCode);
+
+        if (arguments.contains("-ssa")) {
+            ControlFlowGraph controlFlowGraph = ControlFlowGraph.build(threeAddressCode.getInstructions());
+            StaticSingleAssignment.construct(controlFlowGraph);
+            System.out.println(controlFlowGraph);
+
+            // the copies left by the phi functions are cleaned up by the passes
+            StaticSingleAssignment.destruct(controlFlowGraph);
+            threeAddressCode.setInstructions(controlFlowGraph.linearize());
+            passManager.optimize(threeAddressCode);
+        }
+
+        System.out.println(passManager);
+
         System.out.println(threeAddressCode);
 
+        if (arguments.contains("-cfg")) {
+            ControlFlowGraph controlFlowGraph = ControlFlowGraph.build(threeAddressCode.getInstructions());
+            System.out.println(controlFlowGraph);
+            System.out.println(new DominatorTree(controlFlowGraph));
+        }
+
+        if (arguments.contains("-jvm")) {
+            String className = ClassGenerator.classNameOf(arguments.get(0));
+            byte[] classFile = ClassGenerator.generate(className, threeAddressCode.getInstructions());
+
+            Path path = Path.of(arguments.get(0)).resolveSibling(className + ".class");
+            Files.write(path, classFile);
+            System.out.println(path + ": " + classFile.length + " bytes\n");
+
+            GeneratedClassLoader.run(className, classFile);
+            return;
+        }
+
+        Allocation allocation = RegisterAllocator.allocate("main", threeAddressCode.getInstructions());
+        System.out.println(allocation);
+
+        Bytecode bytecode = Assembler.assemble(threeAddressCode.getInstructions(), allocation);
+        System.out.println(bytecode);
+
+        // execute the bytecode and show the final state of the registers
+        VirtualMachine virtualMachine = new VirtualMachine(bytecode);
+        virtualMachine.run();
+        System.out.println(virtualMachine);
     }
 
 }
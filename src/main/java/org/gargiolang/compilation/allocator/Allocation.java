@@ -0,0 +1,85 @@
+package org.gargiolang.compilation.allocator;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Result of the register allocation of a function: the register or the memory slot of every address
+ */
+public final class Allocation {
+
+    public final String function;
+
+    // slots are stored as negative locations: -1 is the first slot, -2 the second and so on
+    private final LinkedHashMap<String, Integer> locations;
+
+    // addresses that are variables of the program, rather than temporaries
+    private final LinkedHashSet<String> variables;
+
+    private final int registers;
+    private final int spills;
+    private int slots;
+
+
+    Allocation(String function, int registers, int spills) {
+        this.function = function;
+        this.locations = new LinkedHashMap<>();
+        this.variables = new LinkedHashSet<>();
+        this.registers = registers;
+        this.spills = spills;
+    }
+
+
+    void assign(String address, int register) {
+        locations.put(address, register);
+    }
+
+    void spill(String address) {
+        locations.put(address, -(++ slots));
+    }
+
+    void variable(String address) {
+        variables.add(address);
+    }
+
+
+    public boolean isSpilled(String address) {
+        return locations.get(address) < 0;
+    }
+
+    public int register(String address) {
+        return locations.get(address);
+    }
+
+    public int slot(String address) {
+        return -locations.get(address) - 1;
+    }
+
+    public Set<String> variables() {
+        return variables;
+    }
+
+
+    /** number of registers used */
+    public int getRegisters() {
+        return registers;
+    }
+
+    /** number of intervals that didn't fit in the available registers */
+    public int getSpills() {
+        return spills;
+    }
+
+    /** number of memory slots used, spilled values and address-taken variables */
+    public int getSlots() {
+        return slots;
+    }
+
+
+    @Override
+    public String toString() {
+        return function + ": " + registers + " registers, " + spills + " spills";
+    }
+
+}
@@ -0,0 +1,32 @@
+package org.gargiolang.compilation.allocator;
+
+/**
+ * Range of instructions an address needs a location for
+ */
+final class Interval {
+
+    final String name;
+    final int start;
+    int end;
+
+    // whether the address is first written at the start of the interval, rather than being read
+    final boolean defined;
+
+    // register assigned to the interval, -1 if it's spilled
+    int register = -1;
+
+
+    Interval(String name, int start, boolean defined) {
+        this.name = name;
+        this.start = start;
+        this.end = start;
+        this.defined = defined;
+    }
+
+
+    @Override
+    public String toString() {
+        return name + " [" + start + ", " + end + "]";
+    }
+
+}
@@ -0,0 +1,224 @@
+package org.gargiolang.compilation.allocator;
+
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Temporary;
+import org.gargiolang.compilation.threeaddresscode.Value;
+import org.gargiolang.compilation.threeaddresscode.instructions.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Backward dataflow analysis that computes, for every instruction, which addresses hold a value
+ * that may still be read. Jumps are followed, so values read in a loop stay live across the whole loop.
+ *
+ * Variables of the program are live at the end of the code, so that their final value can be inspected.
+ * Variables whose address is taken live in memory and are not part of the analysis
+ */
+public final class Liveness {
+
+    final Instruction[] instructions;
+
+    // index of every analysed address, in order of appearance
+    final LinkedHashMap<String, Integer> addresses;
+    final ArrayList<Address> indexed;
+
+    // addresses whose address is taken by an AddressOf instruction
+    final ArrayList<String> memory;
+
+    final BitSet[] liveIn;
+    final BitSet[] liveOut;
+
+
+    private Liveness(Instruction[] instructions) {
+        this.instructions = instructions;
+        this.addresses = new LinkedHashMap<>();
+        this.indexed = new ArrayList<>();
+        this.memory = new ArrayList<>();
+        this.liveIn = new BitSet[instructions.length];
+        this.liveOut = new BitSet[instructions.length];
+    }
+
+
+    public static Liveness analyse(Instruction first) {
+        ArrayList<Instruction> list = new ArrayList<>();
+        for (Instruction instruction = first; instruction != null; instruction = instruction.next) {
+            list.add(instruction);
+        }
+
+        Liveness liveness = new Liveness(list.toArray(new Instruction[0]));
+        liveness.index();
+        liveness.solve();
+        return liveness;
+    }
+
+
+    /**
+     * Gives an index to every address, address-taken variables are excluded
+     */
+    private void index() {
+        for (Instruction instruction : instructions) {
+            if (instruction instanceof AddressOf) {
+                String name = ((AddressOf) instruction).a.address;
+                if (!memory.contains(name))
+                    memory.add(name);
+            }
+        }
+
+        for (Instruction instruction : instructions) {
+            index(instruction.defines());
+            for (Value value : instruction.uses()) {
+                index(value);
+            }
+        }
+    }
+
+    private void index(Value value) {
+        if (!(value instanceof Address))
+            return;
+
+        Address address = (Address) value;
+        if (memory.contains(address.address) || addresses.containsKey(address.address))
+            return;
+
+        addresses.put(address.address, indexed.size());
+        indexed.add(address);
+    }
+
+
+    /**
+     * Returns the index of the address or -1 if the value is not analysed
+     */
+    int indexOf(Value value) {
+        if (!(value instanceof Address))
+            return -1;
+        return addresses.getOrDefault(((Address) value).address, -1);
+    }
+
+
+    /**
+     * Returns whether the value of the address may be read after the instruction at the given index.
+     * Variables whose address is taken are always considered live
+     */
+    public boolean isLiveOut(int index, Address address) {
+        int analysed = indexOf(address);
+        return analysed == -1 || liveOut[index].get(analysed);
+    }
+
+
+    /**
+     * Returns whether the value of the address may be read by the instruction at the given index or after it.
+     * Variables whose address is taken are always considered live
+     */
+    public boolean isLiveIn(int index, Address address) {
+        int analysed = indexOf(address);
+        return analysed == -1 || liveIn[index].get(analysed);
+    }
+
+
+    boolean isTemporary(String name) {
+        return indexed.get(addresses.get(name)) instanceof Temporary;
+    }
+
+
+    private void solve() {
+        IdentityHashMap<Label, Integer> labels = new IdentityHashMap<>();
+        for (int index = 0; index != instructions.length; index++) {
+            if (instructions[index] instanceof Label)
+                labels.put((Label) instructions[index], index);
+        }
+
+        // variables of the program are live once the code ends
+        BitSet exit = new BitSet();
+        for (Address address : indexed) {
+            if (!(address instanceof Temporary))
+                exit.set(addresses.get(address.address));
+        }
+
+        for (int index = 0; index != instructions.length; index++) {
+            liveIn[index] = new BitSet();
+            liveOut[index] = new BitSet();
+        }
+
+        // iterate until nothing changes, backwards since liveness flows from uses to definitions
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int index = instructions.length - 1; index != -1; index--) {
+                Instruction instruction = instructions[index];
+
+                BitSet out = new BitSet();
+                if (instruction instanceof Goto) {
+                    out.or(liveIn[labels.get(((Goto) instruction).label)]);
+                } else {
+                    out.or(index + 1 == instructions.length ? exit : liveIn[index + 1]);
+                    if (instruction instanceof IfGoto)
+                        out.or(liveIn[labels.get(((IfGoto) instruction).label)]);
+                }
+
+                // in = uses + (out - defines)
+                BitSet in = (BitSet) out.clone();
+                int defined = indexOf(instruction.defines());
+                if (defined != -1)
+                    in.clear(defined);
+                for (Value value : instruction.uses()) {
+                    int used = indexOf(value);
+                    if (used != -1)
+                        in.set(used);
+                }
+
+                if (!in.equals(liveIn[index]) || !out.equals(liveOut[index])) {
+                    liveIn[index] = in;
+                    liveOut[index] = out;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Builds the live interval of every address: the range of instructions from its first definition or use
+     * to the last instruction it's live at
+     */
+    LinkedHashMap<String, Interval> intervals() {
+        LinkedHashMap<String, Interval> intervals = new LinkedHashMap<>();
+
+        for (int index = 0; index != instructions.length; index++) {
+            Instruction instruction = instructions[index];
+
+            BitSet live = (BitSet) liveIn[index].clone();
+            live.or(liveOut[index]);
+
+            int defined = indexOf(instruction.defines());
+            if (defined != -1)
+                live.set(defined);
+
+            for (int address = live.nextSetBit(0); address != -1; address = live.nextSetBit(address + 1)) {
+                String name = indexed.get(address).address;
+                Interval interval = intervals.get(name);
+
+                if (interval == null) {
+                    // a value that is defined here does not need a register before this instruction
+                    intervals.put(name, new Interval(name, index, address == defined && !liveIn[index].get(address)));
+                } else {
+                    interval.end = index;
+                }
+            }
+        }
+
+        // values that reach the end of the code
+        if (instructions.length != 0) {
+            for (Interval interval : intervals.values()) {
+                if (!isTemporary(interval.name))
+                    interval.end = instructions.length;
+            }
+        }
+
+        return intervals;
+    }
+
+}
@@ -0,0 +1,137 @@
+package org.gargiolang.compilation.allocator;
+
+import org.gargiolang.compilation.threeaddresscode.instructions.Instruction;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+
+/**
+ * Linear scan register allocator.
+ *
+ * Live intervals are visited in order of start: an interval takes the lowest free register and releases it
+ * once the instruction it ends at has been reached. When every register is taken, the interval that ends
+ * last is spilled to a memory slot, so that registers are kept by the values that are needed the soonest
+ */
+public final class RegisterAllocator {
+
+    /** number of registers available to the allocator by default */
+    public static final int REGISTERS = 16;
+
+    private final int registers;
+
+    // intervals that currently hold a register, ordered by end
+    private final ArrayList<Interval> active;
+    private final BitSet taken;
+
+    // highest number of registers in use at the same time
+    private int used;
+    private int spills;
+
+
+    private RegisterAllocator(int registers) {
+        this.registers = registers;
+        this.active = new ArrayList<>();
+        this.taken = new BitSet(registers);
+    }
+
+
+    public static Allocation allocate(String function, Instruction instructions) {
+        return allocate(function, instructions, REGISTERS);
+    }
+
+    /**
+     * Maps every address used by the instructions to a register or to a memory slot
+     *
+     * @param function name of the function the instructions belong to, used to report the allocation
+     * @param instructions the linked list of instructions
+     * @param registers number of registers available
+     * @return the location of every address
+     */
+    public static Allocation allocate(String function, Instruction instructions, int registers) {
+        if (registers < 1)
+            throw new IllegalArgumentException("At least one register is required, " + registers + " were given");
+
+        Liveness liveness = Liveness.analyse(instructions);
+        LinkedHashMap<String, Interval> intervals = liveness.intervals();
+
+        RegisterAllocator allocator = new RegisterAllocator(registers);
+        // intervals are created while scanning the instructions, so they are already sorted by start
+        for (Interval interval : intervals.values()) {
+            allocator.allocate(interval);
+        }
+
+        Allocation allocation = new Allocation(function, allocator.used, allocator.spills);
+        for (Interval interval : intervals.values()) {
+            if (interval.register == -1)
+                allocation.spill(interval.name);
+            else
+                allocation.assign(interval.name, interval.register);
+
+            if (!liveness.isTemporary(interval.name))
+                allocation.variable(interval.name);
+        }
+        // variables whose address is taken always live in memory
+        for (String name : liveness.memory) {
+            allocation.spill(name);
+            allocation.variable(name);
+        }
+
+        return allocation;
+    }
+
+
+    private void allocate(Interval interval) {
+        expire(interval);
+
+        if (active.size() == registers) {
+            spill(interval);
+            return;
+        }
+
+        interval.register = taken.nextClearBit(0);
+        taken.set(interval.register);
+        used = Math.max(used, interval.register + 1);
+        activate(interval);
+    }
+
+
+    /**
+     * Releases the registers of the intervals that end before the given one starts.
+     * An interval that ends right where the other is defined can give its register away,
+     * since instructions read their operands before writing their result
+     */
+    private void expire(Interval interval) {
+        while (!active.isEmpty()) {
+            Interval first = active.get(0);
+            if (first.end > interval.start || (first.end == interval.start && !interval.defined))
+                return;
+
+            taken.clear(first.register);
+            active.remove(0);
+        }
+    }
+
+
+    private void spill(Interval interval) {
+        spills ++;
+
+        Interval last = active.get(active.size() - 1);
+        if (last.end > interval.end) {
+            // the active interval is needed later than the new one: it gives its register away
+            interval.register = last.register;
+            last.register = -1;
+            active.remove(active.size() - 1);
+            activate(interval);
+        }
+    }
+
+
+    private void activate(Interval interval) {
+        int index = active.size();
+        while (index != 0 && active.get(index - 1).end > interval.end)
+            index --;
+        active.add(index, interval);
+    }
+
+}
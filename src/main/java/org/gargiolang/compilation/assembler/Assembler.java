@@ -1,4 +1,221 @@
 package org.gargiolang.compilation.assembler;
 
-public class Assembler {
+import org.gargiolang.compilation.allocator.Allocation;
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Literal;
+import org.gargiolang.compilation.threeaddresscode.Value;
+import org.gargiolang.compilation.threeaddresscode.instructions.*;
+import org.gargiolang.exception.parsing.UndefinedLabelException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Lowers the linked list of three address code instructions into Bytecode.
+ *
+ * Addresses are placed where the register allocator decided: values that live in memory are reloaded
+ * into a scratch register before they are read and spilled back after they are written.
+ * Every distinct literal gets a preloaded constant register.
+ * Jumps are written with the offset of their label, forward jumps are patched once the label is reached
+ */
+public final class Assembler {
+
+    // scratch registers used to operate on values that live in memory
+    private static final int SCRATCH = 2;
+
+    private final Allocation allocation;
+
+    // index of the first scratch register and of the first constant register
+    private final int scratch;
+    private final int constants;
+
+    // constant register of every literal value, in order of appearance
+    private final LinkedHashMap<Integer, Integer> literals;
+
+    private final IdentityHashMap<Label, Integer> labels;
+    // offsets of the jump operands that still have to be patched, with their label
+    private final ArrayList<Integer> fixups;
+    private final ArrayList<Label> fixupLabels;
+
+    private int[] code;
+    private int pc;
+
+
+    private Assembler(Allocation allocation) {
+        this.allocation = allocation;
+        this.scratch = allocation.getRegisters();
+        this.constants = scratch + (allocation.getSlots() == 0 ? 0 : SCRATCH);
+        this.literals = new LinkedHashMap<>();
+        this.labels = new IdentityHashMap<>();
+        this.fixups = new ArrayList<>();
+        this.fixupLabels = new ArrayList<>();
+        this.code = new int[64 * Bytecode.WIDTH];
+    }
+
+
+    public static Bytecode assemble(Instruction instructions, Allocation allocation) throws UndefinedLabelException {
+        Assembler assembler = new Assembler(allocation);
+
+        for (Instruction instruction = instructions; instruction != null; instruction = instruction.next) {
+            assembler.emit(instruction);
+        }
+        assembler.emit(Opcode.HALT, 0, 0, 0);
+
+        assembler.patch();
+
+        return assembler.layout();
+    }
+
+
+    /**
+     * Returns a register that holds the value: literals are read from their constant register,
+     * values that live in memory are reloaded into the given scratch register
+     */
+    private int read(Value value, int scratchIndex) {
+        if (value instanceof Literal) {
+            int literal = ((Literal) value).value;
+            Integer register = literals.get(literal);
+            if (register == null) {
+                register = constants + literals.size();
+                literals.put(literal, register);
+            }
+            return register;
+        }
+
+        String name = ((Address) value).address;
+        if (!allocation.isSpilled(name))
+            return allocation.register(name);
+
+        emit(Opcode.RELOAD, scratch + scratchIndex, allocation.slot(name), 0);
+        return scratch + scratchIndex;
+    }
+
+    /**
+     * Returns the register the result should be written to
+     */
+    private int target(Address address) {
+        if (allocation.isSpilled(address.address))
+            return scratch;
+        return allocation.register(address.address);
+    }
+
+    /**
+     * Spills the result back to memory if the address doesn't live in a register
+     */
+    private void writeBack(Address address) {
+        if (allocation.isSpilled(address.address))
+            emit(Opcode.SPILL, allocation.slot(address.address), scratch, 0);
+    }
+
+
+    private void emit(Instruction instruction) {
+        if (instruction instanceof Label) {
+            labels.put((Label) instruction, pc);
+        } else if (instruction instanceof Add) {
+            Add add = (Add) instruction;
+            binary(Opcode.ADD, add.result, add.a, add.b);
+        } else if (instruction instanceof Subtract) {
+            Subtract subtract = (Subtract) instruction;
+            binary(Opcode.SUB, subtract.result, subtract.a, subtract.b);
+        } else if (instruction instanceof EqualsTo) {
+            EqualsTo equalsTo = (EqualsTo) instruction;
+            binary(Opcode.EQ, equalsTo.result, equalsTo.a, equalsTo.b);
+        } else if (instruction instanceof GreaterThan) {
+            GreaterThan greaterThan = (GreaterThan) instruction;
+            binary(Opcode.GT, greaterThan.result, greaterThan.a, greaterThan.b);
+        } else if (instruction instanceof Assign) {
+            Assign assign = (Assign) instruction;
+            int b = read(assign.b, 0);
+            // store directly from the source register
+            if (allocation.isSpilled(assign.a.address))
+                emit(Opcode.SPILL, allocation.slot(assign.a.address), b, 0);
+            // the allocator often places both addresses in the same register
+            else if (allocation.register(assign.a.address) != b)
+                emit(Opcode.MOV, allocation.register(assign.a.address), b, 0);
+        } else if (instruction instanceof Goto) {
+            jump(Opcode.JMP, ((Goto) instruction).label, 0);
+        } else if (instruction instanceof IfGoto) {
+            IfGoto ifGoto = (IfGoto) instruction;
+            jump(Opcode.JNZ, ifGoto.label, read(ifGoto.condition, 0));
+        } else if (instruction instanceof AddressOf) {
+            // variables whose address is taken always live in memory
+            AddressOf addressOf = (AddressOf) instruction;
+            emit(Opcode.ADDR, target(addressOf.result), allocation.slot(addressOf.a.address), 0);
+            writeBack(addressOf.result);
+        } else if (instruction instanceof Dereference) {
+            Dereference dereference = (Dereference) instruction;
+            int a = read(dereference.a, 0);
+            emit(Opcode.LOAD, target(dereference.result), a, 0);
+            writeBack(dereference.result);
+        }
+    }
+
+    private void binary(int opcode, Address result, Value a, Value b) {
+        int ra = read(a, 0);
+        int rb = read(b, 1);
+        emit(opcode, target(result), ra, rb);
+        writeBack(result);
+    }
+
+    private void jump(int opcode, Label label, int condition) {
+        Integer offset = labels.get(label);
+        if (offset == null) {
+            // the label comes later in the code
+            fixups.add(pc + 1);
+            fixupLabels.add(label);
+            offset = -1;
+        }
+        emit(opcode, offset, condition, 0);
+    }
+
+
+    private void emit(int opcode, int r, int a, int b) {
+        if (pc == code.length)
+            code = Arrays.copyOf(code, code.length * 2);
+
+        code[pc] = opcode;
+        code[pc + 1] = r;
+        code[pc + 2] = a;
+        code[pc + 3] = b;
+        pc += Bytecode.WIDTH;
+    }
+
+
+    private void patch() throws UndefinedLabelException {
+        for (int index = 0; index != fixups.size(); index++) {
+            Integer offset = labels.get(fixupLabels.get(index));
+            if (offset == null)
+                throw new UndefinedLabelException("Label " + fixupLabels.get(index).hashCode() + " is not part of the compiled code");
+            code[fixups.get(index)] = offset;
+        }
+    }
+
+
+    private Bytecode layout() {
+        int count = constants + literals.size();
+        int[] registers = new int[count];
+        String[] names = new String[count];
+
+        for (int register = 0; register != scratch; register++) {
+            names[register] = "r" + register;
+        }
+        for (int register = scratch; register != constants; register++) {
+            names[register] = "x" + (register - scratch);
+        }
+        literals.forEach((literal, register) -> {
+            registers[register] = literal;
+            names[register] = String.valueOf(literal);
+        });
+
+        // location of the variables of the program, to inspect them once the program is over
+        LinkedHashMap<String, Integer> variables = new LinkedHashMap<>();
+        for (String address : allocation.variables()) {
+            variables.put(address, allocation.isSpilled(address) ? -allocation.slot(address) - 1 : allocation.register(address));
+        }
+
+        return new Bytecode(Arrays.copyOf(code, pc), registers, names, allocation.getSlots(), variables);
+    }
+
 }
@@ -0,0 +1,69 @@
+package org.gargiolang.compilation.assembler;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Output of the Assembler: a flat int array of fixed width instructions and the register file layout.
+ * Labels have already been resolved to offsets in the code array
+ */
+public final class Bytecode {
+
+    /** number of ints every instruction is made of */
+    public static final int WIDTH = 4;
+
+    public final int[] code;
+
+    // initial content of the register file: constants are preloaded, everything else starts at 0
+    public final int[] registers;
+
+    // name of every register, constants are named after their value
+    public final String[] names;
+
+    // number of memory slots
+    public final int memory;
+
+    // location of every variable of the program: a register or, if negative, the memory slot -location - 1
+    public final LinkedHashMap<String, Integer> variables;
+
+
+    Bytecode(int[] code, int[] registers, String[] names, int memory, LinkedHashMap<String, Integer> variables) {
+        this.code = code;
+        this.registers = registers;
+        this.names = names;
+        this.memory = memory;
+        this.variables = variables;
+    }
+
+
+    public int length() {
+        return code.length / WIDTH;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (int pc = 0; pc != code.length; pc += WIDTH) {
+            int opcode = code[pc];
+            stringBuilder.append(pc).append(":\t").append(Opcode.nameOf(opcode));
+
+            switch (opcode) {
+                case Opcode.MOV -> stringBuilder.append(" ").append(names[code[pc + 1]]).append(", ").append(names[code[pc + 2]]);
+                case Opcode.LOAD -> stringBuilder.append(" ").append(names[code[pc + 1]]).append(", *").append(names[code[pc + 2]]);
+                case Opcode.ADDR -> stringBuilder.append(" ").append(names[code[pc + 1]]).append(", &[").append(code[pc + 2]).append("]");
+                case Opcode.SPILL -> stringBuilder.append(" [").append(code[pc + 1]).append("], ").append(names[code[pc + 2]]);
+                case Opcode.RELOAD -> stringBuilder.append(" ").append(names[code[pc + 1]]).append(", [").append(code[pc + 2]).append("]");
+                case Opcode.ADD, Opcode.SUB, Opcode.EQ, Opcode.GT -> stringBuilder.append(" ").append(names[code[pc + 1]])
+                        .append(", ").append(names[code[pc + 2]]).append(", ").append(names[code[pc + 3]]);
+                case Opcode.JMP -> stringBuilder.append(" ").append(code[pc + 1]);
+                case Opcode.JNZ -> stringBuilder.append(" ").append(code[pc + 1]).append(", ").append(names[code[pc + 2]]);
+            }
+
+            stringBuilder.append("\n");
+        }
+
+        return stringBuilder.toString();
+    }
+
+}
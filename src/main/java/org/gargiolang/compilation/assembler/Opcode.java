@@ -0,0 +1,59 @@
+package org.gargiolang.compilation.assembler;
+
+/**
+ * Operation codes of the bytecode.
+ * Every instruction is made of Bytecode.WIDTH ints: the opcode followed by three operands (r, a, b).
+ * Operands are register indices unless stated otherwise, memory slots hold the values that don't fit in registers
+ */
+public final class Opcode {
+
+    /** stop the execution */
+    public static final int HALT = 0;
+
+    /** r = a */
+    public static final int MOV = 1;
+
+    /** r = a + b */
+    public static final int ADD = 2;
+
+    /** r = a - b */
+    public static final int SUB = 3;
+
+    /** r = a == b */
+    public static final int EQ = 4;
+
+    /** r = a > b */
+    public static final int GT = 5;
+
+    /** jump to the offset r */
+    public static final int JMP = 6;
+
+    /** jump to the offset r if a is not 0 */
+    public static final int JNZ = 7;
+
+    /** r = &a, a is the memory slot whose address is taken */
+    public static final int ADDR = 8;
+
+    /** r = *a, a holds the address of the memory slot to read */
+    public static final int LOAD = 9;
+
+    /** memory slot r = a */
+    public static final int SPILL = 10;
+
+    /** r = memory slot a */
+    public static final int RELOAD = 11;
+
+
+    private static final String[] names = {"halt", "mov", "add", "sub", "eq", "gt", "jmp", "jnz", "addr", "load", "spill", "reload"};
+
+
+    private Opcode() {
+
+    }
+
+
+    public static String nameOf(int opcode) {
+        return names[opcode];
+    }
+
+}
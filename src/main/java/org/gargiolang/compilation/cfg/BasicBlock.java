@@ -0,0 +1,127 @@
+package org.gargiolang.compilation.cfg;
+
+import org.gargiolang.compilation.threeaddresscode.instructions.Goto;
+import org.gargiolang.compilation.threeaddresscode.instructions.IfGoto;
+import org.gargiolang.compilation.threeaddresscode.instructions.Instruction;
+import org.gargiolang.compilation.threeaddresscode.instructions.Label;
+import org.gargiolang.compilation.threeaddresscode.instructions.Phi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A straight sequence of instructions that is only entered from its label and only left from its last instruction.
+ * The label is kept apart from the instructions, phi functions too while the graph is in SSA form
+ */
+public final class BasicBlock {
+
+    // index of the block in the layout of the graph
+    int index;
+
+    // null if the block can only be reached by falling through from the previous one
+    Label label;
+
+    final ArrayList<Phi> phis;
+    final ArrayList<Instruction> instructions;
+
+    final ArrayList<BasicBlock> predecessors;
+    final ArrayList<BasicBlock> successors;
+
+
+    BasicBlock(Label label) {
+        this.label = label;
+        this.phis = new ArrayList<>();
+        this.instructions = new ArrayList<>();
+        this.predecessors = new ArrayList<>();
+        this.successors = new ArrayList<>();
+    }
+
+
+    void append(Instruction instruction) {
+        instructions.add(instruction);
+    }
+
+    /**
+     * Inserts the instruction at the end of the block, but before the jump that closes it
+     */
+    void appendBeforeJump(Instruction instruction) {
+        if (jump() == null)
+            instructions.add(instruction);
+        else
+            instructions.add(instructions.size() - 1, instruction);
+    }
+
+    /**
+     * Returns the goto or the conditional goto the block ends with, null if it falls through to the next block
+     */
+    public Instruction jump() {
+        if (instructions.isEmpty())
+            return null;
+        Instruction last = instructions.get(instructions.size() - 1);
+        return last instanceof Goto || last instanceof IfGoto ? last : null;
+    }
+
+    /**
+     * Returns whether the execution may continue with the next block of the layout
+     */
+    boolean fallsThrough() {
+        return !(jump() instanceof Goto);
+    }
+
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Label getLabel() {
+        return label;
+    }
+
+    public List<Phi> getPhis() {
+        return phis;
+    }
+
+    public List<Instruction> getInstructions() {
+        return instructions;
+    }
+
+    public List<BasicBlock> getPredecessors() {
+        return predecessors;
+    }
+
+    public List<BasicBlock> getSuccessors() {
+        return successors;
+    }
+
+
+    public String getName() {
+        return "B" + index;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder(getName());
+        if (label != null)
+            stringBuilder.append(" (").append(label).append(")");
+
+        stringBuilder.append("\tpredecessors:");
+        for (BasicBlock predecessor : predecessors) {
+            stringBuilder.append(" ").append(predecessor.getName());
+        }
+        stringBuilder.append("\n");
+
+        for (Phi phi : phis) {
+            stringBuilder.append("\t").append(phi).append("\n");
+        }
+        for (Instruction instruction : instructions) {
+            stringBuilder.append("\t").append(instruction).append("\n");
+        }
+
+        stringBuilder.append("\tsuccessors:");
+        for (BasicBlock successor : successors) {
+            stringBuilder.append(" ").append(successor.getName());
+        }
+        return stringBuilder.append("\n").toString();
+    }
+
+}
@@ -0,0 +1,241 @@
+package org.gargiolang.compilation.cfg;
+
+import org.gargiolang.compilation.threeaddresscode.instructions.Goto;
+import org.gargiolang.compilation.threeaddresscode.instructions.IfGoto;
+import org.gargiolang.compilation.threeaddresscode.instructions.Instruction;
+import org.gargiolang.compilation.threeaddresscode.instructions.Label;
+import org.gargiolang.exception.parsing.UndefinedLabelException;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * The three address code split into basic blocks: a new block starts at every label and after every jump.
+ * Blocks are kept in the order of the original code, so that falling through from a block leads to the next one,
+ * and the graph can be turned back into a linked list of instructions
+ */
+public final class ControlFlowGraph {
+
+    private final ArrayList<BasicBlock> blocks;
+    private final IdentityHashMap<Label, BasicBlock> labels;
+
+
+    private ControlFlowGraph() {
+        this.blocks = new ArrayList<>();
+        this.labels = new IdentityHashMap<>();
+    }
+
+
+    public static ControlFlowGraph build(Instruction first) throws UndefinedLabelException {
+        ControlFlowGraph graph = new ControlFlowGraph();
+
+        BasicBlock block = null;
+        for (Instruction instruction = first; instruction != null; instruction = instruction.next) {
+            if (instruction instanceof Label) {
+                // a label with no instructions before it names the current block
+                if (block == null || block.label != null || !block.instructions.isEmpty()) {
+                    block = new BasicBlock(null);
+                    graph.blocks.add(block);
+                }
+                block.label = (Label) instruction;
+                graph.labels.put(block.label, block);
+                continue;
+            }
+
+            if (block == null) {
+                block = new BasicBlock(null);
+                graph.blocks.add(block);
+            }
+            block.append(instruction);
+
+            // whatever follows a jump starts a new block
+            if (instruction instanceof Goto || instruction instanceof IfGoto)
+                block = null;
+        }
+
+        graph.connect();
+        return graph;
+    }
+
+
+    /**
+     * Recomputes the indices of the blocks and the edges between them from the layout and the jumps
+     */
+    void connect() throws UndefinedLabelException {
+        for (int index = 0; index != blocks.size(); index++) {
+            BasicBlock block = blocks.get(index);
+            block.index = index;
+            block.predecessors.clear();
+            block.successors.clear();
+        }
+
+        for (BasicBlock block : blocks) {
+            Instruction jump = block.jump();
+
+            if (jump instanceof Goto)
+                edge(block, target(((Goto) jump).label));
+            else if (jump instanceof IfGoto)
+                edge(block, target(((IfGoto) jump).label));
+
+            if (block.fallsThrough() && block.index + 1 != blocks.size())
+                edge(block, blocks.get(block.index + 1));
+        }
+    }
+
+    private BasicBlock target(Label label) throws UndefinedLabelException {
+        BasicBlock target = labels.get(label);
+        if (target == null)
+            throw new UndefinedLabelException("Label " + label.hashCode() + " is not part of the compiled code");
+        return target;
+    }
+
+    private static void edge(BasicBlock from, BasicBlock to) {
+        // a conditional jump to the next block is a single edge
+        if (from.successors.contains(to))
+            return;
+        from.successors.add(to);
+        to.predecessors.add(from);
+    }
+
+
+    /**
+     * Inserts a new, labelled block right before the given one in the layout.
+     * Edges are not updated until connect() is called
+     */
+    BasicBlock insertBefore(BasicBlock block) {
+        BasicBlock inserted = new BasicBlock(new Label());
+        labels.put(inserted.label, inserted);
+        blocks.add(blocks.indexOf(block), inserted);
+        return inserted;
+    }
+
+    /**
+     * Inserts a new, labelled block right after the given one in the layout.
+     * Edges are not updated until connect() is called
+     */
+    BasicBlock insertAfter(BasicBlock block) {
+        BasicBlock inserted = new BasicBlock(new Label());
+        labels.put(inserted.label, inserted);
+        blocks.add(blocks.indexOf(block) + 1, inserted);
+        return inserted;
+    }
+
+    /**
+     * Makes the jump the block ends with lead to another label
+     */
+    static void retarget(BasicBlock block, Label from, Label to) {
+        Instruction jump = block.jump();
+        int last = block.instructions.size() - 1;
+
+        if (jump instanceof Goto && ((Goto) jump).label == from)
+            block.instructions.set(last, new Goto(to));
+        else if (jump instanceof IfGoto && ((IfGoto) jump).label == from)
+            block.instructions.set(last, new IfGoto(((IfGoto) jump).condition, to));
+    }
+
+
+    /**
+     * Removes the blocks that cannot be reached from the entry block
+     */
+    public void removeUnreachable() throws UndefinedLabelException {
+        boolean[] reachable = new boolean[blocks.size()];
+        ArrayList<BasicBlock> stack = new ArrayList<>();
+        stack.add(getEntry());
+        reachable[0] = true;
+
+        while (!stack.isEmpty()) {
+            BasicBlock block = stack.remove(stack.size() - 1);
+            for (BasicBlock successor : block.successors) {
+                if (!reachable[successor.index]) {
+                    reachable[successor.index] = true;
+                    stack.add(successor);
+                }
+            }
+        }
+
+        for (int index = blocks.size() - 1; index != -1; index--) {
+            if (!reachable[index]) {
+                BasicBlock removed = blocks.remove(index);
+                if (removed.label != null)
+                    labels.remove(removed.label);
+            }
+        }
+        connect();
+    }
+
+
+    /**
+     * Links the instructions of every block back into a single list, in layout order
+     *
+     * @return the first instruction of the list
+     */
+    public Instruction linearize() {
+        Instruction first = null;
+        Instruction last = null;
+
+        for (BasicBlock block : blocks) {
+            ArrayList<Instruction> instructions = new ArrayList<>();
+            if (block.label != null)
+                instructions.add(block.label);
+            instructions.addAll(block.phis);
+            instructions.addAll(block.instructions);
+
+            for (Instruction instruction : instructions) {
+                if (first == null)
+                    first = instruction;
+                else
+                    last.next = instruction;
+                last = instruction;
+            }
+        }
+
+        if (last != null)
+            last.next = null;
+        return first;
+    }
+
+
+    public BasicBlock getEntry() {
+        return blocks.get(0);
+    }
+
+    /**
+     * Returns the block the program ends with, null if the last block doesn't fall off the end of the code
+     */
+    public BasicBlock getExit() {
+        BasicBlock last = blocks.get(blocks.size() - 1);
+        return last.fallsThrough() ? last : null;
+    }
+
+    public List<BasicBlock> getBlocks() {
+        return blocks;
+    }
+
+    public int size() {
+        return blocks.size();
+    }
+
+
+    /**
+     * Counts the phi functions of the graph, only non zero while it is in SSA form
+     */
+    public int phis() {
+        int phis = 0;
+        for (BasicBlock block : blocks) {
+            phis += block.phis.size();
+        }
+        return phis;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (BasicBlock block : blocks) {
+            stringBuilder.append(block).append("\n");
+        }
+        return stringBuilder.toString();
+    }
+
+}
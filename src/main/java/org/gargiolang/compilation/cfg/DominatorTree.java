@@ -0,0 +1,224 @@
+package org.gargiolang.compilation.cfg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Immediate dominators and dominance frontiers of the blocks of a ControlFlowGraph.
+ * A block dominates another if every path from the entry to the latter goes through the former.
+ *
+ * Dominators are computed with the iterative algorithm by Cooper, Harvey and Kennedy, which visits the blocks
+ * in reverse postorder until the immediate dominators stop changing.
+ * Unreachable blocks have no dominator and are not part of the tree
+ */
+public final class DominatorTree {
+
+    private final ControlFlowGraph graph;
+
+    // immediate dominator of every block by index, the entry block is its own immediate dominator
+    private final BasicBlock[] idom;
+
+    // position of every block in the reverse postorder, -1 if unreachable
+    private final int[] order;
+    private final ArrayList<BasicBlock> reversePostorder;
+
+    private final ArrayList<ArrayList<BasicBlock>> children;
+    private final ArrayList<LinkedHashSet<BasicBlock>> frontiers;
+
+
+    public DominatorTree(ControlFlowGraph graph) {
+        this.graph = graph;
+        this.idom = new BasicBlock[graph.size()];
+        this.order = new int[graph.size()];
+        this.reversePostorder = new ArrayList<>();
+        this.children = new ArrayList<>();
+        this.frontiers = new ArrayList<>();
+
+        for (int index = 0; index != graph.size(); index++) {
+            children.add(new ArrayList<>());
+            frontiers.add(new LinkedHashSet<>());
+        }
+
+        sort();
+        solve();
+        computeFrontiers();
+    }
+
+
+    /**
+     * Orders the reachable blocks in reverse postorder, iteratively to support large graphs
+     */
+    private void sort() {
+        Arrays.fill(order, -1);
+
+        boolean[] visited = new boolean[graph.size()];
+        ArrayList<BasicBlock> postorder = new ArrayList<>();
+
+        // stack of blocks with the index of the next successor to visit
+        ArrayList<BasicBlock> stack = new ArrayList<>();
+        ArrayList<Integer> next = new ArrayList<>();
+
+        stack.add(graph.getEntry());
+        next.add(0);
+        visited[0] = true;
+
+        while (!stack.isEmpty()) {
+            int top = stack.size() - 1;
+            BasicBlock block = stack.get(top);
+            int successor = next.get(top);
+
+            if (successor == block.successors.size()) {
+                postorder.add(block);
+                stack.remove(top);
+                next.remove(top);
+                continue;
+            }
+
+            next.set(top, successor + 1);
+            BasicBlock target = block.successors.get(successor);
+            if (!visited[target.index]) {
+                visited[target.index] = true;
+                stack.add(target);
+                next.add(0);
+            }
+        }
+
+        for (int index = postorder.size() - 1; index != -1; index--) {
+            order[postorder.get(index).index] = reversePostorder.size();
+            reversePostorder.add(postorder.get(index));
+        }
+    }
+
+    private void solve() {
+        BasicBlock entry = graph.getEntry();
+        idom[entry.index] = entry;
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (BasicBlock block : reversePostorder) {
+                if (block == entry)
+                    continue;
+
+                // intersect the dominators of the predecessors that have already been processed
+                BasicBlock dominator = null;
+                for (BasicBlock predecessor : block.predecessors) {
+                    if (idom[predecessor.index] == null)
+                        continue;
+                    dominator = dominator == null ? predecessor : intersect(predecessor, dominator);
+                }
+
+                if (idom[block.index] != dominator) {
+                    idom[block.index] = dominator;
+                    changed = true;
+                }
+            }
+        }
+
+        for (BasicBlock block : reversePostorder) {
+            if (block != entry)
+                children.get(idom[block.index].index).add(block);
+        }
+    }
+
+    /**
+     * Returns the closest common dominator of two blocks, by walking up the tree from the deeper one
+     */
+    private BasicBlock intersect(BasicBlock a, BasicBlock b) {
+        while (a != b) {
+            while (order[a.index] > order[b.index])
+                a = idom[a.index];
+            while (order[b.index] > order[a.index])
+                b = idom[b.index];
+        }
+        return a;
+    }
+
+    /**
+     * The dominance frontier of a block is made of the blocks where its dominance ends:
+     * blocks it doesn't strictly dominate, but with a predecessor it dominates
+     */
+    private void computeFrontiers() {
+        for (BasicBlock block : reversePostorder) {
+            if (block.predecessors.size() < 2)
+                continue;
+
+            for (BasicBlock predecessor : block.predecessors) {
+                if (order[predecessor.index] == -1)
+                    continue;
+
+                for (BasicBlock runner = predecessor; runner != idom[block.index]; runner = idom[runner.index]) {
+                    frontiers.get(runner.index).add(block);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns the immediate dominator of the block, null for the entry block and unreachable blocks
+     */
+    public BasicBlock immediateDominator(BasicBlock block) {
+        BasicBlock dominator = idom[block.index];
+        return dominator == block ? null : dominator;
+    }
+
+    public boolean dominates(BasicBlock dominator, BasicBlock block) {
+        if (!isReachable(block))
+            return false;
+
+        for (BasicBlock runner = block; ; runner = idom[runner.index]) {
+            if (runner == dominator)
+                return true;
+            if (idom[runner.index] == runner)
+                return false;
+        }
+    }
+
+    public boolean isReachable(BasicBlock block) {
+        return order[block.index] != -1;
+    }
+
+    /**
+     * Returns the blocks whose immediate dominator is the given one
+     */
+    public List<BasicBlock> children(BasicBlock block) {
+        return children.get(block.index);
+    }
+
+    public LinkedHashSet<BasicBlock> frontier(BasicBlock block) {
+        return frontiers.get(block.index);
+    }
+
+    public List<BasicBlock> getReversePostorder() {
+        return reversePostorder;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        append(stringBuilder, graph.getEntry(), 0);
+        return stringBuilder.toString();
+    }
+
+    private void append(StringBuilder stringBuilder, BasicBlock block, int depth) {
+        stringBuilder.append("  ".repeat(depth)).append(block.getName());
+
+        if (!frontier(block).isEmpty()) {
+            stringBuilder.append("\tfrontier:");
+            for (BasicBlock frontier : frontier(block)) {
+                stringBuilder.append(" ").append(frontier.getName());
+            }
+        }
+        stringBuilder.append("\n");
+
+        for (BasicBlock child : children(block)) {
+            append(stringBuilder, child, depth + 1);
+        }
+    }
+
+}
@@ -0,0 +1,249 @@
+package org.gargiolang.compilation.cfg;
+
+import org.gargiolang.compilation.allocator.Liveness;
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Value;
+import org.gargiolang.compilation.threeaddresscode.instructions.*;
+import org.gargiolang.exception.parsing.UndefinedLabelException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * Moves the computations whose result doesn't change across the iterations of a loop right before the loop.
+ *
+ * Loops are found from their back edges, jumps to a block that dominates the jump, and are visited innermost first.
+ * An instruction is hoisted if its operands are not written in the loop (or only by hoisted instructions),
+ * it is the only one in the loop to write its result, the result is not read before being written
+ * and the result is either dead once the loop is left or written before every exit
+ */
+public final class LoopInvariantCodeMotion {
+
+    // upper bound to the loops that are optimized, since the graph is rebuilt after each of them
+    private static final int MAX_LOOPS = 64;
+
+    private boolean enabled;
+
+    // instructions moved out of loops by every run
+    private int hoisted;
+
+
+    public LoopInvariantCodeMotion() {
+        this.enabled = true;
+    }
+
+
+    /**
+     * Runs the optimization over the list of instructions
+     *
+     * @return the first instruction of the optimized list
+     */
+    public Instruction run(Instruction first) throws UndefinedLabelException {
+        for (int loop = 0; loop != MAX_LOOPS; loop++) {
+            ControlFlowGraph graph = ControlFlowGraph.build(first);
+            if (!hoist(graph))
+                break;
+            first = graph.linearize();
+        }
+        return first;
+    }
+
+
+    /**
+     * Hoists the invariant instructions of the innermost loop that has any
+     *
+     * @return whether any instruction has been moved
+     */
+    private boolean hoist(ControlFlowGraph graph) {
+        DominatorTree dominators = new DominatorTree(graph);
+        Liveness liveness = Liveness.analyse(graph.linearize());
+
+        // index of the first instruction of every block in the linearized code
+        int[] entries = new int[graph.size()];
+        int position = 0;
+        for (BasicBlock block : graph.getBlocks()) {
+            entries[block.index] = position;
+            position += (block.label == null ? 0 : 1) + block.instructions.size();
+        }
+
+        // body of the loop of every header, made of the blocks that reach a back edge without going through the header
+        LinkedHashMap<BasicBlock, BitSet> loops = new LinkedHashMap<>();
+        for (BasicBlock block : graph.getBlocks()) {
+            for (BasicBlock successor : block.successors) {
+                if (dominators.dominates(successor, block))
+                    collect(dominators, loops.computeIfAbsent(successor, header -> new BitSet()), successor, block);
+            }
+        }
+
+        ArrayList<BasicBlock> headers = new ArrayList<>(loops.keySet());
+        headers.sort((a, b) -> loops.get(a).cardinality() - loops.get(b).cardinality());
+
+        for (BasicBlock header : headers) {
+            LinkedHashSet<Instruction> invariant = invariant(graph, dominators, liveness, entries, header, loops.get(header));
+            if (!invariant.isEmpty()) {
+                move(graph, header, loops.get(header), invariant);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void collect(DominatorTree dominators, BitSet body, BasicBlock header, BasicBlock tail) {
+        body.set(header.index);
+
+        ArrayList<BasicBlock> worklist = new ArrayList<>();
+        worklist.add(tail);
+        while (!worklist.isEmpty()) {
+            BasicBlock block = worklist.remove(worklist.size() - 1);
+            if (body.get(block.index) || !dominators.isReachable(block))
+                continue;
+
+            body.set(block.index);
+            worklist.addAll(block.predecessors);
+        }
+    }
+
+
+    /**
+     * Returns the instructions of the loop that can be hoisted, in an order that respects their dependencies
+     */
+    private static LinkedHashSet<Instruction> invariant(ControlFlowGraph graph, DominatorTree dominators, Liveness liveness, int[] entries, BasicBlock header, BitSet body) {
+        // how many times every address is written in the loop
+        HashMap<String, Integer> definitions = new HashMap<>();
+        // edges that leave the loop, as pairs of blocks
+        ArrayList<BasicBlock[]> exits = new ArrayList<>();
+
+        for (int index = body.nextSetBit(0); index != -1; index = body.nextSetBit(index + 1)) {
+            BasicBlock block = graph.getBlocks().get(index);
+            for (Instruction instruction : block.instructions) {
+                if (instruction.defines() != null)
+                    definitions.merge(instruction.defines().address, 1, Integer::sum);
+            }
+            for (BasicBlock successor : block.successors) {
+                if (!body.get(successor.index))
+                    exits.add(new BasicBlock[]{block, successor});
+            }
+        }
+
+        LinkedHashSet<Instruction> invariant = new LinkedHashSet<>();
+        HashSet<String> hoisted = new HashSet<>();
+
+        // an instruction may become invariant once the instructions it reads from are
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int index = body.nextSetBit(0); index != -1; index = body.nextSetBit(index + 1)) {
+                BasicBlock block = graph.getBlocks().get(index);
+
+                for (Instruction instruction : block.instructions) {
+                    if (invariant.contains(instruction) || !isHoistable(instruction))
+                        continue;
+
+                    Address result = instruction.defines();
+                    if (definitions.get(result.address) != 1 || liveness.isLiveIn(entries[header.index], result))
+                        continue;
+                    if (!isInvariant(instruction, definitions, hoisted))
+                        continue;
+                    if (!isDeadOrWrittenAtExits(dominators, liveness, entries, block, result, exits))
+                        continue;
+
+                    invariant.add(instruction);
+                    hoisted.add(result.address);
+                    changed = true;
+                }
+            }
+        }
+
+        return invariant;
+    }
+
+    /**
+     * Only instructions that cannot fail and have no side effects other than writing their result are moved,
+     * since they will run even if the loop is never entered
+     */
+    private static boolean isHoistable(Instruction instruction) {
+        return instruction instanceof Add || instruction instanceof Subtract || instruction instanceof EqualsTo
+                || instruction instanceof GreaterThan || instruction instanceof Assign;
+    }
+
+    private static boolean isInvariant(Instruction instruction, HashMap<String, Integer> definitions, HashSet<String> hoisted) {
+        for (Value value : instruction.uses()) {
+            if (value instanceof Address) {
+                String name = ((Address) value).address;
+                if (definitions.containsKey(name) && !hoisted.contains(name))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDeadOrWrittenAtExits(DominatorTree dominators, Liveness liveness, int[] entries, BasicBlock block, Address result, ArrayList<BasicBlock[]> exits) {
+        for (BasicBlock[] exit : exits) {
+            if (liveness.isLiveIn(entries[exit[1].index], result) && !dominators.dominates(block, exit[0]))
+                return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Moves the instructions to the end of the only block the loop is entered from,
+     * or to a new block placed right before the header if the loop can be entered from several places
+     */
+    private void move(ControlFlowGraph graph, BasicBlock header, BitSet body, LinkedHashSet<Instruction> invariant) {
+        for (int index = body.nextSetBit(0); index != -1; index = body.nextSetBit(index + 1)) {
+            graph.getBlocks().get(index).instructions.removeAll(invariant);
+        }
+
+        ArrayList<BasicBlock> outside = new ArrayList<>();
+        for (BasicBlock predecessor : header.predecessors) {
+            if (!body.get(predecessor.index))
+                outside.add(predecessor);
+        }
+
+        BasicBlock preheader;
+        if (outside.size() == 1 && outside.get(0).successors.size() == 1) {
+            preheader = outside.get(0);
+        } else {
+            int previous = header.index - 1;
+            preheader = graph.insertBefore(header);
+
+            // a block of the loop that used to fall through to the header must now jump over the preheader
+            if (previous != -1 && body.get(previous) && graph.getBlocks().get(previous).fallsThrough())
+                graph.insertBefore(preheader).append(new Goto(header.label));
+
+            for (BasicBlock predecessor : outside) {
+                ControlFlowGraph.retarget(predecessor, header.label, preheader.label);
+            }
+        }
+
+        for (Instruction instruction : invariant) {
+            preheader.appendBeforeJump(instruction);
+        }
+        hoisted += invariant.size();
+    }
+
+
+    public String getName() {
+        return "licm";
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getHoisted() {
+        return hoisted;
+    }
+
+}
@@ -0,0 +1,299 @@
+package org.gargiolang.compilation.cfg;
+
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Temporary;
+import org.gargiolang.compilation.threeaddresscode.Value;
+import org.gargiolang.compilation.threeaddresscode.instructions.*;
+import org.gargiolang.exception.parsing.UndefinedLabelException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * Converts a ControlFlowGraph to and from SSA form, where every address is written by a single instruction.
+ *
+ * Phi functions are placed at the iterated dominance frontier of the definitions (Cytron et al.),
+ * only for the addresses that are read in a block other than the one they are written in (semi-pruned SSA)
+ * and for the variables of the program, which are read once the program is over.
+ * Addresses are then renamed with a walk of the dominator tree: the n-th definition of a becomes a.n,
+ * reads before any definition keep the original address.
+ * Variables whose address is taken live in memory and are never renamed
+ */
+public final class StaticSingleAssignment {
+
+    private final ControlFlowGraph graph;
+    private final DominatorTree dominators;
+
+    // addresses that are renamed, by name
+    private final LinkedHashMap<String, Address> variables;
+
+    // address every phi function merges the versions of
+    private final IdentityHashMap<Phi, Address> merged;
+
+    // versions generated so far and the version that is visible at the visited block, for every address
+    private final HashMap<String, Integer> versions;
+    private final HashMap<String, ArrayList<Address>> stacks;
+
+
+    private StaticSingleAssignment(ControlFlowGraph graph) {
+        this.graph = graph;
+        this.dominators = new DominatorTree(graph);
+        this.variables = new LinkedHashMap<>();
+        this.merged = new IdentityHashMap<>();
+        this.versions = new HashMap<>();
+        this.stacks = new HashMap<>();
+    }
+
+
+    /**
+     * Converts the graph to SSA form, unreachable blocks are removed first
+     */
+    public static void construct(ControlFlowGraph graph) throws UndefinedLabelException {
+        graph.removeUnreachable();
+
+        StaticSingleAssignment ssa = new StaticSingleAssignment(graph);
+        ssa.placePhis();
+        ssa.rename(graph.getEntry());
+    }
+
+
+    private void placePhis() {
+        // variables whose address is taken
+        HashSet<String> memory = new HashSet<>();
+        for (BasicBlock block : graph.getBlocks()) {
+            for (Instruction instruction : block.instructions) {
+                if (instruction instanceof AddressOf)
+                    memory.add(((AddressOf) instruction).a.address);
+            }
+        }
+
+        // blocks that write every address and addresses read before being written in a block
+        LinkedHashMap<String, LinkedHashSet<BasicBlock>> definitions = new LinkedHashMap<>();
+        HashSet<String> global = new HashSet<>();
+
+        for (BasicBlock block : graph.getBlocks()) {
+            HashSet<String> written = new HashSet<>();
+
+            for (Instruction instruction : block.instructions) {
+                for (Value value : instruction.uses()) {
+                    if (value instanceof Address && !written.contains(((Address) value).address))
+                        global.add(((Address) value).address);
+                }
+
+                Address defined = instruction.defines();
+                if (defined == null || memory.contains(defined.address))
+                    continue;
+
+                variables.putIfAbsent(defined.address, defined);
+                definitions.computeIfAbsent(defined.address, name -> new LinkedHashSet<>()).add(block);
+                written.add(defined.address);
+            }
+        }
+
+        for (String name : definitions.keySet()) {
+            versions.put(name, 0);
+            stacks.put(name, new ArrayList<>());
+
+            // variables of the program are also read once the program is over
+            if (!global.contains(name) && variables.get(name) instanceof Temporary)
+                continue;
+
+            // every block in the frontier of a definition gets a phi, which is a definition itself
+            HashSet<BasicBlock> placed = new HashSet<>();
+            ArrayList<BasicBlock> worklist = new ArrayList<>(definitions.get(name));
+            while (!worklist.isEmpty()) {
+                BasicBlock block = worklist.remove(worklist.size() - 1);
+
+                for (BasicBlock frontier : dominators.frontier(block)) {
+                    if (!placed.add(frontier))
+                        continue;
+
+                    Phi phi = new Phi(variables.get(name), new Value[frontier.predecessors.size()]);
+                    frontier.phis.add(phi);
+                    merged.put(phi, variables.get(name));
+
+                    if (!definitions.get(name).contains(frontier))
+                        worklist.add(frontier);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Renames the addresses of the block and of the blocks it dominates
+     */
+    private void rename(BasicBlock block) {
+        // addresses whose versions have been pushed by this block, to pop them once it's done
+        ArrayList<String> pushed = new ArrayList<>();
+
+        for (int index = 0; index != block.phis.size(); index++) {
+            Phi phi = block.phis.get(index);
+            Address variable = merged.get(phi);
+
+            Phi renamed = new Phi(define(variable, pushed), phi.operands);
+            merged.put(renamed, variable);
+            block.phis.set(index, renamed);
+        }
+
+        for (int index = 0; index != block.instructions.size(); index++) {
+            block.instructions.set(index, rename(block.instructions.get(index), pushed));
+        }
+
+        // give the phi functions of the successors the versions that flow out of this block
+        for (BasicBlock successor : block.successors) {
+            int predecessor = successor.predecessors.indexOf(block);
+            for (Phi phi : successor.phis) {
+                phi.operands[predecessor] = current(merged.get(phi));
+            }
+        }
+
+        // the variables of the program get their final version back once the program is over
+        if (block == graph.getExit()) {
+            // the copies must run after a conditional jump that ends the code, so they get a block of their own
+            BasicBlock end = block.jump() == null ? block : graph.insertAfter(block);
+            for (Address variable : variables.values()) {
+                if (!(variable instanceof Temporary) && current(variable) != variable)
+                    end.append(new Assign(variable, current(variable)));
+            }
+        }
+
+        for (BasicBlock child : dominators.children(block)) {
+            rename(child);
+        }
+
+        for (String name : pushed) {
+            ArrayList<Address> stack = stacks.get(name);
+            stack.remove(stack.size() - 1);
+        }
+    }
+
+    /**
+     * Generates a new version of the address, addresses that are not renamed are returned as they are
+     */
+    private Address define(Address address, ArrayList<String> pushed) {
+        if (!variables.containsKey(address.address))
+            return address;
+
+        int version = versions.get(address.address) + 1;
+        versions.put(address.address, version);
+
+        Address defined = address.version(version);
+        stacks.get(address.address).add(defined);
+        pushed.add(address.address);
+        return defined;
+    }
+
+    /**
+     * Returns the version of the address that is visible at this point of the walk
+     */
+    private Address current(Address address) {
+        ArrayList<Address> stack = stacks.get(address.address);
+        if (stack == null || stack.isEmpty())
+            return address;
+        return stack.get(stack.size() - 1);
+    }
+
+    private Value use(Value value) {
+        return value instanceof Address ? current((Address) value) : value;
+    }
+
+    /**
+     * Rebuilds the instruction with the visible versions of its operands and a new version of its result.
+     * Operands are renamed first, since an instruction may read the address it writes
+     */
+    private Instruction rename(Instruction instruction, ArrayList<String> pushed) {
+        if (instruction instanceof Add) {
+            Add add = (Add) instruction;
+            Value a = use(add.a), b = use(add.b);
+            return new Add(define(add.result, pushed), a, b);
+        }
+        if (instruction instanceof Subtract) {
+            Subtract subtract = (Subtract) instruction;
+            Value a = use(subtract.a), b = use(subtract.b);
+            return new Subtract(define(subtract.result, pushed), a, b);
+        }
+        if (instruction instanceof EqualsTo) {
+            EqualsTo equalsTo = (EqualsTo) instruction;
+            Value a = use(equalsTo.a), b = use(equalsTo.b);
+            return new EqualsTo(define(equalsTo.result, pushed), a, b);
+        }
+        if (instruction instanceof GreaterThan) {
+            GreaterThan greaterThan = (GreaterThan) instruction;
+            Value a = use(greaterThan.a), b = use(greaterThan.b);
+            return new GreaterThan(define(greaterThan.result, pushed), a, b);
+        }
+        if (instruction instanceof Assign) {
+            Value b = use(((Assign) instruction).b);
+            return new Assign(define(((Assign) instruction).a, pushed), b);
+        }
+        if (instruction instanceof IfGoto) {
+            IfGoto ifGoto = (IfGoto) instruction;
+            return new IfGoto(use(ifGoto.condition), ifGoto.label);
+        }
+        if (instruction instanceof AddressOf)
+            return new AddressOf(define(((AddressOf) instruction).result, pushed), ((AddressOf) instruction).a);
+        if (instruction instanceof Dereference) {
+            Address a = current(((Dereference) instruction).a);
+            return new Dereference(define(((Dereference) instruction).result, pushed), a);
+        }
+        return instruction;
+    }
+
+
+    /**
+     * Converts the graph back from SSA form: every phi function becomes a copy at the end of each predecessor.
+     * An edge from a block with several successors to a block with phi functions is split first,
+     * so that the copies only run when that edge is taken.
+     *
+     * The copies of a block are a parallel assignment, but since the graph is not optimized while in SSA form
+     * every phi only reads versions of its own address and copying them in order is safe
+     */
+    public static void destruct(ControlFlowGraph graph) throws UndefinedLabelException {
+        for (BasicBlock block : new ArrayList<>(graph.getBlocks())) {
+            if (block.phis.isEmpty())
+                continue;
+
+            for (int index = 0; index != block.predecessors.size(); index++) {
+                BasicBlock predecessor = block.predecessors.get(index);
+                BasicBlock copies = predecessor.successors.size() == 1 ? predecessor : split(graph, predecessor, block);
+
+                for (Phi phi : block.phis) {
+                    copies.appendBeforeJump(new Assign(phi.result, phi.operands[index]));
+                }
+            }
+
+            block.phis.clear();
+        }
+
+        graph.connect();
+    }
+
+    /**
+     * Inserts a new block on the edge between the two blocks
+     */
+    private static BasicBlock split(ControlFlowGraph graph, BasicBlock from, BasicBlock to) {
+        boolean fallthrough = from.fallsThrough() && graph.getBlocks().indexOf(from) + 1 == graph.getBlocks().indexOf(to);
+
+        if (fallthrough) {
+            // the new block takes the place of the destination right after the jump
+            BasicBlock inserted = graph.insertAfter(from);
+            inserted.append(new Goto(to.label));
+            return inserted;
+        }
+
+        // the new block goes right before the destination, so the block that used to fall through must jump over it
+        int previous = graph.getBlocks().indexOf(to) - 1;
+        BasicBlock inserted = graph.insertBefore(to);
+        if (previous != -1 && graph.getBlocks().get(previous).fallsThrough())
+            graph.insertBefore(inserted).append(new Goto(to.label));
+
+        ControlFlowGraph.retarget(from, to.label, inserted.label);
+        return inserted;
+    }
+
+}
@@ -0,0 +1,305 @@
+package org.gargiolang.compilation.jvm;
+
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Literal;
+import org.gargiolang.compilation.threeaddresscode.Temporary;
+import org.gargiolang.compilation.threeaddresscode.Value;
+import org.gargiolang.compilation.threeaddresscode.instructions.*;
+import org.gargiolang.exception.parsing.CodeTooLargeException;
+import org.gargiolang.exception.parsing.UndefinedLabelException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Lowers the three address code into a class file whose main method runs the program and then prints its variables,
+ * the same way the VirtualMachine does. Once loaded, the code is compiled to machine code by the JIT of the JVM.
+ *
+ * Every address becomes an int local variable, initialized to 0 like the registers of the VirtualMachine.
+ * Variables whose address is taken live in an int array instead, and their address is their index in it
+ */
+public final class ClassGenerator {
+
+    // local variable that holds the memory array, the arguments of main come first
+    private static final int MEMORY = 1;
+
+    // deepest operand stack: the memory array and an index below the two operands of an operation
+    private static final int MAX_STACK = 4;
+
+    private final ClassWriter classWriter;
+    private final CodeBuffer code;
+
+    // local variable of every address and index in the memory array of the address taken variables
+    private final LinkedHashMap<String, Integer> locals;
+    private final LinkedHashMap<String, Integer> memory;
+
+    // variables of the program, in order of appearance
+    private final ArrayList<String> variables;
+
+    private final IdentityHashMap<Label, Integer> labels;
+
+
+    private ClassGenerator(String className) throws IOException {
+        this.classWriter = new ClassWriter(className);
+        this.code = new CodeBuffer();
+        this.locals = new LinkedHashMap<>();
+        this.memory = new LinkedHashMap<>();
+        this.variables = new ArrayList<>();
+        this.labels = new IdentityHashMap<>();
+    }
+
+
+    /**
+     * Generates the class file of the program
+     *
+     * @param className internal name of the class, e.g. org/example/Script
+     * @param instructions first instruction of the three address code
+     */
+    public static byte[] generate(String className, Instruction instructions) throws IOException, CodeTooLargeException, UndefinedLabelException {
+        ClassGenerator generator = new ClassGenerator(className);
+
+        generator.allocate(instructions);
+        generator.prologue();
+        for (Instruction instruction = instructions; instruction != null; instruction = instruction.next) {
+            generator.emit(instruction);
+        }
+        generator.epilogue();
+
+        generator.classWriter.addMethod(ClassWriter.ACC_PUBLIC | ClassWriter.ACC_STATIC, "main", "([Ljava/lang/String;)V",
+                generator.code, MAX_STACK, MEMORY + 1 + generator.locals.size());
+        return generator.classWriter.toByteArray();
+    }
+
+    /**
+     * Turns the name of a script into a valid class name, e.g. tests/my-script.gl becomes My_script
+     */
+    public static String classNameOf(String script) {
+        String name = script.substring(Math.max(script.lastIndexOf('/'), script.lastIndexOf('\\')) + 1);
+        if (name.contains("."))
+            name = name.substring(0, name.lastIndexOf('.'));
+
+        StringBuilder className = new StringBuilder();
+        for (char character : name.toCharArray()) {
+            className.append(Character.isJavaIdentifierPart(character) ? character : '_');
+        }
+
+        if (className.length() == 0 || !Character.isJavaIdentifierStart(className.charAt(0)))
+            className.insert(0, '_');
+        className.setCharAt(0, Character.toUpperCase(className.charAt(0)));
+        return className.toString();
+    }
+
+
+    /**
+     * Gives every address a local variable or a place in the memory array, and every label a code label
+     */
+    private void allocate(Instruction instructions) {
+        for (Instruction instruction = instructions; instruction != null; instruction = instruction.next) {
+            if (instruction instanceof AddressOf)
+                memory.putIfAbsent(((AddressOf) instruction).a.address, memory.size());
+        }
+
+        for (Instruction instruction = instructions; instruction != null; instruction = instruction.next) {
+            if (instruction instanceof Label)
+                labels.put((Label) instruction, code.newLabel());
+
+            allocate(instruction.defines());
+            for (Value value : instruction.uses()) {
+                allocate(value);
+            }
+        }
+    }
+
+    private void allocate(Value value) {
+        if (!(value instanceof Address))
+            return;
+
+        String name = ((Address) value).address;
+        if (!(value instanceof Temporary) && !variables.contains(name))
+            variables.add(name);
+        if (!memory.containsKey(name) && !locals.containsKey(name))
+            locals.put(name, MEMORY + 1 + locals.size());
+    }
+
+
+    private void prologue() throws IOException {
+        if (!memory.isEmpty()) {
+            constant(memory.size());
+            code.op(JvmOpcode.NEWARRAY, JvmOpcode.T_INT);
+            code.local(JvmOpcode.ASTORE, MEMORY);
+        }
+
+        // the verifier rejects reads of locals that might not have been written
+        for (int local : locals.values()) {
+            code.op(JvmOpcode.ICONST_0);
+            code.local(JvmOpcode.ISTORE, local);
+        }
+    }
+
+    /**
+     * Prints the variables of the program as {name: value, ...}
+     */
+    private void epilogue() throws IOException {
+        int out = classWriter.constantPool.fieldref("java/lang/System", "out", "Ljava/io/PrintStream;");
+        int printString = classWriter.constantPool.methodref("java/io/PrintStream", "print", "(Ljava/lang/String;)V");
+        int printInt = classWriter.constantPool.methodref("java/io/PrintStream", "print", "(I)V");
+        int println = classWriter.constantPool.methodref("java/io/PrintStream", "println", "(Ljava/lang/String;)V");
+
+        print(out, println, "{");
+        for (String variable : variables) {
+            print(out, printString, "\t" + variable + ": ");
+            code.op2(JvmOpcode.GETSTATIC, out);
+            load(new Address(variable));
+            code.op2(JvmOpcode.INVOKEVIRTUAL, printInt);
+            print(out, println, ",");
+        }
+        print(out, println, "}");
+
+        code.op(JvmOpcode.RETURN);
+    }
+
+    private void print(int out, int method, String string) throws IOException {
+        code.op2(JvmOpcode.GETSTATIC, out);
+        int index = classWriter.constantPool.string(string);
+        if (index > 255)
+            code.op2(JvmOpcode.LDC_W, index);
+        else
+            code.op(JvmOpcode.LDC, index);
+        code.op2(JvmOpcode.INVOKEVIRTUAL, method);
+    }
+
+
+    private void emit(Instruction instruction) throws IOException, UndefinedLabelException {
+        if (instruction instanceof Label) {
+            code.bind(labels.get(instruction));
+        } else if (instruction instanceof Add) {
+            Add add = (Add) instruction;
+            arithmetic(JvmOpcode.IADD, add.result, add.a, add.b);
+        } else if (instruction instanceof Subtract) {
+            Subtract subtract = (Subtract) instruction;
+            arithmetic(JvmOpcode.ISUB, subtract.result, subtract.a, subtract.b);
+        } else if (instruction instanceof EqualsTo) {
+            EqualsTo equalsTo = (EqualsTo) instruction;
+            comparison(JvmOpcode.IF_ICMPNE, equalsTo.result, equalsTo.a, equalsTo.b);
+        } else if (instruction instanceof GreaterThan) {
+            GreaterThan greaterThan = (GreaterThan) instruction;
+            comparison(JvmOpcode.IF_ICMPLE, greaterThan.result, greaterThan.a, greaterThan.b);
+        } else if (instruction instanceof Assign) {
+            Assign assign = (Assign) instruction;
+            beginStore(assign.a);
+            load(assign.b);
+            endStore(assign.a);
+        } else if (instruction instanceof Goto) {
+            code.branch(JvmOpcode.GOTO, label(((Goto) instruction).label));
+        } else if (instruction instanceof IfGoto) {
+            IfGoto ifGoto = (IfGoto) instruction;
+            load(ifGoto.condition);
+            code.branch(JvmOpcode.IFNE, label(ifGoto.label));
+        } else if (instruction instanceof AddressOf) {
+            AddressOf addressOf = (AddressOf) instruction;
+            beginStore(addressOf.result);
+            constant(memory.get(addressOf.a.address));
+            endStore(addressOf.result);
+        } else if (instruction instanceof Dereference) {
+            // reading outside of the memory array throws an ArrayIndexOutOfBoundsException
+            Dereference dereference = (Dereference) instruction;
+            beginStore(dereference.result);
+            code.local(JvmOpcode.ALOAD, MEMORY);
+            load(dereference.a);
+            code.op(JvmOpcode.IALOAD);
+            endStore(dereference.result);
+        }
+    }
+
+    private int label(Label label) throws UndefinedLabelException {
+        Integer codeLabel = labels.get(label);
+        if (codeLabel == null)
+            throw new UndefinedLabelException("Label " + label.hashCode() + " is not part of the compiled code");
+        return codeLabel;
+    }
+
+    private void arithmetic(int opcode, Address result, Value a, Value b) throws IOException {
+        beginStore(result);
+        load(a);
+        load(b);
+        code.op(opcode);
+        endStore(result);
+    }
+
+    /**
+     * Comparisons are branches on the JVM: the opcode must jump when the comparison is false
+     */
+    private void comparison(int opcode, Address result, Value a, Value b) throws IOException {
+        int otherwise = code.newLabel();
+        int end = code.newLabel();
+
+        beginStore(result);
+        load(a);
+        load(b);
+        code.branch(opcode, otherwise);
+        constant(1);
+        code.branch(JvmOpcode.GOTO, end);
+        code.bind(otherwise);
+        constant(0);
+        code.bind(end);
+        endStore(result);
+    }
+
+
+    private void load(Value value) throws IOException {
+        if (value instanceof Literal) {
+            constant(((Literal) value).value);
+            return;
+        }
+
+        String name = ((Address) value).address;
+        Integer index = memory.get(name);
+        if (index == null) {
+            code.local(JvmOpcode.ILOAD, locals.get(name));
+        } else {
+            code.local(JvmOpcode.ALOAD, MEMORY);
+            constant(index);
+            code.op(JvmOpcode.IALOAD);
+        }
+    }
+
+    /**
+     * Pushes the memory array and the index an address taken variable is written at, before its value is computed
+     */
+    private void beginStore(Address address) throws IOException {
+        Integer index = memory.get(address.address);
+        if (index != null) {
+            code.local(JvmOpcode.ALOAD, MEMORY);
+            constant(index);
+        }
+    }
+
+    private void endStore(Address address) {
+        if (memory.containsKey(address.address))
+            code.op(JvmOpcode.IASTORE);
+        else
+            code.local(JvmOpcode.ISTORE, locals.get(address.address));
+    }
+
+    /**
+     * Pushes an int constant with the shortest instruction that fits it
+     */
+    private void constant(int value) throws IOException {
+        if (value >= -1 && value <= 5)
+            code.op(JvmOpcode.ICONST_0 + value);
+        else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+            code.op(JvmOpcode.BIPUSH, value);
+        else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+            code.op2(JvmOpcode.SIPUSH, value);
+        else {
+            int index = classWriter.constantPool.integer(value);
+            if (index > 255)
+                code.op2(JvmOpcode.LDC_W, index);
+            else
+                code.op(JvmOpcode.LDC, index);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.gargiolang.compilation.jvm;
+
+import org.gargiolang.exception.parsing.CodeTooLargeException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes a class file with no fields and static methods only.
+ *
+ * Classes are written with version 49 (Java 5), the last one that doesn't require stack map frames:
+ * the JVM verifies them by type inference, so branches need no extra bookkeeping
+ */
+final class ClassWriter {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int VERSION = 49;
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_STATIC = 0x0008;
+    private static final int ACC_SUPER = 0x0020;
+
+    final ConstantPool constantPool;
+
+    private final String name;
+
+    private final ByteArrayOutputStream methods;
+    private final DataOutputStream methodData;
+    private int methodCount;
+
+
+    ClassWriter(String name) throws IOException {
+        this.constantPool = new ConstantPool();
+        this.name = name;
+        this.methods = new ByteArrayOutputStream();
+        this.methodData = new DataOutputStream(methods);
+
+        defaultConstructor();
+    }
+
+
+    /**
+     * Every class needs a constructor that calls the one of java.lang.Object
+     */
+    private void defaultConstructor() throws IOException {
+        CodeBuffer code = new CodeBuffer();
+        code.op(JvmOpcode.ALOAD_0);
+        code.op2(JvmOpcode.INVOKESPECIAL, constantPool.methodref("java/lang/Object", "<init>", "()V"));
+        code.op(JvmOpcode.RETURN);
+
+        try {
+            addMethod(ACC_PUBLIC, "<init>", "()V", code, 1, 1);
+        } catch (CodeTooLargeException e) {
+            // a three bytes long constructor always fits
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void addMethod(int access, String name, String descriptor, CodeBuffer code, int maxStack, int maxLocals) throws IOException, CodeTooLargeException {
+        byte[] bytes = code.toByteArray();
+
+        methodData.writeShort(access);
+        methodData.writeShort(constantPool.utf8(name));
+        methodData.writeShort(constantPool.utf8(descriptor));
+
+        // a single attribute: the code
+        methodData.writeShort(1);
+        methodData.writeShort(constantPool.utf8("Code"));
+        methodData.writeInt(12 + bytes.length);
+        methodData.writeShort(maxStack);
+        methodData.writeShort(maxLocals);
+        methodData.writeInt(bytes.length);
+        methodData.write(bytes);
+        methodData.writeShort(0); // exception table
+        methodData.writeShort(0); // attributes of the code
+
+        methodCount++;
+    }
+
+
+    byte[] toByteArray() throws IOException {
+        int thisClass = constantPool.classInfo(name);
+        int superClass = constantPool.classInfo("java/lang/Object");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        output.writeInt(MAGIC);
+        output.writeShort(0);
+        output.writeShort(VERSION);
+        constantPool.write(output);
+
+        output.writeShort(ACC_PUBLIC | ACC_SUPER);
+        output.writeShort(thisClass);
+        output.writeShort(superClass);
+        output.writeShort(0); // interfaces
+        output.writeShort(0); // fields
+
+        output.writeShort(methodCount);
+        output.write(methods.toByteArray());
+
+        output.writeShort(0); // attributes of the class
+        return bytes.toByteArray();
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.gargiolang.compilation.jvm;
+
+import org.gargiolang.exception.parsing.CodeTooLargeException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The code of a method being written: instructions are appended one byte at a time,
+ * branches to labels that are not bound yet are patched once the whole method is written
+ */
+final class CodeBuffer {
+
+    // the JVM limits the code of a method to 65535 bytes
+    private static final int MAX_LENGTH = 65535;
+
+    private final ByteArrayOutputStream code;
+
+    // offset of every label, -1 until the label is bound
+    private int[] labels;
+    private int labelCount;
+
+    // offsets of the branch instructions to patch and the labels they jump to
+    private final ArrayList<Integer> branches;
+    private final ArrayList<Integer> targets;
+
+
+    CodeBuffer() {
+        this.code = new ByteArrayOutputStream();
+        this.labels = new int[16];
+        this.branches = new ArrayList<>();
+        this.targets = new ArrayList<>();
+    }
+
+
+    int newLabel() {
+        if (labelCount == labels.length)
+            labels = Arrays.copyOf(labels, labels.length * 2);
+        labels[labelCount] = -1;
+        return labelCount++;
+    }
+
+    void bind(int label) {
+        labels[label] = code.size();
+    }
+
+
+    void op(int opcode) {
+        code.write(opcode);
+    }
+
+    void op(int opcode, int operand) {
+        code.write(opcode);
+        code.write(operand);
+    }
+
+    void op2(int opcode, int operand) {
+        code.write(opcode);
+        code.write(operand >> 8);
+        code.write(operand);
+    }
+
+    /**
+     * Writes a load or store of a local variable, using the wide form if its index doesn't fit a byte
+     */
+    void local(int opcode, int index) {
+        if (index > 255) {
+            code.write(JvmOpcode.WIDE);
+            op2(opcode, index);
+        } else {
+            op(opcode, index);
+        }
+    }
+
+    void branch(int opcode, int label) {
+        branches.add(code.size());
+        targets.add(label);
+        op2(opcode, 0);
+    }
+
+
+    int length() {
+        return code.size();
+    }
+
+    /**
+     * Returns the code with the offsets of the branches filled in
+     */
+    byte[] toByteArray() throws CodeTooLargeException {
+        if (code.size() > MAX_LENGTH)
+            throw new CodeTooLargeException("The compiled code is " + code.size() + " bytes long, but a method can't be longer than " + MAX_LENGTH + " bytes");
+
+        byte[] bytes = code.toByteArray();
+        for (int index = 0; index != branches.size(); index++) {
+            int branch = branches.get(index);
+            int offset = labels[targets.get(index)] - branch;
+            if (offset > Short.MAX_VALUE || offset < Short.MIN_VALUE)
+                throw new CodeTooLargeException("Jump of " + offset + " bytes doesn't fit a branch instruction");
+
+            bytes[branch + 1] = (byte) (offset >> 8);
+            bytes[branch + 2] = (byte) offset;
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,115 @@
+package org.gargiolang.compilation.jvm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * Constant pool of a class file: every entry is written once and referenced by its index
+ */
+final class ConstantPool {
+
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELDREF = 9;
+    private static final int METHODREF = 10;
+    private static final int NAME_AND_TYPE = 12;
+
+    // index of the entries written so far, keyed by their tag and content
+    private final HashMap<String, Integer> entries;
+
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream data;
+
+    // index of the next entry, entries start from 1
+    private int count;
+
+
+    ConstantPool() {
+        this.entries = new HashMap<>();
+        this.bytes = new ByteArrayOutputStream();
+        this.data = new DataOutputStream(bytes);
+        this.count = 1;
+    }
+
+
+    int utf8(String value) throws IOException {
+        String key = UTF8 + ":" + value;
+        Integer index = entries.get(key);
+        if (index != null)
+            return index;
+
+        data.writeByte(UTF8);
+        data.writeUTF(value);
+        return add(key);
+    }
+
+    int integer(int value) throws IOException {
+        String key = INTEGER + ":" + value;
+        Integer index = entries.get(key);
+        if (index != null)
+            return index;
+
+        data.writeByte(INTEGER);
+        data.writeInt(value);
+        return add(key);
+    }
+
+    int classInfo(String name) throws IOException {
+        return reference(CLASS, utf8(name));
+    }
+
+    int string(String value) throws IOException {
+        return reference(STRING, utf8(value));
+    }
+
+    int fieldref(String owner, String name, String descriptor) throws IOException {
+        return reference(FIELDREF, classInfo(owner), nameAndType(name, descriptor));
+    }
+
+    int methodref(String owner, String name, String descriptor) throws IOException {
+        return reference(METHODREF, classInfo(owner), nameAndType(name, descriptor));
+    }
+
+    private int nameAndType(String name, String descriptor) throws IOException {
+        return reference(NAME_AND_TYPE, utf8(name), utf8(descriptor));
+    }
+
+    /**
+     * Adds an entry made of the tag and of the indices of other entries
+     */
+    private int reference(int tag, int... references) throws IOException {
+        StringBuilder key = new StringBuilder().append(tag);
+        for (int reference : references) {
+            key.append(":").append(reference);
+        }
+
+        Integer index = entries.get(key.toString());
+        if (index != null)
+            return index;
+
+        data.writeByte(tag);
+        for (int reference : references) {
+            data.writeShort(reference);
+        }
+        return add(key.toString());
+    }
+
+    private int add(String key) {
+        entries.put(key, count);
+        return count++;
+    }
+
+
+    /**
+     * Writes the count of the constant pool followed by its entries
+     */
+    void write(DataOutputStream output) throws IOException {
+        output.writeShort(count);
+        output.write(bytes.toByteArray());
+    }
+
+}
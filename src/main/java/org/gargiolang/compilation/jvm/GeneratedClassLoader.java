@@ -0,0 +1,39 @@
+package org.gargiolang.compilation.jvm;
+
+import org.gargiolang.exception.evaluation.IndexOutOfBoundsException;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Loads a class written by the ClassGenerator straight from its bytes and runs it
+ */
+public final class GeneratedClassLoader extends ClassLoader {
+
+    private GeneratedClassLoader() {
+        super(GeneratedClassLoader.class.getClassLoader());
+    }
+
+
+    /**
+     * Runs the main method of the class
+     *
+     * @throws IndexOutOfBoundsException if a dereferenced address is not a valid memory slot
+     */
+    public static void run(String className, byte[] classFile) throws IndexOutOfBoundsException {
+        Class<?> generated = new GeneratedClassLoader().defineClass(className.replace('/', '.'), classFile, 0, classFile.length);
+
+        try {
+            generated.getMethod("main", String[].class).invoke(null, (Object) new String[0]);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof ArrayIndexOutOfBoundsException)
+                throw new IndexOutOfBoundsException("Invalid address: " + e.getCause().getMessage());
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            // every generated class has a public static main method
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.gargiolang.compilation.jvm;
+
+/**
+ * Opcodes of the JVM instructions used by the ClassGenerator, as defined by the Java Virtual Machine Specification
+ */
+final class JvmOpcode {
+
+    static final int ICONST_0 = 0x03;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC = 0x12;
+    static final int LDC_W = 0x13;
+
+    static final int ILOAD = 0x15;
+    static final int ALOAD = 0x19;
+    static final int ALOAD_0 = 0x2a;
+    static final int IALOAD = 0x2e;
+    static final int ISTORE = 0x36;
+    static final int ASTORE = 0x3a;
+    static final int IASTORE = 0x4f;
+
+    static final int IADD = 0x60;
+    static final int ISUB = 0x64;
+
+    static final int IFNE = 0x9a;
+    static final int IF_ICMPNE = 0xa0;
+    static final int IF_ICMPLE = 0xa4;
+    static final int GOTO = 0xa7;
+
+    static final int RETURN = 0xb1;
+    static final int GETSTATIC = 0xb2;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int NEWARRAY = 0xbc;
+    static final int WIDE = 0xc4;
+
+    // array type of newarray
+    static final int T_INT = 10;
+
+
+    private JvmOpcode() {
+
+    }
+
+}
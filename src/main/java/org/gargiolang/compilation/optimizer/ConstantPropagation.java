@@ -0,0 +1,88 @@
+package org.gargiolang.compilation.optimizer;
+
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Literal;
+import org.gargiolang.compilation.threeaddresscode.Value;
+import org.gargiolang.compilation.threeaddresscode.instructions.*;
+
+import java.util.HashMap;
+
+/**
+ * Replaces the addresses that are known to hold a literal with the literal itself and folds the operations
+ * whose operands are all literals. Conditional jumps on a known condition become a goto or are removed
+ */
+final class ConstantPropagation extends Propagation {
+
+    // literal value of the addresses, by name
+    private final HashMap<String, Literal> constants;
+
+
+    ConstantPropagation() {
+        super("constprop");
+        this.constants = new HashMap<>();
+    }
+
+
+    @Override
+    protected Value replace(Value operand) {
+        if (operand instanceof Address) {
+            Literal literal = constants.get(((Address) operand).address);
+            if (literal != null)
+                return literal;
+        }
+        return operand;
+    }
+
+    @Override
+    protected void kill(Address address) {
+        constants.remove(address.address);
+    }
+
+    @Override
+    protected void clear() {
+        constants.clear();
+    }
+
+    @Override
+    protected void record(Assign assign) {
+        if (assign.b instanceof Literal)
+            constants.put(assign.a.address, (Literal) assign.b);
+    }
+
+
+    @Override
+    protected Instruction simplify(Instruction instruction) {
+        if (instruction instanceof IfGoto) {
+            IfGoto ifGoto = (IfGoto) instruction;
+            if (!(ifGoto.condition instanceof Literal))
+                return ifGoto;
+            // the jump is always taken or never taken
+            return ((Literal) ifGoto.condition).value != 0 ? new Goto(ifGoto.label) : null;
+        }
+
+        if (instruction instanceof Add) {
+            Add add = (Add) instruction;
+            if (add.a instanceof Literal && add.b instanceof Literal)
+                return new Assign(add.result, new Literal(value(add.a) + value(add.b)));
+        } else if (instruction instanceof Subtract) {
+            Subtract subtract = (Subtract) instruction;
+            if (subtract.a instanceof Literal && subtract.b instanceof Literal)
+                return new Assign(subtract.result, new Literal(value(subtract.a) - value(subtract.b)));
+        } else if (instruction instanceof EqualsTo) {
+            EqualsTo equalsTo = (EqualsTo) instruction;
+            if (equalsTo.a instanceof Literal && equalsTo.b instanceof Literal)
+                return new Assign(equalsTo.result, value(equalsTo.a) == value(equalsTo.b) ? Literal.one : Literal.zero);
+        } else if (instruction instanceof GreaterThan) {
+            GreaterThan greaterThan = (GreaterThan) instruction;
+            if (greaterThan.a instanceof Literal && greaterThan.b instanceof Literal)
+                return new Assign(greaterThan.result, value(greaterThan.a) > value(greaterThan.b) ? Literal.one : Literal.zero);
+        }
+
+        return instruction;
+    }
+
+    private static int value(Value literal) {
+        return ((Literal) literal).value;
+    }
+
+}
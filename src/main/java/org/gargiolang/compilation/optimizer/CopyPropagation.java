@@ -0,0 +1,53 @@
+package org.gargiolang.compilation.optimizer;
+
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Value;
+import org.gargiolang.compilation.threeaddresscode.instructions.Assign;
+
+import java.util.HashMap;
+
+/**
+ * After a copy (a = b) replaces the reads of a with reads of b, as long as neither of them is written.
+ * The copy itself usually becomes a dead store
+ */
+final class CopyPropagation extends Propagation {
+
+    // address every copy has been copied from, by name of the copy
+    private final HashMap<String, Address> copies;
+
+
+    CopyPropagation() {
+        super("copyprop");
+        this.copies = new HashMap<>();
+    }
+
+
+    @Override
+    protected Value replace(Value operand) {
+        if (operand instanceof Address) {
+            Address source = copies.get(((Address) operand).address);
+            if (source != null)
+                return source;
+        }
+        return operand;
+    }
+
+    @Override
+    protected void kill(Address address) {
+        copies.remove(address.address);
+        // copies of the written address do not hold its value anymore
+        copies.values().removeIf(source -> source.address.equals(address.address));
+    }
+
+    @Override
+    protected void clear() {
+        copies.clear();
+    }
+
+    @Override
+    protected void record(Assign assign) {
+        if (assign.b instanceof Address && !((Address) assign.b).address.equals(assign.a.address))
+            copies.put(assign.a.address, (Address) assign.b);
+    }
+
+}
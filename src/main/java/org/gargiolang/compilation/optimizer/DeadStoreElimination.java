@@ -0,0 +1,43 @@
+package org.gargiolang.compilation.optimizer;
+
+import org.gargiolang.compilation.allocator.Liveness;
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.instructions.Dereference;
+import org.gargiolang.compilation.threeaddresscode.instructions.Instruction;
+
+/**
+ * Removes the instructions whose result is never read.
+ * Variables of the program are live at the end of the code, so only their overwritten values are removed
+ */
+final class DeadStoreElimination extends Pass {
+
+    private Liveness liveness;
+
+    // index of the visited instruction in the analysed list
+    private int index;
+
+
+    DeadStoreElimination() {
+        super("dce");
+    }
+
+
+    @Override
+    protected void start(Instruction first) {
+        liveness = Liveness.analyse(first);
+        index = 0;
+    }
+
+    @Override
+    protected Instruction rewrite(Instruction instruction) {
+        index ++;
+
+        Address defined = instruction.defines();
+        // dereferencing is kept, since it can fail
+        if (defined == null || instruction instanceof Dereference)
+            return instruction;
+
+        return liveness.isLiveOut(index, defined) ? instruction : null;
+    }
+
+}
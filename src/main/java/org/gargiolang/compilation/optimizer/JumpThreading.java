@@ -0,0 +1,85 @@
+package org.gargiolang.compilation.optimizer;
+
+import org.gargiolang.compilation.threeaddresscode.instructions.Goto;
+import org.gargiolang.compilation.threeaddresscode.instructions.IfGoto;
+import org.gargiolang.compilation.threeaddresscode.instructions.Instruction;
+import org.gargiolang.compilation.threeaddresscode.instructions.Label;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Makes jumps to a goto jump straight to its destination and removes the code that follows a goto,
+ * which cannot be reached until the next label
+ */
+final class JumpThreading extends Pass {
+
+    // label every label ultimately leads to
+    private final IdentityHashMap<Label, Label> destinations;
+
+    // whether the visited instruction follows a goto
+    private boolean unreachable;
+
+
+    JumpThreading() {
+        super("jumps");
+        this.destinations = new IdentityHashMap<>();
+    }
+
+
+    @Override
+    protected void start(Instruction first) {
+        destinations.clear();
+        unreachable = false;
+
+        for (Instruction instruction = first; instruction != null; instruction = instruction.next) {
+            if (instruction instanceof Label)
+                destinations.put((Label) instruction, destination((Label) instruction));
+        }
+    }
+
+    /**
+     * Follows the chain of gotos that starts at the label
+     */
+    private static Label destination(Label label) {
+        Label destination = label;
+
+        // bounded, since gotos may form a loop
+        for (int hops = 0; hops != 64; hops++) {
+            Instruction next = destination.next;
+            while (next instanceof Label)
+                next = next.next;
+
+            if (!(next instanceof Goto) || ((Goto) next).label == destination)
+                break;
+            destination = ((Goto) next).label;
+        }
+
+        return destination;
+    }
+
+    @Override
+    protected Instruction rewrite(Instruction instruction) {
+        if (instruction instanceof Label) {
+            unreachable = false;
+            return instruction;
+        }
+
+        if (unreachable)
+            return null;
+
+        if (instruction instanceof Goto) {
+            unreachable = true;
+            Label destination = destinations.getOrDefault(((Goto) instruction).label, ((Goto) instruction).label);
+            return destination == ((Goto) instruction).label ? instruction : new Goto(destination);
+        }
+
+        if (instruction instanceof IfGoto) {
+            IfGoto ifGoto = (IfGoto) instruction;
+            Label destination = destinations.getOrDefault(ifGoto.label, ifGoto.label);
+            return destination == ifGoto.label ? instruction : new IfGoto(ifGoto.condition, destination);
+        }
+
+        return instruction;
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.gargiolang.compilation.optimizer;
+
+import org.gargiolang.compilation.threeaddresscode.instructions.Instruction;
+
+/**
+ * An optimization that rewrites the linked list of instructions one instruction at a time.
+ * The first instruction of the list is never rewritten
+ */
+public abstract class Pass {
+
+    private final String name;
+    private boolean enabled;
+
+    // instructions removed by every run of the pass
+    private int removed;
+    // whether the last run changed anything
+    private boolean changed;
+
+
+    protected Pass(String name) {
+        this.name = name;
+        this.enabled = true;
+    }
+
+
+    /**
+     * Called before the instructions are visited
+     */
+    protected void start(Instruction first) {
+
+    }
+
+    /**
+     * Returns the instruction that should take the place of the given one:
+     * the instruction itself to keep it, another instruction to replace it or null to remove it
+     */
+    protected abstract Instruction rewrite(Instruction instruction);
+
+
+    /**
+     * Runs the pass over the list of instructions
+     *
+     * @return whether any instruction has been changed
+     */
+    boolean run(Instruction first) {
+        changed = false;
+        start(first);
+
+        Instruction previous = first;
+        while (previous.next != null) {
+            Instruction instruction = previous.next;
+            Instruction replacement = rewrite(instruction);
+
+            if (replacement == null) {
+                previous.next = instruction.next;
+                removed ++;
+                changed = true;
+                continue;
+            }
+
+            if (replacement != instruction) {
+                replacement.next = instruction.next;
+                previous.next = replacement;
+                changed = true;
+            }
+
+            previous = previous.next;
+        }
+
+        return changed;
+    }
+
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRemoved() {
+        return removed;
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.gargiolang.compilation.optimizer;
+
+import org.gargiolang.compilation.cfg.LoopInvariantCodeMotion;
+import org.gargiolang.compilation.threeaddresscode.ThreeAddressCode;
+import org.gargiolang.compilation.threeaddresscode.instructions.Instruction;
+import org.gargiolang.exception.parsing.UndefinedLabelException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the optimization passes over the three address code until none of them changes anything,
+ * then moves the invariant code out of loops and cleans up after it.
+ * Every pass can be disabled from the command line with -no-[pass name] (e.g. -no-dce)
+ */
+public final class PassManager {
+
+    // upper bound to the rounds of passes, in case two passes keep undoing each other
+    private static final int MAX_ROUNDS = 16;
+
+    private final ArrayList<Pass> passes;
+
+    // works on the control flow graph rather than on the list of instructions
+    private final LoopInvariantCodeMotion licm;
+
+
+    public PassManager() {
+        this.passes = new ArrayList<>();
+        passes.add(new ConstantPropagation());
+        passes.add(new CopyPropagation());
+        passes.add(new Peephole());
+        passes.add(new JumpThreading());
+        passes.add(new DeadStoreElimination());
+        this.licm = new LoopInvariantCodeMotion();
+    }
+
+
+    public static PassManager fromArguments(List<String> arguments) {
+        PassManager passManager = new PassManager();
+        for (Pass pass : passManager.passes) {
+            pass.setEnabled(!arguments.contains("-no-" + pass.getName()));
+        }
+        passManager.licm.setEnabled(!arguments.contains("-no-" + passManager.licm.getName()));
+        return passManager;
+    }
+
+
+    public void optimize(ThreeAddressCode threeAddressCode) throws UndefinedLabelException {
+        rounds(threeAddressCode);
+
+        if (licm.isEnabled()) {
+            int hoisted = licm.getHoisted();
+            Instruction instructions = licm.run(threeAddressCode.getInstructions());
+
+            // hoisted code often makes room for more folding
+            if (licm.getHoisted() != hoisted) {
+                threeAddressCode.setInstructions(instructions);
+                rounds(threeAddressCode);
+            }
+        }
+    }
+
+    private void rounds(ThreeAddressCode threeAddressCode) {
+        for (int round = 0; round != MAX_ROUNDS; round++) {
+            boolean changed = false;
+            for (Pass pass : passes) {
+                if (pass.isEnabled())
+                    changed |= pass.run(threeAddressCode.getInstructions());
+            }
+            if (!changed)
+                break;
+        }
+    }
+
+
+    public List<Pass> getPasses() {
+        return passes;
+    }
+
+
+    /**
+     * Returns how many instructions every pass has removed
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Pass pass : passes) {
+            stringBuilder.append(pass.getName()).append(": ");
+            if (pass.isEnabled())
+                stringBuilder.append(pass.getRemoved()).append(" instructions removed\n");
+            else
+                stringBuilder.append("disabled\n");
+        }
+
+        stringBuilder.append(licm.getName()).append(": ");
+        if (licm.isEnabled())
+            stringBuilder.append(licm.getHoisted()).append(" instructions hoisted\n");
+        else
+            stringBuilder.append("disabled\n");
+        return stringBuilder.toString();
+    }
+
+}
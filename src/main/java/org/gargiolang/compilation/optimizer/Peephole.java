@@ -0,0 +1,97 @@
+package org.gargiolang.compilation.optimizer;
+
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Literal;
+import org.gargiolang.compilation.threeaddresscode.Value;
+import org.gargiolang.compilation.threeaddresscode.instructions.*;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Local simplifications that look at a single instruction and at what follows it:
+ * - a goto to the label right after it is removed
+ * - labels that no instruction jumps to are removed
+ * - self assignments (a = a) are removed
+ * - additions and subtractions of 0 become assignments
+ * - comparisons of an address with itself become assignments
+ */
+final class Peephole extends Pass {
+
+    private final Set<Label> targets;
+
+
+    Peephole() {
+        super("peephole");
+        this.targets = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+
+    @Override
+    protected void start(Instruction first) {
+        targets.clear();
+        for (Instruction instruction = first; instruction != null; instruction = instruction.next) {
+            if (instruction instanceof Goto)
+                targets.add(((Goto) instruction).label);
+            else if (instruction instanceof IfGoto)
+                targets.add(((IfGoto) instruction).label);
+        }
+    }
+
+    @Override
+    protected Instruction rewrite(Instruction instruction) {
+        if (instruction instanceof Label)
+            return targets.contains(instruction) ? instruction : null;
+
+        if (instruction instanceof Goto) {
+            // the goto is useless if the code would get to the label anyway
+            for (Instruction next = instruction.next; next instanceof Label; next = next.next) {
+                if (next == ((Goto) instruction).label)
+                    return null;
+            }
+            return instruction;
+        }
+
+        if (instruction instanceof Assign) {
+            Assign assign = (Assign) instruction;
+            return same(assign.a, assign.b) ? null : assign;
+        }
+
+        if (instruction instanceof Add) {
+            Add add = (Add) instruction;
+            if (isZero(add.b))
+                return new Assign(add.result, add.a);
+            if (isZero(add.a))
+                return new Assign(add.result, add.b);
+        } else if (instruction instanceof Subtract) {
+            Subtract subtract = (Subtract) instruction;
+            if (isZero(subtract.b))
+                return new Assign(subtract.result, subtract.a);
+        } else if (instruction instanceof EqualsTo) {
+            EqualsTo equalsTo = (EqualsTo) instruction;
+            if (same(equalsTo.a, equalsTo.b))
+                return new Assign(equalsTo.result, Literal.one);
+        } else if (instruction instanceof GreaterThan) {
+            GreaterThan greaterThan = (GreaterThan) instruction;
+            if (same(greaterThan.a, greaterThan.b))
+                return new Assign(greaterThan.result, Literal.zero);
+        }
+
+        return instruction;
+    }
+
+
+    private static boolean isZero(Value value) {
+        return value instanceof Literal && ((Literal) value).value == 0;
+    }
+
+    private static boolean same(Address address, Value value) {
+        return value instanceof Address && ((Address) value).address.equals(address.address);
+    }
+
+    private static boolean same(Value a, Value b) {
+        return a instanceof Address && same((Address) a, b);
+    }
+
+}
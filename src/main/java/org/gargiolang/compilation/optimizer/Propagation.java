@@ -0,0 +1,113 @@
+package org.gargiolang.compilation.optimizer;
+
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Value;
+import org.gargiolang.compilation.threeaddresscode.instructions.*;
+
+/**
+ * Base of the passes that replace the operands of the instructions with values known to be equivalent.
+ * Facts are collected while going forward and they are forgotten at every label, since code can be jumped to
+ * from elsewhere, and whenever the address they are about is written
+ */
+abstract class Propagation extends Pass {
+
+    Propagation(String name) {
+        super(name);
+    }
+
+
+    /**
+     * Returns the value the operand can be replaced with, or the operand itself
+     */
+    protected abstract Value replace(Value operand);
+
+    /**
+     * Forgets everything that is known about the address
+     */
+    protected abstract void kill(Address address);
+
+    /**
+     * Forgets everything
+     */
+    protected abstract void clear();
+
+    /**
+     * Learns from an assignment
+     */
+    protected abstract void record(Assign assign);
+
+    /**
+     * Simplifies an instruction whose operands have already been replaced, by default it is left untouched
+     */
+    protected Instruction simplify(Instruction instruction) {
+        return instruction;
+    }
+
+
+    @Override
+    protected void start(Instruction first) {
+        clear();
+    }
+
+    @Override
+    protected Instruction rewrite(Instruction instruction) {
+        if (instruction instanceof Label) {
+            clear();
+            return instruction;
+        }
+
+        Instruction rewritten = simplify(replaceOperands(instruction));
+        if (rewritten == null)
+            return null;
+
+        Address defined = rewritten.defines();
+        if (defined != null)
+            kill(defined);
+        if (rewritten instanceof Assign)
+            record((Assign) rewritten);
+
+        return rewritten;
+    }
+
+
+    private Instruction replaceOperands(Instruction instruction) {
+        if (instruction instanceof Add) {
+            Add add = (Add) instruction;
+            Value a = replace(add.a), b = replace(add.b);
+            return a == add.a && b == add.b ? add : new Add(add.result, a, b);
+        }
+        if (instruction instanceof Subtract) {
+            Subtract subtract = (Subtract) instruction;
+            Value a = replace(subtract.a), b = replace(subtract.b);
+            return a == subtract.a && b == subtract.b ? subtract : new Subtract(subtract.result, a, b);
+        }
+        if (instruction instanceof EqualsTo) {
+            EqualsTo equalsTo = (EqualsTo) instruction;
+            Value a = replace(equalsTo.a), b = replace(equalsTo.b);
+            return a == equalsTo.a && b == equalsTo.b ? equalsTo : new EqualsTo(equalsTo.result, a, b);
+        }
+        if (instruction instanceof GreaterThan) {
+            GreaterThan greaterThan = (GreaterThan) instruction;
+            Value a = replace(greaterThan.a), b = replace(greaterThan.b);
+            return a == greaterThan.a && b == greaterThan.b ? greaterThan : new GreaterThan(greaterThan.result, a, b);
+        }
+        if (instruction instanceof Assign) {
+            Assign assign = (Assign) instruction;
+            Value b = replace(assign.b);
+            return b == assign.b ? assign : new Assign(assign.a, b);
+        }
+        if (instruction instanceof IfGoto) {
+            IfGoto ifGoto = (IfGoto) instruction;
+            Value condition = replace(ifGoto.condition);
+            return condition == ifGoto.condition ? ifGoto : new IfGoto(condition, ifGoto.label);
+        }
+        if (instruction instanceof Dereference) {
+            // the pointer must stay an address
+            Dereference dereference = (Dereference) instruction;
+            Value a = replace(dereference.a);
+            return a == dereference.a || !(a instanceof Address) ? dereference : new Dereference(dereference.result, (Address) a);
+        }
+        return instruction;
+    }
+
+}
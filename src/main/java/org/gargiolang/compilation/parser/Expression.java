@@ -66,14 +66,14 @@ public enum Expression {
                 continue;
             }
 
-            // if token is between parenthesis --> increase priority
-            if (parenCount != 0) {
-                for (int i = parenCount; i != 0; i--)
-                    token.incrementPriority();
-            }
+            SyntaxNode next = toSyntaxNode(token);
+
+            // if token is between parenthesis --> increase priority (values have nothing to parse)
+            if (parenCount != 0 && next.getPriority() != 0)
+                next.increasePriority(parenCount * 10);
 
             // append to the linked list
-            node.setRight(toSyntaxNode(token));
+            node.setRight(next);
             node.getRight().setLeft(node);
             node = node.getRight();
         }
@@ -123,8 +123,8 @@ public enum Expression {
                 }
             }
 
-            // literal boolean (true, false)
-            case BOOL -> syntaxNode = new SyntaxNode(null, 0, BOOLEAN, token.getValue(), Operation.LITERAL);
+            // literal boolean (true, false), stored as 1 or 0
+            case BOOL -> syntaxNode = new SyntaxNode(null, 0, BOOLEAN, (boolean) token.getValue() ? 1 : 0, Operation.LITERAL);
 
             case TYPE -> {
                 switch ((Variable.Type) token.getValue())
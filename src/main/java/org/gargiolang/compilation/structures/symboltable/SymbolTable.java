@@ -1,6 +1,5 @@
 package org.gargiolang.compilation.structures.symboltable;
 
-import org.gargiolang.compilation.threeaddresscode.Address;
 import org.gargiolang.exception.parsing.SymbolRedeclarationException;
 import org.gargiolang.exception.parsing.UndeclaredSymbolException;
 
@@ -13,9 +12,6 @@ public class SymbolTable {
 
     public SymbolTable() {
         this.table = new HashMap<>();
-
-        // declare some global compiler variables
-        table.put(Address.result.address, null);
     }
 
     public Symbol getSymbol(String name) throws UndeclaredSymbolException {
@@ -35,6 +31,13 @@ public class SymbolTable {
         return getSymbol(name).isDefined;
     }
 
+    /**
+     * Forgets every symbol, so that another program can be parsed
+     */
+    public void clear() {
+        table.clear();
+    }
+
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
 
@@ -68,7 +68,6 @@ public class SyntaxNode {
                 }
                 // if optimization is not applicable --> proceed as normal
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                     // update expression type based on type of operands
                     if (right.getSymbolType() == Expression.FLOAT || left.getSymbolType() == Expression.FLOAT)
@@ -104,12 +103,11 @@ public class SyntaxNode {
                         }
                     } else {
                         type = Expression.INTEGER;
-                        value = (int) right.getValue() - (int) left.getValue();
+                        value = (int) left.getValue() - (int) right.getValue();
                     }
                 }
                 // if optimization is not applicable --> proceed as normal
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                     // update expression type based on type of operands
                     if (right.getSymbolType() == Expression.FLOAT || left.getSymbolType() == Expression.FLOAT)
@@ -150,7 +148,6 @@ public class SyntaxNode {
                 }
                 // if optimization is not applicable --> proceed as normal
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                     // update expression type based on type of operands
                     if (right.getSymbolType() == Expression.FLOAT || left.getSymbolType() == Expression.FLOAT)
@@ -189,12 +186,11 @@ public class SyntaxNode {
                         }
                     } else {
                         type = Expression.INTEGER;
-                        value = (int) right.getValue() / (int) left.getValue();
+                        value = (int) left.getValue() / (int) right.getValue();
                     }
                 }
                 // if optimization is not applicable --> proceed as normal
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                     // update expression type based on type of operands
                     if (right.getSymbolType() == Expression.FLOAT || left.getSymbolType() == Expression.FLOAT)
@@ -230,12 +226,11 @@ public class SyntaxNode {
                         }
                     } else {
                         type = Expression.INTEGER;
-                        value = Math.round(Math.pow((int) right.getValue(), (int) left.getValue()));
+                        value = (int) Math.round(Math.pow((int) left.getValue(), (int) right.getValue()));
                     }
                 }
                 // if optimization is not applicable --> proceed as normal
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                     // update expression type based on type of operands
                     if (right.getSymbolType() == Expression.FLOAT || left.getSymbolType() == Expression.FLOAT)
@@ -271,12 +266,11 @@ public class SyntaxNode {
                         }
                     } else {
                         type = Expression.INTEGER;
-                        value = (int) right.getValue() % (int) left.getValue();
+                        value = (int) left.getValue() % (int) right.getValue();
                     }
                 }
                 // if optimization is not applicable --> proceed as normal
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                     // update expression type based on type of operands
                     if (right.getSymbolType() == Expression.FLOAT || left.getSymbolType() == Expression.FLOAT)
@@ -295,10 +289,9 @@ public class SyntaxNode {
                         && left.getType() != Expression.IDENTIFIER && left.getOperation().isValue())
                 {
                     operation = Operation.LITERAL;
-                    if (right.getValue() == left.getValue()) value = 1;
+                    if (right.getValue().equals(left.getValue())) value = 1;
                     else value = 0;
                 } else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                 }
 
@@ -312,10 +305,9 @@ public class SyntaxNode {
                         && left.getType() != Expression.IDENTIFIER && left.getOperation().isValue())
                 {
                     operation = Operation.LITERAL;
-                    if (right.getValue() != left.getValue()) value = 1;
+                    if (!right.getValue().equals(left.getValue())) value = 1;
                     else value = 0;
                 } else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                 }
 
@@ -332,7 +324,6 @@ public class SyntaxNode {
                     if ((int) right.getValue() != 0 || (int) left.getValue() != 0) value = 1;
                     else value = 0;
                 } else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                 }
 
@@ -349,7 +340,6 @@ public class SyntaxNode {
                     if ((int) right.getValue() != 0 && (int) left.getValue() != 0) value = 1;
                     else value = 0;
                 } else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                 }
 
@@ -377,7 +367,7 @@ public class SyntaxNode {
                             case FLOAT -> value = (double) left.getValue() > (double) right.getValue();
                         }
                     } else {
-                        value = (int) right.getValue() > (int) left.getValue();
+                        value = (int) left.getValue() > (int) right.getValue();
                     }
 
                     // convert boolean value to integer
@@ -386,7 +376,6 @@ public class SyntaxNode {
                 }
                 // if optimization is not applicable --> proceed as normal
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                     // update expression type based on type of operands
                     if (right.getSymbolType() == Expression.FLOAT || left.getSymbolType() == Expression.FLOAT)
@@ -419,7 +408,7 @@ public class SyntaxNode {
                             case FLOAT -> value = (double) left.getValue() < (double) right.getValue();
                         }
                     } else {
-                        value = (int) right.getValue() < (int) left.getValue();
+                        value = (int) left.getValue() < (int) right.getValue();
                     }
 
                     // convert boolean value to integer
@@ -429,7 +418,6 @@ public class SyntaxNode {
                 }
                 // if optimization is not applicable --> proceed as normal
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                     // update expression type based on type of operands
                     if (right.getSymbolType() == Expression.FLOAT || left.getSymbolType() == Expression.FLOAT)
@@ -462,7 +450,7 @@ public class SyntaxNode {
                             case FLOAT -> value = (double) left.getValue() >= (double) right.getValue();
                         }
                     } else {
-                        value = (int) right.getValue() >= (int) left.getValue();
+                        value = (int) left.getValue() >= (int) right.getValue();
                     }
 
                     // convert boolean value to integer
@@ -472,7 +460,6 @@ public class SyntaxNode {
                 }
                 // if optimization is not applicable --> proceed as normal
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                     // update expression type based on type of operands
                     if (right.getSymbolType() == Expression.FLOAT || left.getSymbolType() == Expression.FLOAT)
@@ -505,7 +492,7 @@ public class SyntaxNode {
                             case FLOAT -> value = (double) left.getValue() <= (double) right.getValue();
                         }
                     } else {
-                        value = (int) right.getValue() <= (int) left.getValue();
+                        value = (int) left.getValue() <= (int) right.getValue();
                     }
 
                     // convert boolean value to integer
@@ -515,7 +502,6 @@ public class SyntaxNode {
                 }
                 // if optimization is not applicable --> proceed as normal
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{left, right};
                     // update expression type based on type of operands
                     if (right.getSymbolType() == Expression.FLOAT || left.getSymbolType() == Expression.FLOAT)
@@ -542,8 +528,8 @@ public class SyntaxNode {
                 }
                 // if optimization is not applicable
                 else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{right};
+                    type = right.getSymbolType();
                 }
 
                 unaryParse(right);
@@ -555,10 +541,9 @@ public class SyntaxNode {
                 if (right.getType() != Expression.IDENTIFIER && right.getOperation().isValue()) {
                     operation = Operation.LITERAL;
                     // invert value
-                    if ((boolean) right.getValue()) value = 0;
+                    if ((int) right.getValue() != 0) value = 0;
                     else value = 1;
                 } else {
-                    operation = Operation.VALUE;
                     value = new SyntaxNode[]{right};
                 }
 
@@ -629,6 +614,7 @@ public class SyntaxNode {
                 // set code block as an operator
                 ((SyntaxNode[]) value)[1] = right;
                 right.setParent(this);
+                right.setLeft(null);
 
                 // recursively parse code block
                 int depth = 0;
@@ -641,6 +627,8 @@ public class SyntaxNode {
                             right = node.getRight();
                             if (right != null)
                                 right.setLeft(this);
+                            // detach the code block from the rest of the line
+                            node.setRight(null);
                             break;
                         }
                     }
@@ -770,6 +758,10 @@ public class SyntaxNode {
 
     // setters
 
+    public void increasePriority(int amount) {
+        this.priority += amount;
+    }
+
     public void setRight(SyntaxNode right) {
         this.right = right;
     }
@@ -4,6 +4,7 @@ import org.gargiolang.compilation.parser.Expression;
 import org.gargiolang.compilation.structures.trees.printer.TreePrinter;
 import org.gargiolang.exception.evaluation.UndeclaredVariableException;
 import org.gargiolang.exception.evaluation.UnrecognizedTypeException;
+import org.gargiolang.exception.parsing.BadExpressionException;
 import org.gargiolang.exception.parsing.ParsingException;
 import org.gargiolang.exception.parsing.TokenConversionException;
 import org.gargiolang.tokenizer.tokens.TokenLine;
@@ -51,7 +52,12 @@ public class SyntaxTree {
     }
 
 
-    public static void parse(SyntaxNode root) throws ParsingException {
+    /**
+     * Parses the linked list of nodes starting at root
+     *
+     * @return the first root left after parsing
+     */
+    public static SyntaxNode parse(SyntaxNode root) throws ParsingException {
         while (true) {
 
             // return to the beginning of the line
@@ -63,17 +69,30 @@ public class SyntaxTree {
                 break;
 
             root = SyntaxNode.highestPriority(root);
+
+            // several roots are left, but there's nothing else to parse (e.g. a code block)
+            if (root.getPriority() == 0)
+                break;
+
             root.parseRequirements();
         }
 
         // traverse back the tree
         while (root.getParent() != null)
             root = root.getParent();
+
+        return root;
     }
 
 
     public void parse() throws ParsingException {
-        SyntaxTree.parse(root);
+        root = SyntaxTree.parse(root);
+
+        // a line can hold more statements (e.g. after a code block), but they cannot be dangling values
+        for (SyntaxNode node = root.getRight(); node != null; node = node.getRight()) {
+            if (node.getOperation().isValue())
+                throw new BadExpressionException("Unexpected expression " + node + " after " + node.getLeft());
+        }
     }
 
 
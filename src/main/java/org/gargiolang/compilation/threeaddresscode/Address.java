@@ -1,17 +1,15 @@
 package org.gargiolang.compilation.threeaddresscode;
 
-import org.gargiolang.compilation.structures.stacks.AddressStack;
 import org.gargiolang.compilation.structures.trees.SyntaxNode;
 
+/**
+ * A named location: either a variable of the program or a Temporary generated by the compiler.
+ * Addresses are identified by their name, the register allocator decides where they are stored
+ */
 public class Address extends Value {
 
-    // TODO: 14/12/20 optimize by replacing strings with ints
-    public static Address result = new Address("r");
-
     public final String address;
 
-    private static final AddressStack temps = new AddressStack();
-
     public Address(String address) {
         this.address = address;
     }
@@ -21,21 +19,11 @@ public class Address extends Value {
     }
 
     /**
-     * Generates a temporary variable
-     *
-     * @return a temporary address
-     */
-    public static Address temp() {
-        return temps.pop();
-    }
-
-    /**
-     * Frees a temporary address generated by Address.temp()
-     *
-     * @param address the temporary address to free
+     * Returns the given version of this address, as used by the SSA form.
+     * Versions are temporaries: only the original variable is inspected once the program is over
      */
-    public static void free(Address address) {
-        temps.push(address);
+    public Temporary version(int version) {
+        return new Temporary(address + "." + version);
     }
 
     @Override
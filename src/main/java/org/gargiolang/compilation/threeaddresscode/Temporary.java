@@ -0,0 +1,18 @@
+package org.gargiolang.compilation.threeaddresscode;
+
+/**
+ * An intermediate value generated by the compiler.
+ * Temporaries are virtual registers: they are not visible to the program and they don't outlive the expression
+ * they are generated for, so the register allocator is free to reuse their registers
+ */
+public class Temporary extends Address {
+
+    public Temporary(int index) {
+        super("%" + index);
+    }
+
+    Temporary(String address) {
+        super(address);
+    }
+
+}
@@ -1,12 +1,12 @@
 package org.gargiolang.compilation.threeaddresscode;
 
-import org.gargiolang.compilation.Compiler;
 import org.gargiolang.compilation.parser.Expression;
 import org.gargiolang.compilation.parser.Operation;
 import org.gargiolang.compilation.structures.trees.SyntaxNode;
 import org.gargiolang.compilation.structures.trees.SyntaxTree;
 import org.gargiolang.compilation.threeaddresscode.instructions.*;
-import org.gargiolang.exception.parsing.UndeclaredSymbolException;
+import org.gargiolang.exception.parsing.BadTypeException;
+import org.gargiolang.exception.parsing.UnsupportedExpressionException;
 
 // TODO: 14/12/20 add support for floating point numbers (maybe with different instructions, as it is with traditional assembly (e.g. fl = float load))
 public class ThreeAddressCode {
@@ -15,12 +15,16 @@ public class ThreeAddressCode {
     Instruction instructions;
     Instruction lastInstruction;
 
-    public ThreeAddressCode(SyntaxTree syntaxTree) throws UndeclaredSymbolException {
+    // number of temporaries generated so far
+    private int temporaries;
+
+    public ThreeAddressCode(SyntaxTree syntaxTree) throws BadTypeException, UnsupportedExpressionException {
         instructions = new Label(); // like the _start function in C
         lastInstruction = instructions;
 
         // standard setup
-        instructions.add(new Goto(Label.main)); // like calling the main function in a C program
+        addInstruction(new Goto(Label.main)); // like calling the main function in a C program
+        addInstruction(Label.main);
 
         for (SyntaxNode root = syntaxTree.getRoot(); root != null; root = root.getRight()) {
             // generate three address code for every root
@@ -30,684 +34,158 @@ public class ThreeAddressCode {
 
     }
 
+    /**
+     * Generates a new temporary: every intermediate value gets its own, the register allocator
+     * will then map them to as few registers as possible
+     */
+    private Temporary temp() {
+        return new Temporary(++ temporaries);
+    }
+
     /**
      * Recursively generate code for every node
+     *
+     * @return the value the node evaluates to, null if the node doesn't evaluate to anything
      */
-    private void generate(SyntaxNode node) throws UndeclaredSymbolException {
+    private Value generate(SyntaxNode node) throws BadTypeException, UnsupportedExpressionException {
+
+        switch (node.getOperation())
+        {
+            // literals and variables do not generate code
+            case LITERAL -> {
+                if (node.getType() == Expression.IDENTIFIER)
+                    return new Address((String) node.getValue());
+                if (node.getType() == Expression.FLOAT)
+                    throw new BadTypeException("Floating point numbers are not supported by the compiler yet");
+                return new Literal((int) node.getValue());
+            }
 
-        // literals do not generate code
-        if (node.getOperation().isValue())
-            return;
+            // a declared variable
+            case VALUE -> {
+                return new Address((String) node.getValue());
+            }
+
+            // scopes are resolved by the parser
+            case PUSH_SCOPE, POP_SCOPE -> {
+                return null;
+            }
+
+            case IF -> {
+                generateIf(node);
+                return null;
+            }
+        }
 
         // some useful references
         SyntaxNode[] children = (SyntaxNode[]) node.getValue();
 
         // first generate code recursively for every child (they have higher execution priority)
-        for (SyntaxNode child : children) {
-            generate(child);
-        }
+        Value a = generate(children[0]);
+        Value b = children.length > 1 ? generate(children[1]) : null;
 
         // actually generate code based on the operation (simplify complex operations)
         switch (node.getOperation()) {
             case SUM -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {// TODO: 18/12/20 use temp variables stack instead of Address.result
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    int value = ((Literal) a).value + ((Literal) b).value;
-                    Compiler.symbolTable().getSymbol(Address.result.address).value = value;
-                    addInstruction(new Assign(Address.result, new Literal(value)));
-                    return;
-                }
-
-                addInstruction(new Add(Address.result, a, b));
-
+                Temporary result = temp();
+                addInstruction(new Add(result, a, b));
+                return result;
             }
             case SUBTRACTION -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    int value = ((Literal) a).value - ((Literal) b).value;
-                    Compiler.symbolTable().getSymbol(Address.result.address).value = value;
-                    addInstruction(new Assign(Address.result, new Literal(value)));
-                    return;
-                }
-
-                addInstruction(new Subtract(Address.result, a, b));
+                Temporary result = temp();
+                addInstruction(new Subtract(result, a, b));
+                return result;
+            }
+            case INVERSE -> {
+                Temporary result = temp();
+                addInstruction(new Subtract(result, Literal.zero, a));
+                return result;
             }
             case INCREMENT -> {
-                Address a = Address.fromSyntaxNode(node, 0);
-
-                // if variable a is already defined --> increment value right away
-                if (Compiler.symbolTable().isDefined(a.address)) {
-                    Compiler.symbolTable().getSymbol(a.address).value ++;
-                    // do not generate any code
-                    return;
-                }
-
-                addInstruction(new Add(a, a, Literal.one));
+                addInstruction(new Add((Address) a, a, Literal.one));
+                return a;
             }
             case DECREMENT -> {
-                Address a = Address.fromSyntaxNode(node, 0);
-
-                // if variable a is already defined --> increment value right away
-                if (Compiler.symbolTable().isDefined(a.address)) {
-                    Compiler.symbolTable().getSymbol(a.address).value --;
-                    // do not generate any code
-                    return;
-                }
-
-                addInstruction(new Subtract(a, a, Literal.one));
+                addInstruction(new Subtract((Address) a, a, Literal.one));
+                return a;
             }
             case ASSIGNMENT -> {
-                Address a = Address.fromSyntaxNode(node, 0);
-                Value b;
-
-                // if rvalue 'b' is an identifier (variable)
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if variable is defined in SymbolTable (that's the case for constants and local variables)
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue())) {
-                        // assign the known value of 'b' to variable 'a'
-                        Compiler.symbolTable().getSymbol(a.address).define(
-                                Compiler.symbolTable().getSymbol((String) children[1].getValue()).value
-                        );
-                        // do not generate any instruction
-                        return;
-                    }
-                    // whereas if variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {
-                    b = Address.result;
-                }
-                // if rvalue is not an identifier, nor a returned value --> it's a literal value
-                else {
-
-                    // assign the literal value to 'a'
-                    Compiler.symbolTable().getSymbol(a.address).define(
-                            (int) children[1].getValue()
-                    );
-                    // do not generate any instruction
-                    return;
-                }
-
-                addInstruction(new Assign(a, b));
+                addInstruction(new Assign((Address) a, b));
+                return a;
             }
-            case MULTIPLICATION -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {// TODO: 18/12/20 use temp variables stack instead of Address.result
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    addInstruction(new Assign(Address.result, new Literal(((Literal) a).value * ((Literal) b).value)));
-                    return;
-                }
-
-                fromComplexOperation(Operation.MULTIPLICATION, Address.result, a, b);
-            }
-            case NOT -> {
-                Value a;
-
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue())) {
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // negate literal value
-                        int notA;
-                        if (((Literal) a).value == 0) notA = 0;
-                        else notA = 1;
-                        // return result as assignment instruction (result = !a)
-                        addInstruction(new Assign(Address.result, new Literal(notA)));
-                        // do not generate further instructions
-                        return;
-                    }
-                    else {
-                        a = Address.fromSyntaxNode(node, 0);
-                    }
-                }
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                    int notA;
-                    if (((Literal) a).value == 0) notA = 0;
-                    else notA = 1;
-                    addInstruction(new Assign(Address.result, new Literal(notA)));
-                    return;
-                }
-
-                fromComplexOperation(Operation.NOT, Address.result, a, null);
-            }
-            case NOT_EQUALS_TO -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {// TODO: 18/12/20 use temp variables stack instead of Address.result
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    int result;
-                    if (((Literal) a).value != ((Literal) b).value) result = 1;
-                    else result = 0;
-                    addInstruction(new Assign(Address.result, new Literal(result)));
-                    return;
-                }
-
-                fromComplexOperation(Operation.NOT_EQUALS_TO, Address.result, a, b);
+            case EQUALS_TO -> {
+                Temporary result = temp();
+                addInstruction(new EqualsTo(result, a, b));
+                return result;
             }
             case GREATER_THAN -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {// TODO: 18/12/20 use temp variables stack instead of Address.result
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    int result;
-                    if (((Literal) a).value > ((Literal) b).value) result = 1;
-                    else result = 0;
-                    addInstruction(new Assign(Address.result, new Literal(result)));
-                    return;
-                }
-
-                addInstruction(new GreaterThan(Address.result, a, b));
-            }
-            case LESS_OR_EQUAL -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {// TODO: 18/12/20 use temp variables stack instead of Address.result
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    int result;
-                    if (((Literal) a).value <= ((Literal) b).value) result = 1;
-                    else result = 0;
-                    addInstruction(new Assign(Address.result, new Literal(result)));
-                    return;
-                }
-
-                fromComplexOperation(Operation.LESS_OR_EQUAL, Address.result, a, b);
-            }
-            case GREATER_OR_EQUAL -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {// TODO: 18/12/20 use temp variables stack instead of Address.result
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    int result;
-                    if (((Literal) a).value >= ((Literal) b).value) result = 1;
-                    else result = 0;
-                    addInstruction(new Assign(Address.result, new Literal(result)));
-                    return;
-                }
-
-                fromComplexOperation(Operation.GREATER_OR_EQUAL, Address.result, a, b);
+                Temporary result = temp();
+                addInstruction(new GreaterThan(result, a, b));
+                return result;
             }
-            case AND -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {// TODO: 18/12/20 use temp variables stack instead of Address.result
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    int result;
-                    if (((Literal) a).value != 0 && ((Literal) b).value != 0) result = 1;
-                    else result = 0;
-                    addInstruction(new Assign(Address.result, new Literal(result)));
-                    return;
-                }
-
-                fromComplexOperation(Operation.AND, Address.result, a, b);
-            }
-            case OR -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {// TODO: 18/12/20 use temp variables stack instead of Address.result
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    int result;
-                    if (((Literal) a).value != 0 || ((Literal) b).value != 0) result = 1;
-                    else result = 0;
-                    addInstruction(new Assign(Address.result, new Literal(result)));
-                    return;
-                }
-
-                fromComplexOperation(Operation.OR, Address.result, a, b);
-            }
-            case POWER -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {// TODO: 18/12/20 use temp variables stack instead of Address.result
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    addInstruction(new Assign(Address.result, new Literal((int) Math.round(Math.pow(((Literal) a).value, ((Literal) b).value)))));
-                    return;
-                }
-
-                fromComplexOperation(Operation.POWER, Address.result, a, b);
-            }
-            case ADDRESS_OF -> {
-                Address.result = Address.fromSyntaxNode(node, 0);
-            }
-            case LESS_THAN -> {
-                Value a;
-                Value b;
-
-                // if a is a variable
-                if (children[0].getType() == Expression.IDENTIFIER) {
-                    // check if a is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[0].getValue()))
-                        a = new Literal(Compiler.symbolTable().getSymbol((String) children[0].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        a = Address.fromSyntaxNode(node, 0);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[0].getOperation() == Operation.VALUE) {
-                    a = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    a = Literal.fromSyntaxNode(node, 0);
-                }
-
-                // if b is a variable
-                if (children[1].getType() == Expression.IDENTIFIER) {
-                    // check if b is defined in SymbolTable
-                    if (Compiler.symbolTable().isDefined((String) children[1].getValue()))
-                        b = new Literal(Compiler.symbolTable().getSymbol((String) children[1].getValue()).value);
-                        // whereas the variable is not defined --> use its reference
-                    else
-                        b = Address.fromSyntaxNode(node, 1);
-                }
-                // if rvalue is a value returned from another operation (e.g. c = a-b)
-                else if (children[1].getOperation() == Operation.VALUE) {// TODO: 18/12/20 use temp variables stack instead of Address.result
-                    b = Address.result;
-                }
-                // if b is not a variable, nor a returned value --> it's a literal, so treat it as such
-                else {
-                    b = Literal.fromSyntaxNode(node, 1);
-                }
-
-                // if both operands are literals --> calculate the result right away
-                if (a instanceof Literal && b instanceof Literal) {
-                    int result;
-                    if (((Literal) a).value > ((Literal) b).value) result = 1;
-                    else result = 0;
-                    addInstruction(new Assign(Address.result, new Literal(result)));
-                    return;
-                }
-
-                fromComplexOperation(Operation.LESS_THAN, Address.result, a, b);
+            case MULTIPLICATION, POWER, NOT, NOT_EQUALS_TO, LESS_THAN, LESS_OR_EQUAL, GREATER_OR_EQUAL, AND, OR -> {
+                Temporary result = temp();
+                fromComplexOperation(node.getOperation(), result, a, b);
+                return result;
             }
         }
+
+        // TODO: 17/12/20 implement division, modulus and pointer operations
+        throw new UnsupportedExpressionException("Operation " + node.getOperation() + " is not supported by the compiler yet");
+    }
+
+    /**
+     * Generates the code of an if statement: the code block is skipped if the condition is false
+     */
+    private void generateIf(SyntaxNode node) throws BadTypeException, UnsupportedExpressionException {
+        /*
+            three address code for if
+            t1 = condition == 0
+            if t1 goto L1
+            ...code block...
+        L1:
+         */
+
+        SyntaxNode[] children = (SyntaxNode[]) node.getValue();
+
+        Value condition = generate(children[0]);
+        Temporary t1 = temp();
+        Label l1 = new Label();
+
+        addInstruction(new EqualsTo(t1, condition, Literal.zero));
+        addInstruction(new IfGoto(t1, l1));
+
+        for (SyntaxNode statement = children[1]; statement != null; statement = statement.getRight()) {
+            generate(statement);
+        }
+
+        addInstruction(l1);
     }
 
 
+    public Instruction getInstructions() {
+        return instructions;
+    }
+
+    /**
+     * Replaces the code with a new linked list of instructions, e.g. after being rebuilt from a ControlFlowGraph
+     */
+    public void setInstructions(Instruction instructions) {
+        this.instructions = instructions;
+        this.lastInstruction = instructions;
+        while (lastInstruction.next != null)
+            lastInstruction = lastInstruction.next;
+    }
+
     public void addInstruction(Instruction instruction) {
-        lastInstruction.add(instruction);
+        // lastInstruction is always the tail of the list, so appending is constant time
+        lastInstruction.next = instruction;
         lastInstruction = instruction;
     }
 
+    /**
+     * Generates the code of an operation that has no corresponding instruction.
+     * The result address must not be one of the operands
+     */
     private void fromComplexOperation(Operation operation, Address result, Value op1, Value op2) {
         switch (operation) {
             case NOT -> {
@@ -740,57 +218,87 @@ public class ThreeAddressCode {
                     three address code for MULTIPLICATION
                     r = 0
                     t1 = b
+                    t2 = 0 > t1
+                    if t2 goto L1
+                    goto L2
                 L1:
-                    t2 = t1 == 0
-                    if t2 goto L2
+                    t1 = 0 - t1
+                L2:
+                    t3 = t1 > 0
+                    if t3 goto L3
+                    goto L4
+                L3:
                     r = r + a
                     t1 = t1 - 1
-                    goto L1
-                L2:
+                    goto L2
+                L4:
+                    if t2 goto L5
+                    goto L6
+                L5:
+                    r = 0 - r
+                L6:
 
                  */
 
                 // ask for some temporary variables
-                Address t1 = Address.temp();
-                Address t2 = Address.temp();
+                Address t1 = temp();
+                Address t2 = temp();
+                Address t3 = temp();
 
                 Label l1 = new Label();
-
-                addInstruction(Assign.zero(Address.result));                    //      r = 0
-                addInstruction(Assign.zero(t1));                                //      t1 = 0
-                addInstruction(l1);                                             // L1:
-                addInstruction(new Add(Address.result, Address.result, op1));   //      r = r + a
-                addInstruction(new Add(t1, t1, Literal.one));                   //      t1 = t1 + 1
-                fromComplexOperation(Operation.NOT_EQUALS_TO, t2, t1, op1);     //      t2 = t1 != b
+                Label l2 = new Label();
+                Label l3 = new Label();
+                Label l4 = new Label();
+                Label l5 = new Label();
+                Label l6 = new Label();
+
+                addInstruction(Assign.zero(result));                            //      r = 0
+                addInstruction(new Assign(t1, op2));                            //      t1 = b
+                addInstruction(new GreaterThan(t2, Literal.zero, t1));          //      t2 = 0 > t1
                 addInstruction(new IfGoto(t2, l1));                             //      if t2 goto L1
+                addInstruction(new Goto(l2));                                   //      goto L2
+                addInstruction(l1);                                             // L1:
+                addInstruction(new Subtract(t1, Literal.zero, t1));             //      t1 = 0 - t1
+                addInstruction(l2);                                             // L2:
+                addInstruction(new GreaterThan(t3, t1, Literal.zero));          //      t3 = t1 > 0
+                addInstruction(new IfGoto(t3, l3));                             //      if t3 goto L3
+                addInstruction(new Goto(l4));                                   //      goto L4
+                addInstruction(l3);                                             // L3:
+                addInstruction(new Add(result, result, op1));                   //      r = r + a
+                addInstruction(new Subtract(t1, t1, Literal.one));              //      t1 = t1 - 1
+                addInstruction(new Goto(l2));                                   //      goto L2
+                addInstruction(l4);                                             // L4:
+                addInstruction(new IfGoto(t2, l5));                             //      if t2 goto L5
+                addInstruction(new Goto(l6));                                   //      goto L6
+                addInstruction(l5);                                             // L5:
+                addInstruction(new Subtract(result, Literal.zero, result));     //      r = 0 - r
+                addInstruction(l6);                                             // L6:
             }
             case LESS_THAN -> {
                 /*
                     simplification of <
                     a < b
-                    !(a >= b)
+                    b > a
 
                     three address code for <
-                    r = a >= b
-                    r = !r
+                    r = b > a
                  */
 
-                fromComplexOperation(Operation.GREATER_OR_EQUAL, result, op1, op2);
-                fromComplexOperation(Operation.NOT, result, result, null);
+                addInstruction(new GreaterThan(result, op2, op1));
             }
             case GREATER_OR_EQUAL -> {
                 /*
                     simplification of >=
                     a >= b
-                    (a > b) || (a == b) --> a > (b - 1)
+                    !(b > a)
 
                     three address code for >=
-                    r = b - 1
-                    r = a > r
+                    r = b > a
+                    r = !r
                  */
 
-                addInstruction(new Subtract(result, op2, Literal.one));
-                addInstruction(new GreaterThan(result, op1, result));
+                addInstruction(new GreaterThan(result, op2, op1));
+                fromComplexOperation(Operation.NOT, result, result, null);
             }
             case LESS_OR_EQUAL -> {
                 /*
@@ -810,48 +318,45 @@ public class ThreeAddressCode {
                 /*
                     simplification of &&
                     a && b
-                    a == true == b
+                    (a == false) + (b == false) == 0
 
                     three address code for &&
-                    r = a == true
-                    if r goto L1
-                    goto L2
-                L1:
-                    r = a == b
-                L2:
+                    t1 = a == 0
+                    t2 = b == 0
+                    t1 = t1 + t2
+                    r = t1 == 0
 
                  */
 
-                Label l1 = new Label();
-                Label l2 = new Label();
+                Address t1 = temp();
+                Address t2 = temp();
 
-                addInstruction(new EqualsTo(result, op1, Literal.one));
-                addInstruction(new IfGoto(result, l1));
-                addInstruction(new Goto(l2));
-                addInstruction(l1);
-                addInstruction(new EqualsTo(result, op1, op2));
-                addInstruction(l2);
+                addInstruction(new EqualsTo(t1, op1, Literal.zero));
+                addInstruction(new EqualsTo(t2, op2, Literal.zero));
+                addInstruction(new Add(t1, t1, t2));
+                addInstruction(new EqualsTo(result, t1, Literal.zero));
             }
             case OR -> {
                 /*
                     simplification of ||
                     a || b
-                    (a == true) (a != b)
+                    (a == false) + (b == false) < 2
 
                     three address code for ||
-                    r = a == true
-                    if r goto L1
-                    r = b == true
-                L1:
+                    t1 = a == 0
+                    t2 = b == 0
+                    t1 = t1 + t2
+                    r = 2 > t1
 
                  */
 
-                Label l1 = new Label();
+                Address t1 = temp();
+                Address t2 = temp();
 
-                addInstruction(new EqualsTo(result, op1, Literal.one));
-                addInstruction(new IfGoto(result, l1));
-                addInstruction(new EqualsTo(result, op2, Literal.one));
-                addInstruction(l1);
+                addInstruction(new EqualsTo(t1, op1, Literal.zero));
+                addInstruction(new EqualsTo(t2, op2, Literal.zero));
+                addInstruction(new Add(t1, t1, t2));
+                addInstruction(new GreaterThan(result, new Literal(2), t1));
             }
             case POWER -> {
                 /*
@@ -859,32 +364,37 @@ public class ThreeAddressCode {
                     r = 1
                     t1 = b
                 L1:
-                    t2 = t1 == 0
+                    t2 = t1 > 0
                     if t2 goto L2
-                    r = r * a
+                    goto L3
+                L2:
+                    t3 = r * a
+                    r = t3
                     t1 = t1 - 1
                     goto L1
-                L2:
+                L3:
                  */
 
                 Label l1 = new Label();
                 Label l2 = new Label();
+                Label l3 = new Label();
 
-                Address t1 = Address.temp();
-                Address t2 = Address.temp();
+                Address t1 = temp();
+                Address t2 = temp();
+                Address t3 = temp();
 
                 addInstruction(new Assign(result, Literal.one));
                 addInstruction(new Assign(t1, op2));
                 addInstruction(l1);
-                addInstruction(new EqualsTo(t2, t1, Literal.zero));
+                addInstruction(new GreaterThan(t2, t1, Literal.zero));
                 addInstruction(new IfGoto(t2, l2));
-                fromComplexOperation(Operation.MULTIPLICATION, result, result, op1);
-                addInstruction(new Subtract(result, t1, Literal.one));
-                addInstruction(new Goto(l1));
+                addInstruction(new Goto(l3));
                 addInstruction(l2);
-            }
-            case MODULUS -> {
-                // TODO: 17/12/20 implement modulus
+                fromComplexOperation(Operation.MULTIPLICATION, t3, result, op1);
+                addInstruction(new Assign(result, t3));
+                addInstruction(new Subtract(t1, t1, Literal.one));
+                addInstruction(new Goto(l1));
+                addInstruction(l3);
             }
         }
     }
@@ -12,6 +12,11 @@ public class AddressOf extends Instruction {
         this.a = a;
     }
 
+    @Override
+    public Address defines() {
+        return result;
+    }
+
     @Override
     public String toString() {
         return result + " = &" + a;
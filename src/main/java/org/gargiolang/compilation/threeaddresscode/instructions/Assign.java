@@ -18,6 +18,16 @@ public class Assign extends Instruction {
         this.b = b;
     }
 
+    @Override
+    public Address defines() {
+        return a;
+    }
+
+    @Override
+    public Value[] uses() {
+        return new Value[]{b};
+    }
+
     @Override
     public String toString() {
         return a + " = " + b;
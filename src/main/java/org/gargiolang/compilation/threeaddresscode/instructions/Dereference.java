@@ -1,6 +1,7 @@
 package org.gargiolang.compilation.threeaddresscode.instructions;
 
 import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Value;
 
 public class Dereference extends Instruction {
 
@@ -12,6 +13,16 @@ public class Dereference extends Instruction {
         this.a = a;
     }
 
+    @Override
+    public Address defines() {
+        return result;
+    }
+
+    @Override
+    public Value[] uses() {
+        return new Value[]{a};
+    }
+
     @Override
     public String toString() {
         return result + " = *" + a;
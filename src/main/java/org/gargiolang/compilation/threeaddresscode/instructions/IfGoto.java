@@ -12,6 +12,11 @@ public class IfGoto extends Instruction {
         this.label = label;
     }
 
+    @Override
+    public Value[] uses() {
+        return new Value[]{condition};
+    }
+
     @Override
     public String toString() {
         return "if " + condition + " goto " + label;
@@ -1,10 +1,15 @@
 package org.gargiolang.compilation.threeaddresscode.instructions;
 
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Value;
+
 /**
  * Node of linked list of instructions which are the building blocks of generated intermediate code
  */
 public abstract class Instruction {
 
+    private static final Value[] NO_VALUES = new Value[0];
+
     public Instruction next;
 
     public Instruction() {
@@ -17,10 +22,25 @@ public abstract class Instruction {
      * @param instruction instruction to append to the end of the linked list
      */
     public void add(Instruction instruction) {
-        if (next == null)
-            next = instruction;
-        else
-            next.add(instruction);
+        Instruction last = this;
+        while (last.next != null)
+            last = last.next;
+        last.next = instruction;
+    }
+
+
+    /**
+     * Returns the address written by this instruction, if any
+     */
+    public Address defines() {
+        return null;
+    }
+
+    /**
+     * Returns the values read by this instruction
+     */
+    public Value[] uses() {
+        return NO_VALUES;
     }
 
 
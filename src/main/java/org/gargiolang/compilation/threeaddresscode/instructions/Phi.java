@@ -0,0 +1,42 @@
+package org.gargiolang.compilation.threeaddresscode.instructions;
+
+import org.gargiolang.compilation.threeaddresscode.Address;
+import org.gargiolang.compilation.threeaddresscode.Value;
+
+/**
+ * Merges the versions of an address coming from the predecessors of a basic block in SSA form:
+ * the operand at index i is the value coming from the i-th predecessor
+ */
+public class Phi extends Instruction {
+
+    public final Address result;
+    public final Value[] operands;
+
+    public Phi(Address result, Value[] operands) {
+        this.result = result;
+        this.operands = operands;
+    }
+
+    @Override
+    public Address defines() {
+        return result;
+    }
+
+    @Override
+    public Value[] uses() {
+        return operands;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(result).append(" = phi(");
+        for (int index = 0; index != operands.length; index++) {
+            if (index != 0)
+                stringBuilder.append(", ");
+            stringBuilder.append(operands[index]);
+        }
+        return stringBuilder.append(")").toString();
+    }
+
+}
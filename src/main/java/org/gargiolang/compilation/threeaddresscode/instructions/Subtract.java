@@ -15,6 +15,16 @@ public class Subtract extends Instruction {
         this.b = b;
     }
 
+    @Override
+    public Address defines() {
+        return result;
+    }
+
+    @Override
+    public Value[] uses() {
+        return new Value[]{a, b};
+    }
+
     @Override
     public String toString() {
         return result + " = " + a + " - " + b;
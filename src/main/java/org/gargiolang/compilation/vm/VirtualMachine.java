@@ -0,0 +1,86 @@
+package org.gargiolang.compilation.vm;
+
+import org.gargiolang.compilation.assembler.Bytecode;
+import org.gargiolang.compilation.assembler.Opcode;
+import org.gargiolang.exception.evaluation.IndexOutOfBoundsException;
+
+/**
+ * Register based virtual machine that executes the Bytecode generated by the Assembler
+ */
+public final class VirtualMachine {
+
+    private final Bytecode bytecode;
+    private final int[] registers;
+    private final int[] memory;
+
+
+    public VirtualMachine(Bytecode bytecode) {
+        this.bytecode = bytecode;
+        this.registers = bytecode.registers.clone();
+        this.memory = new int[bytecode.memory];
+    }
+
+
+    /**
+     * Executes the bytecode until the HALT instruction is reached
+     *
+     * @throws IndexOutOfBoundsException if a dereferenced address is not a valid memory slot
+     */
+    public void run() throws IndexOutOfBoundsException {
+        final int[] code = bytecode.code;
+        final int[] regs = registers;
+        final int[] mem = memory;
+        int pc = 0;
+
+        while (true) {
+            switch (code[pc]) {
+                case Opcode.HALT -> {
+                    return;
+                }
+                case Opcode.MOV -> regs[code[pc + 1]] = regs[code[pc + 2]];
+                case Opcode.ADD -> regs[code[pc + 1]] = regs[code[pc + 2]] + regs[code[pc + 3]];
+                case Opcode.SUB -> regs[code[pc + 1]] = regs[code[pc + 2]] - regs[code[pc + 3]];
+                case Opcode.EQ -> regs[code[pc + 1]] = regs[code[pc + 2]] == regs[code[pc + 3]] ? 1 : 0;
+                case Opcode.GT -> regs[code[pc + 1]] = regs[code[pc + 2]] > regs[code[pc + 3]] ? 1 : 0;
+                case Opcode.JMP -> {
+                    pc = code[pc + 1];
+                    continue;
+                }
+                case Opcode.JNZ -> {
+                    if (regs[code[pc + 2]] != 0) {
+                        pc = code[pc + 1];
+                        continue;
+                    }
+                }
+                case Opcode.ADDR -> regs[code[pc + 1]] = code[pc + 2];
+                case Opcode.LOAD -> {
+                    int address = regs[code[pc + 2]];
+                    if (address < 0 || address >= mem.length)
+                        throw new IndexOutOfBoundsException("Invalid address " + address + " at offset " + pc);
+                    regs[code[pc + 1]] = mem[address];
+                }
+                case Opcode.SPILL -> mem[code[pc + 1]] = regs[code[pc + 2]];
+                case Opcode.RELOAD -> regs[code[pc + 1]] = mem[code[pc + 2]];
+            }
+
+            pc += Bytecode.WIDTH;
+        }
+    }
+
+
+    /**
+     * Returns the value of the variables of the program
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("{\n");
+        bytecode.variables.forEach((name, location) -> {
+            int value = location < 0 ? memory[-location - 1] : registers[location];
+            stringBuilder.append("\t").append(name).append(": ").append(value).append(",\n");
+        });
+        stringBuilder.append("}");
+        return stringBuilder.toString();
+    }
+
+}
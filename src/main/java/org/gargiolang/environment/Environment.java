@@ -5,12 +5,9 @@ import java.util.HashMap;
 // class for environment variables, compile-time variables, to get OS...
 public class Environment {
 
-    private static Environment instance;
     private final HashMap<String, String> variables;
 
     public Environment() {
-        instance = this;
-
         this.variables = new HashMap<>();
     }
 
@@ -35,10 +32,6 @@ public class Environment {
         return variables;
     }
 
-    public static Environment getInstance() {
-        return instance;
-    }
-
     public String getOsName(){
         return getProperty("os.name");
     }
@@ -0,0 +1,7 @@
+package org.gargiolang.exception.evaluation;
+
+public class StackOverflowException extends EvaluationException {
+    public StackOverflowException(String exception) {
+        super(exception);
+    }
+}
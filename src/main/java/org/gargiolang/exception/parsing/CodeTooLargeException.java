@@ -0,0 +1,7 @@
+package org.gargiolang.exception.parsing;
+
+public class CodeTooLargeException extends ParsingException {
+    public CodeTooLargeException(String exception) {
+        super(exception);
+    }
+}
@@ -0,0 +1,7 @@
+package org.gargiolang.exception.parsing;
+
+public class UndefinedLabelException extends ParsingException {
+    public UndefinedLabelException(String exception) {
+        super(exception);
+    }
+}
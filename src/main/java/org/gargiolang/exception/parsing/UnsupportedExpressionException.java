@@ -0,0 +1,7 @@
+package org.gargiolang.exception.parsing;
+
+public class UnsupportedExpressionException extends ParsingException {
+    public UnsupportedExpressionException(String exception) {
+        super(exception);
+    }
+}
@@ -0,0 +1,7 @@
+package org.gargiolang.exception.preprocessing;
+
+public class IncludeCycleException extends PreprocessingException {
+    public IncludeCycleException(String exception) {
+        super(exception);
+    }
+}
@@ -0,0 +1,140 @@
+package org.gargiolang.preprocessing;
+
+import org.gargiolang.environment.Environment;
+import org.gargiolang.exception.GargioniException;
+import org.gargiolang.tokenizer.Lexer;
+import org.gargiolang.tokenizer.StatementSource;
+import org.gargiolang.tokenizer.tokens.TokenLine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * A library that has been preprocessed and lexed once, so that it can be included any number of times.
+ * A library is preprocessed on its own: the names it defines don't leak into the script and the script's don't reach it.
+ * Its own #include directives are kept, they are followed by the Preprocessor of the script that includes it.
+ *
+ * Libraries are shared, their tokens are copied by the Lexer of every script that includes them
+ */
+public final class Library {
+
+    private final Path path;
+    private final long modified;
+
+    // statements left by the preprocessor, with the tokens of the ones that are not labels or #include
+    private final String[] statements;
+    private final TokenLine[] lines;
+    // line of the file every statement is on
+    private final int[] lineNumbers;
+
+    // the environment variables tested by #ifdef and #ifndef, and whether they were defined
+    private final Map<String, Boolean> tested;
+
+
+    private Library(Path path, long modified, String[] statements, TokenLine[] lines, int[] lineNumbers, Map<String, Boolean> tested) {
+        this.path = path;
+        this.modified = modified;
+        this.statements = statements;
+        this.lines = lines;
+        this.lineNumbers = lineNumbers;
+        this.tested = tested;
+    }
+
+
+    /**
+     * Reads, preprocesses and lexes the library. Libraries are read line by line
+     */
+    static Library read(Path path, Environment environment) throws GargioniException, IOException {
+        long modified = Files.getLastModifiedTime(path).toMillis();
+
+        ArrayList<String> statements = new ArrayList<>();
+        ArrayList<TokenLine> lines = new ArrayList<>();
+        ArrayList<Integer> lineNumbers = new ArrayList<>();
+        Lexer lexer = new Lexer();
+
+        Preprocessor preprocessor;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            preprocessor = Preprocessor.library(reader::readLine, environment);
+
+            // the preprocessor returns a statement for every line it reads
+            int lineNumber = 0;
+            String statement;
+            while ((statement = preprocessor.next()) != null) {
+                lineNumber++;
+                String line = statement.stripLeading();
+                if (line.isEmpty())
+                    continue;
+
+                statements.add(statement);
+                lineNumbers.add(lineNumber);
+                lines.add(line.startsWith("#") || line.startsWith("@") ? null : lexer.tokenizeStatement(statement));
+            }
+        }
+
+        return new Library(path, modified, statements.toArray(new String[0]), lines.toArray(new TokenLine[0]),
+                lineNumbers.stream().mapToInt(Integer::intValue).toArray(), preprocessor.getTested());
+    }
+
+
+    /**
+     * Whether the file hasn't been modified and the environment variables tested by its conditionals haven't changed
+     */
+    boolean isValid(Environment environment) throws IOException {
+        try {
+            if (Files.getLastModifiedTime(path).toMillis() != modified)
+                return false;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+
+        for (Map.Entry<String, Boolean> variable : tested.entrySet()) {
+            if (environment.getVariables().containsKey(variable.getKey()) != variable.getValue())
+                return false;
+        }
+        return true;
+    }
+
+
+    public Path getPath() {
+        return path;
+    }
+
+
+    /**
+     * Returns the statements of the library, along with their tokens
+     */
+    StatementSource statements() {
+        return new StatementSource() {
+
+            private int index = -1;
+
+            @Override
+            public String next() {
+                index++;
+                return index < statements.length ? statements[index] : null;
+            }
+
+            @Override
+            public TokenLine tokens() {
+                return lines[index];
+            }
+
+            @Override
+            public String name() {
+                return path.getFileName().toString();
+            }
+
+            @Override
+            public int line() {
+                return lineNumbers[index];
+            }
+        };
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.gargiolang.preprocessing;
+
+import org.gargiolang.environment.Environment;
+import org.gargiolang.exception.GargioniException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Libraries that have already been preprocessed and lexed, by path. A library is read again when its file is modified,
+ * so in a long lived process a library is read once however many scripts include it.
+ * The cache is thread safe, scripts that are tokenized in parallel share it
+ */
+public final class LibraryCache {
+
+    private static final LibraryCache shared = new LibraryCache();
+
+    private final ConcurrentHashMap<Path, Library> libraries = new ConcurrentHashMap<>();
+
+
+    /**
+     * The cache used by every Preprocessor that isn't given one
+     */
+    public static LibraryCache shared() {
+        return shared;
+    }
+
+
+    /**
+     * Returns the library at the given path, reading it if it isn't cached or it has changed
+     *
+     * @param path absolute and normalized path of the library
+     */
+    public Library get(Path path, Environment environment) throws GargioniException, IOException {
+        Library library = libraries.get(path);
+        if (library != null && library.isValid(environment))
+            return library;
+
+        // two threads may read the same library, the last one is kept
+        library = Library.read(path, environment);
+        libraries.put(path, library);
+        return library;
+    }
+
+    public void clear() {
+        libraries.clear();
+    }
+
+}
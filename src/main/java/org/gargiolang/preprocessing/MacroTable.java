@@ -0,0 +1,125 @@
+package org.gargiolang.preprocessing;
+
+import org.gargiolang.tokenizer.CharacterClass;
+import org.gargiolang.tokenizer.NamePool;
+
+import java.util.HashMap;
+
+/**
+ * Names defined with #define and the text they stand for.
+ * Names are substituted only where the Lexer would read them as a whole name: not inside strings,
+ * comments or longer names. The text of a definition is expanded when it's defined, so a statement is scanned only once
+ */
+public class MacroTable {
+
+    private final HashMap<String, String> macros = new HashMap<>();
+
+    // first characters of the defined names, other names are skipped without being looked up
+    private final boolean[] firstCharacters = new boolean[128];
+
+    private final NamePool names = NamePool.local();
+
+
+    public void define(String name, String text) {
+        macros.put(NamePool.intern(name), expand(text));
+        firstCharacters[name.charAt(0)] = true;
+    }
+
+    public void undefine(String name) {
+        macros.remove(name);
+    }
+
+    public boolean isDefined(String name) {
+        return macros.containsKey(name);
+    }
+
+    /**
+     * Whether the given string is a name that can be defined
+     */
+    public static boolean isName(String name) {
+        if (name.isEmpty() || CharacterClass.of(name.charAt(0)) != CharacterClass.TEXT)
+            return false;
+        for (int index = 1; index != name.length(); index++) {
+            if (!isNameCharacter(name.charAt(index)))
+                return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns the statement with every defined name replaced by its text, the statement itself if nothing is defined
+     */
+    public String expand(String statement) {
+        if (macros.isEmpty())
+            return statement;
+
+        // created at the first substitution
+        StringBuilder expanded = null;
+        int copied = 0;
+
+        boolean string = false;
+        boolean escape = false;
+        boolean comment = false;
+
+        int length = statement.length();
+        for (int index = 0; index < length; index++) {
+            char c = statement.charAt(index);
+
+            if (string) {
+                if (escape) escape = false;
+                else if (c == '\\') escape = true;
+                else if (c == '"') string = false;
+                continue;
+            }
+            if (comment) {
+                if (c == '\n') comment = false;
+                continue;
+            }
+
+            switch (CharacterClass.of(c))
+            {
+                case CharacterClass.QUOTE -> string = true;
+
+                case CharacterClass.ARITHMETIC -> {
+                    if (c == '/' && index + 1 < length && statement.charAt(index + 1) == '/') {
+                        comment = true;
+                        index++;
+                    }
+                }
+
+                // numbers are skipped whole, with anything that follows them
+                case CharacterClass.DIGIT -> {
+                    while (index + 1 < length && isNameCharacter(statement.charAt(index + 1))) index++;
+                }
+
+                case CharacterClass.TEXT -> {
+                    int start = index;
+                    while (index + 1 < length && isNameCharacter(statement.charAt(index + 1))) index++;
+
+                    if (!firstCharacters[c])
+                        continue;
+                    String text = macros.get(names.get(statement, start, index + 1));
+                    if (text == null)
+                        continue;
+
+                    if (expanded == null)
+                        expanded = new StringBuilder(length + text.length());
+                    expanded.append(statement, copied, start).append(text);
+                    copied = index + 1;
+                }
+            }
+        }
+
+        if (expanded == null)
+            return statement;
+        return expanded.append(statement, copied, length).toString();
+    }
+
+
+    private static boolean isNameCharacter(char c) {
+        byte characterClass = CharacterClass.of(c);
+        return characterClass == CharacterClass.TEXT || characterClass == CharacterClass.DIGIT;
+    }
+
+}
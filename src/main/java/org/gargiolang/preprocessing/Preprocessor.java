@@ -1,136 +1,236 @@
 package org.gargiolang.preprocessing;
 
 import org.gargiolang.environment.Environment;
-import org.gargiolang.exception.preprocessing.PreprocessingException;
+import org.gargiolang.exception.GargioniException;
+import org.gargiolang.exception.preprocessing.IncludeCycleException;
 import org.gargiolang.exception.preprocessing.UnmatchedConditionalException;
 import org.gargiolang.exception.preprocessing.UnrecognizedPreprocessorException;
+import org.gargiolang.tokenizer.StatementSource;
+import org.gargiolang.tokenizer.tokens.TokenLine;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.LinkedList;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handles the preprocessor directives while the statements are read: directives, and the statements
+ * they exclude, are replaced by empty statements, included libraries are read in place of the #include
+ * and the names defined with #define are substituted in the statements that follow.
+ *
+ * A library is included only once, however many times it's included by the script and by other libraries,
+ * and a library that includes itself, directly or not, is an error. Libraries are taken from a LibraryCache
+ * along with their tokens, see Library
+ */
+public class Preprocessor implements StatementSource {
+
+    // the script comes first, every included library is read before going back to the source that included it
+    private final ArrayList<StatementSource> sources;
+    // libraries that are being read, in the same order as their sources
+    private final ArrayList<Path> reading = new ArrayList<>();
+
+    // #ifdef and #ifndef whose code is kept and still have to be closed by an #endif
+    private int open;
+    // nesting depth of the conditionals whose code is excluded, 0 if no code is being excluded
+    private int skipping;
+
+    // libraries included so far
+    private final LinkedHashSet<Path> includes = new LinkedHashSet<>();
+
+    private final MacroTable macros = new MacroTable();
+
+    // null when a library is preprocessed, its #include directives are left to the script that includes it
+    private final LibraryCache libraries;
+
+    // the environment variables can be tested by #ifdef and #ifndef
+    private final Environment environment;
+    // environment variables tested by #ifdef and #ifndef, and whether they were defined
+    private final HashMap<String, Boolean> tested = new HashMap<>();
+
+    // tokens of the last statement, if it comes from a library
+    private TokenLine tokens;
+    // source the last statement has been read from
+    private StatementSource current;
+
+
+    public Preprocessor(StatementSource statements, Environment environment) {
+        this(statements, environment, LibraryCache.shared());
+    }
+
+    public Preprocessor(StatementSource statements, Environment environment, LibraryCache libraries) {
+        this.sources = new ArrayList<>();
+        this.sources.add(statements);
+        this.environment = environment;
+        this.libraries = libraries;
+    }
+
+    /**
+     * Preprocessor of a library, see Library
+     */
+    static Preprocessor library(StatementSource statements, Environment environment) {
+        return new Preprocessor(statements, environment, null);
+    }
+
+
+    @Override
+    public String next() throws GargioniException, IOException {
+        String statement = read();
+        tokens = null;
+        if (statement == null) {
+            if (open != 0 || skipping != 0)
+                throw new UnmatchedConditionalException("#ifdef or #ifndef is not closed by an #endif");
+            return null;
+        }
+
+        // exclude everything up to the #endif that closes the false conditional
+        if (skipping != 0) {
+            String line = statement.stripLeading();
+            if (line.startsWith("#if"))
+                skipping++;
+            else if (line.startsWith("#endif"))
+                skipping--;
+            return "";
+        }
+
+        boolean directive = statement.stripLeading().startsWith("#");
 
-public class Preprocessor {
+        // libraries have already been preprocessed and lexed
+        if (!directive && sources.size() != 1) {
+            tokens = sources.get(sources.size() - 1).tokens();
+            return statement;
+        }
+
+        if (!directive)
+            return macros.expand(statement);
+
+        int indexOfHash = statement.indexOf('#') + 1;
+        int indexOfData = statement.indexOf(' ', indexOfHash) + 1;
 
-    public static void process(LinkedList<String> rawStatements) throws PreprocessingException, IOException {
+        String preprocessor;
+        String data = null;
+        if (indexOfData == 0) preprocessor = statement.substring(indexOfHash);
+        else {
+            preprocessor = statement.substring(indexOfHash, indexOfData - 1);
+            data = statement.substring(indexOfData); // kind of the arguments to the preprocessor
+        }
+
+        switch (preprocessor)
+        {
+            // #define NAME text, the text may be empty
+            case "define" -> {
+                if (data == null)
+                    throw new UnrecognizedPreprocessorException("#define requires a name");
+                data = data.strip();
 
-        for (int statementIndex = 0; statementIndex != rawStatements.size(); statementIndex++) {
-            String statement = rawStatements.get(statementIndex);
+                int indexOfText = data.indexOf(' ');
+                String name = indexOfText == -1 ? data : data.substring(0, indexOfText);
+                if (!MacroTable.isName(name))
+                    throw new UnrecognizedPreprocessorException("Invalid name for #define: " + name);
 
-            if (statement.stripLeading().startsWith("#")) {
-                int indexOfHash = statement.indexOf('#') + 1;
-                int indexOfData = statement.indexOf(' ', indexOfHash) + 1;
+                macros.define(name, indexOfText == -1 ? "" : data.substring(indexOfText + 1).strip());
+            }
 
-                String preprocessor;
-                String data = null;
-                if (indexOfData == 0) preprocessor = statement.substring(indexOfHash);
-                else {
-                    preprocessor = statement.substring(indexOfHash, indexOfData - 1);
-                    data = statement.substring(indexOfData); // kind of the arguments to the preprocessor
+            case "undef" -> {
+                if (data == null)
+                    throw new UnrecognizedPreprocessorException("#undef requires a name");
+                macros.undefine(data.strip());
+            }
+
+            case "ifdef", "ifndef" -> {
+                assert data != null;
+                String name = data.strip();
+                boolean defined = macros.isDefined(name);
+                if (!defined) {
+                    defined = environment.getVariables().containsKey(name);
+                    tested.put(name, defined);
                 }
 
-                switch (preprocessor)
-                {
-                    case "define" -> {
-                        assert data != null;
-                        String word = data.substring(0, data.indexOf(' '));
-                        String definition = data.substring(data.indexOf(' ') + 1);
-                        // replace all occurrences of word with definition
-                        rawStatements.forEach(line -> line = line.replaceAll(word, definition));
-                        // finally remove the preprocessor
-                        rawStatements.set(statementIndex, "");
-                    }
-
-                    case "ifdef" -> {
-                        assert data != null;
-                        String var = data.strip();
-                        boolean doRemove = !Environment.getInstance().getVariables().containsKey(var);
-
-                        // search for closing #endif
-                        int ifCount = 1;
-                        int index = statementIndex;
-                        // remove preprocessor
-                        rawStatements.set(statementIndex, "");
-
-                        for (index++; true; index++) {
-                            String line = rawStatements.get(index).stripLeading();
-
-                            if (line.startsWith("#if")) {
-                                ifCount++;
-                            } else if (line.startsWith("#endif")) {
-                                ifCount--;
-                                if (ifCount == 0) {
-                                    // remove #endif preprocessor
-                                    rawStatements.set(index, "");
-                                    break;
-                                }
-                            }
-
-                            if (doRemove) rawStatements.set(index, "");
-                        }
-                    }
-
-                    case "include" -> {
-                        assert data != null;
-                        String fileName = data.strip();
-
-                        File file = new File("GargioLang/libraries/" + fileName + ".gl");
-                        BufferedReader br = new BufferedReader(new FileReader(file));
-
-                        int index = statementIndex;
-                        rawStatements.set(statementIndex, "");
-                        String buffer;
-                        while ((buffer = br.readLine()) != null) {
-                            rawStatements.add(index, buffer);
-                            index ++;
-                        }
-
-
-                        /*
-
-                        //Load the dependency
-                        new DependencyLoader().loadDependency(s);
-
-                        //We will load the file from here
-
-                         */
-                    }
-
-                    case "ifndef" -> {
-                        assert data != null;
-                        String var = data.strip();
-                        boolean doRemove = Environment.getInstance().getVariables().containsKey(var);
-
-                        // search for closing #endif
-                        int ifCount = 1;
-                        int index = statementIndex;
-                        // remove preprocessor
-                        rawStatements.set(statementIndex, "");
-
-                        for (index++; true; index++) {
-                            String line = rawStatements.get(index).stripLeading();
-
-                            if (line.startsWith("#if")) {
-                                ifCount++;
-                            } else if (line.startsWith("#endif")) {
-                                ifCount--;
-                                if (ifCount == 0) {
-                                    // remove #endif preprocessor
-                                    rawStatements.set(index, "");
-                                    break;
-                                }
-                            }
-
-                            if (doRemove) rawStatements.set(index, "");
-                        }
-                    }
-
-                    case "endif" -> throw new UnmatchedConditionalException("#endif is found without an opening #if");
-
-                    default -> throw new UnrecognizedPreprocessorException("Unrecognized preprocessor: " + preprocessor);
+                if (defined == preprocessor.equals("ifdef"))
+                    open++;
+                else
+                    skipping = 1;
+            }
+
+            case "endif" -> {
+                if (open == 0)
+                    throw new UnmatchedConditionalException("#endif is found without an opening #if");
+                open--;
+            }
+
+            case "include" -> {
+                assert data != null;
+                String fileName = data.strip();
+                if (libraries == null)
+                    return "#include " + fileName;
+
+                Path library = Path.of("GargioLang/libraries/" + fileName + ".gl").toAbsolutePath().normalize();
+                if (reading.contains(library))
+                    throw new IncludeCycleException("Include cycle: " + cycle(library));
+
+                if (includes.add(library)) {
+                    sources.add(libraries.get(library, environment).statements());
+                    reading.add(library);
                 }
             }
+
+            default -> throw new UnrecognizedPreprocessorException("Unrecognized preprocessor: " + preprocessor);
+        }
+
+        // finally remove the preprocessor
+        return "";
+    }
+
+    @Override
+    public TokenLine tokens() {
+        return tokens;
+    }
+
+    @Override
+    public String name() {
+        return current == null ? null : current.name();
+    }
+
+    @Override
+    public int line() {
+        return current == null ? 0 : current.line();
+    }
+
+    public List<Path> getIncludes() {
+        return new ArrayList<>(includes);
+    }
+
+    Map<String, Boolean> getTested() {
+        return tested;
+    }
+
+    /**
+     * Reads the next statement from the innermost source that isn't over
+     */
+    private String read() throws GargioniException, IOException {
+        while (!sources.isEmpty()) {
+            current = sources.get(sources.size() - 1);
+            String statement = current.next();
+            if (statement != null)
+                return statement;
+            sources.remove(sources.size() - 1);
+            if (sources.size() == reading.size() && !reading.isEmpty())
+                reading.remove(reading.size() - 1);
         }
+        return null;
     }
+
+    /**
+     * Returns the libraries from the given one to the one that includes it again, e.g. a.gl -> b.gl -> a.gl
+     */
+    private String cycle(Path library) {
+        StringBuilder cycle = new StringBuilder();
+        for (int index = reading.indexOf(library); index != reading.size(); index++) {
+            cycle.append(reading.get(index).getFileName()).append(" -> ");
+        }
+        return cycle.append(library.getFileName()).toString();
+    }
+
 }
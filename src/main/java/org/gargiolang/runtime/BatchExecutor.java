@@ -0,0 +1,178 @@
+package org.gargiolang.runtime;
+
+import org.gargiolang.environment.Environment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs many scripts at the same time, each one on its own Runtime of a RuntimePool, capturing what every script prints.
+ * A script is compiled once by the first execution that needs it, later executions share its tokens (see CompiledScript),
+ * so a script that changes while the executor is in use is not read again
+ */
+public final class BatchExecutor implements AutoCloseable {
+
+    private final RuntimePool pool;
+    private final ExecutorService executor;
+    // whether the executor has been created here and is shut down by close()
+    private final boolean ownsExecutor;
+
+    private final ConcurrentHashMap<Path, CompletableFuture<CompiledScript>> scripts = new ConcurrentHashMap<>();
+
+
+    /**
+     * Runs the scripts on a thread per core, scripts are CPU bound
+     */
+    public BatchExecutor(Environment environment) {
+        this(environment, java.lang.Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchExecutor(Environment environment, int threads) {
+        this(new RuntimePool(environment, threads), threads);
+    }
+
+    public BatchExecutor(RuntimePool pool, int threads) {
+        this(pool, Executors.newFixedThreadPool(threads), true);
+    }
+
+    /**
+     * Runs the scripts on the given executor, which is not shut down by close()
+     */
+    public BatchExecutor(RuntimePool pool, ExecutorService executor) {
+        this(pool, executor, false);
+    }
+
+    private BatchExecutor(RuntimePool pool, ExecutorService executor, boolean ownsExecutor) {
+        this.pool = pool;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+
+    /**
+     * Runs the given scripts and waits for all of them, the results are in the same order as the scripts
+     */
+    public List<Result> execute(List<Path> scripts) throws InterruptedException {
+        ArrayList<Future<Result>> futures = new ArrayList<>(scripts.size());
+        for (Path script : scripts) {
+            futures.add(submit(script));
+        }
+
+        ArrayList<Result> results = new ArrayList<>(futures.size());
+        for (Future<Result> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                // run() doesn't throw
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    public Future<Result> submit(Path script) {
+        return executor.submit(() -> run(script));
+    }
+
+
+    /**
+     * Runs a script on the calling thread
+     */
+    public Result run(Path script) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(output, false, StandardCharsets.UTF_8);
+        Runtime runtime = pool.acquire();
+        try {
+            runtime.setOut(out);
+            runtime.run(compile(script, runtime));
+            out.flush();
+            return new Result(script, output.toString(StandardCharsets.UTF_8), null);
+
+        } catch (Exception e) {
+            out.flush();
+            return new Result(script, output.toString(StandardCharsets.UTF_8), e);
+
+        } finally {
+            pool.release(runtime);
+        }
+    }
+
+
+    /**
+     * Returns the compiled script, compiling it on the given Runtime if no other execution has done it yet.
+     * Executions of a script that is being compiled wait for it
+     */
+    private CompiledScript compile(Path script, Runtime runtime) throws Exception {
+        CompletableFuture<CompiledScript> compiled = new CompletableFuture<>();
+        CompletableFuture<CompiledScript> previous = scripts.putIfAbsent(script, compiled);
+
+        if (previous == null) {
+            try {
+                runtime.loadScript(script.toString());
+                compiled.complete(runtime.compile());
+            } catch (Throwable e) {
+                // the executions waiting for the script must not wait forever
+                compiled.completeExceptionally(e);
+            }
+            // the labels of the script are loaded again by run()
+            runtime.reset();
+        } else {
+            compiled = previous;
+        }
+
+        try {
+            return compiled.join();
+        } catch (CompletionException e) {
+            // every execution of the script reports the error of its compilation
+            if (e.getCause() instanceof Exception exception)
+                throw exception;
+            throw (Error) e.getCause();
+        }
+    }
+
+
+    @Override
+    public void close() {
+        if (ownsExecutor)
+            executor.shutdown();
+    }
+
+
+    /**
+     * The output of a script and the exception that stopped it, if any
+     */
+    public static final class Result {
+
+        private final Path script;
+        private final String output;
+        private final Exception error;
+
+        private Result(Path script, String output, Exception error) {
+            this.script = script;
+            this.output = output;
+            this.error = error;
+        }
+
+        public Path getScript() {
+            return script;
+        }
+
+        public String getOutput() {
+            return output;
+        }
+
+        public Exception getError() {
+            return error;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+    }
+
+}
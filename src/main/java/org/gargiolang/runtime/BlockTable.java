@@ -0,0 +1,79 @@
+package org.gargiolang.runtime;
+
+import org.gargiolang.tokenizer.LabelTable;
+import org.gargiolang.tokenizer.tokens.*;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+
+/**
+ * Links the control flow of the script once, before it's executed: every opening scope is paired with its
+ * closing scope and every goto is linked to the line of its label. Entering or skipping a code block
+ * then doesn't need to scan the script for the matching scope.
+ *
+ * Blocks are looked up by the opening scope of the script, copies of the token find the block through their origin
+ */
+public final class BlockTable {
+
+    private final IdentityHashMap<Token, TokenBlock> blocks;
+
+
+    private BlockTable() {
+        this.blocks = new IdentityHashMap<>();
+    }
+
+
+    public static BlockTable link(LinkedList<TokenLine> tokens, LabelTable labelTable) {
+        BlockTable table = new BlockTable();
+
+        // opening scopes that haven't been closed yet, with their line
+        ArrayList<Token> open = new ArrayList<>();
+        ArrayList<Integer> openLines = new ArrayList<>();
+
+        int lineIndex = 0;
+        for (TokenLine line : tokens) {
+            for (Token token = line.getFirst(); token != null; token = token.getNext()) {
+                switch (token.getType())
+                {
+                    case SCOPE -> {
+                        if (token.getValue() == Scope.OPEN) {
+                            open.add(token);
+                            openLines.add(lineIndex);
+                        }
+                        // a closing scope without an opening one is left to the interpreter
+                        else if (!open.isEmpty()) {
+                            int last = open.size() - 1;
+                            table.blocks.put(open.get(last), new TokenBlock(openLines.get(last), open.get(last), lineIndex, token));
+                            open.remove(last);
+                            openLines.remove(last);
+                        }
+                    }
+
+                    case KEYWORD -> {
+                        // undefined labels are reported when the goto is executed
+                        Token label = token.getNext();
+                        if (token.getValue() == Keyword.GOTO && label != null && label.getType() == TokenType.TXT) {
+                            Integer target = labelTable.getLabels().get((String) label.getValue());
+                            if (target != null)
+                                token.link(target);
+                        }
+                    }
+                }
+            }
+            lineIndex ++;
+        }
+
+        // scopes that are never closed stay out of the table
+        return table;
+    }
+
+
+    /**
+     * Returns the block opened by the given scope, null if the scope is never closed
+     */
+    public TokenBlock getBlock(Token scope) {
+        return blocks.get(scope.getOrigin());
+    }
+
+}
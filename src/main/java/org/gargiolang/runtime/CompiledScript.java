@@ -0,0 +1,40 @@
+package org.gargiolang.runtime;
+
+import org.gargiolang.tokenizer.tokens.TokenLine;
+
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * The tokens of a script that has been lexed, resolved and linked once, see Runtime.compile().
+ * It can be run by any number of Runtimes, even at the same time: the Interpreter only evaluates scratch copies
+ * of the tokens. The only writes to the tokens are the operand kinds InlineCache records at the operators,
+ * which are checked again every time an operator is evaluated
+ */
+public final class CompiledScript {
+
+    private final LinkedList<TokenLine> tokens;
+    private final Map<String, Integer> labels;
+    private final BlockTable blockTable;
+
+
+    CompiledScript(LinkedList<TokenLine> tokens, Map<String, Integer> labels, BlockTable blockTable) {
+        this.tokens = tokens;
+        this.labels = labels;
+        this.blockTable = blockTable;
+    }
+
+
+    public LinkedList<TokenLine> getTokens() {
+        return tokens;
+    }
+
+    public Map<String, Integer> getLabels() {
+        return labels;
+    }
+
+    public BlockTable getBlockTable() {
+        return blockTable;
+    }
+
+}
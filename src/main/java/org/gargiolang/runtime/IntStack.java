@@ -0,0 +1,40 @@
+package org.gargiolang.runtime;
+
+/**
+ * Stack of primitive ints, e.g. the line indices goto returns to, that doesn't box its elements
+ */
+public final class IntStack {
+
+    private int[] elements;
+    private int size;
+
+    public IntStack() {
+        this.elements = new int[16];
+        this.size = 0;
+    }
+
+    public void push(int element) {
+        if (size == elements.length) {
+            int[] newElements = new int[elements.length * 2];
+            System.arraycopy(elements, 0, newElements, 0, elements.length);
+            elements = newElements;
+        }
+        elements[size ++] = element;
+    }
+
+    /**
+     * Warning: does not check if the stack is empty
+     */
+    public int pop() {
+        return elements[-- size];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+}
@@ -2,6 +2,8 @@ package org.gargiolang.runtime;
 
 import org.gargiolang.exception.evaluation.EvaluationException;
 import org.gargiolang.exception.evaluation.IndexOutOfBoundsException;
+import org.gargiolang.runtime.tree.Node;
+import org.gargiolang.runtime.tree.TreeCache;
 import org.gargiolang.tokenizer.tokens.operators.ArithmeticOperator;
 import org.gargiolang.tokenizer.tokens.operators.AssignmentOperator;
 import org.gargiolang.tokenizer.tokens.operators.LogicalOperator;
@@ -23,10 +25,22 @@ public class Interpreter {
 
     private boolean blockCurrentToken = false;
 
+    // lines are evaluated on scratch copies, the script's lines are never modified
+    private final LinePool scratch = new LinePool();
+    // scratch lines below this mark belong to the lines that called a function
+    private int scratchBase = 0;
+
+    // syntax trees of the executed lines, null if lines are evaluated only by rewriting their tokens
+    private final TreeCache trees;
+    // tokens of the script the current line has been loaded from, null if the line has been modified since
+    private Token loadedFirst;
+    private Token loadedLast;
+
 
     public Interpreter(Runtime runtime, LinkedList<TokenLine> tokens) {
         this.runtime = runtime;
         this.tokens = tokens;
+        this.trees = runtime.isTreeMode() ? new TreeCache() : null;
     }
 
 
@@ -82,37 +96,96 @@ public class Interpreter {
      */
     public void setLine(TokenLine line) {
         this.line = line;
+        this.loadedFirst = null;
     }
 
     public void setLine(TokenLine line, int lineIndex, Token token) throws IndexOutOfBoundsException {
         this.line = line;
+        this.loadedFirst = null;
         this.setLineIndex(lineIndex);
         this.currentToken = token;
     }
 
     public void setLine(int lineIndex) throws IndexOutOfBoundsException {
         this.setLineIndex(lineIndex);
-        this.line = tokens.get(lineIndex).copy();
+        TokenLine line = tokens.get(lineIndex);
+        this.line = load(line.getFirst(), line.getLast());
+    }
+
+    /**
+     * Sets a scratch copy of the given line as the current line
+     *
+     * @param line the line to copy, usually a part of one of the script's lines
+     */
+    public void setLineCopy(TokenLine line) {
+        this.line = load(line.getFirst(), line.getLast());
     }
 
 
     public void setLineFrom(int lineIndex, Token fromToken) throws IndexOutOfBoundsException {
         this.setLineIndex(lineIndex);
-        this.line = this.getLine(lineIndex);
-        this.line = this.line.subList(fromToken, this.line.getLast()).copy();
+        this.line = load(fromToken, this.getLine(lineIndex).getLast());
     }
 
 
     public void setLineBetween(int lineIndex, Token fromToken, Token untilToken) throws IndexOutOfBoundsException {
         this.setLineIndex(lineIndex);
-        this.line = this.getLine(lineIndex).subList(fromToken, untilToken).copy();
+        this.line = load(fromToken, untilToken);
     }
 
 
     public void setLineUntil(int lineIndex, Token untilToken) throws IndexOutOfBoundsException {
         this.setLineIndex(lineIndex);
-        this.line = tokens.get(lineIndex);
-        this.line = this.line.subList(this.line.getFirst(), untilToken).copy();
+        this.line = load(tokens.get(lineIndex).getFirst(), untilToken);
+    }
+
+
+    /**
+     * Returns a scratch copy of the tokens from firstToken up until lastToken included
+     */
+    private TokenLine load(Token firstToken, Token lastToken) {
+        this.loadedFirst = firstToken == null ? null : firstToken.getOrigin();
+        this.loadedLast = lastToken == null ? null : lastToken.getOrigin();
+        return scratch.load(firstToken, lastToken);
+    }
+
+
+    /**
+     * Returns a mark to release the scratch lines loaded from now on, used by loops before each iteration
+     */
+    public int markScratch() {
+        return scratch.mark();
+    }
+
+    /**
+     * Releases the scratch lines loaded after the given mark was taken
+     *
+     * @param mark the mark returned by markScratch()
+     */
+    public void releaseScratch(int mark) {
+        scratch.release(mark);
+    }
+
+    /**
+     * Keeps the scratch lines loaded so far from being released until unpinScratch() is called.
+     * Used by function calls to preserve the line the function has been called from
+     *
+     * @return the previous base, to be passed to unpinScratch()
+     */
+    public int pinScratch() {
+        int previousBase = scratchBase;
+        scratchBase = scratch.mark();
+        return previousBase;
+    }
+
+    /**
+     * Releases the scratch lines loaded since the matching pinScratch() call
+     *
+     * @param previousBase the value returned by pinScratch()
+     */
+    public void unpinScratch(int previousBase) {
+        scratch.release(scratchBase);
+        scratchBase = previousBase;
     }
 
 
@@ -150,7 +223,9 @@ public class Interpreter {
 
         for ( ; this.lineIndex != eof; this.lineIndex ++) {
             // here a copy of the line is needed, not its reference (for goto, function calls, loops and repeating code)
-            this.line = tokens.get(lineIndex).copy();
+            scratch.release(scratchBase);
+            TokenLine line = tokens.get(lineIndex);
+            this.line = load(line.getFirst(), line.getLast());
 
             this.executeLine();
 
@@ -167,6 +242,26 @@ public class Interpreter {
      */
     public TokenLine executeLine() throws EvaluationException, ReflectiveOperationException {
 
+        // a line that has just been loaded can be evaluated as a syntax tree, if it's supported
+        if (trees != null && loadedFirst != null && !blockCurrentToken) {
+            Token first = loadedFirst;
+            loadedFirst = null;
+
+            // a scope opened at the beginning of the line is evaluated before anything else (see TokenLine.highestPriority())
+            boolean opensScope = first.getType() == TokenType.SCOPE && first.getValue() == Scope.OPEN && first != loadedLast;
+
+            Node tree = trees.get(opensScope ? first.getNext() : first, loadedLast);
+            if (tree != null) {
+                if (opensScope) {
+                    runtime.getSymbolTable().pushScope();
+                    line.remove(line.getFirst());
+                }
+                executeTree(tree);
+                return line;
+            }
+        }
+        loadedFirst = null;
+
         while (!line.isEmpty()) {
 
             if (blockCurrentToken) blockCurrentToken = false;
@@ -178,31 +273,58 @@ public class Interpreter {
                 break;
             }
 
-            switch (currentToken.getType())
-            {
-                case LOGICAL_OPERATOR -> LogicalOperator.evaluate(this);
+            dispatch(currentToken.getType());
+
+        } // end of line evaluation
+
 
-                case ARITHMETIC_OPERATOR -> ArithmeticOperator.evaluate(this);
+        return line;
+    }
 
-                case ASSIGNMENT_OPERATOR -> AssignmentOperator.evaluate(this);
 
-                case PAREN -> Parenthesis.evaluate(this);
+    /**
+     * Evaluates the current token according to its type
+     */
+    protected void dispatch(TokenType type) throws EvaluationException, ReflectiveOperationException {
+        switch (type)
+        {
+            case LOGICAL_OPERATOR -> LogicalOperator.evaluate(this);
 
-                case KEYWORD -> Keyword.evaluate(this);
+            case ARITHMETIC_OPERATOR -> ArithmeticOperator.evaluate(this);
 
-                case SCOPE -> Scope.evaluate(this);
+            case ASSIGNMENT_OPERATOR -> AssignmentOperator.evaluate(this);
 
-                case FUNC -> Function.evaluate(this);
+            case PAREN -> Parenthesis.evaluate(this);
 
-                case CALL -> Call.evaluate(this);
+            case KEYWORD -> Keyword.evaluate(this);
 
-                default -> throw new EvaluationException("Could not evaluate token " + currentToken);
-            }
+            case SCOPE -> Scope.evaluate(this);
 
+            case FUNC -> Function.evaluate(this);
 
-        } // end of line evaluation
+            case CALL -> Call.evaluate(this);
 
+            default -> throw new EvaluationException("Could not evaluate token " + currentToken);
+        }
+    }
 
-        return line;
+
+    /**
+     * Evaluates the current line by walking its syntax tree and leaves the result in the line,
+     * like the token-rewriting interpreter would
+     */
+    private void executeTree(Node tree) throws EvaluationException {
+        Token result = tree.evaluate(runtime);
+
+        // reuse the first token of the line to hold the result, the result may be one of the script's tokens
+        Token first = line.getFirst();
+        line.clear();
+
+        if (result != null) {
+            first.load(result);
+            first.setPrev(null);
+            first.setNext(null);
+            line.append(first);
+        }
     }
 }
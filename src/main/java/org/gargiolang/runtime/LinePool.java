@@ -0,0 +1,77 @@
+package org.gargiolang.runtime;
+
+import org.gargiolang.tokenizer.tokens.Token;
+import org.gargiolang.tokenizer.tokens.TokenLine;
+
+import java.util.Arrays;
+
+/**
+ * Scratch lines the Interpreter evaluates in place of the script's lines, which must never be modified.
+ * Lines are taken in stack order and released back to a mark all at once, so that executing the same
+ * code again (loops, goto, function calls) reuses the same tokens instead of copying the line every time
+ */
+final class LinePool {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_LINE_CAPACITY = 16;
+
+    private TokenLine[] lines;
+    private Token[][] buffers;
+
+    // number of lines in use
+    private int size;
+
+
+    LinePool() {
+        this.lines = new TokenLine[INITIAL_CAPACITY];
+        this.buffers = new Token[INITIAL_CAPACITY][];
+        this.size = 0;
+    }
+
+
+    /**
+     * Returns a scratch line holding a copy of the tokens from firstToken up until lastToken included.
+     * The line stays valid until it's released
+     *
+     * @param firstToken first token to copy, if null the returned line is empty
+     * @param lastToken last token to copy
+     * @return the scratch line
+     */
+    TokenLine load(Token firstToken, Token lastToken) {
+        if (size == lines.length) {
+            lines = Arrays.copyOf(lines, size * 2);
+            buffers = Arrays.copyOf(buffers, size * 2);
+        }
+
+        TokenLine line = lines[size];
+        if (line == null) {
+            line = new TokenLine();
+            lines[size] = line;
+            buffers[size] = new Token[INITIAL_LINE_CAPACITY];
+        }
+
+        buffers[size] = line.load(firstToken, lastToken, buffers[size]);
+        size ++;
+
+        return line;
+    }
+
+
+    /**
+     * Returns a mark to release the lines loaded from now on
+     */
+    int mark() {
+        return size;
+    }
+
+
+    /**
+     * Releases all the lines loaded after the given mark was taken, their tokens will be overwritten
+     *
+     * @param mark the mark returned by mark()
+     */
+    void release(int mark) {
+        size = mark;
+    }
+
+}
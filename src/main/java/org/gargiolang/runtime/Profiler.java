@@ -0,0 +1,279 @@
+package org.gargiolang.runtime;
+
+import org.gargiolang.runtime.function.Call;
+import org.gargiolang.runtime.function.Function;
+import org.gargiolang.tokenizer.tokens.TokenLine;
+import org.gargiolang.tokenizer.tokens.TokenType;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Records where a script spends its time: how many times every line is executed and for how long,
+ * how many times every function is called with its self and total time, and how many tokens of every type are dispatched.
+ *
+ * A line is counted every time the execution moves to it, whether from the previous line or by a jump (if, loops, calls),
+ * but not when a function returns to it. The clock is read every time the execution moves to another line and every time
+ * a function is entered or left, and the time since the previous reading is charged to the line that was being executed,
+ * in the function that was being executed. Time is therefore exclusive: a line that contains a loop or calls a function
+ * isn't charged for the lines it executes.
+ *
+ * Lines are reported by the file and the lines their statement has been read from, libraries included:
+ * a statement ends at its ';', so it may span several lines of the file (e.g. "} return x;").
+ * Only used when the script is run with -profile, see ProfilingInterpreter
+ */
+public final class Profiler {
+
+    private long[] lineCounts = new long[0];
+    private long[] lineNanos = new long[0];
+    // lines of the script, to find where their statements have been read from
+    private TokenLine[] lines = new TokenLine[0];
+
+    private final long[] dispatchCounts = new long[TokenType.values().length];
+
+    private final IdentityHashMap<Function, FunctionProfile> functions = new IdentityHashMap<>();
+
+    // calling context tree, its root is the script itself
+    private final Frame root = new Frame("script", null, null);
+    private Frame frame = root;
+
+    // line the time is being charged to, -1 before the script starts
+    private int line = -1;
+    private long last;
+
+
+    /**
+     * Prepares the profiler for the given lines of a script and starts the clock
+     */
+    public void start(List<TokenLine> tokens) {
+        int lines = tokens.size();
+        this.lines = tokens.toArray(new TokenLine[0]);
+        if (lines > lineCounts.length) {
+            long[] counts = new long[lines];
+            long[] nanos = new long[lines];
+            System.arraycopy(lineCounts, 0, counts, 0, lineCounts.length);
+            System.arraycopy(lineNanos, 0, nanos, 0, lineNanos.length);
+            lineCounts = counts;
+            lineNanos = nanos;
+        }
+        last = System.nanoTime();
+    }
+
+    /**
+     * Stops the clock once the script is over
+     */
+    public void stop() {
+        lap(-1);
+    }
+
+
+    /**
+     * Called whenever a line is being executed, the line is counted only if the execution has just moved to it
+     */
+    public void line(int lineIndex) {
+        if (lineIndex != line)
+            count(lineIndex);
+    }
+
+    private void count(int lineIndex) {
+        lap(lineIndex);
+        if (lineIndex < lineCounts.length)
+            lineCounts[lineIndex] ++;
+    }
+
+    public void dispatched(TokenType type) {
+        dispatchCounts[type.ordinal()] ++;
+    }
+
+
+    /**
+     * Called by the CallStack when a function is called, the function's code block starts executing
+     */
+    public void enter(Call call) {
+        Function function = call.getFunction();
+        // counted even if it's the line of the call, e.g. a one line function calling itself
+        count(function.getLineIndex());
+
+        FunctionProfile profile = functions.computeIfAbsent(function, FunctionProfile::new);
+        profile.calls ++;
+
+        frame = frame.callee(function);
+        frame.start = last;
+    }
+
+    /**
+     * Called by the CallStack when a function returns, the execution goes back to the line that called it
+     * without counting it again
+     */
+    public void exit(Call call) {
+        lap(call.getCalledFromLine());
+
+        // a recursive call is already part of the total time of the outermost call
+        Function function = call.getFunction();
+        boolean recursive = false;
+        for (Frame caller = frame.parent; caller != null; caller = caller.parent) {
+            if (caller.function == function) {
+                recursive = true;
+                break;
+            }
+        }
+        if (!recursive)
+            functions.get(function).total += last - frame.start;
+
+        frame = frame.parent;
+    }
+
+
+    /**
+     * Charges the time since the last reading to the current line and moves on to the given line
+     */
+    private void lap(int lineIndex) {
+        long now = System.nanoTime();
+        long elapsed = now - last;
+        last = now;
+
+        if (line != -1) {
+            if (line < lineNanos.length)
+                lineNanos[line] += elapsed;
+            frame.charge(line, elapsed);
+            if (frame.function != null)
+                functions.get(frame.function).self += elapsed;
+        }
+
+        line = lineIndex;
+    }
+
+
+    /**
+     * Writes the time of every line in every calling context as collapsed stacks, one per line:
+     * the frames separated by ';' followed by the nanoseconds spent, the format read by flame graph tools
+     */
+    public void writeCollapsedStacks(Path path) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            root.write(writer, root.name, this::position);
+        }
+    }
+
+
+    /**
+     * Prints the hottest lines, the functions and the dispatch counts
+     */
+    public void report(PrintStream out) {
+        // the statements on the same line of a file are reported together,
+        // the line is executed as many times as the statement executed the most, e.g. the condition of a for
+        LinkedHashMap<String, long[]> positions = new LinkedHashMap<>();
+        for (int lineIndex = 0; lineIndex != lineCounts.length; lineIndex++) {
+            if (lineCounts[lineIndex] == 0 && lineNanos[lineIndex] == 0)
+                continue;
+            long[] position = positions.computeIfAbsent(position(lineIndex), key -> new long[2]);
+            position[0] = Math.max(position[0], lineCounts[lineIndex]);
+            position[1] += lineNanos[lineIndex];
+        }
+        ArrayList<Map.Entry<String, long[]>> lines = new ArrayList<>(positions.entrySet());
+        lines.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+
+        out.println("\nhottest lines");
+        out.printf("%-24s %12s %12s%n", "line", "executions", "ms");
+        for (int index = 0; index != Math.min(lines.size(), 20); index++) {
+            Map.Entry<String, long[]> line = lines.get(index);
+            out.printf("%-24s %12d %12.3f%n", line.getKey(), line.getValue()[0], line.getValue()[1] / 1e6);
+        }
+
+        if (!functions.isEmpty()) {
+            ArrayList<FunctionProfile> profiles = new ArrayList<>(functions.values());
+            profiles.sort((a, b) -> Long.compare(b.total, a.total));
+
+            out.println("\nfunctions");
+            out.printf("%-20s %12s %12s %12s%n", "function", "calls", "self ms", "total ms");
+            for (FunctionProfile profile : profiles) {
+                out.printf("%-20s %12d %12.3f %12.3f%n", profile.function.getName(), profile.calls, profile.self / 1e6, profile.total / 1e6);
+            }
+        }
+
+        out.println("\ndispatched tokens");
+        for (TokenType type : TokenType.values()) {
+            if (dispatchCounts[type.ordinal()] != 0)
+                out.printf("%-20s %12d%n", type, dispatchCounts[type.ordinal()]);
+        }
+    }
+
+
+    /**
+     * Returns the file and the lines the statement of the given line has been read from, e.g. fib.gl:8 or fib.gl:4-6
+     */
+    private String position(int lineIndex) {
+        TokenLine tokenLine = lineIndex < lines.length ? lines[lineIndex] : null;
+        if (tokenLine == null || tokenLine.getSource() == null)
+            return "statement " + lineIndex;
+        if (tokenLine.getSourceLine() == tokenLine.getLastSourceLine())
+            return tokenLine.getSource() + ":" + tokenLine.getSourceLine();
+        return tokenLine.getSource() + ":" + tokenLine.getSourceLine() + "-" + tokenLine.getLastSourceLine();
+    }
+
+
+    private static final class FunctionProfile {
+
+        private final Function function;
+        private long calls;
+        // time spent in the function's own lines, and in the function and everything it called
+        private long self;
+        private long total;
+
+        private FunctionProfile(Function function) {
+            this.function = function;
+        }
+    }
+
+
+    /**
+     * A function in a calling context, with the time spent in each of its lines
+     */
+    private static final class Frame {
+
+        private final String name;
+        private final Function function;
+        private final Frame parent;
+
+        private final IdentityHashMap<Function, Frame> callees = new IdentityHashMap<>();
+        private final HashMap<Integer, long[]> lines = new HashMap<>();
+
+        // when the current call of the function started
+        private long start;
+
+        private Frame(String name, Function function, Frame parent) {
+            this.name = name;
+            this.function = function;
+            this.parent = parent;
+        }
+
+        private Frame callee(Function function) {
+            return callees.computeIfAbsent(function, callee -> new Frame(callee.getName(), callee, this));
+        }
+
+        private void charge(int lineIndex, long nanos) {
+            lines.computeIfAbsent(lineIndex, index -> new long[1])[0] += nanos;
+        }
+
+        private void write(PrintWriter writer, String stack, IntFunction<String> positions) {
+            for (Map.Entry<Integer, long[]> line : lines.entrySet()) {
+                writer.append(stack).append(';').append(positions.apply(line.getKey()));
+                writer.append(' ').println(line.getValue()[0]);
+            }
+            for (Frame callee : callees.values()) {
+                callee.write(writer, stack + ";" + callee.name, positions);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.gargiolang.runtime;
+
+import org.gargiolang.exception.evaluation.EvaluationException;
+import org.gargiolang.tokenizer.tokens.TokenLine;
+import org.gargiolang.tokenizer.tokens.TokenType;
+
+import java.util.LinkedList;
+
+/**
+ * Interpreter that reports every line and every dispatched token to a Profiler. Lines are reported when they start
+ * and before every token is dispatched, so that the lines reached by a jump in the middle of a line are counted too.
+ * It's only instantiated when profiling is enabled, so the plain Interpreter pays nothing for it
+ */
+public final class ProfilingInterpreter extends Interpreter {
+
+    private final Profiler profiler;
+
+
+    public ProfilingInterpreter(Runtime runtime, LinkedList<TokenLine> tokens, Profiler profiler) {
+        super(runtime, tokens);
+        this.profiler = profiler;
+    }
+
+
+    @Override
+    public void execute() throws EvaluationException, ReflectiveOperationException {
+        profiler.start(getTokens());
+        try {
+            super.execute();
+        } finally {
+            profiler.stop();
+        }
+    }
+
+    @Override
+    public TokenLine executeLine() throws EvaluationException, ReflectiveOperationException {
+        profiler.line(getLineIndex());
+        return super.executeLine();
+    }
+
+    @Override
+    protected void dispatch(TokenType type) throws EvaluationException, ReflectiveOperationException {
+        // if, else, loops and calls move to another line without starting it
+        profiler.line(getLineIndex());
+        profiler.dispatched(type);
+        super.dispatch(type);
+    }
+
+}
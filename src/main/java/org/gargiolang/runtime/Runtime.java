@@ -6,24 +6,33 @@ import org.gargiolang.preprocessing.Preprocessor;
 import org.gargiolang.preprocessing.dependencies.Dependency;
 import org.gargiolang.environment.Environment;
 import org.gargiolang.tokenizer.Lexer;
+import org.gargiolang.tokenizer.StatementSource;
 import org.gargiolang.exception.GargioniException;
+import org.gargiolang.exception.evaluation.StackOverflowException;
 import org.gargiolang.runtime.function.CallStack;
 import org.gargiolang.runtime.function.FunctionTable;
+import org.gargiolang.runtime.lib.OutputSink;
+import org.gargiolang.runtime.variable.Resolver;
 import org.gargiolang.runtime.variable.SymbolTable;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.PrintStream;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
+/**
+ * The state of a script: its variables, functions, labels and call stack, the Environment it runs in and where it prints.
+ * Runtimes are independent of each other, so many can run scripts in the same process, and a Runtime can be reset
+ * to run another script, see RuntimePool
+ */
 public final class Runtime {
 
-    private static Runtime instance;
-
     private final LabelTable labelTable;
 
-    private final Stack<Integer> gotoStack;
+    // line indices goto has been called from
+    private final IntStack gotoStack;
 
     private final CallStack callStack;
 
@@ -33,19 +42,44 @@ public final class Runtime {
 
     private final SymbolTable symbolTable;
 
+    // sink of System.out the Runtime prints to unless it's given another output, created once with the Runtime
+    private final OutputSink stdout = new OutputSink(System.out);
+    // where the script prints, written at least when the script is over
+    private OutputSink out = stdout;
+
+    // statements of the interactive shell
     private final LinkedList<String> statements;
 
+    // code blocks of the script that is being executed, linked before it's executed
+    private BlockTable blockTable;
+
+    // the script is read lazily when the program is run
+    private Path script;
+
     private final List<Dependency> loadedDependencies = new ArrayList<>();
 
+    // whether lines are evaluated as syntax trees when possible, see Interpreter
+    private boolean treeMode = false;
 
-    public Runtime(Environment environment) {
-        instance = this;
+    // whether the tokens are printed before being interpreted
+    private boolean dumpTokens = false;
+
+    // whether the statements are tokenized in parallel, see Lexer.tokenize(ForkJoinPool)
+    private boolean parallelLexing = false;
+
+    // tokens of the scripts that have already been lexed, null if scripts are always lexed
+    private ScriptCache cache;
+
+    // records where the script spends its time, null if the script isn't profiled
+    private Profiler profiler;
 
+
+    public Runtime(Environment environment) {
         this.environment = environment;
         this.symbolTable = new SymbolTable();
         this.statements = new LinkedList<>();
         this.labelTable = new LabelTable();
-        this.gotoStack = new Stack<>();
+        this.gotoStack = new IntStack();
         this.callStack = new CallStack();
         this.functionTable = new FunctionTable();
     }
@@ -58,13 +92,7 @@ public final class Runtime {
             throw new GargioniException("The specified file couldn't be found (" + scriptName + ").");
         }
 
-        final byte[] bytes = Files.readAllBytes(Path.of(file.getPath()));
-        StringBuilder builder = new StringBuilder();
-        for (byte aByte : bytes) {
-            builder.append((char) aByte);
-        }
-
-        this.statements.addAll(Arrays.asList(builder.toString().split(";")));
+        this.script = Path.of(file.getPath());
     }
 
 
@@ -74,15 +102,114 @@ public final class Runtime {
 
 
     public void run() throws GargioniException, ReflectiveOperationException, IOException {
+        run(loadTokens(true));
+    }
+
 
-        Preprocessor.process(statements);
+    /**
+     * Runs lines that have already been tokenized by this runtime, e.g. by tokenize()
+     */
+    public void run(LinkedList<TokenLine> tokens) throws GargioniException, ReflectiveOperationException {
 
-        LinkedList<TokenLine> tokens = new Lexer(statements, this).tokenize();
+        // bind variable references to their scope slots
+        Resolver.resolve(tokens);
 
-        System.out.println(tokens);
+        // pair the scopes and link the gotos to their labels
+        blockTable = BlockTable.link(tokens, labelTable);
 
-        Interpreter interpreter = new Interpreter(this, tokens);
-        interpreter.execute();
+        execute(tokens);
+    }
+
+
+    /**
+     * Runs a script compiled by any Runtime, its tokens are shared and not modified
+     */
+    public void run(CompiledScript script) throws GargioniException, ReflectiveOperationException {
+        for (Map.Entry<String, Integer> label : script.getLabels().entrySet()) {
+            labelTable.putLabel(label.getKey(), label.getValue());
+        }
+        blockTable = script.getBlockTable();
+
+        execute(script.getTokens());
+    }
+
+
+    /**
+     * Tokenizes, resolves and links the loaded statements once, so that they can be run many times
+     */
+    public CompiledScript compile() throws GargioniException, IOException {
+        LinkedList<TokenLine> tokens = loadTokens(true);
+        Resolver.resolve(tokens);
+        return new CompiledScript(tokens, new HashMap<>(labelTable.getLabels()), BlockTable.link(tokens, labelTable));
+    }
+
+
+    private void execute(LinkedList<TokenLine> tokens) throws GargioniException, ReflectiveOperationException {
+        if (dumpTokens)
+            System.out.println(tokens);
+
+        // the instrumented interpreter is only used when profiling
+        Interpreter interpreter = profiler == null ? new Interpreter(this, tokens) : new ProfilingInterpreter(this, tokens, profiler);
+        try {
+            interpreter.execute();
+        } catch (StackOverflowError e) {
+            // loops execute their bodies on the Java stack, so a recursion through a loop body can run out of it before the maximum depth is reached
+            throw new StackOverflowException("Stack overflow: the Java stack ran out after " + callStack.depth() + " nested calls");
+        } finally {
+            out.flush();
+        }
+    }
+
+
+    /**
+     * Tokenizes the loaded statements. The tokens of a script are read from the cache, if it's enabled
+     * and the script hasn't changed, otherwise they are stored in the cache once lexed
+     *
+     * @param preprocess whether the statements go through the Preprocessor
+     */
+    public LinkedList<TokenLine> loadTokens(boolean preprocess) throws GargioniException, IOException {
+        // null if the tokens are not cached
+        String key = null;
+        if (cache != null && script != null) {
+            key = cache.key(script, preprocess, environment);
+            LinkedList<TokenLine> tokens = cache.load(key, labelTable);
+            if (tokens != null)
+                return tokens;
+        }
+
+        // the file of the script is closed even if it can't be read or tokenized
+        try (StatementSource statements = getStatements()) {
+            Preprocessor preprocessor = preprocess ? new Preprocessor(statements, environment) : null;
+            LinkedList<TokenLine> tokens = tokenize(preprocess ? preprocessor : statements);
+            if (key != null)
+                cache.store(key, preprocess ? preprocessor.getIncludes() : List.of(), tokens, labelTable);
+            return tokens;
+        }
+    }
+
+
+    public LinkedList<TokenLine> tokenize(StatementSource statements) throws GargioniException, IOException {
+        Lexer lexer = new Lexer(statements, this);
+        if (parallelLexing)
+            return lexer.tokenize(ForkJoinPool.commonPool());
+        return lexer.tokenize();
+    }
+
+
+    /**
+     * Forgets the loaded script and everything it declared, so that the runtime can run another script.
+     * The settings, the Environment and the output are kept, and the tables keep their memory to be reused
+     */
+    public void reset() {
+        symbolTable.clear();
+        functionTable.clear();
+        labelTable.clear();
+        gotoStack.clear();
+        callStack.clear();
+        statements.clear();
+        loadedDependencies.clear();
+        blockTable = null;
+        script = null;
     }
 
 
@@ -92,19 +219,67 @@ public final class Runtime {
         return symbolTable;
     }
 
-    public static Runtime getRuntime() {
-        return instance;
+    public Environment getEnvironment() {
+        return environment;
+    }
+
+    public OutputSink getOut() {
+        return out;
+    }
+
+    public void setOut(OutputSink out) {
+        this.out = out;
+    }
+
+    public void setOut(PrintStream out) {
+        this.out = new OutputSink(out);
+    }
+
+    /**
+     * Prints to System.out again, through the sink the Runtime has had since it was created
+     */
+    public void resetOut() {
+        this.out = stdout;
+    }
+
+    public boolean isTreeMode() {
+        return treeMode;
+    }
+
+    public void setTreeMode(boolean treeMode) {
+        this.treeMode = treeMode;
+    }
+
+    public void setDumpTokens(boolean dumpTokens) {
+        this.dumpTokens = dumpTokens;
+    }
+
+    public void setParallelLexing(boolean parallelLexing) {
+        this.parallelLexing = parallelLexing;
+    }
+
+    public void setCache(ScriptCache cache) {
+        this.cache = cache;
+    }
+
+    public void setProfiler(Profiler profiler) {
+        this.profiler = profiler;
+        this.callStack.setProfiler(profiler);
     }
 
     public List<Dependency> getLoadedDependencies() {
         return loadedDependencies;
     }
 
+    public BlockTable getBlockTable() {
+        return blockTable;
+    }
+
     public LabelTable getLabelTable() {
         return labelTable;
     }
 
-    public Stack<Integer> getGotoStack() {
+    public IntStack getGotoStack() {
         return gotoStack;
     }
 
@@ -116,7 +291,13 @@ public final class Runtime {
         return callStack;
     }
 
-    public LinkedList<String> getStatements() {
-        return statements;
+    /**
+     * Returns the statements of the loaded script, read from the file as they are requested,
+     * or the statements of the interactive shell if no script is loaded. The caller closes the returned source
+     */
+    public StatementSource getStatements() throws IOException {
+        if (script != null)
+            return new StatementReader(script);
+        return StatementSource.of(statements);
     }
 }
@@ -0,0 +1,85 @@
+package org.gargiolang.runtime;
+
+import org.gargiolang.environment.Environment;
+import org.gargiolang.exception.GargioniException;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Keeps warm Runtimes to run many scripts in the same process without paying for new tables every time.
+ * A Runtime is used by one script at a time: it's acquired, runs its script and is reset when it's released.
+ * Safe to use from many threads, Runtimes are created when none is idle and dropped when the pool is full
+ */
+public final class RuntimePool {
+
+    private final Environment environment;
+
+    // applied to every new Runtime, e.g. to enable the tree mode
+    private final Consumer<Runtime> settings;
+
+    private final ArrayBlockingQueue<Runtime> idle;
+
+
+    public RuntimePool(Environment environment, int capacity) {
+        this(environment, capacity, runtime -> {});
+    }
+
+    public RuntimePool(Environment environment, int capacity, Consumer<Runtime> settings) {
+        this.environment = environment;
+        this.settings = settings;
+        this.idle = new ArrayBlockingQueue<>(capacity);
+    }
+
+
+    /**
+     * Returns an idle Runtime, or a new one if every Runtime is in use
+     */
+    public Runtime acquire() {
+        Runtime runtime = idle.poll();
+        if (runtime != null)
+            return runtime;
+
+        runtime = new Runtime(environment);
+        settings.accept(runtime);
+        return runtime;
+    }
+
+    /**
+     * Resets the given Runtime and keeps it for the next script, unless the pool is full.
+     * The Runtime must not be used after it's been released
+     */
+    public void release(Runtime runtime) {
+        runtime.reset();
+        runtime.resetOut();
+        idle.offer(runtime);
+    }
+
+
+    /**
+     * Runs the given script on a Runtime of the pool
+     *
+     * @param script the path of the script
+     * @param out where the script prints
+     */
+    public void execute(String script, PrintStream out) throws GargioniException, ReflectiveOperationException, IOException {
+        Runtime runtime = acquire();
+        try {
+            runtime.setOut(out);
+            runtime.loadScript(script);
+            runtime.run();
+        } finally {
+            release(runtime);
+        }
+    }
+
+    /**
+     * Number of Runtimes waiting to be acquired
+     */
+    public int idleCount() {
+        return idle.size();
+    }
+
+}
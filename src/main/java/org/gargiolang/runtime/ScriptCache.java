@@ -0,0 +1,299 @@
+package org.gargiolang.runtime;
+
+import org.gargiolang.environment.Environment;
+import org.gargiolang.exception.GargioniException;
+import org.gargiolang.runtime.variable.Variable;
+import org.gargiolang.tokenizer.LabelTable;
+import org.gargiolang.tokenizer.NamePool;
+import org.gargiolang.tokenizer.tokens.*;
+import org.gargiolang.tokenizer.tokens.operators.ArithmeticOperator;
+import org.gargiolang.tokenizer.tokens.operators.LogicalOperator;
+import org.gargiolang.tokenizer.tokens.operators.Parenthesis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * On disk cache of the tokens of scripts, so that a script that hasn't changed is neither preprocessed nor lexed again.
+ *
+ * Entries are named after the SHA-256 of the script, of the variables of the Environment (they decide the #ifdef)
+ * and of whether the script is preprocessed. Every entry lists the files it included with their hash:
+ * the entry is stale as soon as one of them changes.
+ *
+ * An entry is made of the included files, a table of all the strings, the labels and the lines of tokens,
+ * each with the file and the lines it has been read from.
+ * Tokens are stored as their type followed by their value, names are interned again when they are read
+ */
+public final class ScriptCache {
+
+    private static final int MAGIC = 0x47617267; // "Garg"
+    private static final int VERSION = 2;
+
+    // values() copies the array every time it's called
+    private static final TokenType[] tokenTypes = TokenType.values();
+    private static final Variable.Type[] types = Variable.Type.values();
+    private static final Keyword[] keywords = Keyword.values();
+    private static final Scope[] scopes = Scope.values();
+    private static final Call[] calls = Call.values();
+    private static final Parenthesis[] parentheses = Parenthesis.values();
+    private static final LogicalOperator[] logicalOperators = LogicalOperator.values();
+    private static final ArithmeticOperator[] arithmeticOperators = ArithmeticOperator.values();
+
+    private final Path directory;
+
+
+    public ScriptCache(Path directory) {
+        this.directory = directory;
+    }
+
+
+    /**
+     * Returns the name of the entry of the script
+     */
+    public String key(Path script, boolean preprocessed, Environment environment) throws IOException {
+        MessageDigest digest = digest();
+        digest.update((byte) VERSION);
+        digest.update((byte) (preprocessed ? 1 : 0));
+
+        // the order of the variables must not change the key
+        for (Map.Entry<String, String> variable : new TreeMap<>(environment.getVariables()).entrySet()) {
+            digest.update(variable.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '=');
+            digest.update(String.valueOf(variable.getValue()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+
+        update(digest, script);
+        return hex(digest.digest());
+    }
+
+
+    /**
+     * Reads the entry, the labels are added to the table only if the entry is valid
+     *
+     * @return the lines of tokens or null if there's no valid entry
+     */
+    public LinkedList<TokenLine> load(String key, LabelTable labelTable) throws GargioniException, IOException {
+        Path entry = directory.resolve(key);
+        if (!Files.isRegularFile(entry))
+            return null;
+
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                return null;
+
+            // the entry is stale if an included file changed
+            int includes = buffer.getInt();
+            for (int include = 0; include != includes; include++) {
+                Path path = Path.of(string(buffer));
+                byte[] hash = new byte[32];
+                buffer.get(hash);
+                if (!Files.isRegularFile(path) || !Arrays.equals(hash, hash(path)))
+                    return null;
+            }
+
+            // names are interned as if they were just lexed
+            String[] strings = new String[buffer.getInt()];
+            for (int index = 0; index != strings.length; index++) {
+                strings[index] = NamePool.intern(string(buffer));
+            }
+
+            int labelCount = buffer.getInt();
+            String[] labels = new String[labelCount];
+            int[] labelLines = new int[labelCount];
+            for (int index = 0; index != labelCount; index++) {
+                labels[index] = strings[buffer.getInt()];
+                labelLines[index] = buffer.getInt();
+            }
+
+            LinkedList<TokenLine> tokens = new LinkedList<>();
+            for (int lines = buffer.getInt(); lines != 0; lines--) {
+                TokenLine line = new TokenLine();
+                int source = buffer.getInt();
+                line.setSource(source == -1 ? null : strings[source], buffer.getInt(), buffer.getInt());
+                for (int count = buffer.getInt(); count != 0; count--) {
+                    line.append(token(buffer, strings));
+                }
+                tokens.add(line);
+            }
+
+            for (int index = 0; index != labelCount; index++) {
+                labelTable.putLabel(labels[index], labelLines[index]);
+            }
+            return tokens;
+
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            // a truncated or corrupted entry is just missing
+            return null;
+        }
+    }
+
+
+    /**
+     * Writes the entry, replacing the previous one atomically
+     */
+    public void store(String key, List<Path> includes, LinkedList<TokenLine> tokens, LabelTable labelTable) throws IOException {
+        // strings are written once, tokens refer to them by index
+        LinkedHashMap<String, Integer> strings = new LinkedHashMap<>();
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+
+        Map<String, Integer> labels = labelTable.getLabels();
+        out.writeInt(labels.size());
+        for (Map.Entry<String, Integer> label : labels.entrySet()) {
+            out.writeInt(index(strings, label.getKey()));
+            out.writeInt(label.getValue());
+        }
+
+        out.writeInt(tokens.size());
+        for (TokenLine line : tokens) {
+            // file and lines of the statement, -1 if the file is unknown
+            out.writeInt(line.getSource() == null ? -1 : index(strings, line.getSource()));
+            out.writeInt(line.getSourceLine());
+            out.writeInt(line.getLastSourceLine());
+            out.writeInt(line.size());
+            for (Token token = line.getFirst(); token != null; token = token.getNext()) {
+                write(out, token, strings);
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.size() + 1024);
+        DataOutputStream header = new DataOutputStream(bytes);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(includes.size());
+        for (Path include : includes) {
+            write(header, include.toString());
+            header.write(hash(include));
+        }
+        header.writeInt(strings.size());
+        for (String string : strings.keySet()) {
+            write(header, string);
+        }
+        body.writeTo(bytes);
+
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, key, ".tmp");
+        Files.write(temporary, bytes.toByteArray());
+        Files.move(temporary, directory.resolve(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    private static void write(DataOutputStream out, Token token, Map<String, Integer> strings) throws IOException {
+        TokenType type = token.getType();
+        Object value = token.getValue();
+        out.writeByte(type.ordinal());
+
+        switch (type)
+        {
+            case TXT, FUNC, STR -> out.writeInt(index(strings, (String) value));
+            case NUM -> {
+                if (value instanceof Integer) {
+                    out.writeByte(0);
+                    out.writeInt((Integer) value);
+                } else {
+                    out.writeByte(1);
+                    out.writeDouble((Double) value);
+                }
+            }
+            case BOOL -> out.writeBoolean((Boolean) value);
+            case TYPE, KEYWORD, SCOPE, CALL, PAREN, LOGICAL_OPERATOR, ARITHMETIC_OPERATOR -> out.writeByte(((Enum<?>) value).ordinal());
+            // NULL has no value, ASSIGNMENT_OPERATOR is always '='
+            case NULL, ASSIGNMENT_OPERATOR -> {
+            }
+        }
+    }
+
+    private static Token token(ByteBuffer buffer, String[] strings) {
+        TokenType type = tokenTypes[buffer.get()];
+
+        Object value = switch (type)
+        {
+            case TXT, FUNC, STR -> strings[buffer.getInt()];
+            case NUM -> buffer.get() == 0 ? (Object) buffer.getInt() : (Object) buffer.getDouble();
+            case BOOL -> buffer.get() != 0;
+            case TYPE -> types[buffer.get()];
+            case KEYWORD -> keywords[buffer.get()];
+            case SCOPE -> scopes[buffer.get()];
+            case CALL -> calls[buffer.get()];
+            case PAREN -> parentheses[buffer.get()];
+            case LOGICAL_OPERATOR -> logicalOperators[buffer.get()];
+            case ARITHMETIC_OPERATOR -> arithmeticOperators[buffer.get()];
+            case ASSIGNMENT_OPERATOR -> '=';
+            case NULL -> null;
+        };
+
+        return new Token(type, value);
+    }
+
+
+    private static int index(Map<String, Integer> strings, String string) {
+        return strings.computeIfAbsent(string, s -> strings.size());
+    }
+
+    private static void write(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    private static byte[] hash(Path path) throws IOException {
+        MessageDigest digest = digest();
+        update(digest, path);
+        return digest.digest();
+    }
+
+    private static void update(MessageDigest digest, Path path) throws IOException {
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(path)) {
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            stringBuilder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return stringBuilder.toString();
+    }
+
+}
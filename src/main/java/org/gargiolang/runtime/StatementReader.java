@@ -0,0 +1,141 @@
+package org.gargiolang.runtime;
+
+import org.gargiolang.tokenizer.StatementSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the statements of a script, separated by ';', as they are needed.
+ * The file is decoded as UTF-8 through fixed size buffers, so only the statement being read is kept in memory.
+ * The file is closed once it's been read to the end, the reader must be closed anyway in case reading fails
+ */
+public final class StatementReader implements StatementSource {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final CharsetDecoder decoder;
+    // name of the file, null if the channel isn't a file
+    private final String name;
+
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+
+    // the statement that is being read
+    private final StringBuilder statement;
+
+    // line that is being read, the line the statement being read starts on and the one the last returned statement starts on
+    private int line = 1;
+    private int statementLine = 1;
+    private int lastLine;
+
+    // whether the whole file has been decoded, and whether the last statement has been returned
+    private boolean drained;
+    private boolean ended;
+
+
+    public StatementReader(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ), path.getFileName().toString());
+    }
+
+    public StatementReader(ReadableByteChannel channel) {
+        this(channel, null);
+    }
+
+    private StatementReader(ReadableByteChannel channel, String name) {
+        this.channel = channel;
+        this.name = name;
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        this.chars = CharBuffer.allocate(BUFFER_SIZE);
+        this.chars.flip(); // nothing to read yet
+        this.statement = new StringBuilder();
+    }
+
+
+    @Override
+    public String next() throws IOException {
+        if (ended)
+            return null;
+
+        while (true) {
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (c == ';')
+                    return take();
+                if (c == '\n')
+                    line++;
+                statement.append(c);
+            }
+
+            if (!fill()) {
+                ended = true;
+                close();
+                // like String.split(), text after the last ';' is a statement only if it's not empty
+                return statement.length() == 0 ? null : take();
+            }
+        }
+    }
+
+    private String take() {
+        String taken = statement.toString();
+        statement.setLength(0);
+        // the next statement starts right after the ';'
+        lastLine = statementLine;
+        statementLine = line;
+        return taken;
+    }
+
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int line() {
+        return lastLine;
+    }
+
+    /**
+     * Decodes the next chunk of the file
+     *
+     * @return false once the whole file has been decoded
+     */
+    private boolean fill() throws IOException {
+        if (drained)
+            return false;
+        chars.clear();
+
+        boolean endOfInput = channel.read(bytes) == -1;
+        bytes.flip();
+        // a character split between two chunks stays in the byte buffer until the rest of it is read
+        decoder.decode(bytes, chars, endOfInput);
+        if (endOfInput) {
+            decoder.flush(chars);
+            drained = true;
+        }
+        bytes.compact();
+
+        chars.flip();
+        return chars.hasRemaining() || !endOfInput;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -3,20 +3,25 @@ package org.gargiolang.runtime.function;
 import org.gargiolang.tokenizer.tokens.Token;
 import org.gargiolang.tokenizer.tokens.TokenLine;
 
+/**
+ * Frame of a function call, frames are reused by the CallStack
+ */
 public class Call {
 
-    private final int calledFromLine;
-    private final Token calledFromToken;
-    private final int scopeCount;
-    private final Function function;
-    private final TokenLine lineState;
+    private int calledFromLine;
+    private Token calledFromToken;
+    private int scopeCount;
+    private Function function;
+    private TokenLine lineState;
+    private int scratchBase;
 
-    public Call(Token calledFromToken, int calledFromLine, int scopeCount, Function function, TokenLine lineState) {
+    void set(Token calledFromToken, int calledFromLine, int scopeCount, Function function, TokenLine lineState, int scratchBase) {
         this.calledFromToken = calledFromToken;
         this.calledFromLine = calledFromLine;
         this.scopeCount = scopeCount;
         this.function = function;
         this.lineState = lineState;
+        this.scratchBase = scratchBase;
     }
 
     public Function getFunction() {
@@ -38,4 +43,8 @@ public class Call {
     public TokenLine getLineState() {
         return lineState;
     }
+
+    public int getScratchBase() {
+        return scratchBase;
+    }
 }
@@ -1,25 +1,114 @@
 package org.gargiolang.runtime.function;
 
 import org.gargiolang.exception.evaluation.EmptyCallStackException;
+import org.gargiolang.exception.evaluation.StackOverflowException;
+import org.gargiolang.runtime.Profiler;
+import org.gargiolang.tokenizer.tokens.Token;
+import org.gargiolang.tokenizer.tokens.TokenLine;
 
-import java.util.Stack;
-
+/**
+ * Array of the frames of the functions being executed. Frames are reused by the calls made at the same depth,
+ * so calling a function doesn't allocate once the stack has been that deep
+ */
 public class CallStack {
 
-    private final Stack<Call> callStack;
+    /** default maximum number of nested calls, e.g. for a recursion that never ends */
+    public static final int DEFAULT_MAX_DEPTH = 10_000;
+
+    private Call[] frames;
+    private int size;
+
+    private int maxDepth;
+
+    // notified of every call and return, null if the script isn't profiled
+    private Profiler profiler;
 
     public CallStack() {
-        this.callStack = new Stack<>();
+        this.frames = new Call[16];
+        this.size = 0;
+        this.maxDepth = DEFAULT_MAX_DEPTH;
     }
 
-    public void push(Call call) {
-        this.callStack.push(call);
+    /**
+     * Pushes the frame of a new call, the returned frame stays valid until it's popped
+     *
+     * @throws StackOverflowException if the maximum depth is exceeded
+     */
+    public Call push(Token calledFromToken, int calledFromLine, int scopeCount, Function function, TokenLine lineState, int scratchBase) throws StackOverflowException {
+        if (size == maxDepth)
+            throw new StackOverflowException("Stack overflow: more than " + maxDepth + " nested calls, the last one to " + function.getName());
+
+        if (size == frames.length) {
+            Call[] newFrames = new Call[Math.min(frames.length * 2, maxDepth)];
+            System.arraycopy(frames, 0, newFrames, 0, frames.length);
+            frames = newFrames;
+        }
+
+        Call call = frames[size];
+        if (call == null) {
+            call = new Call();
+            frames[size] = call;
+        }
+        size ++;
+
+        call.set(calledFromToken, calledFromLine, scopeCount, function, lineState, scratchBase);
+        if (profiler != null)
+            profiler.enter(call);
+        return call;
     }
 
+    /**
+     * Pops the frame of the innermost call, the frame is valid until the next push
+     */
     public Call pop() throws EmptyCallStackException {
-        if (callStack.isEmpty())
+        if (size == 0)
             throw new EmptyCallStackException("Cannot pop from call stack: it's empty");
-        return this.callStack.pop();
+        Call call = frames[-- size];
+        if (profiler != null)
+            profiler.exit(call);
+        return call;
+    }
+
+    /**
+     * Returns the frame of the innermost call, null if no function is being executed
+     */
+    public Call peek() {
+        return size == 0 ? null : frames[size - 1];
+    }
+
+    /**
+     * Reuses the frame of the innermost call for a tail call of the same function, so the stack doesn't grow
+     */
+    public Call reuse() throws EmptyCallStackException {
+        if (size == 0)
+            throw new EmptyCallStackException("Cannot reuse the innermost frame: the call stack is empty");
+        Call call = frames[size - 1];
+        // to the profiler it's a return followed by a new call
+        if (profiler != null) {
+            profiler.exit(call);
+            profiler.enter(call);
+        }
+        return call;
+    }
+
+    public int depth() {
+        return size;
+    }
+
+    /**
+     * Drops every call, e.g. those left by a script that has been interrupted by an exception.
+     * The frames are kept to be reused
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public void setProfiler(Profiler profiler) {
+        this.profiler = profiler;
     }
 
 }
@@ -12,23 +12,24 @@ import java.util.LinkedList;
 
 public class Function {
 
+    private final String name;
     private final int lineIndex;
     private final LinkedList<Parameter> params;
     private final Variable.Type returnType;
     private final Token startingToken;
 
-    public Function(int lineIndex, Token startingToken, LinkedList<Parameter> params, Variable.Type returnType) {
+    public Function(String name, int lineIndex, Token startingToken, LinkedList<Parameter> params, Variable.Type returnType) {
+        this.name = name;
         this.lineIndex = lineIndex;
         this.startingToken = startingToken;
         this.params = params;
         this.returnType = returnType;
     }
 
-    public void call(Interpreter interpreter, LinkedList<Variable> args) throws InvalidArgumentsException, BadTypeException, VariableRedeclarationException, IndexOutOfBoundsException {
+    public void call(Interpreter interpreter, LinkedList<Variable> args) throws InvalidArgumentsException, StackOverflowException, BadTypeException, VariableRedeclarationException, IndexOutOfBoundsException {
 
         /*
-            - create new Call (store info about the current interpreter state)
-            - push the new Call to the CallStack
+            - push a new Call to the CallStack (store info about the current interpreter state)
             - push new Scope
             - initialize parameters (if any)
             - set line execution to the function's code block (not pushing a new Scope)
@@ -37,27 +38,65 @@ public class Function {
         Runtime runtime = interpreter.getRuntime();
 
 
-        // create new Call --> store info about the current interpreter state
-        Call call = new Call(
+        // push a new Call to the call stack --> store info about the current interpreter state
+        runtime.getCallStack().push(
                 interpreter.getCurrentToken(),
                 interpreter.getLineIndex(),
                 runtime.getSymbolTable().scopeCount(),
                 this,
-                interpreter.getLine()
+                interpreter.getLine(),
+                // the line the function is called from must not be overwritten while the function is executed
+                interpreter.pinScratch()
             );
 
 
-        // push call to the call stack
-        runtime.getCallStack().push(call);
-
-
         // push new scope to the stack
         SymbolTable symbolTable = runtime.getSymbolTable();
         symbolTable.pushScope();
 
 
         // initialize parameters (if any)
+        bindParameters(symbolTable, args);
+
+
+        // set line execution to the function's code block (not including the Scope)
+        interpreter.setLineFrom(lineIndex, startingToken.getNext());
+
+    }
+
+
+    /**
+     * Calls the function from its own code block in tail position: return f(...).
+     * The frame of the current call is reused and the parameters are bound again in a fresh scope,
+     * so the call stack doesn't grow however deep the recursion goes
+     */
+    public void tailCall(Interpreter interpreter, LinkedList<Variable> args) throws InvalidArgumentsException, EmptyCallStackException, BadTypeException, VariableRedeclarationException, IndexOutOfBoundsException {
+
+        /*
+            - reuse the Call on top of the CallStack, the caller's state is already stored there
+            - pop the scopes of the current call, including the one of its parameters
+            - push a new Scope and initialize the parameters
+            - set line execution to the function's code block
+         */
+
+        Runtime runtime = interpreter.getRuntime();
+        Call call = runtime.getCallStack().reuse();
+
+        // arguments have already been evaluated, the current scopes aren't needed anymore
+        SymbolTable symbolTable = runtime.getSymbolTable();
+        symbolTable.popScopes(symbolTable.scopeCount() - call.getScopeCount());
+        symbolTable.pushScope();
+
+        bindParameters(symbolTable, args);
+
+        interpreter.setLineFrom(lineIndex, startingToken.getNext());
+    }
+
 
+    /**
+     * Declares the parameters in the innermost scope, initialized with the given arguments
+     */
+    private void bindParameters(SymbolTable symbolTable, LinkedList<Variable> args) throws InvalidArgumentsException, BadTypeException, VariableRedeclarationException {
         // ensure argument count matches parameter count
         if (args.size() != params.size())
             throw new InvalidArgumentsException("Argument count (" + args.size() + ") does not match parameter count (" + params.size() + ")");
@@ -73,13 +112,16 @@ public class Function {
             // initialize parameter
             symbolTable.addVariable(param.getName(), arg);
         }
+    }
 
 
-        // set line execution to the function's code block (not including the Scope)
-        interpreter.setLineFrom(lineIndex, startingToken.getNext());
-
+    public String getName() {
+        return name;
     }
 
+    public int getLineIndex() {
+        return lineIndex;
+    }
 
     public Variable.Type getReturnType() {
         return returnType;
@@ -87,7 +129,7 @@ public class Function {
 
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append("<Function: ").append(returnType).append(" (");
+        stringBuilder.append("<Function: ").append(returnType).append(" ").append(name).append(" (");
 
         params.forEach(param -> stringBuilder.append(param.getType()).append(" ").append(param.getName()).append(", "));
 
@@ -26,4 +26,8 @@ public class FunctionTable {
         return function;
     }
 
+    public void clear() {
+        this.functionTable.clear();
+    }
+
 }
@@ -0,0 +1,137 @@
+package org.gargiolang.runtime.lib;
+
+import org.gargiolang.exception.evaluation.InvalidArgumentsException;
+import org.gargiolang.exception.evaluation.UndefinedFunctionException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.runtime.variable.Variable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Table of the native functions that can be called with the system keyword.
+ * Functions are registered once, when the class is loaded, and are addressed by their index:
+ * the Resolver links every system call of the script to its function, so calling it costs an array access.
+ * Every function has a fixed arity, so its arguments are passed directly rather than in a list,
+ * along with the Runtime of the script that calls it
+ */
+public final class NativeTable {
+
+    @FunctionalInterface
+    public interface Nullary {
+        Object call(Runtime runtime);
+    }
+
+    @FunctionalInterface
+    public interface Unary {
+        Object call(Runtime runtime, Object a);
+    }
+
+    @FunctionalInterface
+    public interface Binary {
+        Object call(Runtime runtime, Object a, Object b);
+    }
+
+
+    private static final ArrayList<Native> natives = new ArrayList<>();
+    private static final HashMap<String, Integer> indices = new HashMap<>();
+
+    static {
+        register("print", Variable.Type.NULL, (Unary) (runtime, message) -> {
+            System.print(runtime, message);
+            return null;
+        });
+        register("flush", Variable.Type.NULL, (Nullary) runtime -> {
+            System.flush(runtime);
+            return null;
+        });
+        register("currentTime", Variable.Type.INT, (Nullary) System::currentTime);
+        register("currentNanos", Variable.Type.INT, (Nullary) System::currentNanos);
+        register("getProperty", Variable.Type.STRING, (Unary) System::getProperty);
+        register("getEnv", Variable.Type.STRING, (Unary) System::getEnv);
+    }
+
+
+    private NativeTable() {
+
+    }
+
+
+    private static void register(String name, Variable.Type type, Object function) {
+        indices.put(name, natives.size());
+        natives.add(new Native(name, type, function));
+    }
+
+
+    /**
+     * Returns the index of the native function with the given name, -1 if there's none
+     */
+    public static int indexOf(String name) {
+        return indices.getOrDefault(name, -1);
+    }
+
+    public static Native get(int index) {
+        return natives.get(index);
+    }
+
+    /**
+     * Looks up a function by name, for the system calls whose name is only known at runtime
+     */
+    public static Native get(String name) throws UndefinedFunctionException {
+        int index = indexOf(name);
+        if (index == -1)
+            throw new UndefinedFunctionException("System function is not defined: " + name);
+        return natives.get(index);
+    }
+
+
+    /**
+     * A native function with its arity and the type of its result (NULL if it doesn't return anything)
+     */
+    public static final class Native {
+
+        public final String name;
+        public final Variable.Type type;
+        public final int arity;
+
+        // only the interface that matches the arity is set
+        private final Nullary nullary;
+        private final Unary unary;
+        private final Binary binary;
+
+
+        private Native(String name, Variable.Type type, Object function) {
+            this.name = name;
+            this.type = type;
+            this.nullary = function instanceof Nullary ? (Nullary) function : null;
+            this.unary = function instanceof Unary ? (Unary) function : null;
+            this.binary = function instanceof Binary ? (Binary) function : null;
+            this.arity = nullary != null ? 0 : unary != null ? 1 : 2;
+        }
+
+
+        public Object call(Runtime runtime) throws InvalidArgumentsException {
+            if (nullary == null)
+                throw arityMismatch(0);
+            return nullary.call(runtime);
+        }
+
+        public Object call(Runtime runtime, Object a) throws InvalidArgumentsException {
+            if (unary == null)
+                throw arityMismatch(1);
+            return unary.call(runtime, a);
+        }
+
+        public Object call(Runtime runtime, Object a, Object b) throws InvalidArgumentsException {
+            if (binary == null)
+                throw arityMismatch(2);
+            return binary.call(runtime, a, b);
+        }
+
+        private InvalidArgumentsException arityMismatch(int count) {
+            return new InvalidArgumentsException("System function " + name + " takes " + arity + " arguments, but " + count + " were provided");
+        }
+
+    }
+
+}
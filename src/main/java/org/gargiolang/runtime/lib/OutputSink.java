@@ -0,0 +1,146 @@
+package org.gargiolang.runtime.lib;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Where a Runtime prints. What is printed is kept in a buffer and written in one go when the buffer is full,
+ * when the given number of lines has been printed, when the script calls system("flush") and when the script is over.
+ * The buffer is written either to a PrintStream or straight to a FileChannel, see stdout()
+ */
+public final class OutputSink {
+
+    // characters kept before the buffer is written
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final StringBuilder buffer = new StringBuilder();
+    private final int capacity;
+
+    // lines printed before the buffer is written, 0 if the buffer is only written when it's full
+    private int lineThreshold = 0;
+    private int lines = 0;
+
+    // the buffer is written to either of them
+    private final PrintStream stream;
+    private final FileChannel channel;
+    private final Charset charset;
+
+
+    public OutputSink(PrintStream stream) {
+        this(stream, null, null, DEFAULT_CAPACITY);
+    }
+
+    public OutputSink(FileChannel channel, Charset charset) {
+        this(null, channel, charset, DEFAULT_CAPACITY);
+    }
+
+    private OutputSink(PrintStream stream, FileChannel channel, Charset charset, int capacity) {
+        this.stream = stream;
+        this.channel = channel;
+        this.charset = charset;
+        this.capacity = capacity;
+    }
+
+
+    /**
+     * Returns a sink for the standard output of the process, see stdout(boolean)
+     */
+    public static OutputSink stdout() {
+        return stdout(false);
+    }
+
+    /**
+     * Returns a sink for the standard output of the process. When the process has a console the buffer goes through
+     * System.out and every line is written as soon as it's printed. Otherwise the buffer is written straight to the channel
+     * of the standard output when it's full.
+     *
+     * The process has no console as soon as either its input or its output is redirected, so a terminal whose input
+     * is redirected (e.g. gargio script.gl < input) only sees the output once the buffer is full or the script is over,
+     * unless the sink is line buffered
+     *
+     * @param lineBuffered whether every line is written as soon as it's printed even if the process has no console
+     */
+    public static OutputSink stdout(boolean lineBuffered) {
+        OutputSink sink;
+        if (java.lang.System.console() == null) {
+            sink = new OutputSink(Stdout.channel, Charset.defaultCharset());
+        } else {
+            sink = new OutputSink(java.lang.System.out);
+            lineBuffered = true;
+        }
+
+        if (lineBuffered)
+            sink.setLineThreshold(1);
+        return sink;
+    }
+
+
+    public void print(String message) {
+        buffer.append(message);
+
+        if (lineThreshold != 0) {
+            for (int index = message.indexOf('\n'); index != -1; index = message.indexOf('\n', index + 1)) {
+                lines ++;
+            }
+            if (lines >= lineThreshold) {
+                flush();
+                return;
+            }
+        }
+
+        if (buffer.length() >= capacity)
+            flush();
+    }
+
+
+    /**
+     * Writes what has been printed so far
+     */
+    public void flush() {
+        lines = 0;
+        if (buffer.length() == 0)
+            return;
+
+        if (stream != null) {
+            stream.append(buffer);
+            stream.flush();
+        } else {
+            // what has been printed through System.out comes first
+            java.lang.System.out.flush();
+            ByteBuffer bytes = charset.encode(buffer.toString());
+            try {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        buffer.setLength(0);
+        // don't keep the memory of a single huge message
+        if (buffer.capacity() > capacity * 2)
+            buffer.trimToSize();
+    }
+
+
+    public void setLineThreshold(int lineThreshold) {
+        this.lineThreshold = lineThreshold;
+    }
+
+
+    /**
+     * Channel of the standard output, opened the first time it's needed
+     */
+    private static final class Stdout {
+
+        private static final FileChannel channel = new FileOutputStream(FileDescriptor.out).getChannel();
+    }
+
+}
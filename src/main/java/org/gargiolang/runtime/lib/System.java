@@ -1,29 +1,36 @@
 package org.gargiolang.runtime.lib;
 
-import org.gargiolang.environment.Environment;
-
-import java.util.LinkedList;
+import org.gargiolang.runtime.Runtime;
 
+/**
+ * Functions of the host that scripts can call with the system keyword, see NativeTable
+ */
 public final class System {
 
-    public static void print(LinkedList<Object> args) {
-        java.lang.System.out.print((String) args.getFirst());
+    public static void print(Runtime runtime, Object message) {
+        runtime.getOut().print((String) message);
+    }
+
+    public static void flush(Runtime runtime) {
+        runtime.getOut().flush();
     }
 
-    public static long currentTime(LinkedList<Object> args){
-        return java.lang.System.currentTimeMillis();
+    // times wrap around like every int, but the difference between two of them is still correct
+
+    public static int currentTime(Runtime runtime) {
+        return (int) java.lang.System.currentTimeMillis();
     }
 
-    public static long currentNanos(LinkedList<Object> args){
-        return java.lang.System.nanoTime();
+    public static int currentNanos(Runtime runtime) {
+        return (int) java.lang.System.nanoTime();
     }
 
-    public static String getProperty(LinkedList<Object> args) {
-        return Environment.getInstance().getProperty((String) args.getFirst());
+    public static String getProperty(Runtime runtime, Object name) {
+        return runtime.getEnvironment().getProperty((String) name);
     }
 
-    public static String getEnv(LinkedList<Object> args){
-        return Environment.getInstance().getEnv((String) args.getFirst());
+    public static String getEnv(Runtime runtime, Object name) {
+        return runtime.getEnvironment().getEnv((String) name);
     }
 
 }
@@ -0,0 +1,46 @@
+package org.gargiolang.runtime.tree;
+
+import org.gargiolang.exception.evaluation.EvaluationException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.runtime.variable.Accessibility;
+import org.gargiolang.runtime.variable.SymbolTable;
+import org.gargiolang.runtime.variable.Variable;
+import org.gargiolang.tokenizer.tokens.Token;
+
+/**
+ * An assignment to a variable (a = 1) or a variable declaration (int a = 1)
+ */
+public class AssignmentNode extends Node {
+
+    private final Token type; // null if this is not a declaration
+    private final Token lValue;
+    private final Node rValue;
+
+    public AssignmentNode(Token type, Token lValue, Node rValue) {
+        this.type = type;
+        this.lValue = lValue;
+        this.rValue = rValue;
+    }
+
+    @Override
+    public Token evaluate(Runtime runtime) throws EvaluationException {
+        SymbolTable table = runtime.getSymbolTable();
+        Token value = rValue.evaluate(runtime);
+
+        // same as AssignmentOperator.evaluate()
+        if (type != null) {
+            Variable variable = new Variable(
+                    value,
+                    (Variable.Type) type.getValue(),
+                    Accessibility.PUBLIC,
+                    runtime);
+            table.addVariable((String) lValue.getValue(), variable);
+        } else {
+            table.updateVariable(lValue, value, runtime);
+        }
+
+        // assignments leave the line empty
+        return null;
+    }
+
+}
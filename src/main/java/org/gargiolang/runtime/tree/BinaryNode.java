@@ -0,0 +1,59 @@
+package org.gargiolang.runtime.tree;
+
+import org.gargiolang.exception.evaluation.EvaluationException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.runtime.variable.Variable;
+import org.gargiolang.tokenizer.tokens.Token;
+import org.gargiolang.tokenizer.tokens.TokenType;
+import org.gargiolang.tokenizer.tokens.operators.ArithmeticOperator;
+import org.gargiolang.tokenizer.tokens.operators.LogicalOperator;
+
+/**
+ * An arithmetic or logical operation between two operands
+ */
+public class BinaryNode extends Node {
+
+    private final Object operator; // either an ArithmeticOperator or a LogicalOperator
+    private final Node left;
+    private final Node right;
+
+    public BinaryNode(Object operator, Node left, Node right) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public Token evaluate(Runtime runtime) throws EvaluationException {
+        // operands are evaluated left to right, like the token-rewriting interpreter does with equal priorities
+        Token a = left.evaluate(runtime);
+        Token b = right.evaluate(runtime);
+
+        if (operator instanceof ArithmeticOperator) {
+            return switch ((ArithmeticOperator) operator)
+            {
+                case ADD -> a.add(b, runtime);
+                case SUB -> a.subtract(b, runtime);
+                case MUL -> a.multiply(b, runtime);
+                case DIV -> a.divide(b, runtime);
+                case MOD -> a.mod(b, runtime);
+                case POW -> a.power(b, runtime);
+                default -> throw new EvaluationException("Could not evaluate binary operator " + operator);
+            };
+        }
+
+        return switch ((LogicalOperator) operator)
+        {
+            case GR -> a.greaterThan(b, runtime);
+            case LS -> a.lessThan(b, runtime);
+            case EQ -> a.equalsTo(b, runtime);
+            case NE -> a.notEqualsTo(b, runtime);
+            case GRE -> Variable.Type.greaterOrEquals(a, b, new Token(TokenType.BOOL, null), runtime);
+            case LSE -> Variable.Type.lessOrEquals(a, b, new Token(TokenType.BOOL, null), runtime);
+            case AND -> Variable.Type.and(a, b, new Token(TokenType.BOOL, null), runtime);
+            case OR -> Variable.Type.or(a, b, new Token(TokenType.BOOL, null), runtime);
+            default -> throw new EvaluationException("Could not evaluate binary operator " + operator);
+        };
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.gargiolang.runtime.tree;
+
+import org.gargiolang.exception.evaluation.EvaluationException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.tokenizer.tokens.Token;
+
+/**
+ * A node of the syntax tree of a line, evaluated by tree walk instead of rewriting the line's tokens
+ */
+public abstract class Node {
+
+    /**
+     * Evaluates the node and returns the resulting token, as the token-rewriting interpreter would leave it in the line.
+     * The returned token may be one of the script's tokens, so it must not be modified or linked into a line
+     *
+     * @param runtime the runtime the line is executed in
+     * @return the resulting token or null if the node leaves nothing in the line (e.g. assignments)
+     * @throws EvaluationException if an error occurs during the evaluation
+     */
+    public abstract Token evaluate(Runtime runtime) throws EvaluationException;
+
+}
@@ -0,0 +1,51 @@
+package org.gargiolang.runtime.tree;
+
+import org.gargiolang.tokenizer.tokens.Token;
+
+import java.util.HashMap;
+
+/**
+ * Syntax trees of the lines executed so far, so that each line is parsed only once.
+ * Lines are identified by their first and last token in the script
+ */
+public final class TreeCache {
+
+    private final HashMap<Token, Entry> entries = new HashMap<>();
+
+
+    /**
+     * Returns the syntax tree of the tokens from firstToken up until lastToken included, parsing them the first time
+     *
+     * @param firstToken first token of the line in the script
+     * @param lastToken last token of the line in the script
+     * @return the syntax tree or null if the line cannot be evaluated as a syntax tree
+     */
+    public Node get(Token firstToken, Token lastToken) {
+        Entry first = entries.get(firstToken);
+
+        // the same token may start lines that end at different tokens (e.g. the last line of a loop)
+        for (Entry entry = first; entry != null; entry = entry.next) {
+            if (entry.lastToken == lastToken)
+                return entry.tree;
+        }
+
+        Node tree = TreeParser.parse(firstToken, lastToken);
+        entries.put(firstToken, new Entry(lastToken, tree, first));
+        return tree;
+    }
+
+
+    private static final class Entry {
+
+        private final Token lastToken;
+        private final Node tree; // null if the line cannot be evaluated as a syntax tree
+        private final Entry next;
+
+        private Entry(Token lastToken, Node tree, Entry next) {
+            this.lastToken = lastToken;
+            this.tree = tree;
+            this.next = next;
+        }
+    }
+
+}
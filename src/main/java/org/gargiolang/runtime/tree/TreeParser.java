@@ -0,0 +1,210 @@
+package org.gargiolang.runtime.tree;
+
+import org.gargiolang.tokenizer.tokens.Token;
+import org.gargiolang.tokenizer.tokens.TokenType;
+import org.gargiolang.tokenizer.tokens.operators.ArithmeticOperator;
+import org.gargiolang.tokenizer.tokens.operators.LogicalOperator;
+import org.gargiolang.tokenizer.tokens.operators.Parenthesis;
+
+import java.util.ArrayList;
+
+/**
+ * Parses the tokens of a line into a syntax tree by precedence climbing, using the same priorities as the
+ * token-rewriting interpreter: operators with equal priority are evaluated from left to right and
+ * parenthesis group the tokens they enclose.
+ *
+ * Only expressions, assignments and declarations are supported. Lines with keywords, scopes or function calls,
+ * and lines whose result would depend on the order the token-rewriting interpreter reduces them in,
+ * are not parsed and keep being evaluated by rewriting their tokens
+ */
+public final class TreeParser {
+
+    private final Token[] tokens;
+    private int position;
+
+
+    private TreeParser(Token[] tokens) {
+        this.tokens = tokens;
+        this.position = 0;
+    }
+
+
+    /**
+     * Parses the tokens from firstToken up until lastToken included
+     *
+     * @param firstToken first token of the line
+     * @param lastToken last token of the line
+     * @return the root of the syntax tree or null if the line cannot be evaluated as a syntax tree
+     */
+    public static Node parse(Token firstToken, Token lastToken) {
+        if (firstToken == null)
+            return null;
+
+        ArrayList<Token> tokens = new ArrayList<>();
+        Token until = lastToken.getNext();
+        for (Token token = firstToken; token != until; token = token.getNext()) {
+            if (!isSupported(token))
+                return null;
+            tokens.add(token);
+        }
+
+        TreeParser parser = new TreeParser(tokens.toArray(new Token[0]));
+        Node root = parser.parseStatement();
+
+        // every token must belong to the tree
+        if (root == null || parser.position != parser.tokens.length)
+            return null;
+
+        return root;
+    }
+
+
+    private Node parseStatement() {
+        int assignment = -1;
+        for (int i = 0; i != tokens.length; i++) {
+            if (tokens[i].getType() == TokenType.ASSIGNMENT_OPERATOR) {
+                assignment = i;
+                break;
+            }
+        }
+
+        if (assignment == -1)
+            return parseOperand(0);
+
+        // declaration (int a = 1) or assignment (a = 1)
+        Token type = null;
+        Token lValue;
+        if (assignment == 2 && tokens[0].getType() == TokenType.TYPE && tokens[1].getType() == TokenType.TXT) {
+            type = tokens[0];
+            lValue = tokens[1];
+        } else if (assignment == 1 && tokens[0].getType() == TokenType.TXT) {
+            lValue = tokens[0];
+        } else {
+            return null;
+        }
+
+        position = assignment + 1;
+
+        // operators with the same priority as the assignment would be evaluated after it: leave them to the token-rewriting interpreter
+        Node rValue = parseOperand(TokenType.ASSIGNMENT_OPERATOR.getPriority() + 1);
+        if (rValue == null)
+            return null;
+
+        return new AssignmentNode(type, lValue, rValue);
+    }
+
+
+    /**
+     * Parses the rest of the line as a single operand
+     */
+    private Node parseOperand(int minPriority) {
+        // increments and decrements are only supported on their own (i++, a = i++), otherwise the order
+        // the variable is read in would depend on the priorities of the other operators
+        if (position + 2 == tokens.length && tokens[position].getType() == TokenType.TXT && isIncrement(tokens[position + 1])) {
+            Node variable = new ValueNode(tokens[position]);
+            Token operator = tokens[position + 1];
+            position += 2;
+            return new UnaryNode(operator.getValue(), variable);
+        }
+
+        return parseExpression(minPriority);
+    }
+
+
+    private Node parseExpression(int minPriority) {
+        Node left = parseUnary(minPriority);
+        if (left == null)
+            return null;
+
+        while (position != tokens.length) {
+            Token operator = tokens[position];
+            if (!isBinary(operator) || operator.getPriority() < minPriority)
+                break;
+
+            position ++;
+
+            Node right = parseExpression(operator.getPriority() + 1);
+            if (right == null)
+                return null;
+
+            left = new BinaryNode(operator.getValue(), left, right);
+        }
+
+        return left;
+    }
+
+
+    private Node parseUnary(int minPriority) {
+        if (position == tokens.length)
+            return null;
+
+        Token token = tokens[position];
+        if (!isPrefix(token))
+            return parsePrimary();
+
+        // the token-rewriting interpreter would evaluate the previous operator first, with this one as its operand
+        if (token.getPriority() < minPriority)
+            return null;
+
+        position ++;
+
+        Node operand = parseExpression(token.getPriority() + 1);
+        if (operand == null)
+            return null;
+
+        return new UnaryNode(token.getValue(), operand);
+    }
+
+
+    private Node parsePrimary() {
+        Token token = tokens[position];
+
+        switch (token.getType())
+        {
+            case TXT, NUM, STR, BOOL, NULL -> {
+                position ++;
+                return new ValueNode(token);
+            }
+
+            case PAREN -> {
+                if (token.getValue() != Parenthesis.OPEN)
+                    return null;
+                position ++;
+
+                Node node = parseExpression(0);
+                if (node == null || position == tokens.length || tokens[position].getValue() != Parenthesis.CLOSED)
+                    return null;
+                position ++;
+
+                return node;
+            }
+        }
+
+        return null;
+    }
+
+
+    private static boolean isSupported(Token token) {
+        return switch (token.getType())
+        {
+            case TXT, NUM, STR, BOOL, NULL, TYPE, PAREN, ASSIGNMENT_OPERATOR, ARITHMETIC_OPERATOR -> true;
+            case LOGICAL_OPERATOR -> token.getValue() != LogicalOperator.INCOMPLETE_AND && token.getValue() != LogicalOperator.INCOMPLETE_OR;
+            default -> false;
+        };
+    }
+
+    private static boolean isBinary(Token token) {
+        if (token.getType() == TokenType.ARITHMETIC_OPERATOR)
+            return !isPrefix(token) && !isIncrement(token);
+        return token.getType() == TokenType.LOGICAL_OPERATOR && !isPrefix(token);
+    }
+
+    private static boolean isPrefix(Token token) {
+        return token.getValue() == ArithmeticOperator.INV || token.getValue() == LogicalOperator.NOT;
+    }
+
+    private static boolean isIncrement(Token token) {
+        return token.getValue() == ArithmeticOperator.INC || token.getValue() == ArithmeticOperator.DEC;
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.gargiolang.runtime.tree;
+
+import org.gargiolang.exception.evaluation.EvaluationException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.tokenizer.tokens.Token;
+import org.gargiolang.tokenizer.tokens.operators.ArithmeticOperator;
+import org.gargiolang.tokenizer.tokens.operators.LogicalOperator;
+
+/**
+ * A prefix (-a, !a) or postfix (a++, a--) operation
+ */
+public class UnaryNode extends Node {
+
+    private final Object operator; // either an ArithmeticOperator or a LogicalOperator
+    private final Node operand;
+
+    public UnaryNode(Object operator, Node operand) {
+        this.operator = operator;
+        this.operand = operand;
+    }
+
+    @Override
+    public Token evaluate(Runtime runtime) throws EvaluationException {
+        Token a = operand.evaluate(runtime);
+
+        if (operator == LogicalOperator.NOT) {
+            return a.not(runtime);
+        }
+
+        switch ((ArithmeticOperator) operator)
+        {
+            case INV -> {
+                return a.multiply(ArithmeticOperator.minusOne, runtime);
+            }
+
+            // the variable is left in the line and read afterwards
+            case INC -> {
+                a.increment(runtime);
+                return a;
+            }
+            case DEC -> {
+                a.decrement(runtime);
+                return a;
+            }
+
+            default -> throw new EvaluationException("Could not evaluate unary operator " + operator);
+        }
+    }
+
+}
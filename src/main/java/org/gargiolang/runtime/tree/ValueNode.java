@@ -0,0 +1,23 @@
+package org.gargiolang.runtime.tree;
+
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.tokenizer.tokens.Token;
+
+/**
+ * A literal value or a variable
+ */
+public class ValueNode extends Node {
+
+    private final Token token;
+
+    public ValueNode(Token token) {
+        this.token = token;
+    }
+
+    @Override
+    public Token evaluate(Runtime runtime) {
+        // variables are resolved by the operations, as in the token-rewriting interpreter
+        return token;
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.gargiolang.runtime.variable;
+
+import java.util.Arrays;
+
+/**
+ * A single scope of the SymbolTable: variables are stored in array slots in declaration order
+ */
+final class Frame {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    String[] names;
+    Variable[] slots;
+    int size;
+
+
+    Frame() {
+        this.names = new String[INITIAL_CAPACITY];
+        this.slots = new Variable[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+
+    /**
+     * Returns the slot of the given variable name in this frame or -1 if it's not declared here
+     *
+     * @param name the name of the variable
+     * @return the slot of the variable or -1
+     */
+    int indexOf(String name) {
+        for (int slot = 0; slot != size; slot++) {
+            // names are interned by the Resolver, so most of the times a reference comparison is enough
+            if (names[slot] == name || names[slot].equals(name))
+                return slot;
+        }
+        return -1;
+    }
+
+
+    void add(String name, Variable variable) {
+        if (size == names.length) {
+            String[] newNames = new String[size * 2];
+            Variable[] newSlots = new Variable[size * 2];
+            System.arraycopy(names, 0, newNames, 0, size);
+            System.arraycopy(slots, 0, newSlots, 0, size);
+            names = newNames;
+            slots = newSlots;
+        }
+        names[size] = name;
+        slots[size] = variable;
+        size ++;
+    }
+
+
+    /**
+     * Empties the frame so that it can be reused by the next pushed scope.
+     * The used slots are cleared, so that the variables of a popped scope can be collected
+     */
+    void clear() {
+        Arrays.fill(slots, 0, size, null);
+        size = 0;
+    }
+
+}
@@ -0,0 +1,285 @@
+package org.gargiolang.runtime.variable;
+
+import org.gargiolang.runtime.lib.NativeTable;
+import org.gargiolang.tokenizer.NamePool;
+import org.gargiolang.tokenizer.tokens.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+/**
+ * Binds every TXT token to the (depth, slot) pair of the variable it refers to before the script is executed.
+ * The scopes pushed by the interpreter at runtime are mirrored statically: '{' and '}', the scope that
+ * while and for loops push before evaluating their statements and the scope pushed by function calls.
+ *
+ * Variables declared outside of the enclosing function are left unbound, since the depth of their scope
+ * depends on where the function is called from: the SymbolTable looks them up by name instead.
+ * Calls of a function from its own code block in tail position are marked as well, so that they reuse the frame of the call.
+ */
+public final class Resolver {
+
+    // statically known scopes, the last one is the innermost
+    private final ArrayList<Block> blocks;
+
+    // parameters of the function that is being defined, they are declared when its code block is opened
+    private ArrayList<String> params;
+    private String function;
+
+    // same Strings as the names read by the Lexer
+    private final NamePool namePool = NamePool.local();
+
+
+    private Resolver() {
+        this.blocks = new ArrayList<>();
+        this.blocks.add(new Block(BlockType.PLAIN)); // global scope
+    }
+
+
+    public static void resolve(LinkedList<TokenLine> tokens) {
+        Resolver resolver = new Resolver();
+
+        for (TokenLine line : tokens) {
+            for (Token token = line.getFirst(); token != null; token = token.getNext()) {
+                token = resolver.resolveToken(token);
+            }
+        }
+    }
+
+
+    /**
+     * Resolves the given token and returns the last token that has been examined
+     */
+    private Token resolveToken(Token token) {
+        switch (token.getType())
+        {
+            case KEYWORD -> {
+                switch ((Keyword) token.getValue())
+                {
+                    // loops push a scope before evaluating the statements between parenthesis
+                    case WHILE, FOR -> blocks.add(new Block(BlockType.LOOP));
+
+                    // labels are not variables
+                    case GOTO -> {
+                        if (token.hasNext())
+                            return token.getNext();
+                    }
+
+                    case DEF -> {
+                        return defineFunction(token);
+                    }
+
+                    case RETURN -> markTailCall(token);
+
+                    case SYSTEM -> link(token);
+                }
+            }
+
+            case SCOPE -> {
+                if (token.getValue() == Scope.OPEN)
+                    openBlock();
+                else
+                    closeBlock();
+            }
+
+            case TYPE -> {
+                // a type followed by a name is a variable declaration
+                Token name = token.getNext();
+                if (name != null && name.getType() == TokenType.TXT) {
+                    declare(name);
+                    return name;
+                }
+            }
+
+            case TXT -> bind(token);
+        }
+
+        return token;
+    }
+
+
+    /**
+     * Links a system call to its native function, if the name of the function is a literal string:
+     * system("name", ...) or system "name" ...
+     */
+    private static void link(Token system) {
+        Token name = system.getNext();
+        if (name != null && name.getType() == TokenType.PAREN)
+            name = name.getNext();
+
+        if (name != null && name.getType() == TokenType.STR) {
+            int index = NativeTable.indexOf((String) name.getValue());
+            if (index != -1)
+                system.link(index);
+        }
+    }
+
+
+    /**
+     * Marks the call that follows the given return keyword as a tail call, if it calls the enclosing function
+     * and nothing is left to evaluate after it (see Function.tailCall()).
+     * Calls inside loops are left alone, since the loop would go on executing the lines of the new call
+     */
+    private void markTailCall(Token returnToken) {
+        Token func = returnToken.getNext();
+        if (func == null || func.getType() != TokenType.FUNC)
+            return;
+
+        // get the innermost function
+        String enclosing = null;
+        for (int index = blocks.size() - 1; index != -1; index--) {
+            Block block = blocks.get(index);
+            if (block.type == BlockType.LOOP)
+                return;
+            if (block.type == BlockType.FUNCTION) {
+                enclosing = block.function;
+                break;
+            }
+        }
+        if (!func.getValue().equals(enclosing))
+            return;
+
+        // find the end of the call, it must be the end of the statement or of the code block
+        int depth = 0;
+        Token token = func.getNext();
+        for ( ; token != null; token = token.getNext()) {
+            if (token.getType() == TokenType.CALL) {
+                if (token.getValue() == Call.OPEN)
+                    depth++;
+                else if (--depth == 0)
+                    break;
+            }
+        }
+        if (token == null)
+            return;
+
+        Token after = token.getNext();
+        if (after == null || after.getType() == TokenType.SCOPE && after.getValue() == Scope.CLOSE)
+            func.markTailCall();
+    }
+
+
+    /**
+     * Collects the parameters of the function defined by the given DEF keyword
+     * and returns the token that closes the parameter list
+     */
+    private Token defineFunction(Token def) {
+        params = new ArrayList<>();
+        function = null;
+
+        Token token = def;
+        while (token.hasNext()) {
+            token = token.getNext();
+
+            if (token.getType() == TokenType.FUNC && function == null)
+                function = (String) token.getValue();
+
+            if (token.getType() == TokenType.CALL && token.getValue() == Call.CLOSE)
+                break;
+
+            if (token.getType() == TokenType.TXT) {
+                String name = intern(token);
+                params.add(name);
+            }
+        }
+
+        return token;
+    }
+
+
+    private void openBlock() {
+        // the code block of a function: the scope is pushed by the function call, which also declares the parameters
+        if (params != null) {
+            Block block = new Block(BlockType.FUNCTION);
+            block.names.addAll(params);
+            block.function = function;
+            blocks.add(block);
+            params = null;
+            return;
+        }
+
+        // the first code block of a loop is its body
+        Block innermost = blocks.get(blocks.size() - 1);
+        if (innermost.type == BlockType.LOOP)
+            innermost.hasBody = true;
+
+        blocks.add(new Block(BlockType.PLAIN));
+    }
+
+
+    private void closeBlock() {
+        // ignore unbalanced scopes, the interpreter will complain about them
+        if (blocks.size() == 1)
+            return;
+
+        blocks.remove(blocks.size() - 1);
+
+        // closing the body of a loop also closes the scope pushed by the loop itself
+        Block innermost = blocks.get(blocks.size() - 1);
+        if (innermost.type == BlockType.LOOP && innermost.hasBody && blocks.size() != 1)
+            blocks.remove(blocks.size() - 1);
+    }
+
+
+    private void declare(Token token) {
+        String name = intern(token);
+        Block innermost = blocks.get(blocks.size() - 1);
+
+        token.bind(0, innermost.names.size());
+        innermost.names.add(name);
+    }
+
+
+    private void bind(Token token) {
+        String name = intern(token);
+
+        for (int index = blocks.size() - 1, depth = 0; index != -1; index--, depth++) {
+            Block block = blocks.get(index);
+
+            int slot = block.names.indexOf(name);
+            if (slot != -1) {
+                token.bind(depth, slot);
+                return;
+            }
+
+            // do not look outside of the function the token is in
+            if (block.type == BlockType.FUNCTION)
+                return;
+        }
+    }
+
+
+    /**
+     * Interns the name held by the token, so that the SymbolTable can compare names by reference
+     */
+    private String intern(Token token) {
+        String name = namePool.get((String) token.getValue());
+        token.setValue(name);
+        return name;
+    }
+
+
+    private enum BlockType {
+        PLAIN,
+        LOOP,
+        FUNCTION
+    }
+
+
+    private static final class Block {
+
+        private final BlockType type;
+        private final ArrayList<String> names;
+
+        // whether the code block of a loop has been opened
+        private boolean hasBody;
+
+        // name of the function whose code block this is
+        private String function;
+
+        private Block(BlockType type) {
+            this.type = type;
+            this.names = new ArrayList<>();
+        }
+    }
+
+}
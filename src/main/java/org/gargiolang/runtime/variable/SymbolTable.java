@@ -2,57 +2,70 @@ package org.gargiolang.runtime.variable;
 
 import org.gargiolang.exception.evaluation.BadTypeException;
 import org.gargiolang.exception.evaluation.UndeclaredVariableException;
+import org.gargiolang.exception.evaluation.UnrecognizedTypeException;
 import org.gargiolang.exception.evaluation.VariableRedeclarationException;
+import org.gargiolang.runtime.Runtime;
+import org.gargiolang.tokenizer.tokens.Token;
 
-import java.util.HashMap;
-
-// TODO: 07/12/20 implement optimized data structure from scratch
 /**
- * Wrapper around a Map
+ * A chain of scopes, each one being a Frame of array slots.
+ * Pushing and popping a scope only moves the index of the innermost frame, frames are reused.
+ * Variables are looked up from the innermost scope outwards, so inner declarations shadow outer ones
  */
 public final class SymbolTable {
 
-    private final HashMap<String, Variable> variables;
+    private Frame[] frames;
 
+    // index of the innermost frame
     private int scopes;
 
 
     public SymbolTable() {
         this.scopes = 0;
-        this.variables = new HashMap<>();
-    }
-
-
-    /**
-     * Returns an hashed version of the variable name to avoid naming conflicts
-     * for the same variable name in different scopes
-     *
-     * @param varName the variable name to be hashed
-     * @return the hashed variable name
-     */
-    private String hash(String varName) {
-        return varName + "@" + scopeCount();
+        this.frames = new Frame[16];
+        this.frames[0] = new Frame();
     }
 
 
     public void addVariable(String name, Variable variable) throws VariableRedeclarationException {
-        String hashed = hash(name);
-        if (variables.containsKey(hashed)) // look only in the current scope, do not use getVariable()
-            throw new VariableRedeclarationException("Variable '" + name + "' is already declared in the scope: " + hashed.split("@")[1]);
-        variables.put(hashed, variable);
+        Frame frame = frames[scopes];
+        if (frame.indexOf(name) != -1) // look only in the current scope, do not use getVariable()
+            throw new VariableRedeclarationException("Variable '" + name + "' is already declared in the scope: " + scopes);
+        frame.add(name, variable);
     }
 
 
     public Variable getVariable(String varName) {
-        Variable variable = variables.getOrDefault(hash(varName), null);
-        // search in other scopes in case var is not found in current scope
-        if (variable == null) {
-            for (String key : variables.keySet()) {
-                if (key.split("@")[0].equals(varName))
-                    return variables.get(key);
-            }
+        // search from the innermost scope outwards
+        for (int depth = scopes; depth != -1; depth--) {
+            Frame frame = frames[depth];
+            int slot = frame.indexOf(varName);
+            if (slot != -1)
+                return frame.slots[slot];
         }
-        return variable;
+        return null;
+    }
+
+    /**
+     * Returns the variable the token refers to using the (depth, slot) binding computed by the Resolver.
+     * Falls back to a search by name if the token is not bound or if the binding doesn't match the
+     * current state of the scopes (e.g. a function called from a different scope)
+     *
+     * @param token the TXT token that references the variable
+     * @return the variable or null if it's not declared
+     */
+    public Variable getVariable(Token token) {
+        String name = (String) token.getValue();
+        int depth = scopes - token.getDepth();
+
+        if (token.isBound() && depth >= 0) {
+            Frame frame = frames[depth];
+            int slot = token.getSlot();
+            if (slot < frame.size && frame.names[slot] == name)
+                return frame.slots[slot];
+        }
+
+        return getVariable(name);
     }
 
     /**
@@ -69,6 +82,20 @@ public final class SymbolTable {
         return variable;
     }
 
+    /**
+     * Wrapper around getVariable(Token token)
+     *
+     * @param token the TXT token that references the variable
+     * @return variable to get
+     * @throws UndeclaredVariableException if the variable is not declared in scope
+     */
+    public Variable getVariableThrow(Token token) throws UndeclaredVariableException {
+        Variable variable = getVariable(token);
+        if (variable == null)
+            throw new UndeclaredVariableException("Variable '" + token.getValue() + "' hasn't been declared in the scope");
+        return variable;
+    }
+
     /**
      * Updates the specified variable with the given new variable.
      * Throws GargioniException if the variable is not declared.
@@ -79,42 +106,95 @@ public final class SymbolTable {
      * @throws UndeclaredVariableException if variable is undeclared
      */
     public void updateVariable(String varName, Variable variable) throws BadTypeException, UndeclaredVariableException {
-        Variable original = getVariableThrow(varName);
+        update(getVariableThrow(varName), variable);
+    }
 
+    /**
+     * Updates the variable the token refers to with the given new variable.
+     *
+     * @param token the TXT token that references the variable
+     * @param variable the new value of the variable
+     * @throws BadTypeException if variable types do not match
+     * @throws UndeclaredVariableException if variable is undeclared
+     */
+    public void updateVariable(Token token, Variable variable) throws BadTypeException, UndeclaredVariableException {
+        update(getVariableThrow(token), variable);
+    }
+
+    /**
+     * Assigns the value of the given token to the variable the token refers to, without boxing it.
+     *
+     * @param token the TXT token that references the variable
+     * @param value the token holding the new value, either a literal or a variable
+     * @throws BadTypeException if variable types do not match
+     * @throws UndeclaredVariableException if a variable is undeclared
+     * @throws UnrecognizedTypeException if the type of the value cannot be determined
+     */
+    public void updateVariable(Token token, Token value, Runtime runtime) throws BadTypeException, UndeclaredVariableException, UnrecognizedTypeException {
+        Variable original = getVariableThrow(token);
+        checkType(original, value.getVarType(runtime));
+        original.load(value, runtime);
+    }
+
+    private void update(Variable original, Variable variable) throws BadTypeException {
+        checkType(original, variable.getType());
+
+        // update the variable in the scope it was declared in
+        original.load(variable);
+    }
+
+    private static void checkType(Variable original, Variable.Type type) throws BadTypeException {
         // since GargioLang is statically typed, you cannot assign a different type from the one the variable was first initialized with
-        if (original.getType() != variable.getType()) {
-            throw new BadTypeException("Variable types do not match: " + original.getType() + ", " + variable.getType() + ")");
+        if (original.getType() != type) {
+            throw new BadTypeException("Variable types do not match: " + original.getType() + ", " + type + ")");
         }
-
-        variables.put(hash(varName), variable);
     }
 
     public void pushScope() {
         scopes ++;
+
+        if (scopes == frames.length) {
+            Frame[] newFrames = new Frame[frames.length * 2];
+            System.arraycopy(frames, 0, newFrames, 0, frames.length);
+            frames = newFrames;
+        }
+
+        // reuse the frame of a previously popped scope, it has been cleared when it was popped
+        if (frames[scopes] == null)
+            frames[scopes] = new Frame();
     }
 
     public void popScope() {
+        frames[scopes].clear();
         this.scopes --;
-
-        // remove variables from table that belong to the popped scope
-        variables.keySet().removeIf(key -> Integer.parseInt(key.split("@")[1]) > this.scopes);
     }
 
     public void popScopes(int count) {
-        this.scopes -= count;
-        variables.keySet().removeIf(key -> Integer.parseInt(key.split("@")[1]) > scopes);
-
+        for (int remaining = count; remaining != 0; remaining--) {
+            popScope();
+        }
     }
 
     public int scopeCount() {
         return this.scopes;
     }
 
+    /**
+     * Removes every variable and every scope but the global one, which is emptied
+     */
+    public void clear() {
+        popScopes(scopes);
+        frames[0].clear();
+    }
+
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append("{\n");
-        for (String variable : variables.keySet()) {
-            stringBuilder.append("\t").append(variable).append(": ").append(variables.get(variable)).append(",\n");
+        for (int depth = 0; depth <= scopes; depth++) {
+            Frame frame = frames[depth];
+            for (int slot = 0; slot != frame.size; slot++) {
+                stringBuilder.append("\t").append(frame.names[slot]).append("@").append(depth).append(": ").append(frame.slots[slot]).append(",\n");
+            }
         }
         stringBuilder.append("}");
         return stringBuilder.toString();
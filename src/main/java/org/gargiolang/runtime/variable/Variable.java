@@ -15,24 +15,107 @@ public class Variable {
     private final Variable.Type type;
     private Accessibility accessibility;
 
+    // INT, FLOAT and BOOLEAN values are kept unboxed in bits, tag is the type of the value in bits or null if value is used
+    private Variable.Type tag;
+    private long bits;
+
 
     public Variable(Object value, Variable.Type type, Accessibility accessibility) {
-        this.value = value;
+        setValue(value);
         this.type = type;
         this.accessibility = accessibility;
     }
 
+    /**
+     * Creates a variable holding the value of the given token, without boxing it
+     */
+    public Variable(Token token, Variable.Type type, Accessibility accessibility, Runtime runtime) throws UndeclaredVariableException {
+        load(token, runtime);
+        this.type = type;
+        this.accessibility = accessibility;
+
+        // an INT value declared as FLOAT is widened (e.g. float x = 1;), the bits of an int are not a valid double
+        if (type == Type.FLOAT && tag == Type.INT)
+            setDouble(getInt());
+    }
+
 
     public Type getType() {
         return type;
     }
 
     public Object getValue() {
-        return value;
+        return tag == null ? value : tag.box(bits);
     }
 
     public void setValue(Object value) {
-        this.value = value;
+        this.tag = Type.tagOf(value);
+        if (tag == null) {
+            this.value = value;
+        } else {
+            this.value = null;
+            this.bits = Type.toBits(value);
+        }
+    }
+
+
+    /**
+     * Returns the type of the unboxed value of the variable, null if the value is an object
+     */
+    public Type getTag() {
+        return tag;
+    }
+
+    public long getBits() {
+        return bits;
+    }
+
+    public int getInt() {
+        return (int) bits;
+    }
+
+    public double getDouble() {
+        return Double.longBitsToDouble(bits);
+    }
+
+    public boolean getBoolean() {
+        return bits != 0;
+    }
+
+    public void setInt(int value) {
+        this.tag = Type.INT;
+        this.value = null;
+        this.bits = value;
+    }
+
+    public void setDouble(double value) {
+        this.tag = Type.FLOAT;
+        this.value = null;
+        this.bits = Double.doubleToRawLongBits(value);
+    }
+
+
+    /**
+     * Copies the value of the given variable into this one, without boxing it
+     */
+    public void load(Variable variable) {
+        this.tag = variable.tag;
+        this.value = variable.value;
+        this.bits = variable.bits;
+    }
+
+    /**
+     * Copies the value of the given token into this variable, without boxing it.
+     * If the token is a variable its value is copied instead
+     */
+    public void load(Token token, Runtime runtime) throws UndeclaredVariableException {
+        if (token.getType() == TokenType.TXT) {
+            load(runtime.getSymbolTable().getVariableThrow(token));
+        } else {
+            this.tag = token.getTag();
+            this.value = tag == null ? token.getValue() : null;
+            this.bits = token.getBits();
+        }
     }
 
     public Accessibility getAccessibility() {
@@ -45,7 +128,7 @@ public class Variable {
 
 
     public java.lang.String toString() {
-        return "{ " + type + ", " + value + ", " + accessibility + " }";
+        return "{ " + type + ", " + getValue() + ", " + accessibility + " }";
     }
 
 
@@ -66,11 +149,42 @@ public class Variable {
             return null;
         }
 
+        /**
+         * Returns the type of the values that are kept unboxed, null if the value is an object
+         */
+        public static Type tagOf(Object value) {
+            if (value instanceof java.lang.Integer) return INT;
+            if (value instanceof Double) return FLOAT;
+            if (value instanceof java.lang.Boolean) return BOOLEAN;
+            return null;
+        }
+
+        /**
+         * Returns the unboxed representation of an INT, FLOAT or BOOLEAN value, see tagOf()
+         */
+        public static long toBits(Object value) {
+            if (value instanceof java.lang.Integer) return (java.lang.Integer) value;
+            if (value instanceof Double) return Double.doubleToRawLongBits((Double) value);
+            return (java.lang.Boolean) value ? 1 : 0;
+        }
+
+        /**
+         * Boxes the unboxed representation of a value of this type, see toBits()
+         */
+        public Object box(long bits) {
+            return switch (this) {
+                case INT -> (int) bits;
+                case FLOAT -> Double.longBitsToDouble(bits);
+                default -> bits != 0;
+            };
+        }
+
         // extract Variable.Type from Token
         public static Type extractVarType(Token token) throws UnrecognizedTypeException {
             switch (token.getType())
             {
                 case NUM:
+                    if (token.getTag() != null) return token.getTag();
                     if (token.getValue() instanceof java.lang.Integer) return INT;
                     else return FLOAT;
 
@@ -86,19 +200,16 @@ public class Variable {
         }
 
 
-        public Token sum(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
+        public Token sum(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
             // TODO implement this using method overloading, reflection or this kind of stuff. I don't know if it's doable in java, but in C++ you can.
 
-            Runtime runtime = Runtime.getRuntime();
-            Token result;
-
             switch (this)
             {
-                case INT -> result = Integer.add((int) a.getVarValue(runtime), b);
+                case INT -> Integer.add(a.getVarInt(runtime), b, result, runtime);
 
-                case FLOAT -> result = Float.add((double) a.getVarValue(runtime), b);
+                case FLOAT -> Float.add(a.getVarDouble(runtime), b, result, runtime);
 
-                case STRING -> result = String.add((java.lang.String) a.getVarValue(runtime), b);
+                case STRING -> String.add((java.lang.String) a.getVarValue(runtime), b, result, runtime);
 
                 default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
@@ -107,16 +218,13 @@ public class Variable {
         }
 
 
-        public Token subtract(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
-
-            Runtime runtime = Runtime.getRuntime();
-            Token result;
+        public Token subtract(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
 
             switch (this)
             {
-                case INT -> result = Integer.subtract((int) a.getVarValue(runtime), b);
+                case INT -> Integer.subtract(a.getVarInt(runtime), b, result, runtime);
 
-                case FLOAT -> result = Float.subtract((double) a.getVarValue(runtime), b);
+                case FLOAT -> Float.subtract(a.getVarDouble(runtime), b, result, runtime);
 
                 default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
@@ -125,18 +233,15 @@ public class Variable {
         }
 
 
-        public Token multiply(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
-
-            Runtime runtime = Runtime.getRuntime();
-            Token result;
+        public Token multiply(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
 
             switch (this)
             {
-                case INT -> result = Integer.multiply((int) a.getVarValue(runtime), b);
+                case INT -> Integer.multiply(a.getVarInt(runtime), b, result, runtime);
 
-                case FLOAT -> result = Float.multiply((double) a.getVarValue(runtime), b);
+                case FLOAT -> Float.multiply(a.getVarDouble(runtime), b, result, runtime);
 
-                case STRING -> result = String.multiply((java.lang.String) a.getVarValue(runtime), b);
+                case STRING -> String.multiply((java.lang.String) a.getVarValue(runtime), b, result, runtime);
 
                 default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
@@ -145,16 +250,13 @@ public class Variable {
         }
 
 
-        public Token divide(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException, ZeroDivisionException {
-
-            Runtime runtime = Runtime.getRuntime();
-            Token result;
+        public Token divide(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException, ZeroDivisionException {
 
             switch (this)
             {
-                case INT -> result = Integer.divide((int) a.getVarValue(runtime), b);
+                case INT -> Integer.divide(a.getVarInt(runtime), b, result, runtime);
 
-                case FLOAT -> result = Float.divide((double) a.getVarValue(runtime), b);
+                case FLOAT -> Float.divide(a.getVarDouble(runtime), b, result, runtime);
 
                 default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
@@ -162,16 +264,13 @@ public class Variable {
             return result;
         }
 
-        public Token mod(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException, ZeroDivisionException {
-
-            Runtime runtime = Runtime.getRuntime();
-            Token result;
+        public Token mod(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException, ZeroDivisionException {
 
             switch (this)
             {
-                case INT -> result = Integer.mod((int) a.getVarValue(runtime), b);
+                case INT -> Integer.mod(a.getVarInt(runtime), b, result, runtime);
 
-                case FLOAT -> result = Float.mod((double) a.getVarValue(runtime), b);
+                case FLOAT -> Float.mod(a.getVarDouble(runtime), b, result, runtime);
 
                 default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
@@ -179,15 +278,12 @@ public class Variable {
             return result;
         }
 
-        public Token power(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
-            Runtime runtime = Runtime.getRuntime();
-            Token result;
-
+        public Token power(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
             switch (this)
             {
-                case INT -> result = Integer.power((int) a.getVarValue(runtime), b);
+                case INT -> Integer.power(a.getVarInt(runtime), b, result, runtime);
 
-                case FLOAT -> result = Float.power((double) a.getVarValue(runtime), b);
+                case FLOAT -> Float.power(a.getVarDouble(runtime), b, result, runtime);
 
                 default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
@@ -195,37 +291,34 @@ public class Variable {
             return result;
         }
 
-        public void increment(Token a) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
+        public void increment(Token a, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
             switch (this)
             {
-                case INT -> Integer.increment(a);
+                case INT -> Integer.increment(a, runtime);
 
-                case FLOAT -> Float.increment(a);
+                case FLOAT -> Float.increment(a, runtime);
 
-                default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(Runtime.getRuntime()));
+                default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
         }
 
-        public void decrement(Token a) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
+        public void decrement(Token a, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
             switch (this)
             {
-                case INT -> Integer.decrement(a);
+                case INT -> Integer.decrement(a, runtime);
 
-                case FLOAT -> Float.decrement(a);
+                case FLOAT -> Float.decrement(a, runtime);
 
-                default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(Runtime.getRuntime()));
+                default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
         }
 
-        public Token greaterThan(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
-            Runtime runtime = Runtime.getRuntime();
-            Token result;
-
+        public Token greaterThan(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
             switch (this)
             {
-                case INT -> result = Integer.greaterThan((int) a.getVarValue(runtime), b);
+                case INT -> Integer.greaterThan(a.getVarInt(runtime), b, result, runtime);
 
-                case FLOAT -> result = Float.greaterThan((double) a.getVarValue(runtime), b);
+                case FLOAT -> Float.greaterThan(a.getVarDouble(runtime), b, result, runtime);
 
                 default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
@@ -233,15 +326,12 @@ public class Variable {
             return result;
         }
 
-        public Token lessThan(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
-            Runtime runtime = Runtime.getRuntime();
-            Token result;
-
+        public Token lessThan(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
             switch (this)
             {
-                case INT -> result = Integer.lessThan((int) a.getVarValue(runtime), b);
+                case INT -> Integer.lessThan(a.getVarInt(runtime), b, result, runtime);
 
-                case FLOAT -> result = Float.lessThan((double) a.getVarValue(runtime), b);
+                case FLOAT -> Float.lessThan(a.getVarDouble(runtime), b, result, runtime);
 
                 default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
@@ -249,19 +339,16 @@ public class Variable {
             return result;
         }
 
-        public Token equalsTo(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
-            Runtime runtime = Runtime.getRuntime();
-            Token result;
-
+        public Token equalsTo(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
             switch (this)
             {
-                case INT -> result = Integer.equalsTo((int) a.getVarValue(runtime), b);
+                case INT -> Integer.equalsTo(a.getVarInt(runtime), b, result, runtime);
 
-                case FLOAT -> result = Float.equalsTo((double) a.getVarValue(runtime), b);
+                case FLOAT -> Float.equalsTo(a.getVarDouble(runtime), b, result, runtime);
 
-                case STRING -> result = String.equalsTo((java.lang.String) a.getVarValue(runtime), b);
+                case STRING -> String.equalsTo((java.lang.String) a.getVarValue(runtime), b, result, runtime);
 
-                case BOOLEAN -> result = Boolean.equalsTo((boolean) a.getVarValue(runtime), b);
+                case BOOLEAN -> Boolean.equalsTo(a.getVarBoolean(runtime), b, result, runtime);
 
                 default -> throw new UnimplementedException("Unimplemented operation for type " + a.getVarType(runtime));
             }
@@ -269,53 +356,61 @@ public class Variable {
             return result;
         }
 
-        public static Token greaterOrEquals(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
-            return new Token(TokenType.BOOL, (boolean) a.greaterThan(b).getValue() || (boolean) a.equalsTo(b).getValue());
+        public static Token greaterOrEquals(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
+            if (!a.greaterThan(b, result, runtime).getBoolean())
+                a.equalsTo(b, result, runtime);
+            return result;
         }
 
-        public static Token lessOrEquals(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
-            return new Token(TokenType.BOOL, (boolean) a.lessThan(b).getValue() || (boolean) a.equalsTo(b).getValue());
+        public static Token lessOrEquals(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
+            if (!a.lessThan(b, result, runtime).getBoolean())
+                a.equalsTo(b, result, runtime);
+            return result;
         }
 
-        public Token notEqualsTo(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
-            return equalsTo(a, b).not();
+        public Token notEqualsTo(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
+            equalsTo(a, b, result, runtime).setBoolean(!result.getBoolean());
+            return result;
         }
 
-        public Token asBool(Token a) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
+        public Token asBool(Token a, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
             switch (this)
             {
                 case INT -> {
-                    return Integer.asBool((int) a.getVarValue(Runtime.getRuntime()));
+                    return Integer.asBool(a.getVarInt(runtime));
                 }
 
                 case FLOAT -> {
-                    return Float.asBool((double) a.getVarValue(Runtime.getRuntime()));
+                    return Float.asBool(a.getVarDouble(runtime));
                 }
 
                 case STRING -> {
-                    return String.asBool((java.lang.String) a.getVarValue(Runtime.getRuntime()));
+                    return String.asBool((java.lang.String) a.getVarValue(runtime));
                 }
 
                 case BOOLEAN -> {
-                    return a;
+                    if (a.getType() == TokenType.BOOL)
+                        return a;
+                    return Token.ofBoolean(a.getVarBoolean(runtime));
                 }
 
-                default -> throw new UnimplementedException("Cannot convert type " + a.getVarType(Runtime.getRuntime()) + " to a boolean");
+                default -> throw new UnimplementedException("Cannot convert type " + a.getVarType(runtime) + " to a boolean");
             }
         }
 
-        public Token not(Token a) throws UnrecognizedTypeException, UnimplementedException, UndeclaredVariableException {
-            Token bool = asBool(a);
-            bool.setValue(!(boolean)bool.getValue());
-            return bool;
+        public Token not(Token a, Token result, Runtime runtime) throws UnrecognizedTypeException, UnimplementedException, UndeclaredVariableException {
+            result.setBoolean(!a.isTrue(runtime));
+            return result;
         }
 
-        public static Token or(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
-            return new Token(TokenType.BOOL, (boolean) a.asBool().getValue() || (boolean) b.asBool().getValue());
+        public static Token or(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
+            result.setBoolean(a.isTrue(runtime) || b.isTrue(runtime));
+            return result;
         }
 
-        public static Token and(Token a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
-            return new Token(TokenType.BOOL, (boolean) a.asBool().getValue() && (boolean) b.asBool().getValue());
+        public static Token and(Token a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
+            result.setBoolean(a.isTrue(runtime) && b.isTrue(runtime));
+            return result;
         }
 
     }
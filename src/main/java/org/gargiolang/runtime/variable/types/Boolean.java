@@ -4,19 +4,16 @@ import org.gargiolang.exception.evaluation.UndeclaredVariableException;
 import org.gargiolang.exception.evaluation.UnimplementedException;
 import org.gargiolang.exception.evaluation.UnrecognizedTypeException;
 import org.gargiolang.tokenizer.tokens.Token;
-import org.gargiolang.tokenizer.tokens.TokenType;
 import org.gargiolang.runtime.Runtime;
 import org.gargiolang.runtime.variable.Variable;
 
 public class Boolean extends Type {
 
-    public static Token equalsTo(boolean a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
-        Token result = new Token(TokenType.BOOL, null);
-
-        if (b.getVarType(Runtime.getRuntime()) == Variable.Type.BOOLEAN) {
-            result.setValue(a == (boolean) b.getVarValue(Runtime.getRuntime()));
+    public static Token equalsTo(boolean a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
+        if (b.getVarType(runtime) == Variable.Type.BOOLEAN) {
+            result.setBoolean(a == b.getVarBoolean(runtime));
         } else {
-            result.setValue(a == (boolean) b.asBool().getValue());
+            result.setBoolean(a == b.isTrue(runtime));
         }
         return result;
     }
@@ -5,18 +5,15 @@ import org.gargiolang.exception.evaluation.UndeclaredVariableException;
 import org.gargiolang.exception.evaluation.UnhandledOperationException;
 import org.gargiolang.exception.evaluation.UnrecognizedTypeException;
 import org.gargiolang.exception.evaluation.ZeroDivisionException;
-import org.gargiolang.tokenizer.tokens.TokenType;
 import org.gargiolang.runtime.Runtime;
 import org.gargiolang.runtime.variable.Variable;
 
 public class Float extends Type {
-    public static Token add(double a, Token b) throws UnhandledOperationException, UndeclaredVariableException, UnrecognizedTypeException {
-        Token result = new Token(TokenType.NUM, null);
+    public static Token add(double a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UndeclaredVariableException, UnrecognizedTypeException {
+        switch (b.getVarType(runtime)) {
+            case INT -> result.setDouble(a + b.getVarInt(runtime));
 
-        switch (b.getVarType(Runtime.getRuntime())) {
-            case INT -> result.setValue(a + (int) b.getVarValue(Runtime.getRuntime()));
-
-            case FLOAT -> result.setValue(a + (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setDouble(a + b.getVarDouble(runtime));
 
 
             default -> throw new UnhandledOperationException("Unhandled operation: sum between Float and " + b);
@@ -25,13 +22,11 @@ public class Float extends Type {
         return result;
     }
 
-    public static Token subtract(double a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.NUM, null);
-
-        switch (b.getVarType(Runtime.getRuntime())) {
-            case FLOAT -> result.setValue(a - (double) b.getVarValue(Runtime.getRuntime()));
+    public static Token subtract(double a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime)) {
+            case FLOAT -> result.setDouble(a - b.getVarDouble(runtime));
 
-            case INT -> result.setValue(a - (int) b.getVarValue(Runtime.getRuntime()));
+            case INT -> result.setDouble(a - b.getVarInt(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: subtraction between Float and " + b);
         }
@@ -39,13 +34,11 @@ public class Float extends Type {
         return result;
     }
 
-    public static Token multiply(double a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.NUM, null);
-
-        switch (b.getVarType(Runtime.getRuntime())) {
-            case INT -> result.setValue(a * (int) b.getVarValue(Runtime.getRuntime()));
+    public static Token multiply(double a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime)) {
+            case INT -> result.setDouble(a * b.getVarInt(runtime));
 
-            case FLOAT -> result.setValue(a * (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setDouble(a * b.getVarDouble(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: multiplication between Float and " + b);
         }
@@ -53,20 +46,18 @@ public class Float extends Type {
         return result;
     }
 
-    public static Token divide(double a, Token b) throws UnhandledOperationException, ZeroDivisionException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.NUM, null);
-
-        switch (b.getVarType(Runtime.getRuntime())) {
+    public static Token divide(double a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, ZeroDivisionException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime)) {
             case FLOAT -> {
-                double bValue = (double) b.getVarValue(Runtime.getRuntime());
+                double bValue = b.getVarDouble(runtime);
                 if (bValue == 0) throw new ZeroDivisionException("Cannot divide by zero");
-                result.setValue(a / bValue);
+                result.setDouble(a / bValue);
             }
 
             case INT -> {
-                int bValue = (int) b.getVarValue(Runtime.getRuntime());
+                int bValue = b.getVarInt(runtime);
                 if (bValue == 0) throw new ZeroDivisionException("Cannot divide by zero");
-                result.setValue(a / bValue);
+                result.setDouble(a / bValue);
             }
 
             default -> throw new UnhandledOperationException("Unhandled operation: division between Float and " + b);
@@ -74,21 +65,19 @@ public class Float extends Type {
         return result;
     }
 
-    public static Token mod(double a, Token b) throws UnhandledOperationException, ZeroDivisionException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.NUM, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token mod(double a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, ZeroDivisionException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime))
         {
             case INT -> {
-                int bValue = (int) b.getVarValue(Runtime.getRuntime());
+                int bValue = b.getVarInt(runtime);
                 if (bValue == 0) throw new ZeroDivisionException("Cannot divide by zero");
-                result.setValue(a % bValue);
+                result.setDouble(a % bValue);
             }
 
             case FLOAT -> {
-                double bValue = (double) b.getVarValue(Runtime.getRuntime());
+                double bValue = b.getVarDouble(runtime);
                 if (bValue == 0) throw new ZeroDivisionException("Cannot divide by zero");
-                result.setValue(a % bValue);
+                result.setDouble(a % bValue);
             }
 
             default -> throw new UnhandledOperationException("Unhandled operation: division between Integer and " + b);
@@ -96,13 +85,11 @@ public class Float extends Type {
         return result;
     }
 
-    public static Token power(double a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.NUM, null);
+    public static Token power(double a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime)) {
+            case INT -> result.setDouble(Math.pow(a, b.getVarInt(runtime)));
 
-        switch (b.getVarType(Runtime.getRuntime())) {
-            case INT -> result.setValue(Math.pow(a, (int) b.getVarValue(Runtime.getRuntime())));
-
-            case FLOAT -> result.setValue(Math.pow(a, (double) b.getVarValue(Runtime.getRuntime())));
+            case FLOAT -> result.setDouble(Math.pow(a, b.getVarDouble(runtime)));
 
             default -> throw new UnhandledOperationException("Unhandled operation: power between Float and " + b);
         }
@@ -110,52 +97,46 @@ public class Float extends Type {
         return result;
     }
 
-    public static void increment(Token a) throws UndeclaredVariableException {
-        Variable variable = Runtime.getRuntime().getSymbolTable().getVariableThrow((java.lang.String) a.getValue());
-        variable.setValue((double) variable.getValue() + 1);
+    public static void increment(Token a, Runtime runtime) throws UndeclaredVariableException {
+        Variable variable = runtime.getSymbolTable().getVariableThrow(a);
+        variable.setDouble(variable.getDouble() + 1);
     }
 
-    public static void decrement(Token a) throws UndeclaredVariableException {
-        Variable variable = Runtime.getRuntime().getSymbolTable().getVariableThrow((java.lang.String) a.getValue());
-        variable.setValue((double) variable.getValue() - 1);
+    public static void decrement(Token a, Runtime runtime) throws UndeclaredVariableException {
+        Variable variable = runtime.getSymbolTable().getVariableThrow(a);
+        variable.setDouble(variable.getDouble() - 1);
     }
 
-    public static Token greaterThan(double a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.BOOL, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token greaterThan(double a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime))
         {
-            case INT -> result.setValue(a > (int) b.getVarValue(Runtime.getRuntime()));
+            case INT -> result.setBoolean(a > b.getVarInt(runtime));
 
-            case FLOAT -> result.setValue(a > (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setBoolean(a > b.getVarDouble(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: greaterThan between Integer and " + b);
         }
         return result;
     }
 
-    public static Token lessThan(double a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.BOOL, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token lessThan(double a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime))
         {
-            case INT -> result.setValue(a < (int) b.getVarValue(Runtime.getRuntime()));
+            case INT -> result.setBoolean(a < b.getVarInt(runtime));
 
-            case FLOAT -> result.setValue(a < (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setBoolean(a < b.getVarDouble(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: lessThan between Integer and " + b);
         }
         return result;
     }
 
-    public static Token equalsTo(double a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.BOOL, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token equalsTo(double a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime))
         {
-            case INT -> result.setValue(a == (int) b.getVarValue(Runtime.getRuntime()));
+            case INT -> result.setBoolean(a == b.getVarInt(runtime));
 
-            case FLOAT -> result.setValue(a == (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setBoolean(a == b.getVarDouble(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: equality between Integer and " + b);
         }
@@ -163,6 +144,6 @@ public class Float extends Type {
     }
 
     public static Token asBool(double a) {
-        return new Token(TokenType.BOOL, a != 0);
+        return Token.ofBoolean(a != 0);
     }
 }
@@ -5,20 +5,17 @@ import org.gargiolang.exception.evaluation.UndeclaredVariableException;
 import org.gargiolang.exception.evaluation.UnhandledOperationException;
 import org.gargiolang.exception.evaluation.UnrecognizedTypeException;
 import org.gargiolang.exception.evaluation.ZeroDivisionException;
-import org.gargiolang.tokenizer.tokens.TokenType;
 import org.gargiolang.runtime.Runtime;
 import org.gargiolang.runtime.variable.Variable;
 
 public class Integer extends Type {
 
-    public static Token add(int a, Token b) throws UnhandledOperationException, UndeclaredVariableException, UnrecognizedTypeException {
-        Token result = new Token(TokenType.NUM, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token add(int a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UndeclaredVariableException, UnrecognizedTypeException {
+        switch (b.getVarType(runtime))
         {
-            case INT -> result.setValue(a + (int) b.getVarValue(Runtime.getRuntime()));
+            case INT -> result.setInt(a + b.getVarInt(runtime));
 
-            case FLOAT -> result.setValue(a + (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setDouble(a + b.getVarDouble(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: sum between Integer and " + b);
         }
@@ -26,49 +23,43 @@ public class Integer extends Type {
         return result;
     }
 
-    public static Token subtract(int a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.NUM, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token subtract(int a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime))
         {
-            case INT -> result.setValue(a - (int) b.getVarValue(Runtime.getRuntime()));
+            case INT -> result.setInt(a - b.getVarInt(runtime));
 
-            case FLOAT -> result.setValue(a - (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setDouble(a - b.getVarDouble(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: subtraction between Integer and " + b);
         }
         return result;
     }
 
-    public static Token multiply(int a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.NUM, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token multiply(int a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime))
         {
-            case INT -> result.setValue(a * (int) b.getVarValue(Runtime.getRuntime()));
+            case INT -> result.setInt(a * b.getVarInt(runtime));
 
-            case FLOAT -> result.setValue(a * (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setDouble(a * b.getVarDouble(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: multiplication between Integer and " + b);
         }
         return result;
     }
 
-    public static Token divide(int a, Token b) throws UnhandledOperationException, ZeroDivisionException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.NUM, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token divide(int a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, ZeroDivisionException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime))
         {
             case INT -> {
-                int bValue = (int) b.getVarValue(Runtime.getRuntime());
+                int bValue = b.getVarInt(runtime);
                 if (bValue == 0) throw new ZeroDivisionException("Cannot divide by zero");
-                result.setValue(a / bValue);
+                result.setInt(a / bValue);
             }
 
             case FLOAT -> {
-                double bValue = (double) b.getVarValue(Runtime.getRuntime());
+                double bValue = b.getVarDouble(runtime);
                 if (bValue == 0) throw new ZeroDivisionException("Cannot divide by zero");
-                result.setValue(a / bValue);
+                result.setDouble(a / bValue);
             }
 
             default -> throw new UnhandledOperationException("Unhandled operation: division between Integer and " + b);
@@ -76,21 +67,19 @@ public class Integer extends Type {
         return result;
     }
 
-    public static Token mod(int a, Token b) throws UnhandledOperationException, ZeroDivisionException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.NUM, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token mod(int a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, ZeroDivisionException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime))
         {
             case INT -> {
-                int bValue = (int) b.getVarValue(Runtime.getRuntime());
+                int bValue = b.getVarInt(runtime);
                 if (bValue == 0) throw new ZeroDivisionException("Cannot divide by zero");
-                result.setValue(a % bValue);
+                result.setInt(a % bValue);
             }
 
             case FLOAT -> {
-                double bValue = (double) b.getVarValue(Runtime.getRuntime());
+                double bValue = b.getVarDouble(runtime);
                 if (bValue == 0) throw new ZeroDivisionException("Cannot divide by zero");
-                result.setValue(a % bValue);
+                result.setDouble(a % bValue);
             }
 
             default -> throw new UnhandledOperationException("Unhandled operation: division between Integer and " + b);
@@ -98,63 +87,55 @@ public class Integer extends Type {
         return result;
     }
 
-    public static Token power(int a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.NUM, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token power(int a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime))
         {
-            case INT -> result.setValue(Math.round(Math.pow(a, (int) b.getVarValue(Runtime.getRuntime()))));
+            case INT -> result.setInt((int) Math.round(Math.pow(a, b.getVarInt(runtime))));
 
-            case FLOAT -> result.setValue(Math.pow(a, (double) b.getVarValue(Runtime.getRuntime())));
+            case FLOAT -> result.setDouble(Math.pow(a, b.getVarDouble(runtime)));
 
             default -> throw new UnhandledOperationException("Unhandled operation: power between Integer and " + b);
         }
         return result;
     }
 
-    public static void increment(Token a) throws UndeclaredVariableException {
-        Variable variable = Runtime.getRuntime().getSymbolTable().getVariableThrow((java.lang.String) a.getValue());
-        variable.setValue((int) variable.getValue() + 1);
+    public static void increment(Token a, Runtime runtime) throws UndeclaredVariableException {
+        Variable variable = runtime.getSymbolTable().getVariableThrow(a);
+        variable.setInt(variable.getInt() + 1);
     }
 
-    public static void decrement(Token a) throws UndeclaredVariableException {
-        Variable variable = Runtime.getRuntime().getSymbolTable().getVariableThrow((java.lang.String) a.getValue());
-        variable.setValue((int) variable.getValue() - 1);
+    public static void decrement(Token a, Runtime runtime) throws UndeclaredVariableException {
+        Variable variable = runtime.getSymbolTable().getVariableThrow(a);
+        variable.setInt(variable.getInt() - 1);
     }
 
-    public static Token greaterThan(int a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.BOOL, null);
-
-        switch (b.getVarType(Runtime.getRuntime())) {
-            case INT -> result.setValue(a > (int) b.getVarValue(Runtime.getRuntime()));
+    public static Token greaterThan(int a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime)) {
+            case INT -> result.setBoolean(a > b.getVarInt(runtime));
 
-            case FLOAT -> result.setValue(a > (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setBoolean(a > b.getVarDouble(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: greaterThan between Integer and " + b);
         }
         return result;
     }
 
-    public static Token lessThan(int a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.BOOL, null);
+    public static Token lessThan(int a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime)) {
+            case INT -> result.setBoolean(a < b.getVarInt(runtime));
 
-        switch (b.getVarType(Runtime.getRuntime())) {
-            case INT -> result.setValue(a < (int) b.getVarValue(Runtime.getRuntime()));
-
-            case FLOAT -> result.setValue(a < (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setBoolean(a < b.getVarDouble(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: lessThan between Integer and " + b);
         }
         return result;
     }
 
-    public static Token equalsTo(int a, Token b) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
-        Token result = new Token(TokenType.BOOL, null);
-
-        switch (b.getVarType(Runtime.getRuntime())) {
-            case INT -> result.setValue(a == (int) b.getVarValue(Runtime.getRuntime()));
+    public static Token equalsTo(int a, Token b, Token result, Runtime runtime) throws UnhandledOperationException, UnrecognizedTypeException, UndeclaredVariableException {
+        switch (b.getVarType(runtime)) {
+            case INT -> result.setBoolean(a == b.getVarInt(runtime));
 
-            case FLOAT -> result.setValue(a == (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.setBoolean(a == b.getVarDouble(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: equality between Integer and " + b);
         }
@@ -162,6 +143,6 @@ public class Integer extends Type {
     }
 
     public static Token asBool(int a) {
-        return new Token(TokenType.BOOL, a != 0);
+        return Token.ofBoolean(a != 0);
     }
 }
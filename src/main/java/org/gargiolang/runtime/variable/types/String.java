@@ -10,16 +10,14 @@ import org.gargiolang.runtime.variable.Variable;
 
 public class String extends Type {
 
-    public static Token add(java.lang.String a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException {
-        Token result = new Token(TokenType.STR, null);
-
-        switch (b.getVarType(Runtime.getRuntime()))
+    public static Token add(java.lang.String a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException {
+        switch (b.getVarType(runtime))
         {
-            case INT -> result.setValue(a + (int) b.getVarValue(Runtime.getRuntime()));
+            case INT -> result.set(TokenType.STR, a + b.getVarInt(runtime));
 
-            case FLOAT -> result.setValue(a + (double) b.getVarValue(Runtime.getRuntime()));
+            case FLOAT -> result.set(TokenType.STR, a + b.getVarDouble(runtime));
 
-            case STRING -> result.setValue(a + b.getVarValue(Runtime.getRuntime()));
+            case STRING -> result.set(TokenType.STR, a + b.getVarValue(runtime));
 
             default -> throw new UnhandledOperationException("Unhandled operation: sum between String and " + b);
         }
@@ -27,11 +25,9 @@ public class String extends Type {
         return result;
     }
 
-    public static Token multiply(java.lang.String a, Token b) throws UnrecognizedTypeException, UnhandledOperationException, UndeclaredVariableException {
-        Token result = new Token(TokenType.STR, null);
-
-        if (b.getVarType(Runtime.getRuntime()) == Variable.Type.INT) {
-            result.setValue(java.lang.String.valueOf(a).repeat(Math.max(0, (int) b.getVarValue(Runtime.getRuntime()))));
+    public static Token multiply(java.lang.String a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UnhandledOperationException, UndeclaredVariableException {
+        if (b.getVarType(runtime) == Variable.Type.INT) {
+            result.set(TokenType.STR, java.lang.String.valueOf(a).repeat(Math.max(0, b.getVarInt(runtime))));
         } else {
             throw new UnhandledOperationException("Unhandled operation: multiplication between String and " + b);
         }
@@ -47,11 +43,9 @@ public class String extends Type {
         return -1;
     }
 
-    public static Token equalsTo(java.lang.String a, Token b) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException {
-        Token result = new Token(TokenType.BOOL, null);
-
-        if (b.getVarType(Runtime.getRuntime()) == Variable.Type.STRING) {
-            result.setValue(a.equals(b.getVarValue(Runtime.getRuntime())));
+    public static Token equalsTo(java.lang.String a, Token b, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException {
+        if (b.getVarType(runtime) == Variable.Type.STRING) {
+            result.setBoolean(a.equals(b.getVarValue(runtime)));
         } else {
             throw new UnhandledOperationException("Unhandled operation: equality between String and " + b);
         }
@@ -60,7 +54,7 @@ public class String extends Type {
     }
 
     public static Token asBool(java.lang.String a) {
-        return new Token(TokenType.BOOL, a.length() != 0);
+        return Token.ofBoolean(a.length() != 0);
     }
 
 }
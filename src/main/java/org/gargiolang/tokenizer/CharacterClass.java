@@ -0,0 +1,63 @@
+package org.gargiolang.tokenizer;
+
+/**
+ * Classes of the characters the Lexer tells apart, looked up in a table instead of testing every
+ * kind of character one after the other. Characters outside of ASCII are INVALID outside of strings
+ */
+public final class CharacterClass {
+
+    public static final byte INVALID = 0;
+    public static final byte TEXT = 1;
+    public static final byte DIGIT = 2;
+    public static final byte QUOTE = 3;
+    public static final byte ARITHMETIC = 4;
+    public static final byte LOGICAL = 5;
+    public static final byte EQUALS = 6;
+    public static final byte SPACE = 7;
+    public static final byte PAREN_OPEN = 8;
+    public static final byte PAREN_CLOSE = 9;
+    public static final byte SCOPE_OPEN = 10;
+    public static final byte SCOPE_CLOSE = 11;
+    public static final byte COMMA = 12;
+    /** characters that are skipped: '#' and carriage returns */
+    public static final byte IGNORED = 13;
+    /** ';' and the null character */
+    public static final byte END = 14;
+
+
+    private static final byte[] table = new byte[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) table[c] = TEXT;
+        for (char c = 'A'; c <= 'Z'; c++) table[c] = TEXT;
+        table['_'] = TEXT;
+        for (char c = '0'; c <= '9'; c++) table[c] = DIGIT;
+
+        table['"'] = QUOTE;
+        for (char c : new char[] {'+', '-', '*', '/', '%'}) table[c] = ARITHMETIC;
+        for (char c : new char[] {'>', '<', '!', '&', '|'}) table[c] = LOGICAL;
+        table['='] = EQUALS;
+        table[' '] = SPACE;
+        table['\n'] = SPACE;
+        table['('] = PAREN_OPEN;
+        table[')'] = PAREN_CLOSE;
+        table['{'] = SCOPE_OPEN;
+        table['}'] = SCOPE_CLOSE;
+        table[','] = COMMA;
+        table['#'] = IGNORED;
+        table['\r'] = IGNORED;
+        table[';'] = END;
+        table[0] = END;
+    }
+
+
+    private CharacterClass() {
+
+    }
+
+
+    public static byte of(char c) {
+        return c < 128 ? table[c] : INVALID;
+    }
+
+}
@@ -3,7 +3,9 @@ package org.gargiolang.tokenizer;
 import org.gargiolang.exception.evaluation.UndefinedLabelException;
 import org.gargiolang.exception.tokenization.LabelRedefinitionException;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 public class LabelTable {
 
@@ -26,6 +28,14 @@ public class LabelTable {
         labels.put(label, line);
     }
 
+    public void clear() {
+        labels.clear();
+    }
+
+    public Map<String, Integer> getLabels() {
+        return Collections.unmodifiableMap(labels);
+    }
+
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append("{\n");
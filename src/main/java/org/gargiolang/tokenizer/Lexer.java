@@ -1,5 +1,6 @@
 package org.gargiolang.tokenizer;
 
+import org.gargiolang.exception.GargioniException;
 import org.gargiolang.exception.tokenization.InvalidCharacterException;
 import org.gargiolang.exception.tokenization.TokenizationException;
 import org.gargiolang.exception.tokenization.UnexpectedTokenException;
@@ -8,37 +9,56 @@ import org.gargiolang.tokenizer.tokens.operators.ArithmeticOperator;
 import org.gargiolang.tokenizer.tokens.operators.LogicalOperator;
 import org.gargiolang.tokenizer.tokens.operators.Parenthesis;
 import org.gargiolang.runtime.Runtime;
-import org.gargiolang.runtime.variable.Variable;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class Lexer {
 
+    // number of statements every task tokenizes when lexing in parallel
+    private static final int SHARD_SIZE = 512;
+
     private final Runtime runtime;
 
-    private final LinkedList<String> statements;
+    // statements are read one by one, only the tokens are kept in memory
+    private final StatementSource statements;
     private int lineNumber;
 
     // a 2d linked list of lines of tokens
     private final LinkedList<TokenLine> tokens;
 
-    public Lexer(LinkedList<String> statements, Runtime runtime) {
+    // content of the string literal that is being read, escapes make it differ from the statement
+    private final StringBuilder text = new StringBuilder();
+
+    private final NamePool names = NamePool.local();
+
+    public Lexer(StatementSource statements, Runtime runtime) {
         this.statements = statements;
         this.tokens = new LinkedList<>();
         this.runtime = runtime;
     }
 
+    /**
+     * Lexer of single statements, see tokenizeStatement(String)
+     */
+    public Lexer() {
+        this(null, null);
+    }
+
 
     public LinkedList<TokenLine> getTokens() {
         return tokens;
     }
 
 
-    public LinkedList<TokenLine> tokenize() throws TokenizationException {
-        for(String statement : statements) {
+    public LinkedList<TokenLine> tokenize() throws GargioniException, IOException {
+        String statement;
+        while ((statement = statements.next()) != null) {
             lineNumber++;
-            if (statement == null)
-                continue;
 
             // check if line is labelled
             if (statement.stripLeading().startsWith("@")) {
@@ -48,110 +68,239 @@ public class Lexer {
                 continue;
             }
 
-            TokenLine line = tokenizeStatement(statement + (char) 0);
+            // statements that have already been lexed are copied
+            TokenLine lexed = statements.tokens();
+            TokenLine line = lexed != null ? lexed.detachedCopy() : tokenizeStatement(statement, 0, statement.length());
             // ignore empty statements
-            if (!line.isEmpty())
+            if (!line.isEmpty()) {
+                setSource(line, statements.name(), statement, statements.line());
                 tokens.add(line);
+            }
         }
 
         return tokens;
     }
 
+    /**
+     * Tokenizes a single statement, labels are not recognized
+     */
+    public TokenLine tokenizeStatement(String statement) throws TokenizationException {
+        return tokenizeStatement(statement, 0, statement.length());
+    }
+
+    /**
+     * Tokenizes the statements in parallel: they are split in shards that are tokenized by the tasks of the pool,
+     * then the lines of every shard are appended in order and the labels are moved to the index of their line
+     */
+    public LinkedList<TokenLine> tokenize(ForkJoinPool pool) throws GargioniException, IOException {
+        ArrayList<String> script = new ArrayList<>();
+        // tokens of the statements that have already been lexed, null for the others
+        ArrayList<TokenLine> lexed = new ArrayList<>();
+        // file of every statement and the line it starts on
+        ArrayList<String> sources = new ArrayList<>();
+        ArrayList<Integer> sourceLines = new ArrayList<>();
+        String statement;
+        while ((statement = statements.next()) != null) {
+            script.add(statement);
+            lexed.add(statements.tokens());
+            sources.add(statements.name());
+            sourceLines.add(statements.line());
+        }
+
+        ArrayList<ForkJoinTask<Shard>> shards = new ArrayList<>();
+        for (int start = 0; start < script.size(); start += SHARD_SIZE) {
+            Shard shard = new Shard(script, lexed, sources, sourceLines, start, Math.min(start + SHARD_SIZE, script.size()));
+            shards.add(pool.submit(() -> shard.tokenize(runtime)));
+        }
+
+        for (ForkJoinTask<Shard> task : shards) {
+            Shard shard = task.join();
+
+            for (int index = 0; index != shard.labels.size(); index++) {
+                runtime.getLabelTable().putLabel(shard.labels.get(index), tokens.size() + shard.labelLines.get(index));
+            }
+            tokens.addAll(shard.lines);
+
+            // the statements after the first error are never tokenized by a sequential Lexer
+            if (shard.error != null)
+                throw shard.error;
+        }
+
+        return tokens;
+    }
+
+
+    /**
+     * Statements tokenized by a single task, labels point to lines of the shard
+     */
+    private static final class Shard {
+
+        private final ArrayList<String> script;
+        private final ArrayList<TokenLine> lexed;
+        private final ArrayList<String> sources;
+        private final ArrayList<Integer> sourceLines;
+        private final int start;
+        private final int end;
+
+        private final ArrayList<TokenLine> lines = new ArrayList<>();
+        private final ArrayList<String> labels = new ArrayList<>();
+        private final ArrayList<Integer> labelLines = new ArrayList<>();
+        // the shard stops at the first statement that can't be tokenized
+        private TokenizationException error;
+
+        private Shard(ArrayList<String> script, ArrayList<TokenLine> lexed, ArrayList<String> sources, ArrayList<Integer> sourceLines, int start, int end) {
+            this.script = script;
+            this.lexed = lexed;
+            this.sources = sources;
+            this.sourceLines = sourceLines;
+            this.start = start;
+            this.end = end;
+        }
+
+        private Shard tokenize(Runtime runtime) {
+            // every task has its own buffers
+            Lexer lexer = new Lexer(null, runtime);
+            lexer.lineNumber = start;
+
+            for (int index = start; index != end; index++) {
+                String statement = script.get(index);
+                lexer.lineNumber++;
+
+                if (statement.stripLeading().startsWith("@")) {
+                    labels.add(statement.substring(statement.indexOf('@')+1).strip());
+                    labelLines.add(lines.size());
+                    continue;
+                }
+
+                try {
+                    TokenLine line = lexed.get(index) != null ? lexed.get(index).detachedCopy() : lexer.tokenizeStatement(statement, 0, statement.length());
+                    if (!line.isEmpty()) {
+                        setSource(line, sources.get(index), statement, sourceLines.get(index));
+                        lines.add(line);
+                    }
+                } catch (TokenizationException e) {
+                    error = e;
+                    break;
+                }
+            }
+
+            return this;
+        }
+    }
+
+
+    /**
+     * Records where the statement of the line has been read from: the file, the first line of its code
+     * after the blank lines and comments at its beginning, and the line it ends on
+     *
+     * @param firstLine the line the statement starts on, 0 if unknown
+     */
+    private static void setSource(TokenLine line, String source, String statement, int firstLine) {
+        if (firstLine == 0) {
+            line.setSource(source, 0, 0);
+            return;
+        }
+
+        // the last character that isn't blank
+        int end = statement.length();
+        while (end != 0 && Character.isWhitespace(statement.charAt(end - 1)))
+            end--;
+
+        int lineNumber = firstLine;
+        int codeLine = 0;
+        boolean comment = false;
+        for (int index = 0; index != end; index++) {
+            char c = statement.charAt(index);
+            if (c == '\n') {
+                lineNumber++;
+                comment = false;
+            } else if (codeLine == 0 && !comment && !Character.isWhitespace(c)) {
+                if (c == '/' && index + 1 != end && statement.charAt(index + 1) == '/')
+                    comment = true;
+                else
+                    codeLine = lineNumber;
+            }
+        }
+        line.setSource(source, codeLine == 0 ? lineNumber : codeLine, lineNumber);
+    }
+
 
-    private TokenLine tokenizeStatement(String statement) throws TokenizationException {
+    private TokenLine tokenizeStatement(CharSequence statement, int start, int end) throws TokenizationException {
         // list of tokens representing the tokenized statement
         TokenLine line = new TokenLine();
 
         // the current state of the tokenizer
         State state = State.NULL;
 
-        // for function calls inside other function calls
+        // for function calls inside other function calls: the parentheses open when each call was opened
         int parenCount = 0;
         int callDepth = 0;
+        int[] callParens = new int[4];
 
         // escape (backslash) for strings
         boolean escape = false;
 
-        // for exception verbosity
-        int position = 0;
+        // offset of the first character of the text or number that is being read
+        int tokenStart = 0;
+        // whether the number that is being read has a decimal point
+        boolean decimal = false;
 
-        // the token that is currently being built, to be added to token list when finished building
+        // the operator, parenthesis or scope token that may still be combined with the next character
         Token token = null;
 
-        // here iterate over the string statement and build the token list
-        for (char c : statement.toCharArray()) {
-            position ++;
-
+        // here iterate over the statement and build the token list, the end of the statement is read as a null character
+        scan:
+        for (int index = start; index <= end; index++) {
+            char c = index == end ? 0 : statement.charAt(index);
+            byte characterClass = CharacterClass.of(c);
 
             switch (state)
             {
-                // if the parser is already parsing a token of type text
+                // if the lexer is already reading a word
                 case TEXT -> {
-                    // check if char can be a token of type text
-                    if (Token.isText(c) || Token.isNumber(c)) {
-                        token.buildValue(c);
+                    // check if char can be part of the word
+                    if (characterClass == CharacterClass.TEXT || characterClass == CharacterClass.DIGIT)
                         continue;
-                    }
-                    // if char is not text --> it has finished building, thus it should be appended to the token list
-                    state = State.NULL;
-
-                    // firstly check if the token is a Keyword
-                    if (Keyword.isKeyword((String) token.getValue())) {
-                        line.append(new Token(TokenType.KEYWORD, Keyword.valueOf(((String) token.getValue()).toUpperCase())));
-                    }
-
-                    // check if token is a Type
-                    else if(Variable.Type.getType(String.valueOf(token.getValue())) != null) {
-                        line.append(new Token(TokenType.TYPE, Variable.Type.getType(String.valueOf(token.getValue()))));
-                    }
 
-                    // check if is a Boolean
-                    else if(token.getValue().equals("true")) {
-                        line.append(new Token(TokenType.BOOL, true));
-                    }
+                    // if char is not text --> the word is over, thus it should be appended to the token list
+                    state = State.NULL;
 
-                    else if (token.getValue().equals("false")) {
-                        line.append(new Token(TokenType.BOOL, false));
+                    // keywords, types and booleans
+                    ReservedWords.Word word = ReservedWords.lookup(statement, tokenStart, index);
+                    if (word != null) {
+                        line.append(new Token(word.type, word.value));
                     }
 
                     // check if it is a function call
+                    // keywords have been handled above, so this is a function even if it follows a keyword (e.g. return f(x))
                     else if (c == '(') {
-                        // keywords are not functions
-                        if (!(!line.isEmpty() && line.getLast().getType() == TokenType.KEYWORD)) {
-                            // add the text as function
-                            line.append(new Token(TokenType.FUNC, token.getValue()));
-                            // increase the call depth (for function calls inside other calls)
-                            callDepth ++;
-                            // add an opening Call parenthesis
-                            line.append(new Token(TokenType.CALL, Call.OPEN));
-                            token = null;
-                            continue;
-                        }
+                        // add the text as function
+                        line.append(new Token(TokenType.FUNC, names.get(statement, tokenStart, index)));
+                        // increase the call depth (for function calls inside other calls)
+                        if (callDepth == callParens.length)
+                            callParens = Arrays.copyOf(callParens, callDepth * 2);
+                        callParens[callDepth ++] = parenCount;
+                        // add an opening Call parenthesis
+                        line.append(new Token(TokenType.CALL, Call.OPEN));
+                        continue;
                     }
 
-                    // if token is not a keyword, add it as normal text
+                    // if the word is not reserved, add it as normal text
                     else {
-                        line.append(token);
+                        line.append(new Token(TokenType.TXT, names.get(statement, tokenStart, index)));
                     }
-
-                    // set the current token to null
-                    token = null;
                 }
 
                 case NUMBER -> {
-                    if (Token.isNumber(c) || c == '.') {
-                        token.buildValue(c);
+                    if (characterClass == CharacterClass.DIGIT)
+                        continue;
+                    if (c == '.') {
+                        decimal = true;
                         continue;
                     }
 
                     state = State.NULL;
-
-                    if (((String) token.getValue()).contains("."))
-                        line.append(new Token(TokenType.NUM, Double.parseDouble((String) token.getValue())));
-                    else
-                        line.append(new Token(TokenType.NUM, Integer.parseInt((String) token.getValue())));
-
-                    token = null;
+                    line.append(new Token(TokenType.NUM, number(statement, tokenStart, index, decimal)));
                 }
 
                 case STRING -> {
@@ -168,7 +317,7 @@ public class Lexer {
                             case 't' -> c = '\t';
                             case 'r' -> c = '\r';
                             case '"' -> {
-                                token.buildValue('"');
+                                text.append('"');
                                 escape = false;
                                 continue;
                             }
@@ -176,14 +325,15 @@ public class Lexer {
                         escape = false;
                     }
                     if (c != '"') {
-                        token.buildValue(c);
+                        // the end of the statement is still read as part of an unterminated string
+                        if (index != end)
+                            text.append(c);
                         continue;
                     }
 
                     // if this line is reached it means that c == '"' and it has not been escaped
                     state = State.NULL;
-                    line.append(token);
-                    token = null;
+                    line.append(new Token(TokenType.STR, text.toString()));
                     continue;
                 }
 
@@ -200,199 +350,173 @@ public class Lexer {
                 if (c == '(')
                     parenCount ++;
                 else if (c == ')') {
-                    parenCount --;
-                    // when the closing parenthesis is met
-                    if (parenCount == -1) {
+                    // when the closing parenthesis of the innermost call is met
+                    if (parenCount == callParens[callDepth - 1]) {
 
                         callDepth --;
 
                         line.append(new Token(TokenType.CALL, Call.CLOSE));
                         continue;
                     }
+                    parenCount --;
                 }
             }
 
 
-            if (c == '"') {
-                if (token != null)
-                    line.append(token);
-                state = State.STRING;
-                token = new Token(TokenType.STR, "");
-                continue;
-            }
+            switch (characterClass)
+            {
+                case CharacterClass.QUOTE -> {
+                    if (token != null)
+                        line.append(token);
+                    token = null;
+                    state = State.STRING;
+                    text.setLength(0);
+                }
 
-            if (Token.isNumber(c)) {
-                if (token != null)
-                    line.append(token);
-                state = State.NUMBER;
-                token = new Token(TokenType.NUM, Character.toString(c));
-                continue;
-            }
+                case CharacterClass.DIGIT -> {
+                    if (token != null)
+                        line.append(token);
+                    token = null;
+                    state = State.NUMBER;
+                    tokenStart = index;
+                    decimal = false;
+                }
 
-            if (Token.isText(c)) {
-                if (token != null)
-                    line.append(token);
-                state = State.TEXT;
-                token = new Token(TokenType.TXT, Character.toString(c));
-                continue;
-            }
+                case CharacterClass.TEXT -> {
+                    if (token != null)
+                        line.append(token);
+                    token = null;
+                    state = State.TEXT;
+                    tokenStart = index;
+                }
 
-            if (Token.isArithmeticOperator(c)) {
-                if (token != null) {
+                case CharacterClass.ARITHMETIC -> {
+                    if (token != null) {
 
-                    // check for arithmetic operators composed by multiple characters (++, --) and comments (//)
-                    if (token.getType() == TokenType.ARITHMETIC_OPERATOR) {
+                        // check for arithmetic operators composed by multiple characters (++, --) and comments (//)
+                        if (token.getType() == TokenType.ARITHMETIC_OPERATOR) {
 
-                        if (token.getValue() == ArithmeticOperator.ADD && c == '+') {
-                            line.append(new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.INC));
-                        }
-                        else if (token.getValue() == ArithmeticOperator.SUB && c == '-') {
-                            line.append(new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.DEC));
-                        }
-                        else if(token.getValue() == ArithmeticOperator.MUL && c == '*'){
-                            line.append(new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.POW));
-                        }
-                        // in case of a comment --> let it be handle by the above switch statement
-                        else if (token.getValue() == ArithmeticOperator.DIV && c == '/') {
-                            state = State.COMMENT;
-                        }
+                            if (token.getValue() == ArithmeticOperator.ADD && c == '+') {
+                                line.append(new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.INC));
+                            }
+                            else if (token.getValue() == ArithmeticOperator.SUB && c == '-') {
+                                line.append(new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.DEC));
+                            }
+                            else if(token.getValue() == ArithmeticOperator.MUL && c == '*'){
+                                line.append(new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.POW));
+                            }
+                            // in case of a comment --> let it be handle by the above switch statement
+                            else if (token.getValue() == ArithmeticOperator.DIV && c == '/') {
+                                state = State.COMMENT;
+                            }
 
-                        token = null;
-                        continue;
+                            token = null;
+                            continue;
+                        }
+                        else
+                            line.append(token);
                     }
-                    else
-                        line.append(token);
-                }
 
-                // check if token is a binary or unary '-'
-                if (c == '-') {
-                    // binary operator
-                    if (!line.isEmpty() && line.getLast().getPriority() == 0) {
-                        token = new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.SUB);
-                    }
-                    // unary operator
-                    else {
-                        token = new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.INV);
-                    }
-                }
-                else {
-                    token = new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.fromString(Character.toString(c)));
+                    token = new Token(TokenType.ARITHMETIC_OPERATOR, switch (c) {
+                        // check if token is a binary or unary '-'
+                        case '-' -> !line.isEmpty() && line.getLast().getPriority() == 0 ? ArithmeticOperator.SUB : ArithmeticOperator.INV;
+                        case '+' -> ArithmeticOperator.ADD;
+                        case '*' -> ArithmeticOperator.MUL;
+                        case '/' -> ArithmeticOperator.DIV;
+                        default -> ArithmeticOperator.MOD;
+                    });
                 }
-                continue;
-            }
 
-            if(Token.isLogicalOperator(c)) {
-                if(token != null) {
+                case CharacterClass.LOGICAL -> {
+                    if (token != null) {
+
+                        if (token.getType() == TokenType.LOGICAL_OPERATOR) {
+                            if (token.getValue() == LogicalOperator.INCOMPLETE_AND && c == '&')
+                                token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.AND);
+                            else if (token.getValue() == LogicalOperator.INCOMPLETE_OR && c == '|')
+                                token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.OR);
 
-                    if (token.getType() == TokenType.LOGICAL_OPERATOR) {
-                        if (token.getValue() == LogicalOperator.INCOMPLETE_AND && c == '&')
-                            token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.AND);
-                        else if (token.getValue() == LogicalOperator.INCOMPLETE_OR && c == '|')
-                            token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.OR);
+                            line.append(token);
+                            token = null;
+                            continue;
+                        }
 
                         line.append(token);
-                        token = null;
-                        continue;
                     }
 
-                    line.append(token);
+                    token = new Token(TokenType.LOGICAL_OPERATOR, switch (c) {
+                        case '>' -> LogicalOperator.GR;
+                        case '<' -> LogicalOperator.LS;
+                        case '!' -> LogicalOperator.NOT;
+                        case '&' -> LogicalOperator.INCOMPLETE_AND;
+                        default -> LogicalOperator.INCOMPLETE_OR;
+                    });
                 }
-                token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.fromString(Character.toString(c)));
-                continue;
-            }
 
-            if (c == '=') {
-                if (token != null) {
+                case CharacterClass.EQUALS -> {
+                    if (token != null) {
 
-                    // means the token is "=="
-                    if (token.getType() == TokenType.ASSIGNMENT_OPERATOR) {
-                        token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.EQ);
-                        line.append(token);
-                        token = null;
-                        continue;
-                    }
-                    // <= >= !=
-                    else if (token.getType() == TokenType.LOGICAL_OPERATOR) {
-                        switch ((LogicalOperator) token.getValue())
-                        {
-                            case GR -> token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.GRE);
-                            case LS -> token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.LSE);
-                            case NOT -> token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.NE);
-                            default -> throw new UnexpectedTokenException("Unexpected token: '=' after " + token);
+                        // means the token is "=="
+                        if (token.getType() == TokenType.ASSIGNMENT_OPERATOR) {
+                            line.append(new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.EQ));
+                            token = null;
+                            continue;
+                        }
+                        // <= >= !=
+                        else if (token.getType() == TokenType.LOGICAL_OPERATOR) {
+                            switch ((LogicalOperator) token.getValue())
+                            {
+                                case GR -> token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.GRE);
+                                case LS -> token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.LSE);
+                                case NOT -> token = new Token(TokenType.LOGICAL_OPERATOR, LogicalOperator.NE);
+                                default -> throw new UnexpectedTokenException("Unexpected token: '=' after " + token);
+                            }
+
+                            line.append(token);
+                            token = null;
+                            continue;
                         }
 
                         line.append(token);
-                        token = null;
-                        continue;
                     }
 
-                    line.append(token);
+                    token = new Token(TokenType.ASSIGNMENT_OPERATOR, '=');
                 }
 
-                token = new Token(TokenType.ASSIGNMENT_OPERATOR, '=');
-                continue;
-            }
-
-            if (c == ' ' || c == '\n') {
-                if (token != null)
-                    line.append(token);
-                token = null;
-                continue;
-            }
-
-            if (c == '(') {
-                if (token != null)
-                    line.append(token);
-                token = new Token(TokenType.PAREN, Parenthesis.OPEN);
-                continue;
-            }
-
-            if (c == ')') {
-                if (token != null)
-                    line.append(token);
-                token = new Token(TokenType.PAREN, Parenthesis.CLOSED);
-                continue;
-            }
+                case CharacterClass.SPACE, CharacterClass.COMMA -> {
+                    if (token != null)
+                        line.append(token);
+                    token = null;
+                }
 
-            if (c == ',') {
-                if (token != null)
-                    line.append(token);
-                continue;
-            }
+                case CharacterClass.PAREN_OPEN, CharacterClass.PAREN_CLOSE, CharacterClass.SCOPE_OPEN, CharacterClass.SCOPE_CLOSE -> {
+                    if (token != null)
+                        line.append(token);
+                    token = switch (characterClass) {
+                        case CharacterClass.PAREN_OPEN -> new Token(TokenType.PAREN, Parenthesis.OPEN);
+                        case CharacterClass.PAREN_CLOSE -> new Token(TokenType.PAREN, Parenthesis.CLOSED);
+                        case CharacterClass.SCOPE_OPEN -> new Token(TokenType.SCOPE, Scope.OPEN);
+                        default -> new Token(TokenType.SCOPE, Scope.CLOSE);
+                    };
+                }
 
-            // ASCII 13 --> carriage return
-            if ((byte) c == 13){
-                continue;
-            }
+                // '#' and carriage returns
+                case CharacterClass.IGNORED -> {
+                }
 
-            if (c == '{') {
-                if (token != null)
-                    line.append(token);
-                token = new Token(TokenType.SCOPE, Scope.OPEN);
-                continue;
-            }
+                // null termination character or ';'
+                case CharacterClass.END -> {
+                    break scan;
+                }
 
-            if (c == '}') {
-                if (token != null)
-                    line.append(token);
-                token = new Token(TokenType.SCOPE, Scope.CLOSE);
-                continue;
+                default -> throw new InvalidCharacterException("Unable to parse character \"" + c + "\" (" + (byte)c + ") at position " + (index - start + 1) + " on line " + lineNumber);
             }
-
-            if(c == '#')
-                continue;
-
-            // null termination character
-            if (c == 0)
-                break;
-
-            if (c == ';')
-                break;
-
-
-            throw new InvalidCharacterException("Unable to parse character \"" + c + "\" (" + (byte)c + ") at position " + position + " on line " + lineNumber);
         }
 
+        // an unterminated string
+        if (state == State.STRING)
+            line.append(new Token(TokenType.STR, text.toString()));
+
         if (token != null) {
             line.append(token);
         }
@@ -400,6 +524,23 @@ public class Lexer {
         return line;
     }
 
+    /**
+     * Parses the number between start (inclusive) and end (exclusive) without copying its digits
+     */
+    private static Object number(CharSequence statement, int start, int end, boolean decimal) {
+        if (decimal)
+            return Double.parseDouble(statement.subSequence(start, end).toString());
+
+        long value = 0;
+        for (int index = start; index != end; index++) {
+            value = value * 10 + (statement.charAt(index) - '0');
+            // let Integer report the overflow
+            if (value > Integer.MAX_VALUE)
+                return Integer.parseInt(statement.subSequence(start, end).toString());
+        }
+        return (int) value;
+    }
+
 
     public enum State {
 
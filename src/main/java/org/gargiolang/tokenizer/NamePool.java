@@ -0,0 +1,208 @@
+package org.gargiolang.tokenizer;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Interns the names of variables and functions as they are read: the same name is always the same String,
+ * so names compare by reference and lookups by name never have to compare the characters.
+ * Names are looked up straight from the statement, a String is only created the first time a name is seen.
+ *
+ * The shared pool is synchronized, every Lexer keeps its own unsynchronized pool in front of it
+ * so that threads lexing in parallel rarely have to wait for each other.
+ * The shared pool holds its names weakly: a name stays the same String as long as the tokens of a script refer to it,
+ * the names of the scripts that are no longer used are collected
+ */
+public final class NamePool {
+
+    private static final Shared shared = new Shared();
+
+    // open addressing table, its length is always a power of 2
+    private String[] names = new String[256];
+    private int size;
+
+
+    private NamePool() {
+
+    }
+
+    /**
+     * Returns a new pool that is not thread safe and gives the same Strings as the shared pool
+     */
+    public static NamePool local() {
+        return new NamePool();
+    }
+
+
+    /**
+     * Returns the name made of the characters of the sequence between start (inclusive) and end (exclusive),
+     * interned in the shared pool
+     */
+    public static String intern(CharSequence sequence, int start, int end) {
+        synchronized (shared) {
+            return shared.get(sequence, start, end);
+        }
+    }
+
+    public static String intern(String name) {
+        return intern(name, 0, name.length());
+    }
+
+
+    /**
+     * Returns the interned name made of the characters of the sequence between start (inclusive) and end (exclusive)
+     */
+    public String get(CharSequence sequence, int start, int end) {
+        int hash = hash(sequence, start, end);
+
+        int mask = names.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            String name = names[slot];
+            if (name == null)
+                break;
+            if (name.length() == end - start && name.hashCode() == hash && matches(name, sequence, start))
+                return name;
+        }
+
+        String name = intern(sequence, start, end);
+        insert(name);
+        return name;
+    }
+
+    public String get(String name) {
+        return get(name, 0, name.length());
+    }
+
+
+    private void insert(String name) {
+        // keep the table at most half full
+        if (++size * 2 > names.length) {
+            String[] old = names;
+            names = new String[old.length * 2];
+            for (String interned : old) {
+                if (interned != null)
+                    place(interned);
+            }
+        }
+        place(name);
+    }
+
+    private void place(String name) {
+        int mask = names.length - 1;
+        int slot = mix(name.hashCode()) & mask;
+        while (names[slot] != null)
+            slot = (slot + 1) & mask;
+        names[slot] = name;
+    }
+
+
+    private static int hash(CharSequence sequence, int start, int end) {
+        int hash = 0;
+        for (int index = start; index != end; index++) {
+            hash = 31 * hash + sequence.charAt(index);
+        }
+        return hash;
+    }
+
+    private static boolean matches(String name, CharSequence sequence, int start) {
+        for (int index = 0; index != name.length(); index++) {
+            if (name.charAt(index) != sequence.charAt(start + index))
+                return false;
+        }
+        return true;
+    }
+
+    // spread the bits of the hash, names often differ only in their last characters
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+
+    /**
+     * Open addressing table of weak references to the names. The slots of collected names are reused by new names
+     * and dropped when the table grows
+     */
+    private static final class Shared {
+
+        private static final int MIN_CAPACITY = 256;
+
+        private WeakReference<String>[] names = table(MIN_CAPACITY);
+        // hashes of the names, compared before the names are dereferenced
+        private int[] hashes = new int[MIN_CAPACITY];
+        // slots in use, whether their name has been collected or not
+        private int used;
+
+
+        private String get(CharSequence sequence, int start, int end) {
+            int hash = hash(sequence, start, end);
+
+            // first slot of a collected name, where the name is put if it's not found
+            int free = -1;
+
+            int mask = names.length - 1;
+            int slot = mix(hash) & mask;
+            for ( ; names[slot] != null; slot = (slot + 1) & mask) {
+                String name = names[slot].get();
+                if (name == null) {
+                    if (free == -1)
+                        free = slot;
+                } else if (hashes[slot] == hash && name.length() == end - start && matches(name, sequence, start)) {
+                    return name;
+                }
+            }
+
+            String name = sequence.subSequence(start, end).toString();
+            if (free != -1) {
+                names[free] = new WeakReference<>(name);
+                hashes[free] = hash;
+                return name;
+            }
+
+            names[slot] = new WeakReference<>(name);
+            hashes[slot] = hash;
+            // keep the table at most half full
+            if (++used * 2 > names.length)
+                rehash();
+            return name;
+        }
+
+
+        /**
+         * Drops the collected names and grows the table if the remaining names still fill half of it
+         */
+        private void rehash() {
+            WeakReference<String>[] oldNames = names;
+            int[] oldHashes = hashes;
+
+            int live = 0;
+            for (WeakReference<String> name : oldNames) {
+                if (name != null && name.get() != null)
+                    live++;
+            }
+            int capacity = MIN_CAPACITY;
+            while (live * 4 > capacity)
+                capacity *= 2;
+
+            names = table(capacity);
+            hashes = new int[capacity];
+            used = 0;
+
+            int mask = capacity - 1;
+            for (int index = 0; index != oldNames.length; index++) {
+                if (oldNames[index] == null || oldNames[index].get() == null)
+                    continue;
+                int slot = mix(oldHashes[index]) & mask;
+                while (names[slot] != null)
+                    slot = (slot + 1) & mask;
+                names[slot] = oldNames[index];
+                hashes[slot] = oldHashes[index];
+                used++;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static WeakReference<String>[] table(int capacity) {
+            return (WeakReference<String>[]) new WeakReference<?>[capacity];
+        }
+    }
+
+}
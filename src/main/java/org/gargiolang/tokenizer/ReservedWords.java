@@ -0,0 +1,122 @@
+package org.gargiolang.tokenizer;
+
+import org.gargiolang.runtime.variable.Variable;
+import org.gargiolang.tokenizer.tokens.Keyword;
+import org.gargiolang.tokenizer.tokens.TokenType;
+
+/**
+ * Recognizes keywords, types and booleans with a perfect hash: every reserved word has its own slot,
+ * so a word is recognized with a single comparison. The hash only reads the first and last character
+ * and the length of the word, the multipliers that make it collision free are searched once when the class is loaded.
+ * Types are case insensitive, as in Variable.Type.getType()
+ */
+public final class ReservedWords {
+
+    public static final class Word {
+
+        public final String spelling;
+        public final TokenType type;
+        public final Object value;
+
+        private Word(String spelling, TokenType type, Object value) {
+            this.spelling = spelling;
+            this.type = type;
+            this.value = value;
+        }
+
+        private boolean matches(CharSequence sequence, int start, int end) {
+            if (end - start != spelling.length())
+                return false;
+            for (int index = 0; index != spelling.length(); index++) {
+                char c = sequence.charAt(start + index);
+                // only types ignore the case
+                if (type == TokenType.TYPE)
+                    c = lower(c);
+                if (c != spelling.charAt(index))
+                    return false;
+            }
+            return true;
+        }
+    }
+
+
+    private static final int SIZE = 64;
+
+    private static final Word[] table = new Word[SIZE];
+    // multipliers of the first and of the last character
+    private static final int first;
+    private static final int last;
+
+    static {
+        Word[] words = new Word[Keyword.values().length + Variable.Type.values().length + 2];
+        int count = 0;
+        for (Keyword keyword : Keyword.values()) {
+            words[count++] = new Word(keyword.getRepr(), TokenType.KEYWORD, keyword);
+        }
+        for (Variable.Type type : Variable.Type.values()) {
+            words[count++] = new Word(type.name().toLowerCase(), TokenType.TYPE, type);
+        }
+        words[count++] = new Word("true", TokenType.BOOL, true);
+        words[count] = new Word("false", TokenType.BOOL, false);
+
+        int multipliers = search(words);
+        first = multipliers >>> 16;
+        last = multipliers & 0xffff;
+        for (Word word : words) {
+            table[hash(word.spelling, 0, word.spelling.length(), first, last)] = word;
+        }
+    }
+
+
+    private ReservedWords() {
+
+    }
+
+
+    /**
+     * Returns the reserved word between start (inclusive) and end (exclusive), null if the text is not reserved
+     */
+    public static Word lookup(CharSequence sequence, int start, int end) {
+        Word word = table[hash(sequence, start, end, first, last)];
+        if (word != null && word.matches(sequence, start, end))
+            return word;
+        return null;
+    }
+
+
+    private static int hash(CharSequence sequence, int start, int end, int first, int last) {
+        return (lower(sequence.charAt(start)) * first + lower(sequence.charAt(end - 1)) * last + (end - start)) & (SIZE - 1);
+    }
+
+    private static char lower(char c) {
+        return 'A' <= c && c <= 'Z' ? (char) (c + 32) : c;
+    }
+
+    /**
+     * Finds the first pair of multipliers that gives every word its own slot
+     *
+     * @return the multiplier of the first character in the high 16 bits, the one of the last character in the low 16 bits
+     */
+    private static int search(Word[] words) {
+        for (int first = 1; first < SIZE; first++) {
+            for (int last = 1; last < SIZE; last++) {
+                boolean[] taken = new boolean[SIZE];
+                boolean collision = false;
+
+                for (Word word : words) {
+                    int slot = hash(word.spelling, 0, word.spelling.length(), first, last);
+                    if (taken[slot]) {
+                        collision = true;
+                        break;
+                    }
+                    taken[slot] = true;
+                }
+
+                if (!collision)
+                    return first << 16 | last;
+            }
+        }
+        throw new IllegalStateException("No perfect hash for the reserved words");
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.gargiolang.tokenizer;
+
+import org.gargiolang.exception.GargioniException;
+import org.gargiolang.tokenizer.tokens.TokenLine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * A sequence of statements that is read one statement at a time, so that the whole script never has to be in memory.
+ * Sources that read a file close it in close()
+ */
+@FunctionalInterface
+public interface StatementSource extends Closeable {
+
+    /**
+     * Returns the next statement, null once there are no more
+     */
+    String next() throws GargioniException, IOException;
+
+    /**
+     * Returns the tokens of the statement last returned by next() if they are already known,
+     * e.g. for the statements of a library that has been lexed before, null if the statement must be tokenized.
+     * The returned line is shared and must be copied
+     */
+    default TokenLine tokens() {
+        return null;
+    }
+
+    /**
+     * Returns the name of the file the statements are read from, null if they don't come from a file
+     */
+    default String name() {
+        return null;
+    }
+
+    /**
+     * Returns the line of the file the statement last returned by next() starts on, counted from 1, 0 if unknown
+     */
+    default int line() {
+        return 0;
+    }
+
+    @Override
+    default void close() throws IOException {
+
+    }
+
+
+    static StatementSource of(Iterable<String> statements) {
+        Iterator<String> iterator = statements.iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+
+}
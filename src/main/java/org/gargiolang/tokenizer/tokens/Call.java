@@ -6,14 +6,20 @@ public enum Call {
 
     OPEN, CLOSE;
 
+    // priority added to the tokens between Call tokens, so that the arguments are evaluated before the function
+    private static final int ARGUMENTS_PRIORITY = 10;
+
+
     /**
-     * Increases the priority of tokens between Call tokens
+     * Increases the priority of tokens between Call tokens above the priority of the function,
+     * which takes the priority of the opening Call so that it's called before the operators around it
      *
      * @param interpreter the interpreter
      */
     public static void evaluate(Interpreter interpreter) {
 
         Token currentToken =  interpreter.getCurrentToken();
+        currentToken.getPrev().setPriority(currentToken.getPriority());
         currentToken.setPriority(-1);
 
         int depth = 1;
@@ -32,8 +38,8 @@ public enum Call {
                 }
             }
 
-            if (token.getPriority() > 1) // greater or equal to 0, but faster execution
-                token.incrementPriority();
+            if (token.getPriority() > 0)
+                token.setPriority(token.getPriority() + ARGUMENTS_PRIORITY);
         }
 
     }
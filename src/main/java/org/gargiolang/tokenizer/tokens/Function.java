@@ -11,7 +11,7 @@ import java.util.LinkedList;
 
 public class Function {
 
-    public static void evaluate(Interpreter interpreter) throws UndefinedFunctionException, VariableRedeclarationException, InvalidArgumentsException, UndeclaredVariableException, BadTypeException, UnrecognizedTypeException, IndexOutOfBoundsException {
+    public static void evaluate(Interpreter interpreter) throws UndefinedFunctionException, VariableRedeclarationException, InvalidArgumentsException, StackOverflowException, EmptyCallStackException, UndeclaredVariableException, BadTypeException, UnrecognizedTypeException, IndexOutOfBoundsException {
 
         TokenLine line = interpreter.getLine();
         Token currentToken = interpreter.getCurrentToken();
@@ -28,9 +28,10 @@ public class Function {
         for ( ; arg.getType() != TokenType.CALL; arg = arg.getNext()) {
 
             args.add(new Variable(
-                        arg.getVarValue(runtime),
+                        arg,
                         arg.getVarType(runtime),
-                        Accessibility.PUBLIC));
+                        Accessibility.PUBLIC,
+                        runtime));
             line.remove(arg);
         }
 
@@ -43,8 +44,12 @@ public class Function {
         org.gargiolang.runtime.function.Function function = runtime.getFunctionTable().getFunction(funcName);
 
 
-        // call the function
-        function.call(interpreter, args);
+        // call the function, a call of the enclosing function in tail position reuses its frame
+        org.gargiolang.runtime.function.Call caller = runtime.getCallStack().peek();
+        if (currentToken.isTailCall() && caller != null && caller.getFunction() == function)
+            function.tailCall(interpreter, args);
+        else
+            function.call(interpreter, args);
 
     }
 
@@ -3,18 +3,18 @@ package org.gargiolang.tokenizer.tokens;
 import org.gargiolang.exception.evaluation.*;
 import org.gargiolang.tokenizer.tokens.operators.ArithmeticOperator;
 import org.gargiolang.tokenizer.tokens.operators.Parenthesis;
+import org.gargiolang.runtime.IntStack;
 import org.gargiolang.runtime.Interpreter;
 import org.gargiolang.runtime.Runtime;
 import org.gargiolang.runtime.function.Call;
 import org.gargiolang.runtime.function.Function;
 import org.gargiolang.runtime.function.Parameter;
+import org.gargiolang.runtime.lib.NativeTable;
 import org.gargiolang.runtime.variable.Accessibility;
 import org.gargiolang.runtime.variable.SymbolTable;
 import org.gargiolang.runtime.variable.Variable;
-import org.gargiolang.util.ReflectionUtils;
 
 import java.util.LinkedList;
-import java.util.Stack;
 
 public enum Keyword {
 
@@ -48,18 +48,14 @@ public enum Keyword {
         this.priority = priority;
     }
 
-    public static boolean isKeyword(String str){
-        for(Keyword keyword : Keyword.values()){
-            if(keyword.value.equals(str)) return true;
-        }
-        return false;
-    }
-
-
     public int getPriority() {
         return this.priority;
     }
 
+    public String getRepr() {
+        return value;
+    }
+
 
     public static void evaluate(Interpreter interpreter) throws EvaluationException, ReflectiveOperationException {
         Token currentToken = interpreter.getCurrentToken();
@@ -112,7 +108,7 @@ public enum Keyword {
                 // check if the boolean condition is true
                 if (condition.getVarValue(interpreter.getRuntime()).equals(true)) {
                     interpreter.setLineFrom(ifBlock.getFirstLine(), ifBlock.getFirstToken());
-                    interpreter.setCurrentToken(line.getFirst());
+                    interpreter.setCurrentToken(interpreter.getLine().getFirst());
                     // tell the interpreter not to search for the highest priority token next time
                     interpreter.blockCurrentToken();
                 }
@@ -150,6 +146,9 @@ public enum Keyword {
                 // push a new scope to the stack
                 interpreter.getRuntime().getSymbolTable().pushScope();
 
+                // lines loaded from now on are released at every iteration
+                int scratchMark = interpreter.markScratch();
+
                 // get the position of parenthesis
                 TokenBlock parenthesis = Parenthesis.findNextParenthesis(interpreter);
 
@@ -167,7 +166,7 @@ public enum Keyword {
                 interpreter.executeLine();
 
                 // check if the condition statement evaluates to a boolean (e.g. i < 10;)
-                interpreter.setLine(condition.copy());
+                interpreter.setLineCopy(condition);
                 interpreter.executeLine();
                 if (interpreter.getLine().isEmpty() || interpreter.getLine().getFirst().getType() != TokenType.BOOL)
                     throw new BadTypeException("Statement does not evaluate to a boolean: " + condition);
@@ -181,9 +180,12 @@ public enum Keyword {
                 boolean forLooping = true;
                 while (forLooping) {
 
+                    // the lines of the previous iteration are not needed anymore
+                    interpreter.releaseScratch(scratchMark);
+
                     // check the second boolean statement (the loop's condition e.g. i < 10;)
-                    interpreter.setLine(condition.copy());
-                    if (!(boolean) interpreter.executeLine().getFirst().asBool().getValue())
+                    interpreter.setLineCopy(condition);
+                    if (!interpreter.executeLine().getFirst().asBool(interpreter.getRuntime()).getBoolean())
                         break;
 
                     // execute the code block
@@ -229,7 +231,7 @@ public enum Keyword {
                     } // ---------------------------- end of code block
 
                     // execute third statement (e.g. i++;)
-                    interpreter.setLine(action.copy());
+                    interpreter.setLineCopy(action);
                     interpreter.executeLine();
 
                 } // ----------------------------------  end of for loop
@@ -256,9 +258,9 @@ public enum Keyword {
                 if (toLineToken.getType() == TokenType.TXT) {
                     // push the lineIndex from where goto has been called to the gotoStack
                     interpreter.getRuntime().getGotoStack().push(interpreter.getLineIndex());
-                    // set the line of execution to the specified labelled line
-                    interpreter.setLineIndex(
-                            interpreter.getRuntime().getLabelTable().getLabel((String) toLineToken.getValue()) - 1); // -1 because the interpreter increments lineIndex by 1 in its for loop
+                    // set the line of execution to the specified labelled line, gotos are linked to it before the script is executed
+                    int label = currentToken.isLinked() ? currentToken.getLink() : interpreter.getRuntime().getLabelTable().getLabel((String) toLineToken.getValue());
+                    interpreter.setLineIndex(label - 1); // -1 because the interpreter increments lineIndex by 1 in its for loop
                 } else {
                     throw new BadTypeException("Goto accepts only TokenType.TXT, but '" + toLineToken.getType() + "' was provided");
                 }
@@ -286,6 +288,9 @@ public enum Keyword {
                 // push new scope
                 interpreter.getRuntime().getSymbolTable().pushScope();
 
+                // lines loaded from now on are released at every iteration
+                int scratchMark = interpreter.markScratch();
+
                 // get the loop's condition statement
                 TokenBlock parenthesis = Parenthesis.findNextParenthesis(interpreter);
                 TokenLine condition = interpreter.getLine(parenthesis.getFirstLine()).subList(parenthesis.getFirstToken().getNext(), parenthesis.getLastToken().getPrev());
@@ -294,7 +299,7 @@ public enum Keyword {
                 TokenBlock whileBlock = Scope.findNextScope(interpreter);
 
                 // check if loop's condition statement evaluates to a boolean
-                interpreter.setLine(condition.copy());
+                interpreter.setLineCopy(condition);
                 interpreter.executeLine();
                 if (interpreter.getLine().isEmpty() || interpreter.getLine().getFirst().getType() != TokenType.BOOL)
                     throw new BadTypeException("Statement does not evaluate to a boolean: " + interpreter.getLine(parenthesis.getFirstLine()).subList(parenthesis.getFirstToken().getNext(), parenthesis.getLastToken()));
@@ -303,9 +308,12 @@ public enum Keyword {
                 boolean whileLooping = true;
                 while (whileLooping) {
 
+                    // the lines of the previous iteration are not needed anymore
+                    interpreter.releaseScratch(scratchMark);
+
                     // check the loop's condition
-                    interpreter.setLine(condition.copy());
-                    if (!(boolean)interpreter.executeLine().getFirst().asBool().getValue())
+                    interpreter.setLineCopy(condition);
+                    if (!interpreter.executeLine().getFirst().asBool(interpreter.getRuntime()).getBoolean())
                         break;
 
                     // execute the code block
@@ -360,7 +368,7 @@ public enum Keyword {
             }
 
             case GOBACK -> {
-                Stack<Integer> gotoStack = interpreter.getRuntime().getGotoStack();
+                IntStack gotoStack = interpreter.getRuntime().getGotoStack();
                 if (gotoStack.isEmpty())
                     throw new GoBackException("Cannot go back more than this: goto stack is empty");
                 interpreter.setLineIndex(gotoStack.pop() - 1);
@@ -423,6 +431,7 @@ public enum Keyword {
 
                 // create the function
                 Function function = new Function(
+                        functionName,
                         tokenBlock.getFirstLine(),
                         tokenBlock.getFirstToken(),
                         params,
@@ -468,9 +477,10 @@ public enum Keyword {
                         throw new BadTypeException("Return type is '" + function.getReturnType() + "', but '" + returnType + "' was provided");
 
                     returnValue = new Variable(
-                            returnToken.getVarValue(runtime),
+                            returnToken,
                             returnType,
-                            Accessibility.PUBLIC
+                            Accessibility.PUBLIC,
+                            runtime
                     );
                 }
 
@@ -481,6 +491,7 @@ public enum Keyword {
 
                 // restore the previous interpreter's state
                 interpreter.setLine(call.getLineState(), call.getCalledFromLine(), call.getCalledFromToken());
+                interpreter.unpinScratch(call.getScratchBase());
 
 
                 // initialize return token
@@ -491,62 +502,63 @@ public enum Keyword {
                     returnToken = new Token(TokenType.fromVarType(returnValue.getType()), returnValue.getValue());
                 }
 
-                // actually return the token
-                interpreter.getLine().replace(currentToken, returnToken);
+                // replace the call with the returned token
+                interpreter.getLine().replace(call.getCalledFromToken(), returnToken);
 
             }
 
             case SYSTEM -> {
                 /*
-                    - get function name
-                    - get function arguments
-                    - call the function
-                    - clear the line
+                    - get the function to call, linked by the Resolver if its name is a literal
+                    - call the function with the arguments that follow its name
+                    - replace the call with its result
                  */
 
                 TokenLine line = interpreter.getLine();
                 Runtime runtime = interpreter.getRuntime();
 
-
-                // get function name to call
                 Token funcNameToken = currentToken.getNext();
-                // ensure argument is a string
-                if (funcNameToken.getVarType(runtime) != Variable.Type.STRING)
-                    throw new BadTypeException("Type String is required, but " + funcNameToken + " was provided");
-                String funcName = (String) funcNameToken.getVarValue(runtime);
+                NativeTable.Native function;
+                if (currentToken.isLinked()) {
+                    function = NativeTable.get(currentToken.getLink());
+                } else {
+                    // ensure argument is a string
+                    if (funcNameToken.getVarType(runtime) != Variable.Type.STRING)
+                        throw new BadTypeException("Type String is required, but " + funcNameToken + " was provided");
+                    function = NativeTable.get((String) funcNameToken.getVarValue(runtime));
+                }
 
 
-                // get function arguments
-                LinkedList<Object> args = new LinkedList<>();
                 // every token in the line is considered to be an argument
-                for (Token token = funcNameToken.getNext(); token != null; token = token.getNext()) {
-                    args.add(token.getVarValue(runtime));
-                }
+                Token first = funcNameToken.getNext();
+                Token second = first == null ? null : first.getNext();
+                if (second != null && second.hasNext())
+                    throw new InvalidArgumentsException("System function " + function.name + " takes " + function.arity + " arguments, but more than 2 were provided");
 
+                Object result;
+                if (first == null)
+                    result = function.call(runtime);
+                else if (second == null)
+                    result = function.call(runtime, first.getVarValue(runtime));
+                else
+                    result = function.call(runtime, first.getVarValue(runtime), second.getVarValue(runtime));
 
-                // invoke the system call
-                Object obj = ReflectionUtils.invokeSystemCall(funcName, args);
-                Variable.Type type = funcNameToken.getVarType(runtime);
 
-                if(type == Variable.Type.NULL) {
+                if (function.type == Variable.Type.NULL) {
                     // clear the line
                     line.clear();
                 } else {
-                    // TODO: 03/12/20 what is this supposed to do?
-                    if (line.size() > line.indexOf(currentToken)) {
-                        line.removeFrom(currentToken);
-                    }
+                    line.removeFrom(currentToken);
 
                     TokenType tokenType = null;
-
-                    switch (type){
+                    switch (function.type) {
                         case INT, FLOAT -> tokenType = TokenType.NUM;
                         case BOOLEAN -> tokenType = TokenType.BOOL;
                         case STRING -> tokenType = TokenType.STR;
                     }
 
                     assert tokenType != null;
-                    line.append(new Token(tokenType, obj));
+                    line.append(new Token(tokenType, result));
                 }
 
             }
@@ -571,6 +583,8 @@ public enum Keyword {
                 // search for variable names in the string
 
                 String fString = (String) fStringToken.getValue();
+                // the + operators keep the priority the f-string got from the parentheses or the call it's in
+                int boost = currentToken.getPriority() - F.getPriority();
                 // currentToken reference is changed --> from here it doesn't point to the current token that is being evaluated (namely "f")
                 line.remove(currentToken);
                 currentToken = fStringToken;
@@ -602,7 +616,7 @@ public enum Keyword {
                         line.insertAfter(currentToken, strBefore);
 
                         // insert a + operator
-                        line.insertAfter(strBefore, new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.ADD));
+                        line.insertAfter(strBefore, concatenation(boost));
 
                         // get the variable in the string
                         String varName = fString.substring(i + 1, closingBracket);
@@ -612,7 +626,7 @@ public enum Keyword {
                         line.insertAfter(strBefore.getNext(), variable);
 
                         // insert a + operator
-                        line.insertAfter(variable, new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.ADD));
+                        line.insertAfter(variable, concatenation(boost));
                         currentToken = variable.getNext();
 
                         // set the iteration index to after the closing bracket
@@ -634,4 +648,14 @@ public enum Keyword {
     }
 
 
+    /**
+     * Returns a + operator for an f-string, with its priority increased by the given amount
+     */
+    private static Token concatenation(int boost) {
+        Token token = new Token(TokenType.ARITHMETIC_OPERATOR, ArithmeticOperator.ADD);
+        token.setPriority(token.getPriority() + boost);
+        return token;
+    }
+
+
 }
@@ -6,14 +6,41 @@ import org.gargiolang.tokenizer.tokens.operators.LogicalOperator;
 import org.gargiolang.runtime.Runtime;
 import org.gargiolang.runtime.variable.Variable;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Token {
 
-    private static int classId;
+    // ids are handed out to every thread in blocks, so that tokens can be created in parallel without contention
+    private static final int ID_BLOCK = 1 << 12;
+    private static final AtomicInteger classId = new AtomicInteger();
+    private static final ThreadLocal<int[]> idBlock = ThreadLocal.withInitial(() -> new int[] {0, 0});
 
-    private final TokenType tokenType;
+    private TokenType tokenType; // not final since tokens are reused by the Interpreter's scratch lines, see load()
     private Object value;
+
+    // INT, FLOAT and BOOLEAN values are kept unboxed in bits, tag is the type of the value in bits or null if value is used
+    private Variable.Type tag;
+    private long bits;
+
     private int priority; // priority should not be final
-    private final int id;
+    private int id;
+
+    // token of the script this token is a copy of (null if this token is not a copy)
+    private Token origin;
+
+    // (depth, slot) of the variable referenced by a TXT token, see Resolver
+    private int depth = -1; // number of scopes between the innermost scope and the one the variable is declared in
+    private int slot;
+
+    // index of the native function a SYSTEM keyword calls (see NativeTable) or line of the label a GOTO jumps to (see BlockTable),
+    // -1 if it's looked up by name
+    private int link = -1;
+
+    // whether a FUNC token calls the function it's in from tail position, see Resolver
+    private boolean tailCall;
+
+    // operand kinds observed by an operator of the script, see InlineCache. Not copied, it's kept by the origin token
+    private int profile;
 
     // for TokenLine doubly-linked list
     private Token prev;
@@ -23,7 +50,7 @@ public class Token {
     public Token(TokenType tokenType, Object value) {
         this.id = Token.getId();
         this.tokenType = tokenType;
-        this.value = value;
+        setValue(value);
 
         // switch statement for setting priority
         switch (tokenType)
@@ -43,84 +70,151 @@ public class Token {
     /**
      * To be used when copying a token
      */
-    private Token(TokenType tokenType, Object value, int priority, int id) {
+    private Token(TokenType tokenType, Object value, Variable.Type tag, long bits, int priority, int id, int depth, int slot, int link, boolean tailCall, Token origin) {
         this.tokenType = tokenType;
         this.value = value;
+        this.tag = tag;
+        this.bits = bits;
         this.priority = priority;
         this.id = id;
+        this.depth = depth;
+        this.slot = slot;
+        this.link = link;
+        this.tailCall = tailCall;
+        this.origin = origin;
     }
 
 
-    public static int getId() {
-        return classId ++;
+    /**
+     * To be used for values that are created unboxed
+     */
+    private Token(TokenType tokenType, Variable.Type tag, long bits) {
+        this(tokenType, null, tag, bits, tokenType.getPriority(), Token.getId(), -1, 0, -1, false, null);
+    }
+
+    public static Token ofBoolean(boolean value) {
+        return new Token(TokenType.BOOL, Variable.Type.BOOLEAN, value ? 1 : 0);
     }
 
 
-    public void buildValue(char c) {
-        // build the token's value based on it's type
-        switch (tokenType) {
-            case NUM, TXT, STR -> value += Character.toString(c);
+    public static int getId() {
+        // next id and end of the block of the thread
+        int[] block = idBlock.get();
+        if (block[0] == block[1]) {
+            block[0] = classId.getAndAdd(ID_BLOCK);
+            block[1] = block[0] + ID_BLOCK;
         }
+        return block[0] ++;
     }
 
 
-    public Token add(Token other) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
+    /*
+        Every operation writes its result into the given result token, which is turned into a literal.
+        The Interpreter passes the scratch copy of the operator, so that evaluating an expression doesn't allocate new tokens.
+        The overloads without a result token return a new token
+     */
+
+    public Token add(Token other, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
+        return add(other, new Token(TokenType.NUM, null), runtime);
+    }
+
+    public Token add(Token other, Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException {
         // let the variable type handle the operation
-        return this.getVarType(Runtime.getRuntime()).sum(this, other);
+        return this.getVarType(runtime).sum(this, other, result, runtime);
     }
 
-    public Token subtract(Token other) throws UnrecognizedTypeException, UnhandledOperationException, UnimplementedException, UndeclaredVariableException {
-        return this.getVarType(Runtime.getRuntime()).subtract(this, other);
+    public Token subtract(Token other, Runtime runtime) throws UnrecognizedTypeException, UnhandledOperationException, UnimplementedException, UndeclaredVariableException {
+        return subtract(other, new Token(TokenType.NUM, null), runtime);
     }
 
-    public Token multiply(Token other) throws UnrecognizedTypeException, UnhandledOperationException, UnimplementedException, UndeclaredVariableException {
-        return this.getVarType(Runtime.getRuntime()).multiply(this, other);
+    public Token subtract(Token other, Token result, Runtime runtime) throws UnrecognizedTypeException, UnhandledOperationException, UnimplementedException, UndeclaredVariableException {
+        return this.getVarType(runtime).subtract(this, other, result, runtime);
     }
 
-    public Token divide(Token other) throws UnrecognizedTypeException, ZeroDivisionException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
-        return this.getVarType(Runtime.getRuntime()).divide(this, other);
+    public Token multiply(Token other, Runtime runtime) throws UnrecognizedTypeException, UnhandledOperationException, UnimplementedException, UndeclaredVariableException {
+        return multiply(other, new Token(TokenType.NUM, null), runtime);
     }
 
-    public Token mod(Token other) throws UnrecognizedTypeException, ZeroDivisionException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
-        return this.getVarType(Runtime.getRuntime()).mod(this, other);
+    public Token multiply(Token other, Token result, Runtime runtime) throws UnrecognizedTypeException, UnhandledOperationException, UnimplementedException, UndeclaredVariableException {
+        return this.getVarType(runtime).multiply(this, other, result, runtime);
     }
 
-    public Token power(Token other) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException {
-        return this.getVarType(Runtime.getRuntime()).power(this, other);
+    public Token divide(Token other, Runtime runtime) throws UnrecognizedTypeException, ZeroDivisionException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
+        return divide(other, new Token(TokenType.NUM, null), runtime);
     }
 
-    public void increment() throws UnhandledOperationException, UndeclaredVariableException, UnrecognizedTypeException, UnimplementedException {
+    public Token divide(Token other, Token result, Runtime runtime) throws UnrecognizedTypeException, ZeroDivisionException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
+        return this.getVarType(runtime).divide(this, other, result, runtime);
+    }
+
+    public Token mod(Token other, Runtime runtime) throws UnrecognizedTypeException, ZeroDivisionException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
+        return mod(other, new Token(TokenType.NUM, null), runtime);
+    }
+
+    public Token mod(Token other, Token result, Runtime runtime) throws UnrecognizedTypeException, ZeroDivisionException, UndeclaredVariableException, UnimplementedException, UnhandledOperationException {
+        return this.getVarType(runtime).mod(this, other, result, runtime);
+    }
+
+    public Token power(Token other, Runtime runtime) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException {
+        return power(other, new Token(TokenType.NUM, null), runtime);
+    }
+
+    public Token power(Token other, Token result, Runtime runtime) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException {
+        return this.getVarType(runtime).power(this, other, result, runtime);
+    }
+
+    public void increment(Runtime runtime) throws UnhandledOperationException, UndeclaredVariableException, UnrecognizedTypeException, UnimplementedException {
         // check if token is a variable
         if (this.getType() != TokenType.TXT)
             throw new UnhandledOperationException("Can only increment a variable, but " + this + " was provided");
-        this.getVarType(Runtime.getRuntime()).increment(this);
+        this.getVarType(runtime).increment(this, runtime);
     }
 
-    public void decrement() throws UnhandledOperationException, UndeclaredVariableException, UnrecognizedTypeException, UnimplementedException {
+    public void decrement(Runtime runtime) throws UnhandledOperationException, UndeclaredVariableException, UnrecognizedTypeException, UnimplementedException {
         // check if token is a variable
         if (this.getType() != TokenType.TXT)
             throw new UnhandledOperationException("Can only decrement a variable, but " + this + " was provided");
-        this.getVarType(Runtime.getRuntime()).decrement(this);
+        this.getVarType(runtime).decrement(this, runtime);
+    }
+
+    public Token greaterThan(Token other, Runtime runtime) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException {
+        return greaterThan(other, new Token(TokenType.BOOL, null), runtime);
+    }
+
+    public Token greaterThan(Token other, Token result, Runtime runtime) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException {
+        return this.getVarType(runtime).greaterThan(this, other, result, runtime);
     }
 
-    public Token greaterThan(Token other) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException{
-        return this.getVarType(Runtime.getRuntime()).greaterThan(this, other);
+    public Token lessThan(Token other, Runtime runtime) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException {
+        return lessThan(other, new Token(TokenType.BOOL, null), runtime);
     }
 
-    public Token lessThan(Token other) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException{
-        return this.getVarType(Runtime.getRuntime()).lessThan(this, other);
+    public Token lessThan(Token other, Token result, Runtime runtime) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException {
+        return this.getVarType(runtime).lessThan(this, other, result, runtime);
     }
 
-    public Token equalsTo(Token other) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException{
-        return this.getVarType(Runtime.getRuntime()).equalsTo(this, other);
+    public Token equalsTo(Token other, Runtime runtime) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException {
+        return equalsTo(other, new Token(TokenType.BOOL, null), runtime);
     }
 
-    public Token notEqualsTo(Token other) throws UnrecognizedTypeException, UnhandledOperationException, UnimplementedException, UndeclaredVariableException {
-        return this.getVarType(Runtime.getRuntime()).notEqualsTo(this, other);
+    public Token equalsTo(Token other, Token result, Runtime runtime) throws UnrecognizedTypeException, UnimplementedException, UnhandledOperationException, UndeclaredVariableException {
+        return this.getVarType(runtime).equalsTo(this, other, result, runtime);
     }
 
-    public Token not() throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
-        return this.getVarType(Runtime.getRuntime()).not(this);
+    public Token notEqualsTo(Token other, Runtime runtime) throws UnrecognizedTypeException, UnhandledOperationException, UnimplementedException, UndeclaredVariableException {
+        return notEqualsTo(other, new Token(TokenType.BOOL, null), runtime);
+    }
+
+    public Token notEqualsTo(Token other, Token result, Runtime runtime) throws UnrecognizedTypeException, UnhandledOperationException, UnimplementedException, UndeclaredVariableException {
+        return this.getVarType(runtime).notEqualsTo(this, other, result, runtime);
+    }
+
+    public Token not(Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
+        return not(new Token(TokenType.BOOL, null), runtime);
+    }
+
+    public Token not(Token result, Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
+        return this.getVarType(runtime).not(this, result, runtime);
     }
 
     /**
@@ -128,10 +222,23 @@ public class Token {
      *
      * @return the boolean representation of the token's value
      */
-    public Token asBool() throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
+    public Token asBool(Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
         if (this.getType() == TokenType.BOOL)
             return this;
-        return this.getVarType(Runtime.getRuntime()).asBool(this);
+        return this.getVarType(runtime).asBool(this, runtime);
+    }
+
+    /**
+     * Same as asBool(), but no token is created for booleans
+     *
+     * @return the boolean representation of the token's value
+     */
+    public boolean isTrue(Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException, UnimplementedException {
+        if (this.getType() == TokenType.BOOL)
+            return getBoolean();
+        if (this.getVarType(runtime) == Variable.Type.BOOLEAN)
+            return getVarBoolean(runtime);
+        return asBool(runtime).getBoolean();
     }
 
 
@@ -142,25 +249,172 @@ public class Token {
     // return the type of the token's value, not the token's
     public Variable.Type getVarType(Runtime runtime) throws UnrecognizedTypeException, UndeclaredVariableException {
         if (this.getType() == TokenType.TXT) {
-            return runtime.getSymbolTable().getVariableThrow((String) this.value).getType();
+            return runtime.getSymbolTable().getVariableThrow(this).getType();
         }
         return Variable.Type.extractVarType(this);
     }
 
 
     public Object getValue() {
-        return value;
+        return tag == null ? value : tag.box(bits);
     }
 
     // if token is a variable --> return its value, otherwise return token's value
     public Object getVarValue(Runtime runtime) throws UndeclaredVariableException {
         if (this.getType() == TokenType.TXT)
-            return runtime.getSymbolTable().getVariableThrow((String) this.value).getValue();
+            return runtime.getSymbolTable().getVariableThrow(this).getValue();
         else return getValue();
     }
 
     public void setValue(Object value) {
-        this.value = value;
+        this.tag = Variable.Type.tagOf(value);
+        if (tag == null) {
+            this.value = value;
+        } else {
+            this.value = null;
+            this.bits = Variable.Type.toBits(value);
+        }
+    }
+
+
+    /**
+     * Returns the type of the unboxed value of the token, null if the value is an object
+     */
+    public Variable.Type getTag() {
+        return tag;
+    }
+
+    public long getBits() {
+        return bits;
+    }
+
+    public boolean getBoolean() {
+        return bits != 0;
+    }
+
+    /**
+     * Turns this token into a literal of the given type, e.g. to hold the result of an operation
+     */
+    public void set(TokenType tokenType, Object value) {
+        this.tokenType = tokenType;
+        this.priority = tokenType.getPriority();
+        setValue(value);
+    }
+
+    public void setInt(int value) {
+        set(TokenType.NUM, Variable.Type.INT, value);
+    }
+
+    public void setDouble(double value) {
+        set(TokenType.NUM, Variable.Type.FLOAT, Double.doubleToRawLongBits(value));
+    }
+
+    public void setBoolean(boolean value) {
+        set(TokenType.BOOL, Variable.Type.BOOLEAN, value ? 1 : 0);
+    }
+
+    private void set(TokenType tokenType, Variable.Type tag, long bits) {
+        this.tokenType = tokenType;
+        this.priority = tokenType.getPriority();
+        this.value = null;
+        this.tag = tag;
+        this.bits = bits;
+    }
+
+    /**
+     * Turns this token into a literal holding the value of the given variable.
+     * Only INT, FLOAT and BOOLEAN values are loaded
+     *
+     * @return the type of the loaded value or null if the variable holds an object and the token hasn't been modified
+     */
+    public Variable.Type load(Variable variable) {
+        Variable.Type tag = variable.getTag();
+        if (tag != null)
+            set(tag == Variable.Type.BOOLEAN ? TokenType.BOOL : TokenType.NUM, tag, variable.getBits());
+        return tag;
+    }
+
+    // same as getVarValue(), but the value is not boxed. The value must be of the requested type
+    public int getVarInt(Runtime runtime) throws UndeclaredVariableException {
+        if (this.getType() == TokenType.TXT)
+            return runtime.getSymbolTable().getVariableThrow(this).getInt();
+        return (int) bits;
+    }
+
+    public double getVarDouble(Runtime runtime) throws UndeclaredVariableException {
+        if (this.getType() == TokenType.TXT)
+            return runtime.getSymbolTable().getVariableThrow(this).getDouble();
+        return Double.longBitsToDouble(bits);
+    }
+
+    public boolean getVarBoolean(Runtime runtime) throws UndeclaredVariableException {
+        if (this.getType() == TokenType.TXT)
+            return runtime.getSymbolTable().getVariableThrow(this).getBoolean();
+        return bits != 0;
+    }
+
+
+    /**
+     * Binds the token to the variable declared in the given slot of the scope
+     * that is depth scopes outside of the innermost one
+     *
+     * @param depth the number of scopes between the innermost scope and the variable's one
+     * @param slot the slot of the variable in its scope
+     */
+    public void bind(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    public boolean isBound() {
+        return depth != -1;
+    }
+
+    /**
+     * Links a SYSTEM keyword to the function it calls or a GOTO to the line of its label.
+     * Copies of the token are linked as well
+     *
+     * @param index the index of the native function or the line of the label
+     */
+    public void link(int index) {
+        this.link = index;
+    }
+
+    public boolean isLinked() {
+        return link != -1;
+    }
+
+    public int getLink() {
+        return link;
+    }
+
+    /**
+     * Marks a FUNC token as a call of the enclosing function in tail position (return f(...)), see Resolver.
+     * Copies of the token are marked as well
+     */
+    public void markTailCall() {
+        this.tailCall = true;
+    }
+
+    public boolean isTailCall() {
+        return tailCall;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+
+    public int getProfile() {
+        return profile;
+    }
+
+    public void setProfile(int profile) {
+        this.profile = profile;
     }
 
 
@@ -222,7 +476,46 @@ public class Token {
 
 
     public Token copy() {
-        return new Token(tokenType, value, priority, id);
+        return new Token(tokenType, value, tag, bits, priority, id, depth, slot, link, tailCall, getOrigin());
+    }
+
+    /**
+     * Returns a copy that is not a scratch copy of this token: its origin is itself
+     */
+    public Token detachedCopy() {
+        return new Token(tokenType, value, tag, bits, priority, id, depth, slot, link, tailCall, null);
+    }
+
+
+    /**
+     * Turns this token into a copy of the given one, without allocating a new token.
+     * The links to the previous and next tokens are left to the caller
+     *
+     * @param token the token to copy
+     */
+    public void load(Token token) {
+        this.tokenType = token.tokenType;
+        this.value = token.value;
+        this.tag = token.tag;
+        this.bits = token.bits;
+        this.priority = token.priority;
+        this.id = token.id;
+        this.depth = token.depth;
+        this.slot = token.slot;
+        this.link = token.link;
+        this.tailCall = token.tailCall;
+        this.origin = token.getOrigin();
+    }
+
+
+    /**
+     * Returns the token of the script this token has been copied from.
+     * Unlike copies, which are overwritten as the script is executed, the returned token is never modified
+     *
+     * @return the original token or this token if it's not a copy
+     */
+    public Token getOrigin() {
+        return origin == null ? this : origin;
     }
 
 
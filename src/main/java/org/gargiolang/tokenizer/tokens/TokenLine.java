@@ -1,5 +1,6 @@
 package org.gargiolang.tokenizer.tokens;
 
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 /**
@@ -10,6 +11,12 @@ public class TokenLine {
     private Token firstToken;
     private Token lastToken;
 
+    // file and lines the statement has been read from, null and 0 if unknown (e.g. statements of the interactive shell).
+    // Only the lines of the script have them, their copies don't
+    private String source;
+    private int sourceLine;
+    private int lastSourceLine;
+
     public TokenLine() {
 
     }
@@ -118,16 +125,20 @@ public class TokenLine {
 
 
     public void removeFirst() {
-        if (firstToken.hasNext()) {
+        if (firstToken != lastToken) {
             firstToken = firstToken.getNext();
+            firstToken.setPrev(null);
+            return;
         }
         // line has only one token
         clear();
     }
 
     public void removeLast() {
-        if (lastToken.hasNext()) {
-            lastToken = lastToken.getNext();
+        if (firstToken != lastToken) {
+            lastToken = lastToken.getPrev();
+            lastToken.setNext(null);
+            return;
         }
         // line has only one token
         clear();
@@ -273,13 +284,12 @@ public class TokenLine {
             return highest;
 
         for (Token token = firstToken; token != lastToken.getNext(); token = token.getNext()) {
-            if (token.getPriority() > highest.getPriority()) {
+            if (token.getPriority() > highest.getPriority())
                 highest = token;
 
-                // line evaluation should not go beyond the current scope
-                if (token.getType().equals(TokenType.SCOPE))
-                    break;
-            }
+            // line evaluation should not go beyond the current scope, the tokens after it belong to the code block
+            if (token.getType() == TokenType.SCOPE)
+                break;
         }
 
         return highest;
@@ -317,6 +327,27 @@ public class TokenLine {
         return lastToken;
     }
 
+    public String getSource() {
+        return source;
+    }
+
+    public int getSourceLine() {
+        return sourceLine;
+    }
+
+    public int getLastSourceLine() {
+        return lastSourceLine;
+    }
+
+    /**
+     * Sets the file the statement has been read from and the first and last line of the file it's on
+     */
+    public void setSource(String source, int sourceLine, int lastSourceLine) {
+        this.source = source;
+        this.sourceLine = sourceLine;
+        this.lastSourceLine = lastSourceLine;
+    }
+
     public TokenLine copy() {
         TokenLine tokenLine = new TokenLine();
 
@@ -330,6 +361,60 @@ public class TokenLine {
         return tokenLine;
     }
 
+    /**
+     * Returns a copy made of detached tokens, e.g. for the lines of a library that are shared between scripts,
+     * so that the script that gets the copy never modifies the tokens of the original
+     */
+    public TokenLine detachedCopy() {
+        TokenLine tokenLine = new TokenLine();
+        for (Token token = firstToken; token != null; token = token.getNext()) {
+            tokenLine.append(token.detachedCopy());
+            if (token == lastToken)
+                break;
+        }
+        return tokenLine;
+    }
+
+    /**
+     * Overwrites this line with a copy of the tokens from firstToken up until lastToken included.
+     * The copies are taken from the given buffer, which is grown if it's too small,
+     * so that no token is allocated once the buffer is big enough
+     *
+     * @param firstToken first token to copy
+     * @param lastToken last token to copy
+     * @param buffer tokens to copy into
+     * @return the buffer, or a bigger one if it has been grown
+     */
+    public Token[] load(Token firstToken, Token lastToken, Token[] buffer) {
+        clear();
+
+        if (firstToken == null)
+            return buffer;
+
+        int size = 0;
+        Token until = lastToken.getNext();
+        for (Token token = firstToken; token != until; token = token.getNext()) {
+
+            if (size == buffer.length)
+                buffer = Arrays.copyOf(buffer, size * 2);
+
+            Token copy = buffer[size];
+            if (copy == null) {
+                copy = token.copy();
+                buffer[size] = copy;
+            } else {
+                copy.load(token);
+            }
+            size ++;
+
+            copy.setPrev(null);
+            copy.setNext(null);
+            append(copy);
+        }
+
+        return buffer;
+    }
+
     @Override
     public String toString() {
         if (this.isEmpty())
@@ -3,6 +3,7 @@ package org.gargiolang.tokenizer.tokens.operators;
 import org.gargiolang.exception.evaluation.*;
 import org.gargiolang.exception.tokenization.UnrecognizedOperatorException;
 import org.gargiolang.runtime.Interpreter;
+import org.gargiolang.runtime.Runtime;
 import org.gargiolang.tokenizer.tokens.Token;
 import org.gargiolang.tokenizer.tokens.TokenLine;
 import org.gargiolang.tokenizer.tokens.TokenType;
@@ -65,17 +66,92 @@ public enum ArithmeticOperator {
     }
 
 
+    /**
+     * Returns the mask of the kinds of operands the operator has a fast path for, see InlineCache
+     */
+    private int fastPaths() {
+        return switch (this) {
+            case ADD, SUB, MUL, DIV, MOD, POW -> InlineCache.NUMBERS;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Monomorphic fast path: the operands are literals of the given kind, see InlineCache.check()
+     */
+    private void evaluate(int kind, Token a, Token b, Token result) throws ZeroDivisionException {
+        if (kind == InlineCache.INT_INT) {
+            int x = (int) a.getBits();
+            int y = (int) b.getBits();
+
+            switch (this) {
+                case ADD -> result.setInt(x + y);
+                case SUB -> result.setInt(x - y);
+                case MUL -> result.setInt(x * y);
+                case DIV -> {
+                    if (y == 0) throw new ZeroDivisionException("Cannot divide by zero");
+                    result.setInt(x / y);
+                }
+                case MOD -> {
+                    if (y == 0) throw new ZeroDivisionException("Cannot divide by zero");
+                    result.setInt(x % y);
+                }
+                case POW -> result.setInt((int) Math.round(Math.pow(x, y)));
+            }
+            return;
+        }
+
+        // at least one of the operands is a FLOAT
+        double x = InlineCache.toDouble(a);
+        double y = InlineCache.toDouble(b);
+
+        switch (this) {
+            case ADD -> result.setDouble(x + y);
+            case SUB -> result.setDouble(x - y);
+            case MUL -> result.setDouble(x * y);
+            case DIV -> {
+                if (y == 0) throw new ZeroDivisionException("Cannot divide by zero");
+                result.setDouble(x / y);
+            }
+            case MOD -> {
+                if (y == 0) throw new ZeroDivisionException("Cannot divide by zero");
+                result.setDouble(x % y);
+            }
+            case POW -> result.setDouble(Math.pow(x, y));
+        }
+    }
+
+
     public static void evaluate(Interpreter interpreter) throws UnrecognizedTypeException, UndeclaredVariableException, UnhandledOperationException, UnimplementedException, ZeroDivisionException {
 
         TokenLine line = interpreter.getLine();
         Token operator = interpreter.getCurrentToken();
+        Runtime runtime = interpreter.getRuntime();
+        ArithmeticOperator arithmeticOperator = (ArithmeticOperator) operator.getValue();
+
+        // take the fast path if the operands are of the kind cached at the operator
+        int fastPaths = arithmeticOperator.fastPaths();
+        if (fastPaths != 0) {
+            Token a = operator.getPrev();
+            Token b = operator.getNext();
 
-        switch ((ArithmeticOperator) operator.getValue()) {
+            int kind = InlineCache.check(operator, a, b, fastPaths, runtime.getSymbolTable());
+            if (kind != -1) {
+                arithmeticOperator.evaluate(kind, a, b, operator);
+
+                line.remove(a);
+                line.remove(b);
+                return;
+            }
+        }
+
+        switch (arithmeticOperator) {
             case ADD -> {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, a.add(b));
+                // the operator is a scratch token, it gets replaced by the result without allocating a new token
+                a.add(b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -85,7 +161,7 @@ public enum ArithmeticOperator {
                 Token b = operator.getNext();
 
                 // multiply token by -1
-                line.replace(operator, a.subtract(b));
+                a.subtract(b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -94,7 +170,7 @@ public enum ArithmeticOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, a.multiply(b));
+                a.multiply(b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -103,7 +179,7 @@ public enum ArithmeticOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, a.divide(b));
+                a.divide(b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -112,7 +188,7 @@ public enum ArithmeticOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, a.mod(b));
+                a.mod(b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -121,23 +197,23 @@ public enum ArithmeticOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, a.power(b));
+                a.power(b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
             }
             case INC -> {
-                operator.getPrev().increment();
+                operator.getPrev().increment(runtime);
                 line.remove(operator);
             }
             case DEC -> {
-                operator.getPrev().decrement();
+                operator.getPrev().decrement(runtime);
                 line.remove(operator);
             }
             case INV -> {
                 Token a = operator.getNext();
-                line.replace(a, a.multiply(minusOne));
-                line.remove(operator);
+                a.multiply(minusOne, operator, runtime);
+                line.remove(a);
             }
         }
     }
@@ -13,7 +13,7 @@ import org.gargiolang.runtime.variable.Variable;
 public class AssignmentOperator {
 
     public static void evaluate(Interpreter interpreter) throws NotLValueException, VariableRedeclarationException, UnrecognizedTypeException, UndeclaredVariableException, BadTypeException {
-        Runtime runtime = Runtime.getRuntime();
+        Runtime runtime = interpreter.getRuntime();
         SymbolTable table = runtime.getSymbolTable();
         Token operator = interpreter.getCurrentToken();
         TokenLine line = interpreter.getLine();
@@ -41,9 +41,10 @@ public class AssignmentOperator {
                 line.remove(type);
 
                 Variable variable = new Variable(
-                        rValue.getVarValue(runtime),
-                        Variable.Type.valueOf(type.getValue().toString()),
-                        Accessibility.PUBLIC);
+                        rValue,
+                        (Variable.Type) type.getValue(),
+                        Accessibility.PUBLIC,
+                        runtime);
                 table.addVariable((String) lValue.getValue(), variable);
 
                 return;
@@ -51,11 +52,7 @@ public class AssignmentOperator {
         }
 
         // whereas, if a variable type is not specified, the variable should already have been declared --> update the SymbolTable
-        Variable variable = new Variable(
-                rValue.getVarValue(runtime),
-                rValue.getVarType(runtime),
-                Accessibility.PUBLIC);
-        table.updateVariable((String) lValue.getValue(), variable);
+        table.updateVariable(lValue, rValue, runtime);
 
     }
 
@@ -0,0 +1,106 @@
+package org.gargiolang.tokenizer.tokens.operators;
+
+import org.gargiolang.exception.evaluation.UndeclaredVariableException;
+import org.gargiolang.runtime.variable.SymbolTable;
+import org.gargiolang.runtime.variable.Variable;
+import org.gargiolang.tokenizer.tokens.Token;
+import org.gargiolang.tokenizer.tokens.TokenType;
+
+/**
+ * Per operator cache of the kind of operands it's evaluated with.
+ *
+ * The first time an operator of the script is evaluated the kind of its operands is stored in the profile of
+ * its origin token. As long as the operands keep the same kind the operator takes its monomorphic fast path,
+ * which reads the unboxed values straight from the operands instead of dispatching through Variable.Type.
+ * If the kind changes, or the operator has no fast path for it, the operator falls back to the generic
+ * path for good
+ */
+public final class InlineCache {
+
+    // kinds of operands
+    public static final int INT_INT = 0;
+    public static final int INT_FLOAT = 1;
+    public static final int FLOAT_INT = 2;
+    public static final int FLOAT_FLOAT = 3;
+    public static final int BOOLEAN_BOOLEAN = 4;
+
+    /** kinds of numeric operands, used as a mask of the kinds an operator supports */
+    public static final int NUMBERS = 1 << INT_INT | 1 << INT_FLOAT | 1 << FLOAT_INT | 1 << FLOAT_FLOAT;
+    public static final int BOOLEANS = 1 << BOOLEAN_BOOLEAN;
+
+    // profiles: 0 if the operator hasn't been evaluated yet, the kind + 1 if it's monomorphic
+    private static final int UNINITIALIZED = 0;
+    private static final int GENERIC = -1;
+
+
+    private InlineCache() {
+
+    }
+
+
+    /**
+     * Checks the kind of the operands against the one cached at the operator, caching it the first time.
+     * Variables are turned into literals holding their value, so that the fast path can read it directly
+     *
+     * @param operator the scratch copy of the operator
+     * @param a the left operand
+     * @param b the right operand
+     * @param supported mask of the kinds the operator has a fast path for
+     * @param table the symbol table to look the variables up in
+     * @return the kind of the operands or -1 if the generic path should be taken
+     */
+    public static int check(Token operator, Token a, Token b, int supported, SymbolTable table) throws UndeclaredVariableException {
+        Token site = operator.getOrigin();
+        int profile = site.getProfile();
+        if (profile == GENERIC)
+            return -1;
+
+        int kind = kindOf(load(a, table), load(b, table));
+
+        if (profile == UNINITIALIZED) {
+            // install the fast path
+            if (kind != -1 && (supported & 1 << kind) != 0) {
+                site.setProfile(kind + 1);
+                return kind;
+            }
+        } else if (profile == kind + 1) {
+            // guard: the operands are of the kind the fast path was installed for
+            return kind;
+        }
+
+        site.setProfile(GENERIC);
+        return -1;
+    }
+
+
+    /**
+     * Returns the value of a numeric literal loaded by check() as a double
+     */
+    public static double toDouble(Token token) {
+        if (token.getTag() == Variable.Type.INT)
+            return (int) token.getBits();
+        return Double.longBitsToDouble(token.getBits());
+    }
+
+
+    private static Variable.Type load(Token operand, SymbolTable table) throws UndeclaredVariableException {
+        if (operand == null)
+            return null;
+        if (operand.getType() == TokenType.TXT)
+            return operand.load(table.getVariableThrow(operand));
+        return operand.getTag();
+    }
+
+    private static int kindOf(Variable.Type a, Variable.Type b) {
+        if (a == null || b == null)
+            return -1;
+
+        return switch (a) {
+            case INT -> b == Variable.Type.INT ? INT_INT : b == Variable.Type.FLOAT ? INT_FLOAT : -1;
+            case FLOAT -> b == Variable.Type.INT ? FLOAT_INT : b == Variable.Type.FLOAT ? FLOAT_FLOAT : -1;
+            case BOOLEAN -> b == Variable.Type.BOOLEAN ? BOOLEAN_BOOLEAN : -1;
+            default -> -1;
+        };
+    }
+
+}
@@ -5,6 +5,7 @@ import org.gargiolang.exception.tokenization.UnrecognizedOperatorException;
 import org.gargiolang.tokenizer.tokens.Token;
 import org.gargiolang.tokenizer.tokens.TokenLine;
 import org.gargiolang.runtime.Interpreter;
+import org.gargiolang.runtime.Runtime;
 import org.gargiolang.runtime.variable.Variable;
 
 import java.util.Map;
@@ -66,18 +67,95 @@ public enum LogicalOperator {
     }
 
 
+    /**
+     * Returns the mask of the kinds of operands the operator has a fast path for, see InlineCache
+     */
+    private int fastPaths() {
+        return switch (this) {
+            case GR, LS, GRE, LSE -> InlineCache.NUMBERS;
+            case EQ, NE -> InlineCache.NUMBERS | InlineCache.BOOLEANS;
+            case AND, OR -> InlineCache.BOOLEANS;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Monomorphic fast path: the operands are literals of the given kind, see InlineCache.check()
+     */
+    private void evaluate(int kind, Token a, Token b, Token result) {
+        if (kind == InlineCache.BOOLEAN_BOOLEAN) {
+            boolean x = a.getBoolean();
+            boolean y = b.getBoolean();
+
+            switch (this) {
+                case EQ -> result.setBoolean(x == y);
+                case NE -> result.setBoolean(x != y);
+                case AND -> result.setBoolean(x && y);
+                case OR -> result.setBoolean(x || y);
+            }
+            return;
+        }
+
+        if (kind == InlineCache.INT_INT) {
+            int x = (int) a.getBits();
+            int y = (int) b.getBits();
+
+            switch (this) {
+                case GR -> result.setBoolean(x > y);
+                case LS -> result.setBoolean(x < y);
+                case GRE -> result.setBoolean(x >= y);
+                case LSE -> result.setBoolean(x <= y);
+                case EQ -> result.setBoolean(x == y);
+                case NE -> result.setBoolean(x != y);
+            }
+            return;
+        }
+
+        // at least one of the operands is a FLOAT
+        double x = InlineCache.toDouble(a);
+        double y = InlineCache.toDouble(b);
+
+        switch (this) {
+            case GR -> result.setBoolean(x > y);
+            case LS -> result.setBoolean(x < y);
+            case GRE -> result.setBoolean(x > y || x == y);
+            case LSE -> result.setBoolean(x < y || x == y);
+            case EQ -> result.setBoolean(x == y);
+            case NE -> result.setBoolean(!(x == y));
+        }
+    }
+
+
     public static void evaluate(Interpreter interpreter) throws EvaluationException {
 
         TokenLine line = interpreter.getLine();
         Token operator = interpreter.getCurrentToken();
+        Runtime runtime = interpreter.getRuntime();
+        LogicalOperator logicalOperator = (LogicalOperator) operator.getValue();
+
+        // take the fast path if the operands are of the kind cached at the operator
+        int fastPaths = logicalOperator.fastPaths();
+        if (fastPaths != 0) {
+            Token a = operator.getPrev();
+            Token b = operator.getNext();
+
+            int kind = InlineCache.check(operator, a, b, fastPaths, runtime.getSymbolTable());
+            if (kind != -1) {
+                logicalOperator.evaluate(kind, a, b, operator);
 
+                line.remove(a);
+                line.remove(b);
+                return;
+            }
+        }
 
-        switch ((LogicalOperator) operator.getValue()) {
+        switch (logicalOperator) {
             case GR -> {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, a.greaterThan(b));
+                // the operator is a scratch token, it gets replaced by the result without allocating a new token
+                a.greaterThan(b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -87,7 +165,7 @@ public enum LogicalOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, a.lessThan(b));
+                a.lessThan(b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -97,7 +175,7 @@ public enum LogicalOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, a.equalsTo(b));
+                a.equalsTo(b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -107,7 +185,7 @@ public enum LogicalOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, Variable.Type.or(a, b));
+                Variable.Type.or(a, b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -117,7 +195,7 @@ public enum LogicalOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, Variable.Type.and(a, b));
+                Variable.Type.and(a, b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -127,7 +205,7 @@ public enum LogicalOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, Variable.Type.greaterOrEquals(a, b));
+                Variable.Type.greaterOrEquals(a, b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -137,7 +215,7 @@ public enum LogicalOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, Variable.Type.lessOrEquals(a, b));
+                Variable.Type.lessOrEquals(a, b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
@@ -146,7 +224,7 @@ public enum LogicalOperator {
             case NOT -> {
                 Token a = operator.getNext();
 
-                line.replace(operator, a.not());
+                a.not(operator, runtime);
 
                 line.remove(a);
             }
@@ -155,7 +233,7 @@ public enum LogicalOperator {
                 Token a = operator.getPrev();
                 Token b = operator.getNext();
 
-                line.replace(operator, a.notEqualsTo(b));
+                a.notEqualsTo(b, operator, runtime);
 
                 line.remove(a);
                 line.remove(b);
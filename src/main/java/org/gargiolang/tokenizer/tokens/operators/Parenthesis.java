@@ -30,13 +30,14 @@ public enum Parenthesis {
                     if (token.getValue().equals(Parenthesis.OPEN)) {
                         if (parenCount == 0) {
                             firstLine = lineIndex;
-                            firstToken = token;
+                            // the current line is a scratch copy, refer to the script's token
+                            firstToken = token.getOrigin();
                         }
                         parenCount ++;
                     } else {
                         parenCount --;
                         if (parenCount == 0) {
-                            return new TokenBlock(firstLine, firstToken, lineIndex, token);
+                            return new TokenBlock(firstLine, firstToken, lineIndex, token.getOrigin());
                         }
                     }
                 }
@@ -3,7 +3,6 @@ package org.gargiolang.util;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.LinkedList;
 
 public final class ReflectionUtils {
 
@@ -11,11 +10,6 @@ public final class ReflectionUtils {
         return Class.forName(path);
     }
 
-    public static Object invokeSystemCall(String call, LinkedList<Object> args) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        Method method = org.gargiolang.runtime.lib.System.class.getDeclaredMethod(call, LinkedList.class);
-        return method.invoke(null, args);
-    }
-
     public static Object instantiateClass(Class<?> cls, Object[] constructor)
             throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         Class<?>[] classes = new Class[constructor.length];
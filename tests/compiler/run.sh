@@ -0,0 +1,27 @@
+#!/bin/sh
+# Compiles every script of the compiler corpus, runs it on the register VM (-c) and as a JVM class file (-jvm)
+# and checks that both leave the variables with the same values.
+# Usage, from the repository root after building the classes: sh tests/compiler/run.sh [classpath]
+
+CLASSPATH=${1:-target/classes}
+FAILED=0
+
+# only the final state of the variables is compared, the listings before it differ between the backends
+variables() {
+    java -cp "$CLASSPATH" org.gargiolang.GargioLang "$@" 2>&1 | sed -n '/^{$/,/^}$/p'
+}
+
+for script in tests/compiler/*.gl; do
+    expected=$(variables "$script" -c)
+    actual=$(variables "$script" -jvm)
+
+    if [ -n "$expected" ] && [ "$expected" = "$actual" ]; then
+        echo "ok      $script"
+    else
+        echo "FAILED  $script"
+        FAILED=1
+    fi
+done
+
+rm -f tests/compiler/*.class
+exit $FAILED
@@ -0,0 +1,34 @@
+#!/bin/sh
+# Runs every script of the conformance corpus with the token-rewriting interpreter and in tree mode (-t)
+# and checks that both produce the same output.
+# Usage, from the repository root after building the classes: sh tests/conformance/run.sh [classpath]
+
+CLASSPATH=${1:-target/classes}
+FAILED=0
+
+for script in tests/test.gl tests/conformance/*.gl; do
+    expected=$(java -cp "$CLASSPATH" org.gargiolang.GargioLang "$script" 2>&1)
+    actual=$(java -cp "$CLASSPATH" org.gargiolang.GargioLang "$script" -t 2>&1)
+
+    if [ "$expected" = "$actual" ]; then
+        echo "ok      $script"
+    else
+        echo "FAILED  $script"
+        FAILED=1
+    fi
+done
+
+# scripts of overflow/ must be stopped by a StackOverflowException in both modes, e.g. a recursion through a loop body
+# that runs out of the Java stack before the maximum depth of the CallStack is reached
+for script in tests/conformance/overflow/*.gl; do
+    for mode in "" -t; do
+        if java -cp "$CLASSPATH" org.gargiolang.GargioLang "$script" $mode 2>&1 | grep -q "StackOverflowException"; then
+            echo "ok      $script $mode"
+        else
+            echo "FAILED  $script $mode"
+            FAILED=1
+        fi
+    done
+done
+
+exit $FAILED